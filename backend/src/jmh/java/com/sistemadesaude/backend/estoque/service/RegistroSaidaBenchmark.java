@@ -0,0 +1,305 @@
+package com.sistemadesaude.backend.estoque.service;
+
+import com.sistemadesaude.backend.BackendApplication;
+import com.sistemadesaude.backend.estoque.dto.SaidaDTO;
+import com.sistemadesaude.backend.estoque.entity.Insumo;
+import com.sistemadesaude.backend.estoque.entity.LocalArmazenamento;
+import com.sistemadesaude.backend.estoque.entity.Lote;
+import com.sistemadesaude.backend.estoque.entity.Operacao;
+import com.sistemadesaude.backend.estoque.entity.Saida;
+import com.sistemadesaude.backend.estoque.entity.SaidaItem;
+import com.sistemadesaude.backend.estoque.enums.GeracaoEntradaTransferencia;
+import com.sistemadesaude.backend.estoque.enums.PoliticaCodigoSequencial;
+import com.sistemadesaude.backend.estoque.enums.TipoControleEstoque;
+import com.sistemadesaude.backend.estoque.enums.TipoOperacao;
+import com.sistemadesaude.backend.estoque.enums.TipoSaida;
+import com.sistemadesaude.backend.estoque.repository.InsumoRepository;
+import com.sistemadesaude.backend.estoque.repository.LocalArmazenamentoRepository;
+import com.sistemadesaude.backend.estoque.repository.LoteRepository;
+import com.sistemadesaude.backend.estoque.repository.OperacaoRepository;
+import com.sistemadesaude.backend.estoque.repository.SaidaItemRepository;
+import com.sistemadesaude.backend.estoque.repository.SaidaRepository;
+import com.sistemadesaude.backend.unidadesaude.entity.UnidadeSaude;
+import com.sistemadesaude.backend.unidadesaude.repository.UnidadeSaudeRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Itens de saída por segundo no {@link SaidaService#registrarSaida}: caminho antigo x caminho atual,
+ * ambos com os repositórios, o Hibernate e o PostgreSQL reais (contexto Spring da aplicação).
+ *
+ * - antigo: propriedades do item resolvidas por reflexão (getLongProp/getBigDecimalProp, vários
+ *   nomes candidatos) + loteRepo.findById + saidaItemRepo.save por item, débito em lote no fim.
+ * - atual: o próprio SaidaService (DTO tipado, uma consulta de existência dos lotes, itens em batch).
+ *
+ * Local, operação, insumo e lotes do benchmark são criados no setup e removidos no tearDown; cada
+ * operação roda numa transação marcada para rollback, então o saldo e as tabelas não crescem.
+ * A métrica "itens" (AuxCounters) dá os itens/s de cada caminho.
+ *
+ * Banco pelas variáveis da aplicação, obrigatórias (sem padrão):
+ * SPRING_DATASOURCE_URL, SPRING_DATASOURCE_USERNAME e SPRING_DATASOURCE_PASSWORD.
+ * Requer ao menos uma unidade de saúde cadastrada (dona do local de armazenamento).
+ *
+ * mvn -B -Pjmh -DskipTests compile exec:exec -Djmh.args="RegistroSaidaBenchmark"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegistroSaidaBenchmark {
+
+    private static final int LOTES = 50;
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("1000000");
+
+    @Param({"1", "10", "50"})
+    public int itens;
+
+    private ConfigurableApplicationContext contexto;
+    private TransactionTemplate transacao;
+    private SaidaService saidaService;
+    private EstoqueMovimentoService movService;
+    private LocalArmazenamentoRepository localRepo;
+    private OperacaoRepository operacaoRepo;
+    private LoteRepository loteRepo;
+    private SaidaRepository saidaRepo;
+    private SaidaItemRepository saidaItemRepo;
+    private InsumoRepository insumoRepo;
+
+    private Long localId;
+    private Long operacaoId;
+    private Long insumoId;
+    private final List<Long> loteIds = new ArrayList<>();
+    private SaidaDTO documento;
+
+    /** Itens gravados por segundo (reportado junto com as operações). */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Contador {
+        public long itens;
+
+        @Setup(Level.Iteration)
+        public void zerar() {
+            itens = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        contexto = new SpringApplicationBuilder(BackendApplication.class).run(
+                "--spring.datasource.url=" + obrigatoria("SPRING_DATASOURCE_URL"),
+                "--spring.datasource.username=" + obrigatoria("SPRING_DATASOURCE_USERNAME"),
+                "--spring.datasource.password=" + obrigatoria("SPRING_DATASOURCE_PASSWORD"),
+                "--server.port=0",
+                "--logging.level.root=WARN");
+
+        transacao = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        saidaService = contexto.getBean(SaidaService.class);
+        movService = contexto.getBean(EstoqueMovimentoService.class);
+        localRepo = contexto.getBean(LocalArmazenamentoRepository.class);
+        operacaoRepo = contexto.getBean(OperacaoRepository.class);
+        loteRepo = contexto.getBean(LoteRepository.class);
+        saidaRepo = contexto.getBean(SaidaRepository.class);
+        saidaItemRepo = contexto.getBean(SaidaItemRepository.class);
+        insumoRepo = contexto.getBean(InsumoRepository.class);
+
+        transacao.executeWithoutResult(status -> criarFixtures());
+
+        List<SaidaDTO.Item> lista = new ArrayList<>(itens);
+        for (int i = 0; i < itens; i++) {
+            lista.add(new SaidaDTO.Item(loteIds.get(i % LOTES), BigDecimal.valueOf(1 + i % 3)));
+        }
+        documento = SaidaDTO.builder()
+                .localId(localId)
+                .operacaoId(operacaoId)
+                .tipoSaida(TipoSaida.CONSUMO_PROPRIO)
+                .setorConsumo("Benchmark")
+                .itens(lista)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (contexto == null) return;
+        try {
+            transacao.executeWithoutResult(status -> removerFixtures());
+        } finally {
+            contexto.close();
+        }
+    }
+
+    @Benchmark
+    public void registrarAntigo(Contador contador, Blackhole bh) {
+        transacao.executeWithoutResult(status -> {
+            try {
+                bh.consume(registrarPorItem(documento));
+            } finally {
+                status.setRollbackOnly();
+            }
+        });
+        contador.itens += itens;
+    }
+
+    @Benchmark
+    public void registrarAtual(Contador contador, Blackhole bh) {
+        transacao.executeWithoutResult(status -> {
+            try {
+                bh.consume(saidaService.registrarSaida(documento));
+            } finally {
+                status.setRollbackOnly();
+            }
+        });
+        contador.itens += itens;
+    }
+
+    /** registrarSaida como era antes do DTO tipado: reflexão, findById e save por item. */
+    private Long registrarPorItem(Object dto) {
+        Long local = Reflexao.getLongProp(dto, "localId", "idLocal", "local");
+        Long operacao = Reflexao.getLongProp(dto, "operacaoId", "idOperacao", "operacao");
+        Saida saida = saidaRepo.save(Saida.builder()
+                .local(localRepo.findById(local).orElseThrow())
+                .operacao(operacaoRepo.findById(operacao).orElseThrow())
+                .tipoSaida(TipoSaida.CONSUMO_PROPRIO)
+                .dataHora(LocalDateTime.now())
+                .build());
+
+        Map<Long, BigDecimal> debitos = new HashMap<>();
+        for (Object it : Reflexao.getCollectionProp(dto, "itens", "items", "itensSaida")) {
+            Long loteId = Reflexao.getLongProp(it, "loteId", "idLote", "lote");
+            BigDecimal qtd = Reflexao.getBigDecimalProp(it, "quantidade", "qtd", "qtde");
+            Lote lote = loteRepo.findById(loteId)
+                    .orElseThrow(() -> new IllegalArgumentException("Lote não encontrado (id=" + loteId + ")."));
+            saidaItemRepo.save(SaidaItem.builder().saida(saida).lote(lote).quantidade(qtd).build());
+            debitos.merge(loteId, qtd, BigDecimal::add);
+        }
+        movService.debitarLote(local, debitos);
+        return saida.getId();
+    }
+
+    private void criarFixtures() {
+        UnidadeSaude unidade = contexto.getBean(UnidadeSaudeRepository.class)
+                .findAll(PageRequest.of(0, 1)).stream().findFirst()
+                .orElseThrow(() -> new IllegalStateException("Cadastre ao menos uma unidade de saúde no banco do benchmark."));
+
+        localId = localRepo.save(LocalArmazenamento.builder()
+                .nome("JMH - saída de estoque")
+                .unidadeSaude(unidade)
+                .politicaCodigoSequencial(PoliticaCodigoSequencial.NAO)
+                .geracaoEntradaTransferencia(GeracaoEntradaTransferencia.AO_CONFIRMAR)
+                .usaCodigoBarrasPorLote(false)
+                .ativo(true)
+                .build()).getId();
+        operacaoId = operacaoRepo.save(Operacao.builder()
+                .descricao("JMH - consumo próprio")
+                .tipo(TipoOperacao.SAIDA)
+                .tipoSaida(TipoSaida.CONSUMO_PROPRIO)
+                .build()).getId();
+        Insumo insumo = insumoRepo.save(Insumo.builder()
+                .descricao("JMH - insumo do benchmark")
+                .controleEstoque(TipoControleEstoque.LOTE)
+                .ativo(true)
+                .build());
+        insumoId = insumo.getId();
+
+        Map<Long, BigDecimal> saldos = new HashMap<>();
+        for (int i = 1; i <= LOTES; i++) {
+            Long loteId = loteRepo.save(Lote.builder()
+                    .insumo(insumo)
+                    .loteFabricante("JMH-" + i)
+                    .dataVencimento(LocalDate.now().plusYears(1))
+                    .build()).getId();
+            loteIds.add(loteId);
+            saldos.put(loteId, SALDO_INICIAL);
+        }
+        movService.creditarLote(localId, saldos);
+    }
+
+    private void removerFixtures() {
+        contexto.getBean(JdbcTemplate.class).update("DELETE FROM est_estoque_lote WHERE local_id = ?", localId);
+        loteRepo.deleteAllById(loteIds);
+        insumoRepo.deleteById(insumoId);
+        operacaoRepo.deleteById(operacaoId);
+        localRepo.deleteById(localId);
+    }
+
+    private static String obrigatoria(String nome) {
+        String v = System.getenv(nome);
+        if (v == null || v.isBlank()) {
+            throw new IllegalStateException("Defina " + nome + " (banco de desenvolvimento do benchmark).");
+        }
+        return v;
+    }
+
+    /** Resolução de propriedades por nomes candidatos, como no SaidaService antes do DTO tipado. */
+    static final class Reflexao {
+
+        private Reflexao() { }
+
+        static Long getLongProp(Object target, String... candidates) {
+            for (String name : candidates) {
+                Object v = valor(target, name);
+                if (v instanceof Number n) return n.longValue();
+                if (v != null) return Long.parseLong(v.toString());
+            }
+            return null;
+        }
+
+        static BigDecimal getBigDecimalProp(Object target, String... candidates) {
+            for (String name : candidates) {
+                Object v = valor(target, name);
+                if (v instanceof BigDecimal b) return b;
+                if (v instanceof Number n) return new BigDecimal(n.toString());
+                if (v != null) return new BigDecimal(v.toString());
+            }
+            return null;
+        }
+
+        static Collection<?> getCollectionProp(Object target, String... candidates) {
+            for (String name : candidates) {
+                if (valor(target, name) instanceof Collection<?> c) return c;
+            }
+            return List.of();
+        }
+
+        private static Object valor(Object target, String prop) {
+            try {
+                Method m = getterMethod(target, prop);
+                if (m != null) return m.invoke(target);
+                Field f = target.getClass().getDeclaredField(prop);
+                f.setAccessible(true);
+                return f.get(target);
+            } catch (Exception ignored) {
+                return null;
+            }
+        }
+
+        private static Method getterMethod(Object target, String prop) {
+            String base = prop.substring(0, 1).toUpperCase() + prop.substring(1);
+            for (String m : new String[]{"get" + base, "is" + base}) {
+                try {
+                    return target.getClass().getMethod(m);
+                } catch (NoSuchMethodException ignored) { }
+            }
+            return null;
+        }
+    }
+}
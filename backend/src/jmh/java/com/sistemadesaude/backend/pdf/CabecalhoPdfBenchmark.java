@@ -0,0 +1,130 @@
+package com.sistemadesaude.backend.pdf;
+
+import com.itextpdf.text.*;
+import com.itextpdf.text.pdf.ColumnText;
+import com.itextpdf.text.pdf.PdfPageEvent;
+import com.itextpdf.text.pdf.PdfPageEventHelper;
+import com.itextpdf.text.pdf.PdfWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cabeçalho padronizado dos PDFs (logo + nome do órgão): caminho antigo x caminho atual.
+ *
+ * - antigo: a cada página, fonte obtida do FontFactory e logo escalado/posicionado e desenhado
+ *   direto no conteúdo da página (mesma Image compartilhada, como o PdfBrandingService entregava).
+ * - atual: {@link PdfHeaderFooter} desenha o cabeçalho uma vez em um PdfTemplate (XObject) e só o
+ *   referencia nas páginas seguintes; fonte constante; cópia do logo por documento.
+ *
+ * Renderiza na thread do JMH (sem o pool), para isolar o custo do cabeçalho.
+ * A métrica "bytes" (AuxCounters) dá o volume de PDF gerado por segundo em cada caminho.
+ *
+ * mvn -B -Pjmh -DskipTests compile exec:exec -Djmh.args="CabecalhoPdfBenchmark"
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CabecalhoPdfBenchmark {
+
+    private static final String ORGAO = "UPA 24h Zona Norte";
+    private static final Font TEXTO = FontFactory.getFont(FontFactory.HELVETICA, 10);
+
+    @Param({"1", "3", "10"})
+    public int paginas;
+
+    private PdfBrandingService branding;
+    private Image logoCompartilhado;
+
+    /** Bytes de PDF gerados (reportado junto com as operações). */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Contador {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void zerar() {
+            bytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        branding = FixturesPdf.branding();
+        logoCompartilhado = branding.getLogoImageOrNull();
+    }
+
+    @Benchmark
+    public byte[] cabecalhoAntigo(Contador contador) {
+        return contar(contador, gerar(new CabecalhoPorPagina(logoCompartilhado, ORGAO)));
+    }
+
+    @Benchmark
+    public byte[] cabecalhoTemplate(Contador contador) {
+        PdfHeaderFooter evento = new PdfHeaderFooter(branding);
+        evento.setOrgNome(ORGAO);
+        return contar(contador, gerar(evento));
+    }
+
+    private static byte[] contar(Contador contador, byte[] pdf) {
+        contador.bytes += pdf.length;
+        return pdf;
+    }
+
+    private byte[] gerar(PdfPageEvent evento) {
+        Document documento = new Document(PageSize.A4, 30, 30, 60, 20);
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+            PdfWriter writer = PdfWriter.getInstance(documento, baos);
+            writer.setPageEvent(evento);
+            documento.open();
+            for (int p = 1; p <= paginas; p++) {
+                if (p > 1) documento.newPage();
+                documento.add(new Paragraph("Página " + p + " do documento clínico.", TEXTO));
+                documento.add(new Paragraph("Conteúdo mínimo: o custo medido é o do cabeçalho.", TEXTO));
+            }
+            documento.close();
+            return baos.toByteArray();
+        } catch (IOException | DocumentException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** PdfHeaderFooter como era antes do template: tudo redesenhado a cada página. */
+    static final class CabecalhoPorPagina extends PdfPageEventHelper {
+
+        private final Image logo;
+        private final String orgNome;
+
+        CabecalhoPorPagina(Image logo, String orgNome) {
+            this.logo = logo;
+            this.orgNome = orgNome;
+        }
+
+        @Override
+        public void onEndPage(PdfWriter writer, Document document) {
+            try {
+                final float headerTopY = document.getPageSize().getTop() - 20;
+                if (logo != null) {
+                    float sizeInPoints = 4.5f * 28.35f;
+                    logo.scaleAbsolute(sizeInPoints, sizeInPoints);
+                    float x = document.right() - logo.getScaledWidth();
+                    float y = headerTopY - logo.getScaledHeight();
+                    logo.setAbsolutePosition(x, y);
+                    writer.getDirectContent().addImage(logo);
+                }
+                if (orgNome != null && !orgNome.isBlank()) {
+                    Font f = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, BaseColor.DARK_GRAY);
+                    ColumnText.showTextAligned(writer.getDirectContent(), Element.ALIGN_LEFT,
+                            new Phrase(orgNome, f), document.left(), headerTopY - 10f, 0);
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.sistemadesaude.backend.pdf;
+
+import com.sistemadesaude.backend.atendimento.entity.Atendimento;
+import com.sistemadesaude.backend.atendimento.service.AtendimentoPdfService;
+import com.sistemadesaude.backend.documentos.dto.AtestadoDTO;
+import com.sistemadesaude.backend.documentos.dto.ReceituarioDTO;
+import com.sistemadesaude.backend.documentos.service.AtestadoPdfService;
+import com.sistemadesaude.backend.documentos.service.ReceituarioPdfService;
+import com.sistemadesaude.backend.exames.dto.SadtDTO;
+import com.sistemadesaude.backend.exames.service.SadtPdfService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geradores de PDF clínicos (atestado, receituário, SADT, atendimento) sob concorrência.
+ *
+ * - modo "chamador": a renderização roda na própria thread da requisição, como antes do
+ *   PdfRenderEngine (a thread do JMH recebe o prefixo do pool, e o motor executa direto).
+ * - modo "pool": caminho atual, pelo pool limitado do PdfRenderEngine (threads = nº de CPUs).
+ *
+ * Com mais threads de requisição que CPUs, o "pool" deve manter o throughput e limitar a CPU
+ * usada por PDFs; a diferença de latência média é a espera na fila.
+ * O custo do cabeçalho (template x desenho por página) fica em {@link CabecalhoPdfBenchmark}.
+ *
+ * mvn -B -Pjmh -DskipTests compile exec:exec -Djmh.args="DocumentosPdfBenchmark -t 8"
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class DocumentosPdfBenchmark {
+
+    @Param({"atestado", "receituario", "sadt", "atendimento"})
+    public String documento;
+
+    @Param({"chamador", "pool"})
+    public String modo;
+
+    private PdfRenderEngine engine;
+    private AtestadoPdfService atestadoService;
+    private ReceituarioPdfService receituarioService;
+    private SadtPdfService sadtService;
+    private AtendimentoPdfService atendimentoService;
+
+    private AtestadoDTO atestado;
+    private ReceituarioDTO receituario;
+    private SadtDTO sadt;
+    private Atendimento atendimento;
+
+    /** Thread da requisição: no modo "chamador" recebe o prefixo do pool durante a medição. */
+    @State(Scope.Thread)
+    public static class ThreadRequisicao {
+        private String nomeOriginal;
+
+        @Setup(Level.Trial)
+        public void setup(DocumentosPdfBenchmark benchmark) {
+            nomeOriginal = Thread.currentThread().getName();
+            if ("chamador".equals(benchmark.modo)) {
+                Thread.currentThread().setName("pdf-render-jmh-" + Thread.currentThread().getId());
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            Thread.currentThread().setName(nomeOriginal);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        engine = new PdfRenderEngine(new SimpleMeterRegistry(), 0, 256, 60_000);
+        PdfCreationService creation = new PdfCreationService(FixturesPdf.branding(), engine);
+        atestadoService = new AtestadoPdfService(engine);
+        receituarioService = new ReceituarioPdfService(engine);
+        sadtService = new SadtPdfService(creation);
+        atendimentoService = new AtendimentoPdfService(engine);
+
+        atestado = FixturesPdf.atestado();
+        receituario = FixturesPdf.receituario(6);
+        sadt = FixturesPdf.sadt(8);
+        atendimento = FixturesPdf.atendimento();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.encerrar();
+    }
+
+    @Benchmark
+    public byte[] gerar(ThreadRequisicao requisicao) {
+        return switch (documento) {
+            case "atestado" -> atestadoService.gerarPdf(atestado, null, null, null);
+            case "receituario" -> receituarioService.gerarPdf(receituario, null, null, null);
+            case "sadt" -> sadtService.gerarPdf(sadt);
+            case "atendimento" -> atendimentoService.gerarPdf(atendimento);
+            default -> throw new IllegalArgumentException(documento);
+        };
+    }
+}
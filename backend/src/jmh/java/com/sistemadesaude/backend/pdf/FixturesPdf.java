@@ -0,0 +1,147 @@
+package com.sistemadesaude.backend.pdf;
+
+import com.sistemadesaude.backend.atendimento.entity.Atendimento;
+import com.sistemadesaude.backend.documentos.dto.AtestadoDTO;
+import com.sistemadesaude.backend.documentos.dto.ReceituarioDTO;
+import com.sistemadesaude.backend.exames.dto.ProcedimentoSadtDTO;
+import com.sistemadesaude.backend.exames.dto.SadtDTO;
+import org.springframework.util.ReflectionUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Dados e dependências dos benchmarks de PDF (sem Spring, sem banco). */
+final class FixturesPdf {
+
+    private FixturesPdf() { }
+
+    /** PdfBrandingService apontando para um logo PNG 512x512 gerado em arquivo temporário. */
+    static PdfBrandingService branding() throws IOException {
+        BufferedImage img = new BufferedImage(512, 512, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        g.setColor(new Color(0, 102, 153));
+        g.fillOval(16, 16, 480, 480);
+        g.setColor(Color.WHITE);
+        g.fillRect(216, 96, 80, 320);
+        g.fillRect(96, 216, 320, 80);
+        g.dispose();
+
+        Path arquivo = Files.createTempFile("logo-benchmark-", ".png");
+        arquivo.toFile().deleteOnExit();
+        ImageIO.write(img, "png", arquivo.toFile());
+
+        // Caminho absoluto: Path.resolve devolve o próprio arquivo na busca em frontend/public
+        PdfBrandingService branding = new PdfBrandingService();
+        definirCampo(branding, "logoFilename", arquivo.toAbsolutePath().toString());
+        branding.aquecerCache();
+        if (branding.getLogoImageOrNull() == null) {
+            throw new IllegalStateException("Logo do benchmark não carregou: " + arquivo);
+        }
+        return branding;
+    }
+
+    static AtestadoDTO atestado() {
+        AtestadoDTO dto = new AtestadoDTO();
+        dto.setEstabelecimentoNome("UPA 24h Zona Norte");
+        dto.setEstabelecimentoCnpj("12.345.678/0001-90");
+        dto.setEstabelecimentoEndereco("Av. Brasil, 1000 - Centro");
+        dto.setTipo(AtestadoDTO.TipoAtestado.AFASTAMENTO);
+        dto.setMotivo("doença");
+        dto.setDiasAfastamento(3);
+        dto.setCid("J06.9");
+        dto.setConsentimentoCid(true);
+        dto.setMunicipio("Rio Claro");
+        dto.setUf("SP");
+        return dto;
+    }
+
+    static ReceituarioDTO receituario(int itens) {
+        ReceituarioDTO dto = new ReceituarioDTO();
+        dto.setEstabelecimentoNome("PREFEITURA MUNICIPAL DE RIO CLARO");
+        dto.setEstabelecimentoCnpj("12.345.678/0001-90");
+        dto.setUnidadeNome("UPA 24h Zona Norte");
+        dto.setPacienteNome("MARIA DA SILVA SOUZA");
+        dto.setPacienteCns("898 0012 3456 7890");
+        dto.setPacienteEndereco("Rua 7, 123 - Jardim Paulista");
+        dto.setPacienteMunicipio("Rio Claro");
+        List<ReceituarioDTO.ItemReceita> lista = new ArrayList<>();
+        for (int i = 1; i <= itens; i++) {
+            ReceituarioDTO.ItemReceita it = new ReceituarioDTO.ItemReceita();
+            it.setNome("DIPIRONA SÓDICA 500mg/mL " + i);
+            it.setQuantidade("1 frasco");
+            it.setVia("VO");
+            it.setDose("40 gotas");
+            it.setPosologia("de 6/6h se dor ou febre");
+            it.setDuracao("por 5 dias");
+            lista.add(it);
+        }
+        dto.setItens(lista);
+        return dto;
+    }
+
+    static SadtDTO sadt(int procedimentos) {
+        List<ProcedimentoSadtDTO> procs = new ArrayList<>();
+        for (int i = 1; i <= procedimentos; i++) {
+            procs.add(ProcedimentoSadtDTO.builder()
+                    .codigo("02020380" + i)
+                    .nome("Hemograma completo " + i)
+                    .quantidade(1)
+                    .cid10("R50.9")
+                    .justificativa("Investigação de quadro febril")
+                    .build());
+        }
+        return SadtDTO.builder()
+                .numeroSadt("SADT-2026-000123")
+                .pacienteId(1L)
+                .estabelecimentoNome("UPA 24h Zona Norte")
+                .estabelecimentoCnes("1234567")
+                .estabelecimentoTelefone("(19) 3500-0000")
+                .estabelecimentoMunicipio("Rio Claro")
+                .pacienteNome("MARIA DA SILVA SOUZA")
+                .pacienteCpf("123.456.789-00")
+                .pacienteDataNascimento("01/02/1980")
+                .solicitanteNome("Dr. João Pereira")
+                .solicitanteConselho("CRM")
+                .solicitanteNumeroConselho("123456")
+                .dataEmissao(LocalDateTime.now())
+                .tipoSadt("LABORATORIAL")
+                .procedimentos(procs)
+                .observacoes("Jejum de 8 horas")
+                .urgente(false)
+                .criadoPor("recepcao.benchmark")
+                .build();
+    }
+
+    static Atendimento atendimento() {
+        Atendimento a = new Atendimento();
+        a.setId(1L);
+        a.setPacienteId(1L);
+        a.setProfissionalId(2L);
+        a.setDataHora(LocalDateTime.now());
+        a.setDataAtualizacao(LocalDateTime.now());
+        a.setStatusAtendimento("FINALIZADO");
+        a.setCid10("J06.9");
+        a.setSintomas("Febre, dor de garganta e coriza há 3 dias");
+        a.setExamesFisicos("Orofaringe hiperemiada, sem exsudato. Ausculta pulmonar limpa.");
+        a.setDiagnostico("Infecção aguda das vias aéreas superiores");
+        a.setPrescricao("Dipirona 500mg de 6/6h se febre");
+        a.setMedicamentosPrescritos("Dipirona");
+        a.setOrientacoes("Hidratação, repouso, retorno se piora");
+        a.setObservacoes("Paciente orientado");
+        return a;
+    }
+
+    static void definirCampo(Object alvo, String nome, Object valor) {
+        var campo = ReflectionUtils.findField(alvo.getClass(), nome);
+        ReflectionUtils.makeAccessible(campo);
+        ReflectionUtils.setField(campo, alvo, valor);
+    }
+}
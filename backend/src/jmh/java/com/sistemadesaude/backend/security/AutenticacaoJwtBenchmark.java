@@ -0,0 +1,127 @@
+package com.sistemadesaude.backend.security;
+
+import com.sistemadesaude.backend.operador.entity.Operador;
+import com.sistemadesaude.backend.operador.repository.OperadorRepository;
+import com.sistemadesaude.backend.operador.security.UserDetailsCache;
+import com.sistemadesaude.backend.operador.security.UserDetailsServiceImpl;
+import com.sistemadesaude.backend.operador.service.JwtService;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Custo por requisição do JwtAuthenticationFilter: caminho antigo x caminho atual.
+ *
+ * - antigo: validateToken + extractUsername + loadUserByUsername + isTokenValid + extractAllClaims
+ *   (quatro parses/HMAC do token e uma ida ao banco por requisição).
+ * - atual: um único parse (parseClaimsOuNull) + snapshot do {@link UserDetailsCache}.
+ *
+ * O banco é simulado: o OperadorRepository devolve o operador após {@code latenciaBancoMicros}
+ * (0 = só CPU; 300 ≈ SELECT em operador + operador_perfis numa rede local). Os logs INFO por
+ * requisição do caminho antigo não entram na medida.
+ *
+ * mvn -B -Pjmh -DskipTests compile exec:exec -Djmh.args="AutenticacaoJwtBenchmark -f 1"
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AutenticacaoJwtBenchmark {
+
+    @Param({"0", "300"})
+    public long latenciaBancoMicros;
+
+    private JwtService jwtService;
+    private UserDetailsServiceImpl userDetailsService;
+    private UserDetailsCache userDetailsCache;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        jwtService = new JwtService();
+        definirCampo(jwtService, "secretKey", "minhaSuperSecretKeyParaJWT2024SistemaDeHealthCare123456789");
+        definirCampo(jwtService, "expiration", 36_800_000L);
+        jwtService.init();
+
+        Operador operador = Operador.builder()
+                .id(42L)
+                .login("recepcao.benchmark")
+                .nome("Operador Benchmark")
+                .senha("$2a$10$hashQualquerParaOBenchmark")
+                .ativo(true)
+                .isMaster(false)
+                .unidadeSaudeId(1L)
+                .unidadeAtualId(1L)
+                .perfis(List.of("RECEPCAO", "ENFERMAGEM", "FARMACIA"))
+                .build();
+
+        OperadorRepository repositorio = (OperadorRepository) Proxy.newProxyInstance(
+                OperadorRepository.class.getClassLoader(),
+                new Class<?>[]{OperadorRepository.class},
+                (proxy, metodo, args) -> {
+                    if ("findByLogin".equals(metodo.getName())) {
+                        if (latenciaBancoMicros > 0) LockSupport.parkNanos(latenciaBancoMicros * 1_000L);
+                        // Entidade nova a cada chamada, como o Hibernate faria fora do cache de 1º nível
+                        return Optional.of(Operador.builder()
+                                .id(operador.getId())
+                                .login(operador.getLogin())
+                                .nome(operador.getNome())
+                                .senha(operador.getSenha())
+                                .ativo(operador.getAtivo())
+                                .isMaster(operador.getIsMaster())
+                                .unidadeSaudeId(operador.getUnidadeSaudeId())
+                                .unidadeAtualId(operador.getUnidadeAtualId())
+                                .perfis(operador.getPerfis())
+                                .build());
+                    }
+                    if ("toString".equals(metodo.getName())) return "OperadorRepository(benchmark)";
+                    throw new UnsupportedOperationException(metodo.getName());
+                });
+
+        userDetailsService = new UserDetailsServiceImpl(repositorio);
+        userDetailsCache = new UserDetailsCache(userDetailsService, 60, 5_000);
+        token = jwtService.gerarToken(operador);
+    }
+
+    @Benchmark
+    public void filtroAntigo(Blackhole bh) {
+        if (jwtService.validateToken(token)) {
+            String login = jwtService.extractUsername(token);
+            UserDetails userDetails = userDetailsService.loadUserByUsername(login);
+            if (login != null && jwtService.isTokenValid(token, userDetails)) {
+                Claims claims = jwtService.extractAllClaims(token);
+                bh.consume(claims.get("isMaster", Boolean.class));
+                bh.consume(new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+            }
+        }
+    }
+
+    @Benchmark
+    public void filtroAtual(Blackhole bh) {
+        Claims claims = jwtService.parseClaimsOuNull(token);
+        if (claims != null && claims.getSubject() != null) {
+            String login = claims.getSubject();
+            UserDetails userDetails = userDetailsCache.obter(login);
+            if (login.equals(userDetails.getUsername())) {
+                bh.consume(new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+            }
+        }
+    }
+
+    private static void definirCampo(Object alvo, String nome, Object valor) {
+        var campo = ReflectionUtils.findField(alvo.getClass(), nome);
+        ReflectionUtils.makeAccessible(campo);
+        ReflectionUtils.setField(campo, alvo, valor);
+    }
+}
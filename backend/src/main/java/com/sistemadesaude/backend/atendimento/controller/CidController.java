@@ -1,6 +1,7 @@
 package com.sistemadesaude.backend.atendimento.controller;
 
 import com.sistemadesaude.backend.atendimento.entity.Cid;
+import com.sistemadesaude.backend.atendimento.service.CidIndice;
 import com.sistemadesaude.backend.atendimento.service.CidService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,6 +12,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/cid10")
@@ -19,6 +21,7 @@ import java.util.List;
 public class CidController {
 
     private final CidService cidService;
+    private final CidIndice cidIndice;
 
     @GetMapping("/buscar")
     @PreAuthorize("isAuthenticated()")
@@ -64,4 +67,22 @@ public class CidController {
         Page<Cid> cids = cidService.listarTodos(pageable);
         return ResponseEntity.ok(cids);
     }
+
+    @GetMapping("/indice")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Object>> statusIndice() {
+        return ResponseEntity.ok(Map.of(
+                "disponivel", cidIndice.disponivel(),
+                "total", cidIndice.tamanho(),
+                "carregadoEm", String.valueOf(cidIndice.carregadoEm())
+        ));
+    }
+
+    @PostMapping("/indice/recarregar")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MASTER', 'ADMINISTRADOR_SISTEMA', 'ADMINISTRADOR')")
+    public ResponseEntity<Map<String, Object>> recarregarIndice() {
+        int total = cidIndice.recarregar();
+        log.info("Índice CID recarregado manualmente: {} códigos", total);
+        return ResponseEntity.ok(Map.of("total", total));
+    }
 }
@@ -4,12 +4,12 @@ import com.sistemadesaude.backend.atendimento.entity.Atendimento;
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.PdfPCell;
 import com.itextpdf.text.pdf.PdfPTable;
-import com.itextpdf.text.pdf.PdfWriter;
 import com.itextpdf.text.pdf.draw.LineSeparator;
+import com.sistemadesaude.backend.pdf.PdfRenderEngine;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
 import java.time.format.DateTimeFormatter;
 
 /**
@@ -22,6 +22,7 @@ import java.time.format.DateTimeFormatter;
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class AtendimentoPdfService {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
@@ -31,38 +32,34 @@ public class AtendimentoPdfService {
     private static final Font NORMAL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 11, BaseColor.BLACK);
     private static final Font SMALL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 9, BaseColor.GRAY);
 
+    private final PdfRenderEngine pdfRenderEngine;
+
     public byte[] gerarPdf(Atendimento atendimento) {
         log.info("📄 Gerando PDF para atendimento ID: {}", atendimento.getId());
 
         try {
-            Document document = new Document(PageSize.A4);
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            PdfWriter.getInstance(document, baos);
-
-            document.open();
-
-            // Cabeçalho
-            adicionarCabecalho(document);
-
-            // Dados principais
-            adicionarDadosPrincipais(document, atendimento);
+            byte[] pdf = pdfRenderEngine.renderizar("atendimento", new Document(PageSize.A4), null, document -> {
+                // Cabeçalho
+                adicionarCabecalho(document);
 
-            // Dados clínicos
-            adicionarDadosClinicos(document, atendimento);
+                // Dados principais
+                adicionarDadosPrincipais(document, atendimento);
 
-            // Prescrições e orientações
-            adicionarPrescricoesOrientacoes(document, atendimento);
+                // Dados clínicos
+                adicionarDadosClinicos(document, atendimento);
 
-            // Desfecho do atendimento
-            adicionarDesfecho(document, atendimento);
+                // Prescrições e orientações
+                adicionarPrescricoesOrientacoes(document, atendimento);
 
-            // Rodapé
-            adicionarRodape(document, atendimento);
+                // Desfecho do atendimento
+                adicionarDesfecho(document, atendimento);
 
-            document.close();
+                // Rodapé
+                adicionarRodape(document, atendimento);
+            });
 
             log.info("✅ PDF gerado com sucesso para atendimento: {}", atendimento.getId());
-            return baos.toByteArray();
+            return pdf;
 
         } catch (Exception e) {
             log.error("❌ Erro ao gerar PDF para atendimento {}: {}", atendimento.getId(), e.getMessage(), e);
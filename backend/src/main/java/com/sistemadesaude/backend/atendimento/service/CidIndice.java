@@ -0,0 +1,288 @@
+package com.sistemadesaude.backend.atendimento.service;
+
+import com.sistemadesaude.backend.atendimento.entity.Cid;
+import com.sistemadesaude.backend.atendimento.repository.CidRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Índice em memória da tabela CID-10 (pequena e estática).
+ *
+ * Estruturas (imutáveis, trocadas atomicamente no reload):
+ * - Códigos normalizados (sem ponto, maiúsculos) em array ordenado: o intervalo de
+ *   um prefixo sai por busca binária (equivale a descer uma trie, sem nós em memória).
+ * - Índice invertido de prefixos de palavras (edge n-grams) das descrições, sem acento
+ *   e em minúsculas: "pneumo" → ids de "Pneumonia...", "Pneumotórax...".
+ *
+ * Ranking de {@link #buscar}: código exato → prefixo de código → descrição que começa
+ * com o termo → descrição contendo todas as palavras; desempate pela descrição mais curta.
+ *
+ * Nenhuma consulta ao banco após a carga. Recarga via {@link #recarregar()} (endpoint admin).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CidIndice {
+
+    private static final int PREFIXO_MIN = 2;
+    private static final int PREFIXO_MAX = 12;
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern ACENTOS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+
+    private final CidRepository cidRepository;
+
+    private volatile Snapshot snapshot = Snapshot.VAZIO;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarNaInicializacao() {
+        try {
+            recarregar();
+        } catch (Exception e) {
+            // Sem índice o CidService volta para as consultas no banco
+            log.warn("⚠️ Índice CID não carregado na inicialização: {}", e.getMessage());
+        }
+    }
+
+    /** Recarrega a tabela inteira e troca o snapshot de forma atômica. */
+    public synchronized int recarregar() {
+        long inicio = System.nanoTime();
+        List<Cid> todos = cidRepository.findAll(Sort.by("codigo"));
+        Snapshot novo = Snapshot.construir(todos);
+        this.snapshot = novo;
+        log.info("✅ Índice CID carregado: {} códigos, {} prefixos em {} ms",
+                novo.cids.length, novo.postings.size(), (System.nanoTime() - inicio) / 1_000_000);
+        return novo.cids.length;
+    }
+
+    public boolean disponivel() {
+        return snapshot.cids.length > 0;
+    }
+
+    public int tamanho() {
+        return snapshot.cids.length;
+    }
+
+    public LocalDateTime carregadoEm() {
+        return snapshot.carregadoEm;
+    }
+
+    /* =========================
+       Consultas
+       ========================= */
+
+    public Optional<Cid> porId(Long id) {
+        Integer i = snapshot.porId.get(id);
+        return i == null ? Optional.empty() : Optional.of(snapshot.cids[i]);
+    }
+
+    public Optional<Cid> porCodigoExato(String codigo) {
+        Snapshot s = snapshot;
+        int i = Arrays.binarySearch(s.chaves, normalizarCodigo(codigo));
+        return i >= 0 ? Optional.of(s.cids[i]) : Optional.empty();
+    }
+
+    /** Códigos que começam com o prefixo, em ordem de código (mais curtos primeiro). */
+    public List<Cid> porPrefixoCodigo(String prefixo, int limite) {
+        Snapshot s = snapshot;
+        String p = normalizarCodigo(prefixo);
+        if (p.isEmpty()) return List.of();
+
+        List<Integer> ids = new ArrayList<>();
+        for (int i = inicioPrefixo(s.chaves, p); i < s.chaves.length && s.chaves[i].startsWith(p); i++) {
+            ids.add(i);
+        }
+        ids.sort(Comparator.comparingInt((Integer i) -> s.chaves[i].length()).thenComparingInt(i -> i));
+        return materializar(s, ids, limite);
+    }
+
+    /** Busca apenas na descrição (sem acento, por prefixo de palavra). */
+    public List<Cid> porDescricao(String termo, int limite) {
+        Snapshot s = snapshot;
+        String consulta = dobrar(termo);
+        List<Candidato> candidatos = new ArrayList<>();
+        adicionarPorDescricao(s, consulta, candidatos);
+        candidatos.sort(null);
+        return materializar(s, candidatos.stream().map(Candidato::indice).toList(), limite);
+    }
+
+    /** Busca híbrida ranqueada: código e descrição. */
+    public List<Cid> buscar(String termo, int limite) {
+        if (termo == null || termo.isBlank()) return List.of();
+        Snapshot s = snapshot;
+
+        List<Candidato> candidatos = new ArrayList<>();
+        String codigo = normalizarCodigo(termo);
+        if (!codigo.isEmpty()) {
+            for (int i = inicioPrefixo(s.chaves, codigo); i < s.chaves.length && s.chaves[i].startsWith(codigo); i++) {
+                int rank = s.chaves[i].length() == codigo.length() ? 0 : 1;
+                candidatos.add(new Candidato(rank, s.chaves[i].length(), i));
+            }
+        }
+        adicionarPorDescricao(s, dobrar(termo), candidatos);
+
+        candidatos.sort(null);
+        LinkedHashSet<Integer> unicos = new LinkedHashSet<>();
+        for (Candidato c : candidatos) {
+            unicos.add(c.indice());
+            if (unicos.size() >= limite) break;
+        }
+        return materializar(s, new ArrayList<>(unicos), limite);
+    }
+
+    /* =========================
+       Internos
+       ========================= */
+
+    private void adicionarPorDescricao(Snapshot s, String consulta, List<Candidato> destino) {
+        String[] tokens = tokens(consulta);
+        if (tokens.length == 0) return;
+
+        int[] ids = null;
+        for (String t : tokens) {
+            int[] p = s.postings.get(t.length() > PREFIXO_MAX ? t.substring(0, PREFIXO_MAX) : t);
+            if (p == null) return;
+            ids = ids == null ? p : intersecao(ids, p);
+            if (ids.length == 0) return;
+        }
+
+        for (int i : ids) {
+            String desc = s.descricoes[i];
+            if (!contemPalavrasLongas(desc, tokens)) continue;
+            int rank = desc.startsWith(consulta) ? 2 : 3;
+            destino.add(new Candidato(rank, desc.length(), i));
+        }
+    }
+
+    /** Tokens acima de PREFIXO_MAX só foram indexados truncados: confirma a palavra inteira. */
+    private static boolean contemPalavrasLongas(String descricao, String[] tokens) {
+        for (String t : tokens) {
+            if (t.length() <= PREFIXO_MAX) continue;
+            boolean achou = false;
+            for (String palavra : SEPARADORES.split(descricao)) {
+                if (palavra.startsWith(t)) { achou = true; break; }
+            }
+            if (!achou) return false;
+        }
+        return true;
+    }
+
+    private static List<Cid> materializar(Snapshot s, List<Integer> indices, int limite) {
+        List<Cid> out = new ArrayList<>(Math.min(limite, indices.size()));
+        for (Integer i : indices) {
+            if (out.size() >= limite) break;
+            out.add(s.cids[i]);
+        }
+        return out;
+    }
+
+    private static int inicioPrefixo(String[] ordenado, String prefixo) {
+        int i = Arrays.binarySearch(ordenado, prefixo);
+        return i >= 0 ? i : -(i + 1);
+    }
+
+    private static int[] intersecao(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) { out[n++] = a[i]; i++; j++; }
+            else if (a[i] < b[j]) i++;
+            else j++;
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    static String normalizarCodigo(String codigo) {
+        if (codigo == null) return "";
+        return codigo.trim().toUpperCase(Locale.ROOT).replace(".", "").replace(" ", "");
+    }
+
+    /** Remove acentos e coloca em minúsculas. */
+    static String dobrar(String s) {
+        if (s == null) return "";
+        String n = Normalizer.normalize(s, Normalizer.Form.NFD);
+        return ACENTOS.matcher(n).replaceAll("").toLowerCase(Locale.ROOT).trim();
+    }
+
+    private static String[] tokens(String dobrado) {
+        return Arrays.stream(SEPARADORES.split(dobrado))
+                .filter(t -> t.length() >= PREFIXO_MIN)
+                .toArray(String[]::new);
+    }
+
+    private record Candidato(int rank, int tamanho, int indice) implements Comparable<Candidato> {
+        @Override
+        public int compareTo(Candidato o) {
+            if (rank != o.rank) return Integer.compare(rank, o.rank);
+            if (tamanho != o.tamanho) return Integer.compare(tamanho, o.tamanho);
+            return Integer.compare(indice, o.indice);
+        }
+    }
+
+    /** Estruturas imutáveis do índice. */
+    private static final class Snapshot {
+
+        static final Snapshot VAZIO = new Snapshot(new Cid[0], new String[0], new String[0], Map.of(), Map.of(), null);
+
+        final Cid[] cids;
+        final String[] chaves;        // código normalizado, ordenado
+        final String[] descricoes;    // descrição sem acento, minúscula
+        final Map<Long, Integer> porId;
+        final Map<String, int[]> postings;
+        final LocalDateTime carregadoEm;
+
+        private Snapshot(Cid[] cids, String[] chaves, String[] descricoes,
+                         Map<Long, Integer> porId, Map<String, int[]> postings, LocalDateTime carregadoEm) {
+            this.cids = cids;
+            this.chaves = chaves;
+            this.descricoes = descricoes;
+            this.porId = porId;
+            this.postings = postings;
+            this.carregadoEm = carregadoEm;
+        }
+
+        static Snapshot construir(List<Cid> fonte) {
+            List<Cid> ordenados = new ArrayList<>(fonte);
+            ordenados.removeIf(c -> c.getCodigo() == null);
+            ordenados.sort(Comparator.comparing(c -> normalizarCodigo(c.getCodigo())));
+
+            int n = ordenados.size();
+            Cid[] cids = ordenados.toArray(new Cid[0]);
+            String[] chaves = new String[n];
+            String[] descricoes = new String[n];
+            Map<Long, Integer> porId = new HashMap<>(n * 2);
+            Map<String, List<Integer>> acumulado = new HashMap<>();
+
+            for (int i = 0; i < n; i++) {
+                Cid c = cids[i];
+                chaves[i] = normalizarCodigo(c.getCodigo());
+                descricoes[i] = dobrar(c.getDescricao());
+                if (c.getId() != null) porId.put(c.getId(), i);
+
+                Set<String> prefixos = new HashSet<>();
+                for (String t : tokens(descricoes[i])) {
+                    for (int len = PREFIXO_MIN; len <= Math.min(PREFIXO_MAX, t.length()); len++) {
+                        prefixos.add(t.substring(0, len));
+                    }
+                }
+                for (String p : prefixos) {
+                    acumulado.computeIfAbsent(p, k -> new ArrayList<>()).add(i);
+                }
+            }
+
+            // Listas de postings já saem em ordem crescente (i cresce), prontas para interseção
+            Map<String, int[]> postings = new HashMap<>(acumulado.size() * 2);
+            acumulado.forEach((k, v) -> postings.put(k, v.stream().mapToInt(Integer::intValue).toArray()));
+
+            return new Snapshot(cids, chaves, descricoes, Map.copyOf(porId), Map.copyOf(postings), LocalDateTime.now());
+        }
+    }
+}
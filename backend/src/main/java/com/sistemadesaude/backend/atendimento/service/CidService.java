@@ -4,7 +4,6 @@ import com.sistemadesaude.backend.atendimento.entity.Cid;
 import com.sistemadesaude.backend.atendimento.repository.CidRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -14,7 +13,9 @@ import java.util.Map;
 import java.util.Optional;
 
 /**
- * Serviço otimizado para consultas CID na tabela existente
+ * Serviço otimizado para consultas CID na tabela existente.
+ * As buscas usam o {@link CidIndice} em memória; o banco só é consultado
+ * enquanto o índice não estiver carregado.
  */
 @Service
 @RequiredArgsConstructor
@@ -22,11 +23,11 @@ import java.util.Optional;
 public class CidService {
 
     private final CidRepository cidRepository;
+    private final CidIndice cidIndice;
 
     /**
      * ✅ BUSCA INTELIGENTE POR CÓDIGO
      */
-    @Cacheable(value = "cid-codigo", key = "#codigo", unless = "#result.isEmpty()")
     public List<Cid> buscarPorCodigo(String codigo) {
         log.debug("🔍 Buscando CID por código: {}", codigo);
 
@@ -34,6 +35,12 @@ public class CidService {
             return List.of();
         }
 
+        if (cidIndice.disponivel()) {
+            return cidIndice.porCodigoExato(codigo)
+                    .map(List::of)
+                    .orElseGet(() -> cidIndice.porPrefixoCodigo(codigo, 15));
+        }
+
         String codigoLimpo = codigo.trim().toUpperCase();
 
         // Busca exata primeiro
@@ -53,7 +60,6 @@ public class CidService {
     /**
      * ✅ BUSCA INTELIGENTE POR DESCRIÇÃO
      */
-    @Cacheable(value = "cid-descricao", key = "#descricao", unless = "#result.isEmpty()")
     public List<Cid> buscarPorDescricao(String descricao) {
         log.debug("🔍 Buscando CID por descrição: {}", descricao);
 
@@ -61,6 +67,10 @@ public class CidService {
             return List.of();
         }
 
+        if (cidIndice.disponivel()) {
+            return cidIndice.porDescricao(descricao, 15);
+        }
+
         // Usar método original para compatibilidade ou o otimizado
         List<Cid> resultados = cidRepository.buscarPorTermo(descricao.trim());
 
@@ -80,6 +90,10 @@ public class CidService {
 
         String termoLimpo = termo.trim();
 
+        if (cidIndice.disponivel()) {
+            return cidIndice.buscar(termoLimpo, 15);
+        }
+
         // Se parece com código CID, priorizar busca por código
         if (termoLimpo.matches("^[A-Z].*") || termoLimpo.matches("^[0-9].*")) {
             log.debug("🎯 Termo parece ser código, priorizando busca por código");
@@ -106,7 +120,6 @@ public class CidService {
     /**
      * ✅ BUSCA POR ID
      */
-    @Cacheable(value = "cid-id", key = "#id")
     public Optional<Cid> buscarPorId(Long id) {
         log.debug("🔍 Buscando CID por ID: {}", id);
 
@@ -114,6 +127,10 @@ public class CidService {
             return Optional.empty();
         }
 
+        if (cidIndice.disponivel()) {
+            return cidIndice.porId(id);
+        }
+
         return cidRepository.findById(id);
     }
 
@@ -135,7 +152,6 @@ public class CidService {
     /**
      * ✅ AUTOCOMPLETE RÁPIDO
      */
-    @Cacheable(value = "cid-autocomplete", key = "#termo", unless = "#result.isEmpty()")
     public List<Map<String, String>> autocomplete(String termo) {
         log.debug("⚡ Autocomplete CID: {}", termo);
 
@@ -143,6 +159,16 @@ public class CidService {
             return List.of();
         }
 
+        if (cidIndice.disponivel()) {
+            return cidIndice.buscar(termo.trim(), 8).stream()
+                    .map(cid -> Map.of(
+                            "codigo", cid.getCodigo(),
+                            "descricao", cid.getDescricao(),
+                            "label", cid.getCodigo() + " - " + cid.getDescricao()
+                    ))
+                    .toList();
+        }
+
         try {
             List<Object[]> resultados = cidRepository.findForAutocomplete(termo.trim());
 
@@ -181,6 +207,14 @@ public class CidService {
         String codigoBase = codigo.contains(".") ?
                 codigo.substring(0, codigo.indexOf(".")) : codigo;
 
+        if (cidIndice.disponivel()) {
+            String exato = CidIndice.normalizarCodigo(codigo);
+            return cidIndice.porPrefixoCodigo(codigoBase, 11).stream()
+                    .filter(c -> !CidIndice.normalizarCodigo(c.getCodigo()).equals(exato))
+                    .limit(10)
+                    .toList();
+        }
+
         try {
             return cidRepository.findCodigosRelacionados(codigoBase, codigo);
         } catch (Exception e) {
@@ -199,6 +233,10 @@ public class CidService {
             return List.of();
         }
 
+        if (cidIndice.disponivel()) {
+            return cidIndice.buscar(termo.trim(), 50);
+        }
+
         try {
             return cidRepository.buscarPorMultiplosCriterios(termo.trim());
         } catch (Exception e) {
@@ -210,11 +248,10 @@ public class CidService {
     /**
      * ✅ ESTATÍSTICAS DO SISTEMA
      */
-    @Cacheable(value = "cid-stats", key = "'stats'")
     public Map<String, Object> obterEstatisticas() {
         log.debug("📊 Obtendo estatísticas de CIDs");
 
-        long totalCids = cidRepository.countAll();
+        long totalCids = cidIndice.disponivel() ? cidIndice.tamanho() : cidRepository.countAll();
 
         return Map.of(
                 "totalCids", totalCids,
@@ -231,6 +268,9 @@ public class CidService {
         if (codigo == null || codigo.trim().isEmpty()) {
             return false;
         }
+        if (cidIndice.disponivel()) {
+            return cidIndice.porCodigoExato(codigo).isPresent();
+        }
         return cidRepository.existsByCodigo(codigo.trim());
     }
 }
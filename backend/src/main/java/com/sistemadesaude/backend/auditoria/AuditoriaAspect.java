@@ -1,7 +1,6 @@
 package com.sistemadesaude.backend.auditoria;
 
-import com.sistemadesaude.backend.operador.entity.Operador;
-import com.sistemadesaude.backend.operador.repository.OperadorRepository;
+import com.sistemadesaude.backend.operador.security.UserDetailsImpl;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.aspectj.lang.JoinPoint;
@@ -22,12 +21,14 @@ import java.util.Arrays;
  * Aspect de Auditoria CRUD:
  * - Intercepta automaticamente métodos mapeados como POST/PUT/DELETE
  *   em qualquer controller do pacote com.sistemadesaude.backend..controller..
- * - Salva um registro em audit_evento com: data/hora, operadorId (se resolver),
- *   entidade (deduzida da URL), operação (HTTP method), recurso (URI), payloadResumo e IP.
+ * - Monta um registro de audit_evento com: data/hora, operadorId (se resolver),
+ *   entidade (deduzida da URL), operação (HTTP method), recurso (URI), payloadResumo e IP,
+ *   e o entrega ao {@link AuditoriaBuffer}, que grava em lotes fora da thread do request.
  *
  * Observações:
  * - Não exige anotações nos controllers; já funciona "plug-and-play".
- * - Para obter operadorId, usa o SecurityContext (login) e busca no OperadorRepository.
+ * - Para obter operadorId, usa o principal (UserDetailsImpl) já presente no SecurityContext,
+ *   sem consultar o banco.
  * - Payload é um RESUMO seguro (nomes das classes dos args) para evitar vazamento.
  * - Requer a presença da tabela "audit_evento". Se ainda não existir, crie via Flyway.
  *
@@ -41,8 +42,7 @@ public class AuditoriaAspect {
 
     private static final Logger log = LoggerFactory.getLogger(AuditoriaAspect.class);
 
-    private final AuditEventoRepository auditRepo;
-    private final OperadorRepository operadorRepository;
+    private final AuditoriaBuffer auditoriaBuffer;
     private final HttpServletRequest request;
 
     /* =========================
@@ -95,7 +95,7 @@ public class AuditoriaAspect {
         // Descobre "entidade" de forma heurística pela URL (segmento após /api/)
         String entidade = deduzEntidadePorUri(recurso);
 
-        // Operador (quem): resolvemos via SecurityContext → login → repository
+        // Operador (quem): resolvemos via SecurityContext → principal
         Long operadorId = resolverOperadorId();
 
         // Resumo do payload: nomes de classes dos 3 primeiros argumentos do método
@@ -105,7 +105,7 @@ public class AuditoriaAspect {
                 .reduce((a, b) -> a + "," + b)
                 .orElse("");
 
-        // Monta e salva o evento
+        // Monta e enfileira o evento (gravação assíncrona em lote)
         AuditEvento ev = AuditEvento.builder()
                 .dataHora(LocalDateTime.now())
                 .operadorId(operadorId)
@@ -116,7 +116,7 @@ public class AuditoriaAspect {
                 .ip(ip)
                 .build();
 
-        auditRepo.save(ev);
+        auditoriaBuffer.enfileirar(ev);
     }
 
     /** Converte método HTTP em CREATE/UPDATE/DELETE */
@@ -154,8 +154,8 @@ public class AuditoriaAspect {
 
     /**
      * Resolve o ID do operador logado:
-     * - Pega o login de Authentication (SecurityContext)
-     * - Busca no OperadorRepository para obter o ID
+     * - Pega o principal de Authentication (SecurityContext)
+     * - Se for UserDetailsImpl, usa o ID já carregado na autenticação
      * Se não encontrar, retorna null (auditoria sem operadorId).
      */
     private Long resolverOperadorId() {
@@ -163,12 +163,10 @@ public class AuditoriaAspect {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             if (auth == null) return null;
 
-            String login = auth.getName();
-            if (login == null || login.isBlank()) return null;
-
-            return operadorRepository.findByLogin(login)
-                    .map(Operador::getId)
-                    .orElse(null);
+            if (auth.getPrincipal() instanceof UserDetailsImpl user) {
+                return user.getOperadorId();
+            }
+            return null;
         } catch (Exception e) {
             log.debug("Não foi possível resolver operadorId do SecurityContext: {}", e.getMessage());
             return null;
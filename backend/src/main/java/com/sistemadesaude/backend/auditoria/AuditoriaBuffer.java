@@ -0,0 +1,222 @@
+package com.sistemadesaude.backend.auditoria;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Buffer assíncrono de eventos de auditoria.
+ *
+ * Funcionamento:
+ * - O {@link AuditoriaAspect} apenas enfileira o evento (O(1), sem I/O na thread do request).
+ * - Uma thread dedicada grava os eventos em lotes JDBC quando:
+ *     a) a fila atinge o tamanho do lote, ou
+ *     b) o intervalo máximo de flush expira.
+ * - A fila é limitada: se lotar, o evento é descartado e contabilizado
+ *   (auditoria nunca pode derrubar ou travar o endpoint).
+ * - No shutdown a fila é drenada por completo antes do DataSource ser fechado.
+ *
+ * Métricas (Actuator/Micrometer):
+ * - auditoria.buffer.tamanho        → eventos aguardando gravação
+ * - auditoria.eventos.enfileirados  → total aceito no buffer
+ * - auditoria.eventos.descartados   → total descartado por buffer cheio
+ * - auditoria.eventos.gravados      → total persistido
+ * - auditoria.buffer.pressao        → vezes em que o lote cheio antecipou o flush
+ * - auditoria.flush                 → duração de cada gravação em lote
+ */
+@Component
+public class AuditoriaBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditoriaBuffer.class);
+
+    private static final String SQL_INSERT = """
+            INSERT INTO audit_evento (data_hora, operador_id, entidade, operacao, recurso, payload_resumo, ip)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int capacidade;
+    private final int tamanhoLote;
+    private final long intervaloFlushMs;
+
+    private final BlockingQueue<AuditEvento> fila;
+    private final AtomicBoolean flushAgendado = new AtomicBoolean(false);
+    private final Object lockFlush = new Object();
+
+    private final Counter enfileirados;
+    private final Counter descartados;
+    private final Counter gravados;
+    private final Counter pressao;
+    private final Timer tempoFlush;
+
+    private ScheduledExecutorService executor;
+
+    public AuditoriaBuffer(JdbcTemplate jdbcTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.auditoria.buffer.capacidade:10000}") int capacidade,
+                           @Value("${app.auditoria.buffer.tamanho-lote:200}") int tamanhoLote,
+                           @Value("${app.auditoria.buffer.intervalo-flush-ms:1000}") long intervaloFlushMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.capacidade = capacidade;
+        this.tamanhoLote = tamanhoLote;
+        this.intervaloFlushMs = intervaloFlushMs;
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+
+        Gauge.builder("auditoria.buffer.tamanho", fila, BlockingQueue::size)
+                .description("Eventos de auditoria aguardando gravação")
+                .register(meterRegistry);
+        Gauge.builder("auditoria.buffer.capacidade", () -> this.capacidade)
+                .description("Capacidade máxima do buffer de auditoria")
+                .register(meterRegistry);
+        this.enfileirados = Counter.builder("auditoria.eventos.enfileirados").register(meterRegistry);
+        this.descartados = Counter.builder("auditoria.eventos.descartados")
+                .description("Eventos descartados por buffer cheio")
+                .register(meterRegistry);
+        this.gravados = Counter.builder("auditoria.eventos.gravados").register(meterRegistry);
+        this.pressao = Counter.builder("auditoria.buffer.pressao")
+                .description("Flushes antecipados por lote cheio")
+                .register(meterRegistry);
+        this.tempoFlush = Timer.builder("auditoria.flush").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "auditoria-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::flushSeguro, intervaloFlushMs, intervaloFlushMs, TimeUnit.MILLISECONDS);
+        log.info("Buffer de auditoria iniciado (capacidade={}, lote={}, intervalo={}ms)",
+                capacidade, tamanhoLote, intervaloFlushMs);
+    }
+
+    /**
+     * Enfileira um evento sem bloquear. Retorna false se o buffer estiver cheio
+     * (evento descartado e contabilizado em auditoria.eventos.descartados).
+     */
+    public boolean enfileirar(AuditEvento evento) {
+        if (!fila.offer(evento)) {
+            descartados.increment();
+            return false;
+        }
+        enfileirados.increment();
+
+        // Lote cheio: antecipa o flush sem esperar o próximo ciclo
+        if (fila.size() >= tamanhoLote && executor != null && flushAgendado.compareAndSet(false, true)) {
+            pressao.increment();
+            try {
+                executor.execute(() -> {
+                    flushAgendado.set(false);
+                    flushSeguro();
+                });
+            } catch (Exception e) {
+                flushAgendado.set(false);
+            }
+        }
+        return true;
+    }
+
+    /** Quantidade de eventos pendentes (útil para diagnósticos). */
+    public int pendentes() {
+        return fila.size();
+    }
+
+    private void flushSeguro() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("Falha ao gravar lote de auditoria: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Grava em lotes tudo que estiver na fila no momento da chamada.
+     * Em caso de erro o lote volta para a fila (enquanto houver espaço).
+     */
+    void flush() {
+        synchronized (lockFlush) {
+            List<AuditEvento> lote = new ArrayList<>(tamanhoLote);
+            while (fila.drainTo(lote, tamanhoLote) > 0) {
+                try {
+                    tempoFlush.record(() -> gravarLote(lote));
+                    gravados.increment(lote.size());
+                } catch (RuntimeException e) {
+                    devolver(lote);
+                    throw e;
+                }
+                lote.clear();
+            }
+        }
+    }
+
+    private void gravarLote(List<AuditEvento> lote) {
+        jdbcTemplate.batchUpdate(SQL_INSERT, lote, lote.size(), (ps, ev) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(ev.getDataHora()));
+            if (ev.getOperadorId() != null) {
+                ps.setLong(2, ev.getOperadorId());
+            } else {
+                ps.setNull(2, Types.BIGINT);
+            }
+            ps.setString(3, ev.getEntidade());
+            ps.setString(4, ev.getOperacao());
+            ps.setString(5, ev.getRecurso());
+            ps.setString(6, ev.getPayloadResumo());
+            ps.setString(7, ev.getIp());
+        });
+    }
+
+    private void devolver(List<AuditEvento> lote) {
+        for (AuditEvento ev : lote) {
+            if (!fila.offer(ev)) {
+                descartados.increment();
+            }
+        }
+    }
+
+    /**
+     * Shutdown: para o agendador e drena a fila inteira.
+     * Executa antes do DataSource/JdbcTemplate serem destruídos (dependência do bean).
+     */
+    @PreDestroy
+    void encerrar() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        int restantes = fila.size();
+        try {
+            flush();
+            log.info("Buffer de auditoria encerrado ({} eventos gravados no shutdown)", restantes);
+        } catch (Exception e) {
+            log.error("Falha ao drenar auditoria no shutdown; {} eventos não gravados: {}",
+                    fila.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.sistemadesaude.backend.config;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Adia uma ação (invalidação de cache, foto de contadores) para depois do commit da transação atual.
+ *
+ * Executada antes do commit, uma leitura concorrente ainda veria o estado anterior e o colocaria de
+ * volta no cache; em rollback a ação simplesmente não roda. Sem transação ativa, executa na hora.
+ */
+public final class AposCommit {
+
+    private AposCommit() { }
+
+    public static void executar(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+}
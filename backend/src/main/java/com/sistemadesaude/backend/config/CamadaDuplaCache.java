@@ -0,0 +1,151 @@
+package com.sistemadesaude.backend.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Cache de duas camadas usado pelo {@link CamadaDuplaCacheManager}.
+ *
+ * Leitura:  L1 (Caffeine) → L2 (Redis) → loader; o que vem do L2 é promovido para o L1.
+ * Escrita:  L1 + L2 e publica invalidação para as outras instâncias.
+ * Falha no Redis: a operação segue só no L1 (nunca propaga erro para o request).
+ */
+class CamadaDuplaCache implements Cache {
+
+    private final String nome;
+    private final CaffeineCache l1;
+    private final Cache l2;
+    private final CamadaDuplaCacheManager manager;
+
+    CamadaDuplaCache(String nome, CaffeineCache l1, Cache l2, CamadaDuplaCacheManager manager) {
+        this.nome = nome;
+        this.l1 = l1;
+        this.l2 = l2;
+        this.manager = manager;
+    }
+
+    @Override
+    public String getName() {
+        return nome;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return l1.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper local = l1.get(key);
+        if (local != null) return local;
+
+        ValueWrapper remoto = lerL2(key);
+        if (remoto != null) {
+            l1.put(key, remoto.get());
+        }
+        return remoto;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper w = get(key);
+        if (w == null) return null;
+        Object v = w.get();
+        if (v != null && type != null && !type.isInstance(v)) {
+            throw new IllegalStateException("Valor em cache '" + nome + "' não é do tipo " + type.getName());
+        }
+        return (T) v;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return l1.get(key, () -> {
+            ValueWrapper remoto = lerL2(key);
+            if (remoto != null) return (T) remoto.get();
+
+            T valor = valueLoader.call();
+            escreverL2(key, valor);
+            return valor;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        l1.put(key, value);
+        escreverL2(key, value);
+        manager.publicarInvalidacao(nome, key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existente = get(key);
+        if (existente != null) return existente;
+        put(key, value);
+        return null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        l1.evict(key);
+        if (l2 != null && manager.l2Disponivel()) {
+            try {
+                l2.evict(key);
+            } catch (RuntimeException e) {
+                manager.marcarL2Indisponivel("evict", e);
+            }
+        }
+        manager.publicarInvalidacao(nome, key);
+    }
+
+    @Override
+    public void clear() {
+        l1.clear();
+        if (l2 != null && manager.l2Disponivel()) {
+            try {
+                l2.clear();
+            } catch (RuntimeException e) {
+                manager.marcarL2Indisponivel("clear", e);
+            }
+        }
+        manager.publicarInvalidacao(nome, null);
+    }
+
+    /* =========================
+       Usados pela invalidação remota (somente L1)
+       ========================= */
+
+    void removerLocal(String chaveTexto) {
+        l1.getNativeCache().asMap().keySet().removeIf(k -> chaveTexto.equals(String.valueOf(k)));
+    }
+
+    void limparLocal() {
+        l1.clear();
+    }
+
+    /* =========================
+       Acesso protegido ao L2
+       ========================= */
+
+    private ValueWrapper lerL2(Object key) {
+        if (l2 == null || !manager.l2Disponivel()) return null;
+        try {
+            return l2.get(key);
+        } catch (RuntimeException e) {
+            manager.marcarL2Indisponivel("get", e);
+            return null;
+        }
+    }
+
+    private void escreverL2(Object key, Object value) {
+        if (l2 == null || !manager.l2Disponivel()) return;
+        try {
+            l2.put(key, value);
+        } catch (RuntimeException e) {
+            manager.marcarL2Indisponivel("put", e);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.sistemadesaude.backend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * CacheManager em duas camadas:
+ * - L1: Caffeine local (near-cache), tamanho e TTL por cache.
+ * - L2: Redis compartilhado entre instance1/2/3 (opcional).
+ *
+ * Coerência entre instâncias:
+ * - Toda escrita/remoção publica uma mensagem no canal {@link #CANAL_INVALIDACAO}.
+ * - As demais instâncias removem a chave do próprio L1 e passam a ler do L2 no próximo acesso.
+ * - Caches locais fora deste manager (Caffeine próprio, ex.: PoliticaAcessoCache) usam o mesmo
+ *   canal via {@link #registrarCacheLocal} + {@link #publicarInvalidacao}.
+ *
+ * Tolerância a falhas:
+ * - Se o Redis falhar, o cache continua só com L1 e o L2 fica "desligado" por um período
+ *   de espera (evita pagar timeout de conexão em toda requisição).
+ */
+public class CamadaDuplaCacheManager implements CacheManager {
+
+    private static final Logger log = LoggerFactory.getLogger(CamadaDuplaCacheManager.class);
+
+    public static final String CANAL_INVALIDACAO = "cache:invalidacao";
+    private static final String SEPARADOR = "\u001F";
+
+    /** Política de um cache: capacidade e TTL do L1, TTL do L2. */
+    public record PoliticaCache(long tamanhoMaximoL1, Duration ttlL1, Duration ttlL2) { }
+
+    private final Map<String, PoliticaCache> politicas;
+    private final PoliticaCache politicaPadrao;
+    private final RedisCacheManager redisCacheManager;     // null = somente L1
+    private final StringRedisTemplate redisTemplate;       // null = sem invalidação distribuída
+    private final String instanciaId;
+    private final long esperaAposFalhaMs;
+
+    private final ConcurrentMap<String, CamadaDuplaCache> caches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Consumer<String>> cachesLocais = new ConcurrentHashMap<>();
+    private final AtomicLong l2IndisponivelAte = new AtomicLong(0);
+
+    public CamadaDuplaCacheManager(Map<String, PoliticaCache> politicas,
+                                   PoliticaCache politicaPadrao,
+                                   RedisCacheManager redisCacheManager,
+                                   StringRedisTemplate redisTemplate,
+                                   String instanciaId,
+                                   Duration esperaAposFalha) {
+        this.politicas = Map.copyOf(politicas);
+        this.politicaPadrao = politicaPadrao;
+        this.redisCacheManager = redisCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.instanciaId = instanciaId;
+        this.esperaAposFalhaMs = esperaAposFalha.toMillis();
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::criarCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private CamadaDuplaCache criarCache(String nome) {
+        PoliticaCache p = politicas.getOrDefault(nome, politicaPadrao);
+        CaffeineCache l1 = new CaffeineCache(nome, Caffeine.newBuilder()
+                .maximumSize(p.tamanhoMaximoL1())
+                .expireAfterWrite(p.ttlL1())
+                .recordStats()
+                .build());
+        Cache l2 = redisCacheManager == null ? null : redisCacheManager.getCache(nome);
+        return new CamadaDuplaCache(nome, l1, l2, this);
+    }
+
+    /* =========================
+       Estado do L2 (Redis)
+       ========================= */
+
+    boolean l2Disponivel() {
+        return redisCacheManager != null && System.currentTimeMillis() >= l2IndisponivelAte.get();
+    }
+
+    void marcarL2Indisponivel(String operacao, RuntimeException e) {
+        long agora = System.currentTimeMillis();
+        long anterior = l2IndisponivelAte.getAndSet(agora + esperaAposFalhaMs);
+        if (anterior <= agora) {
+            // Loga só na transição para "indisponível" para não inundar o log
+            log.warn("Redis indisponível em '{}'; operando apenas com cache local por {} ms: {}",
+                    operacao, esperaAposFalhaMs, e.getMessage());
+        }
+    }
+
+    /* =========================
+       Invalidação distribuída
+       ========================= */
+
+    /**
+     * Registra um cache local (fora deste manager) para receber as invalidações publicadas por
+     * outras instâncias. O consumidor recebe a chave como texto, ou null para "limpar tudo".
+     */
+    public void registrarCacheLocal(String nome, Consumer<String> invalidar) {
+        cachesLocais.put(nome, invalidar);
+    }
+
+    /** Publica a invalidação de uma chave (null = cache inteiro) para as demais instâncias. */
+    public void publicarInvalidacao(String cache, Object chave) {
+        if (redisTemplate == null || !l2Disponivel()) return;
+        String msg = instanciaId + SEPARADOR + cache + SEPARADOR + (chave == null ? "" : "K" + chave);
+        try {
+            redisTemplate.convertAndSend(CANAL_INVALIDACAO, msg);
+        } catch (RuntimeException e) {
+            marcarL2Indisponivel("publish", e);
+        }
+    }
+
+    /** Recebe mensagens do canal de invalidação (ver RedisConfig). */
+    public void onInvalidacao(String mensagem) {
+        String[] partes = mensagem.split(SEPARADOR, 3);
+        if (partes.length < 3 || instanciaId.equals(partes[0])) return;
+
+        CamadaDuplaCache cache = caches.get(partes[1]);
+        if (cache == null) {
+            Consumer<String> local = cachesLocais.get(partes[1]);
+            if (local != null) local.accept(partes[2].isEmpty() ? null : partes[2].substring(1));
+            return;
+        }
+
+        if (partes[2].isEmpty()) {
+            cache.limparLocal();
+        } else {
+            cache.removerLocal(partes[2].substring(1));
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.sistemadesaude.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repetição segura de requisições com Idempotency-Key (POST/PUT/PATCH/DELETE em /api/**).
+ *
+ * O gateway só repete requisições não idempotentes quando o cliente manda Idempotency-Key;
+ * a repetição pode cair em outra instância, por isso o estado fica no banco
+ * (idempotencia_requisicao) e não em memória.
+ *
+ * - Primeira requisição com a chave: reserva a linha (EM_ANDAMENTO, lease curto), executa e
+ *   guarda status + corpo (CONCLUIDA) por app.idempotencia.ttl-horas. Resposta 5xx ou exceção
+ *   libera a chave: a repetição executa de novo.
+ * - Enquanto a original executa, esta instância renova o lease a cada lease/4: a repetição recebe
+ *   409 até a linha ser concluída ou liberada, por mais que a original demore. A chave só é
+ *   retomada por outra requisição se o lease vencer sem renovação (instância da original caiu).
+ * - Repetição com a resposta pronta: devolve a resposta guardada com Idempotency-Replayed: true.
+ * - Repetição enquanto a original ainda executa: 409 com Retry-After.
+ * - Mesma chave em outro método/caminho: 422.
+ *
+ * A chave é do operador autenticado (login + ':' + Idempotency-Key). Requisições sem operador
+ * autenticado e /api/auth/** passam direto: a resposta (ex.: o JWT do login) nunca é guardada
+ * num espaço de chaves compartilhado. Roda depois do filtro de segurança, com o SecurityContext
+ * já preenchido.
+ */
+@Slf4j
+@Component
+public class IdempotenciaFilter extends OncePerRequestFilter {
+
+    public static final String HEADER_CHAVE = "Idempotency-Key";
+    public static final String HEADER_REPETIDA = "Idempotency-Replayed";
+
+    private static final Set<String> METODOS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final int TAMANHO_MAXIMO_CHAVE = 100;
+    private static final String PREFIXO_AUTH = "/api/auth/";
+
+    private static final String SQL_RESERVAR = """
+            INSERT INTO idempotencia_requisicao (chave, metodo, caminho, situacao, expira_em)
+            VALUES (?, ?, ?, 'EM_ANDAMENTO', ?)
+            ON CONFLICT (chave) DO UPDATE
+               SET metodo = EXCLUDED.metodo, caminho = EXCLUDED.caminho, situacao = 'EM_ANDAMENTO',
+                   http_status = NULL, content_type = NULL, corpo = NULL,
+                   criado_em = CURRENT_TIMESTAMP, expira_em = EXCLUDED.expira_em
+             WHERE idempotencia_requisicao.expira_em < CURRENT_TIMESTAMP
+            """;
+    private static final String SQL_BUSCAR =
+            "SELECT metodo, caminho, situacao, http_status, content_type, corpo FROM idempotencia_requisicao WHERE chave = ?";
+    private static final String SQL_CONCLUIR = """
+            UPDATE idempotencia_requisicao
+               SET situacao = 'CONCLUIDA', http_status = ?, content_type = ?, corpo = ?, expira_em = ?
+             WHERE chave = ?
+            """;
+    private static final String SQL_RENOVAR = """
+            UPDATE idempotencia_requisicao SET expira_em = ?
+             WHERE chave = ANY (?) AND situacao = 'EM_ANDAMENTO'
+            """;
+    private static final String SQL_LIBERAR = "DELETE FROM idempotencia_requisicao WHERE chave = ? AND situacao = 'EM_ANDAMENTO'";
+    private static final String SQL_EXPIRADAS = """
+            DELETE FROM idempotencia_requisicao
+             WHERE chave IN (SELECT chave FROM idempotencia_requisicao
+                              WHERE expira_em < CURRENT_TIMESTAMP LIMIT 1000)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean habilitado;
+    private final long ttlHoras;
+    private final long leaseSegundos;
+    private final int tamanhoMaximoCorpo;
+    private final Counter repetidas;
+    private final Counter conflitos;
+
+    /** Chaves reservadas por esta instância e ainda em execução (lease renovado em segundo plano) */
+    private final Set<String> emAndamento = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService executor;
+
+    public IdempotenciaFilter(JdbcTemplate jdbcTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.idempotencia.habilitado:true}") boolean habilitado,
+                              @Value("${app.idempotencia.ttl-horas:24}") long ttlHoras,
+                              @Value("${app.idempotencia.lease-segundos:60}") long leaseSegundos,
+                              @Value("${app.idempotencia.tamanho-maximo-corpo:2097152}") int tamanhoMaximoCorpo) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.habilitado = habilitado;
+        this.ttlHoras = ttlHoras;
+        this.leaseSegundos = leaseSegundos;
+        this.tamanhoMaximoCorpo = tamanhoMaximoCorpo;
+        this.repetidas = Counter.builder("idempotencia.respostas.repetidas")
+                .description("Requisições respondidas com a resposta guardada da original")
+                .register(meterRegistry);
+        this.conflitos = Counter.builder("idempotencia.conflitos")
+                .description("Repetições recusadas (original em andamento ou chave reutilizada)")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (!habilitado) return;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "idempotencia-limpeza");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::removerExpiradas, 10, 10, TimeUnit.MINUTES);
+        long renovacao = Math.max(1, leaseSegundos / 4);
+        executor.scheduleAtFixedRate(this::renovarLeases, renovacao, renovacao, TimeUnit.SECONDS);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !habilitado
+                || !METODOS.contains(request.getMethod())
+                || !request.getRequestURI().startsWith("/api/")
+                || request.getRequestURI().startsWith(PREFIXO_AUTH)
+                || request.getHeader(HEADER_CHAVE) == null
+                || operador() == null;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String chaveCliente = request.getHeader(HEADER_CHAVE).trim();
+        if (chaveCliente.isEmpty() || chaveCliente.length() > TAMANHO_MAXIMO_CHAVE) {
+            responderErro(response, HttpStatus.BAD_REQUEST,
+                    HEADER_CHAVE + " deve ter entre 1 e " + TAMANHO_MAXIMO_CHAVE + " caracteres");
+            return;
+        }
+        String chave = operador() + ":" + chaveCliente;
+        String metodo = request.getMethod();
+        String caminho = request.getRequestURI();
+
+        int reservadas = jdbcTemplate.update(SQL_RESERVAR, chave, metodo, caminho,
+                Timestamp.valueOf(LocalDateTime.now().plusSeconds(leaseSegundos)));
+        if (reservadas == 0) {
+            responderRepeticao(chave, metodo, caminho, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper resposta = new ContentCachingResponseWrapper(response);
+        boolean concluida = false;
+        emAndamento.add(chave);
+        try {
+            filterChain.doFilter(request, resposta);
+            concluida = guardar(chave, resposta);
+        } finally {
+            try {
+                if (!concluida) {
+                    jdbcTemplate.update(SQL_LIBERAR, chave);
+                }
+            } finally {
+                emAndamento.remove(chave);
+            }
+            resposta.copyBodyToResponse();
+        }
+    }
+
+    /** Guarda a resposta para as repetições; false se ela não deve ser guardada (5xx ou grande demais). */
+    private boolean guardar(String chave, ContentCachingResponseWrapper resposta) {
+        if (resposta.getStatus() >= 500) {
+            return false;
+        }
+        byte[] corpo = resposta.getContentAsByteArray();
+        if (corpo.length > tamanhoMaximoCorpo) {
+            log.warn("⚠️ Resposta de {} bytes excede o limite do cache de idempotência; chave {} liberada",
+                    corpo.length, chave);
+            return false;
+        }
+        jdbcTemplate.update(SQL_CONCLUIR, resposta.getStatus(), resposta.getContentType(), corpo,
+                Timestamp.valueOf(LocalDateTime.now().plusHours(ttlHoras)), chave);
+        return true;
+    }
+
+    private void responderRepeticao(String chave, String metodo, String caminho,
+                                    HttpServletResponse response) throws IOException {
+        List<Map<String, Object>> linhas = jdbcTemplate.queryForList(SQL_BUSCAR, chave);
+        if (linhas.isEmpty()) {
+            // a original acabou de ser liberada (5xx): o cliente pode repetir
+            conflitos.increment();
+            response.setHeader("Retry-After", "1");
+            responderErro(response, HttpStatus.CONFLICT, "Requisição original ainda em processamento");
+            return;
+        }
+        Map<String, Object> original = linhas.get(0);
+        if (!metodo.equals(original.get("metodo")) || !caminho.equals(original.get("caminho"))) {
+            conflitos.increment();
+            responderErro(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    HEADER_CHAVE + " já usada em outra requisição");
+            return;
+        }
+        if (!"CONCLUIDA".equals(original.get("situacao"))) {
+            conflitos.increment();
+            response.setHeader("Retry-After", "1");
+            responderErro(response, HttpStatus.CONFLICT, "Requisição original ainda em processamento");
+            return;
+        }
+
+        repetidas.increment();
+        log.debug("🔁 Resposta repetida para {} {} (chave {})", metodo, caminho, chave);
+        response.setStatus(((Number) original.get("http_status")).intValue());
+        response.setHeader(HEADER_REPETIDA, "true");
+        if (original.get("content_type") != null) {
+            response.setContentType((String) original.get("content_type"));
+        }
+        byte[] corpo = (byte[]) original.get("corpo");
+        if (corpo != null && corpo.length > 0) {
+            response.setContentLength(corpo.length);
+            response.getOutputStream().write(corpo);
+        }
+    }
+
+    private static void responderErro(HttpServletResponse response, HttpStatus status, String mensagem) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"status\":" + status.value() + ",\"message\":\"" + mensagem + "\"}");
+    }
+
+    /** Login do operador autenticado; null para requisição sem autenticação (ou anônima). */
+    private static String operador() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return auth.getName();
+    }
+
+    /** Estende o lease das chaves em execução nesta instância (a repetição segue recebendo 409). */
+    private void renovarLeases() {
+        if (emAndamento.isEmpty()) return;
+        try {
+            Object[] chaves = emAndamento.toArray();
+            jdbcTemplate.update(SQL_RENOVAR, ps -> {
+                ps.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now().plusSeconds(leaseSegundos)));
+                ps.setArray(2, ps.getConnection().createArrayOf("varchar", chaves));
+            });
+        } catch (Exception e) {
+            log.warn("⚠️ Falha ao renovar lease de {} chave(s) de idempotência: {}", emAndamento.size(), e.getMessage());
+        }
+    }
+
+    private void removerExpiradas() {
+        try {
+            int removidas = jdbcTemplate.update(SQL_EXPIRADAS);
+            if (removidas > 0) {
+                log.debug("🧹 {} chave(s) de idempotência expiradas removidas", removidas);
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ Falha ao limpar chaves de idempotência expiradas: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (executor != null) executor.shutdownNow();
+    }
+}
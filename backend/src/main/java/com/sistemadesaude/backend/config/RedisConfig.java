@@ -1,6 +1,8 @@
 package com.sistemadesaude.backend.config;
 
+import com.sistemadesaude.backend.config.CamadaDuplaCacheManager.PoliticaCache;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -11,13 +13,19 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @Configuration
 @EnableCaching
@@ -60,26 +68,69 @@ public class RedisConfig {
         return template;
     }
 
+    /**
+     * CacheManager em duas camadas (Caffeine L1 + Redis L2).
+     * Com app.cache.l2.enabled=false (padrão local) funciona só com Caffeine.
+     */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     @Value("${app.cache.l2.enabled:false}") boolean l2Habilitado,
+                                     @Value("${spring.application.name:saude-backend}") String appName) {
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(30))
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()));
 
-        Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
+        // Políticas por cache: tamanho/TTL do L1 (local) e TTL do L2 (Redis)
+        Map<String, PoliticaCache> politicas = new HashMap<>();
+        politicas.put("pacientes",     new PoliticaCache(2_000, Duration.ofMinutes(5), Duration.ofHours(2)));
+        politicas.put("operadores",    new PoliticaCache(1_000, Duration.ofMinutes(5), Duration.ofHours(1)));
+        politicas.put("configuracoes", new PoliticaCache(500, Duration.ofMinutes(10), Duration.ofHours(4)));
+        politicas.put("jwt-tokens",    new PoliticaCache(10_000, Duration.ofMinutes(10), Duration.ofHours(10)));
+        politicas.put("agendamentos",  new PoliticaCache(2_000, Duration.ofMinutes(1), Duration.ofMinutes(15)));
+        politicas.put("estaticos",     new PoliticaCache(5_000, Duration.ofHours(1), Duration.ofHours(24))); // CID, procedimentos, etc
+        // CID-10 é praticamente estático: L1 grande e longo evita o hop de rede nas buscas quentes
+        PoliticaCache cid = new PoliticaCache(20_000, Duration.ofHours(6), Duration.ofHours(24));
+        for (String nome : List.of("cid-codigo", "cid-id", "cid-descricao", "cid-autocomplete", "cid-stats")) {
+            politicas.put(nome, cid);
+        }
+        PoliticaCache padrao = new PoliticaCache(1_000, Duration.ofMinutes(5), Duration.ofMinutes(30));
+
+        RedisCacheManager redisCacheManager = null;
+        StringRedisTemplate invalidacao = null;
+        if (l2Habilitado) {
+            Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
+            politicas.forEach((nome, p) -> cacheConfigurations.put(nome, defaultConfig.entryTtl(p.ttlL2())));
+
+            redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                    .cacheDefaults(defaultConfig.entryTtl(padrao.ttlL2()))
+                    .withInitialCacheConfigurations(cacheConfigurations)
+                    .build();
+            redisCacheManager.afterPropertiesSet();
+            invalidacao = new StringRedisTemplate(connectionFactory);
+        }
 
-        // Cache específicos com TTL diferenciado
-        cacheConfigurations.put("pacientes", defaultConfig.entryTtl(Duration.ofHours(2)));
-        cacheConfigurations.put("operadores", defaultConfig.entryTtl(Duration.ofHours(1)));
-        cacheConfigurations.put("configuracoes", defaultConfig.entryTtl(Duration.ofHours(4)));
-        cacheConfigurations.put("jwt-tokens", defaultConfig.entryTtl(Duration.ofHours(10)));
-        cacheConfigurations.put("agendamentos", defaultConfig.entryTtl(Duration.ofMinutes(15)));
-        cacheConfigurations.put("estaticos", defaultConfig.entryTtl(Duration.ofHours(24))); // CID, procedimentos, etc
+        String instanciaId = appName + "-" + UUID.randomUUID();
+        return new CamadaDuplaCacheManager(politicas, padrao, redisCacheManager, invalidacao,
+                instanciaId, Duration.ofSeconds(30));
+    }
 
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(defaultConfig)
-                .withInitialCacheConfigurations(cacheConfigurations)
-                .build();
+    /**
+     * Assinatura do canal de invalidação do L1 entre instâncias.
+     * Só existe quando o L2 (Redis) está habilitado.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.l2.enabled", havingValue = "true")
+    public RedisMessageListenerContainer cacheInvalidacaoListener(RedisConnectionFactory connectionFactory,
+                                                                  CacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setRecoveryInterval(5_000L);
+        if (cacheManager instanceof CamadaDuplaCacheManager camadaDupla) {
+            container.addMessageListener(
+                    (message, pattern) -> camadaDupla.onInvalidacao(new String(message.getBody(), StandardCharsets.UTF_8)),
+                    new ChannelTopic(CamadaDuplaCacheManager.CANAL_INVALIDACAO));
+        }
+        return container;
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,10 @@
 package com.sistemadesaude.backend.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -13,15 +17,64 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
  * - Novas ocorrências
  * - Mudanças de status de regulação
  * - Atualizações de localização
+ *
+ * Modo do broker (app.websocket.broker.modo):
+ * - simples (padrão): broker em memória, uma instância só (também usado em dev/testes)
+ * - relay: STOMP relay para broker externo (RabbitMQ/ActiveMQ com plugin STOMP)
+ * - redis: broker em memória + {@link WebSocketPonteRedis} replicando /topic/samu/** entre instâncias
  */
+@Slf4j
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final WebSocketMetricasInterceptor metricasInterceptor;
+    private final ObjectProvider<WebSocketPonteRedis> ponteRedis;
+
+    @Value("${app.websocket.broker.modo:simples}")
+    private String modo;
+
+    @Value("${app.websocket.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${app.websocket.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${app.websocket.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${app.websocket.relay.passcode:guest}")
+    private String relayPasscode;
+
+    public WebSocketConfig(WebSocketMetricasInterceptor metricasInterceptor,
+                           ObjectProvider<WebSocketPonteRedis> ponteRedis) {
+        this.metricasInterceptor = metricasInterceptor;
+        this.ponteRedis = ponteRedis;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Habilita broker simples em memória
-        config.enableSimpleBroker("/topic", "/queue");
+        if ("relay".equalsIgnoreCase(modo)) {
+            // Broker externo: todas as instâncias publicam/assinam no mesmo lugar
+            config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode);
+            log.info("📡 WebSocket com STOMP relay em {}:{}", relayHost, relayPort);
+        } else {
+            // Habilita broker simples em memória
+            config.enableSimpleBroker("/topic", "/queue");
+        }
+
+        ChannelRegistration brokerChannel = config.configureBrokerChannel();
+        brokerChannel.interceptors(metricasInterceptor);
+        WebSocketPonteRedis ponte = ponteRedis.getIfAvailable();
+        if (ponte != null) {
+            brokerChannel.interceptors(ponte);
+        }
 
         // Prefixo para mensagens de aplicação
         config.setApplicationDestinationPrefixes("/app");
@@ -0,0 +1,63 @@
+package com.sistemadesaude.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Vazão por destino no canal do broker (qualquer modo).
+ *
+ * - websocket.mensagens{destino, origem}: mensagens entregues ao broker
+ *   (origem = local | ponte, esta última vinda de outra instância).
+ * - websocket.mensagens.bytes{destino}: tamanho do payload.
+ *
+ * Ids numéricos do destino viram {id} para não explodir a cardinalidade
+ * (/topic/samu/central/3/viaturas → /topic/samu/central/{id}/viaturas).
+ */
+@Component
+@RequiredArgsConstructor
+public class WebSocketMetricasInterceptor implements ChannelInterceptor {
+
+    private static final Pattern ID_NUMERICO = Pattern.compile("/\\d+(?=/|$)");
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Counter> contadores = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> tamanhos = new ConcurrentHashMap<>();
+
+    @Override
+    public void postSend(Message<?> message, MessageChannel channel, boolean sent) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        if (!sent || accessor.getMessageType() != SimpMessageType.MESSAGE || accessor.getDestination() == null) {
+            return;
+        }
+
+        String destino = ID_NUMERICO.matcher(accessor.getDestination()).replaceAll("/{id}");
+        String origem = accessor.getFirstNativeHeader(WebSocketPonteRedis.HEADER_ORIGEM) != null ? "ponte" : "local";
+
+        contadores.computeIfAbsent(destino + '|' + origem, k -> Counter.builder("websocket.mensagens")
+                        .tag("destino", destino)
+                        .tag("origem", origem)
+                        .register(meterRegistry))
+                .increment();
+
+        if (message.getPayload() instanceof byte[] bytes) {
+            tamanhos.computeIfAbsent(destino, k -> DistributionSummary.builder("websocket.mensagens.bytes")
+                            .baseUnit("bytes")
+                            .tag("destino", destino)
+                            .register(meterRegistry))
+                    .record(bytes.length);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.sistemadesaude.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Ponte Redis pub/sub entre instâncias (app.websocket.broker.modo=redis).
+ *
+ * Cada instância mantém o broker simples local; mensagens publicadas localmente em
+ * destinos com o prefixo configurado (padrão /topic/samu/) são republicadas no canal
+ * {@link #CANAL}. As demais instâncias reinjetam no próprio broker marcando o header
+ * {@link #HEADER_ORIGEM}, o que evita reenvio em laço.
+ *
+ * Formato: instanciaId␟destino␟content-type␟payload (UTF-8).
+ * Redis fora do ar não bloqueia a entrega local: só conta a falha.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.websocket.broker.modo", havingValue = "redis")
+public class WebSocketPonteRedis implements ChannelInterceptor {
+
+    public static final String CANAL = "ws:broadcast";
+    public static final String HEADER_ORIGEM = "x-ponte-origem";
+    private static final String SEP = "\u001F";
+
+    private final RedisConnectionFactory connectionFactory;
+    private final StringRedisTemplate redis;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final String prefixo;
+    private final String instanciaId;
+
+    private final Counter publicadas;
+    private final Counter recebidas;
+    private final Counter falhas;
+
+    private RedisMessageListenerContainer container;
+
+    public WebSocketPonteRedis(RedisConnectionFactory connectionFactory,
+                               @Lazy SimpMessagingTemplate messagingTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.websocket.ponte.prefixo:/topic/samu/}") String prefixo,
+                               @Value("${spring.application.name:saude-backend}") String appName) {
+        this.connectionFactory = connectionFactory;
+        this.redis = new StringRedisTemplate(connectionFactory);
+        this.messagingTemplate = messagingTemplate;
+        this.prefixo = prefixo;
+        this.instanciaId = appName + "-" + UUID.randomUUID();
+
+        this.publicadas = meterRegistry.counter("websocket.ponte.publicadas");
+        this.recebidas = meterRegistry.counter("websocket.ponte.recebidas");
+        this.falhas = meterRegistry.counter("websocket.ponte.falhas");
+    }
+
+    @PostConstruct
+    void assinar() {
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setRecoveryInterval(5_000L);
+        container.addMessageListener(
+                (message, pattern) -> receber(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(CANAL));
+        container.afterPropertiesSet();
+        container.start();
+        log.info("🔀 Ponte WebSocket via Redis ativa ({} → {})", prefixo, CANAL);
+    }
+
+    @PreDestroy
+    void encerrar() throws Exception {
+        if (container != null) {
+            container.destroy();
+        }
+    }
+
+    /** Saída: republica no Redis o que foi publicado nesta instância. */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        String destino = accessor.getDestination();
+        if (accessor.getMessageType() != SimpMessageType.MESSAGE
+                || destino == null || !destino.startsWith(prefixo)
+                || accessor.getFirstNativeHeader(HEADER_ORIGEM) != null) {
+            return message;
+        }
+
+        try {
+            MimeType tipo = accessor.getContentType() != null ? accessor.getContentType() : MimeTypeUtils.APPLICATION_JSON;
+            redis.convertAndSend(CANAL, instanciaId + SEP + destino + SEP + tipo + SEP + payloadComoTexto(message.getPayload()));
+            publicadas.increment();
+        } catch (Exception e) {
+            falhas.increment();
+            log.debug("Falha ao publicar {} na ponte Redis: {}", destino, e.getMessage());
+        }
+        return message;
+    }
+
+    /** Entrada: reinjeta no broker local o que veio de outra instância. */
+    void receber(String bruto) {
+        String[] partes = bruto.split(SEP, 4);
+        if (partes.length != 4 || instanciaId.equals(partes[0])) {
+            return;
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(partes[1]);
+        accessor.setContentType(MimeType.valueOf(partes[2]));
+        accessor.setNativeHeader(HEADER_ORIGEM, partes[0]);
+        accessor.setLeaveMutable(true);
+
+        messagingTemplate.send(partes[1],
+                MessageBuilder.createMessage(partes[3].getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders()));
+        recebidas.increment();
+    }
+
+    private static String payloadComoTexto(Object payload) {
+        if (payload instanceof byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        return String.valueOf(payload);
+    }
+}
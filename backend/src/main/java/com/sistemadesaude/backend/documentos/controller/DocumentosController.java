@@ -18,12 +18,15 @@ import com.sistemadesaude.backend.unidadesaude.repository.UnidadeSaudeRepository
 import com.sistemadesaude.backend.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 /**
@@ -217,7 +220,7 @@ public class DocumentosController {
     // =========================================================================
     
     @GetMapping("/{id}/download")
-    public ResponseEntity<byte[]> downloadDocumento(@PathVariable Long id) {
+    public ResponseEntity<Resource> downloadDocumento(@PathVariable Long id) {
         log.info("📥 Download solicitado para documento ID: {}", id);
         
         try {
@@ -225,25 +228,22 @@ public class DocumentosController {
             Documento documento = documentoService.buscarPorId(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Documento não encontrado: " + id));
 
-            // 2. Recuperar conteúdo do arquivo (com verificação de integridade)
-            byte[] conteudo = documentoService.recuperarConteudoDocumento(id);
+            // 2. Arquivo do documento (servido em streaming, sem carregar em memória)
+            Resource arquivo = documentoService.recuperarArquivoDocumento(id);
 
-            // 3. Preparar cabeçalhos HTTP
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentLength(conteudo.length);
-            
-            // Nome do arquivo para download
+            // 3. Nome do arquivo para download
             String filename = documento.getNomeArquivo() != null 
                 ? documento.getNomeArquivo() 
                 : documento.getTipo().name().toLowerCase() + "_" + id + ".pdf";
-            
-            headers.setContentDispositionFormData("inline", filename);
 
-            log.info("✅ Download do documento {} concluído. Tamanho: {} bytes", id, conteudo.length);
+            // ETag = hash do conteúdo: o Spring responde 304 (If-None-Match) e 206 (Range)
             return ResponseEntity.ok()
-                .headers(headers)
-                .body(conteudo);
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                        .filename(filename, StandardCharsets.UTF_8).build().toString())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .eTag("\"" + documento.getHash() + "\"")
+                .body(arquivo);
 
         } catch (ResourceNotFoundException e) {
             log.warn("❌ Documento não encontrado: {}", e.getMessage());
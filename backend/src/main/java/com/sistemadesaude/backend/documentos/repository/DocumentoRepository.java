@@ -3,6 +3,7 @@ package com.sistemadesaude.backend.documentos.repository;
 import com.sistemadesaude.backend.documentos.entity.Documento;
 import com.sistemadesaude.backend.documentos.entity.Documento.TipoDocumento;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -81,10 +82,11 @@ public interface DocumentoRepository extends JpaRepository<Documento, Long> {
     List<Documento> findTop10ByPacienteIdAndAtivoTrueOrderByCreatedAtDesc(@Param("pacienteId") Long pacienteId);
 
     /**
-     * Marca documento como inativo (soft delete)
+     * Marca documento como inativo (soft delete). Retorna 1 se o documento estava ativo.
      */
-    @Query("UPDATE Documento d SET d.ativo = false WHERE d.id = :id")
-    void marcarComoInativo(@Param("id") Long id);
+    @Modifying
+    @Query("UPDATE Documento d SET d.ativo = false WHERE d.id = :id AND d.ativo = true")
+    int marcarComoInativo(@Param("id") Long id);
 
     /**
      * Busca documentos por nome de arquivo (busca parcial)
@@ -0,0 +1,228 @@
+package com.sistemadesaude.backend.documentos.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Armazenamento de arquivos endereçado por conteúdo (SHA-256), com deduplicação real.
+ *
+ * - Caminho: {base}/{hash[0..2]}/{hash[2..4]}/{hash}. Os dois níveis de diretório
+ *   evitam pastas com milhões de arquivos.
+ * - Referências: a tabela conteudo_blob conta quantos documentos usam cada arquivo.
+ *   {@link #armazenar} soma uma referência e só grava se o arquivo ainda não existe;
+ *   {@link #liberar} subtrai. Arquivos sem referência são apagados pelo
+ *   {@link ConteudoScrubber} após o período de carência.
+ * - Ordem em armazenar: primeiro a referência (trava a linha na transação do chamador),
+ *   depois o arquivo. Assim o scrubber nunca apaga um arquivo que está sendo reaproveitado.
+ * - Rollback do chamador: a linha criada some junto; o arquivo gravado por esta chamada é
+ *   apagado antes do fim do rollback. Arquivos que ainda assim ficarem sem linha (queda do
+ *   processo entre a gravação e o commit) são recolhidos pela varredura de órfãos do scrubber.
+ * - Integridade: o hash é calculado uma vez, na gravação (arquivo temporário + conferência
+ *   de tamanho + move atômico); a releitura completa fica com o scrubber, não com o download.
+ * - Em várias instâncias, app.storage.conteudo.path deve ser um volume compartilhado.
+ */
+@Slf4j
+@Service
+public class ArmazenamentoConteudoService {
+
+    private static final String SQL_ADQUIRIR = """
+            INSERT INTO conteudo_blob (hash, tamanho_bytes, referencias, atualizado_em)
+            VALUES (?, ?, 1, CURRENT_TIMESTAMP)
+            ON CONFLICT (hash) DO UPDATE
+               SET referencias = conteudo_blob.referencias + 1, atualizado_em = CURRENT_TIMESTAMP
+            RETURNING referencias
+            """;
+    private static final String SQL_LIBERAR = """
+            UPDATE conteudo_blob
+               SET referencias = GREATEST(referencias - 1, 0), atualizado_em = CURRENT_TIMESTAMP
+             WHERE hash = ?
+            """;
+
+    private final Path base;
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter gravados;
+    private final Counter deduplicados;
+
+    public ArmazenamentoConteudoService(JdbcTemplate jdbcTemplate,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${app.storage.conteudo.path:storage/conteudo}") String base) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.base = Paths.get(base).toAbsolutePath().normalize();
+        this.gravados = Counter.builder("conteudo.arquivos.gravados")
+                .description("Arquivos novos gravados no armazenamento de conteúdo")
+                .register(meterRegistry);
+        this.deduplicados = Counter.builder("conteudo.arquivos.deduplicados")
+                .description("Gravações evitadas porque o mesmo conteúdo já existia")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra uma referência ao conteúdo e grava o arquivo se ainda não existir.
+     * Participa da transação do chamador: se ela fizer rollback, a referência volta junto e,
+     * se o arquivo foi gravado por esta chamada, ele é apagado (ver {@link #apagarSeRollback}).
+     *
+     * @return hash SHA-256 (hexadecimal) do conteúdo
+     */
+    public String armazenar(byte[] conteudo) {
+        String hash = sha256(conteudo);
+        Integer referencias = jdbcTemplate.queryForObject(SQL_ADQUIRIR, Integer.class, hash, (long) conteudo.length);
+        if (gravarArquivo(hash, conteudo)) {
+            gravados.increment();
+            apagarSeRollback(hash);
+        } else {
+            deduplicados.increment();
+            log.debug("♻️ Conteúdo {} reaproveitado ({} referências)", hash, referencias);
+        }
+        return hash;
+    }
+
+    /** Remove uma referência ao conteúdo. O arquivo só é apagado depois, pelo scrubber. */
+    public void liberar(String hash) {
+        if (hash == null) return;
+        jdbcTemplate.update(SQL_LIBERAR, hash);
+    }
+
+    /** Arquivo do conteúdo para download em streaming; null se o arquivo não existe. */
+    public Resource recurso(String hash) {
+        Path arquivo = caminho(hash);
+        return Files.isRegularFile(arquivo) ? new FileSystemResource(arquivo) : null;
+    }
+
+    /** Caminho do arquivo de um hash (o arquivo pode não existir). */
+    public Path caminho(String hash) {
+        if (!hashValido(hash)) {
+            throw new IllegalArgumentException("Hash SHA-256 inválido: " + hash);
+        }
+        return base.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    /** Diretório raiz do armazenamento (varrido pelo scrubber em busca de órfãos). */
+    Path base() {
+        return base;
+    }
+
+    static boolean hashValido(String hash) {
+        return hash != null && hash.length() == 64 && hash.chars().allMatch(c -> Character.digit(c, 16) >= 0);
+    }
+
+    public boolean existe(String hash) {
+        return hash != null && Files.isRegularFile(caminho(hash));
+    }
+
+    /** Relê o arquivo inteiro em streaming e confere o hash (usado pelo scrubber). */
+    public boolean verificar(String hash) {
+        Path arquivo = caminho(hash);
+        if (!Files.isRegularFile(arquivo)) return false;
+        try (InputStream in = Files.newInputStream(arquivo)) {
+            return hash.equalsIgnoreCase(sha256(in));
+        } catch (IOException e) {
+            log.warn("⚠️ Falha ao reler conteúdo {}: {}", hash, e.getMessage());
+            return false;
+        }
+    }
+
+    /** Apaga o arquivo do conteúdo (chamado pelo scrubber com a linha já removida na mesma transação). */
+    void apagarArquivo(String hash) throws IOException {
+        Files.deleteIfExists(caminho(hash));
+    }
+
+    /**
+     * Arquivo novo gravado na transação do chamador: em rollback, a linha de conteudo_blob que o
+     * tornava alcançável não existe mais. Apaga em beforeCompletion, com a linha ainda travada:
+     * um armazenar() concorrente do mesmo hash espera por ela e, ao prosseguir, não encontra o
+     * arquivo e grava de novo (apagando depois do rollback, ele poderia ter deduplicado).
+     * beforeCommit só é chamado no caminho do commit; sem ele, a transação está voltando.
+     */
+    private void apagarSeRollback(String hash) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean commitando;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commitando = true;
+            }
+
+            @Override
+            public void beforeCompletion() {
+                if (commitando) return;
+                try {
+                    apagarArquivo(hash);
+                    log.debug("↩️ Conteúdo {} apagado no rollback de quem o gravou", hash);
+                } catch (IOException e) {
+                    log.warn("⚠️ Falha ao apagar conteúdo {} no rollback (fica para a varredura de órfãos): {}",
+                            hash, e.getMessage());
+                }
+            }
+        });
+    }
+
+    /** Grava via temporário + move atômico; false se o arquivo já existia (deduplicado). */
+    private boolean gravarArquivo(String hash, byte[] conteudo) {
+        Path destino = caminho(hash);
+        if (Files.exists(destino)) {
+            return false;
+        }
+        try {
+            Files.createDirectories(destino.getParent());
+            Path temporario = Files.createTempFile(destino.getParent(), hash, ".tmp");
+            try {
+                Files.write(temporario, conteudo);
+                if (Files.size(temporario) != conteudo.length) {
+                    throw new IOException("tamanho gravado difere do conteúdo");
+                }
+                Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // outra thread/instância gravou o mesmo conteúdo antes: mesmo arquivo, nada a fazer
+                return false;
+            } finally {
+                Files.deleteIfExists(temporario);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar conteúdo " + hash, e);
+        }
+        log.debug("💾 Conteúdo {} gravado ({} bytes)", hash, conteudo.length);
+        return true;
+    }
+
+    public static String sha256(byte[] conteudo) {
+        return HexFormat.of().formatHex(novoDigest().digest(conteudo));
+    }
+
+    /** SHA-256 de um fluxo, sem carregá-lo inteiro em memória. */
+    public static String sha256(InputStream in) throws IOException {
+        DigestInputStream digestIn = new DigestInputStream(in, novoDigest());
+        digestIn.transferTo(OutputStream.nullOutputStream());
+        return HexFormat.of().formatHex(digestIn.getMessageDigest().digest());
+    }
+
+    private static MessageDigest novoDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
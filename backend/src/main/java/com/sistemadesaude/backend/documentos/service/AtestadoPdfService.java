@@ -6,10 +6,11 @@ import com.sistemadesaude.backend.documentos.dto.AtestadoDTO;
 import com.sistemadesaude.backend.paciente.entity.Paciente;
 import com.sistemadesaude.backend.profissional.entity.Profissional;
 import com.sistemadesaude.backend.unidadesaude.entity.UnidadeSaude;
+import com.sistemadesaude.backend.pdf.PdfRenderEngine;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
 import java.lang.reflect.Method;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -29,115 +30,114 @@ import java.util.Locale;
  */
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class AtestadoPdfService {
 
     private static final Locale PT_BR = new Locale("pt", "BR");
 
+    // Fontes criadas uma vez (FontFactory faz lookup a cada chamada)
+    private static final Font TITLE_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16);
+    private static final Font SUB_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
+    private static final Font NORMAL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 10);
+    private static final Font SMALL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 9, BaseColor.DARK_GRAY);
+    private static final Font ASSINATURA_FONT = FontFactory.getFont(FontFactory.HELVETICA, 10);
+
+    private final PdfRenderEngine pdfRenderEngine;
+
     public byte[] gerarPdf(AtestadoDTO dto, Paciente p, Profissional prof, UnidadeSaude un) {
         try {
-            Document document = new Document(PageSize.A4, 36, 36, 28, 28);
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            PdfWriter.getInstance(document, baos);
-            document.open();
-
-            // ====== Fontes
-            Font title = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16);
-            Font sub = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
-            Font normal = FontFactory.getFont(FontFactory.HELVETICA, 10);
-            Font small = FontFactory.getFont(FontFactory.HELVETICA, 9, BaseColor.DARK_GRAY);
-
-            // ====== Cabeçalho
-            Paragraph cab = new Paragraph();
-            if (dto.getEstabelecimentoCnpj() != null) {
-                cab.add(new Phrase("C.N.P.J.: " + dto.getEstabelecimentoCnpj() + "\n", small));
-            }
-            String nomeEstab = firstNotBlank(
-                    dto.getEstabelecimentoNome(),
-                    un != null ? invokeString(un, "getNome") : null,
-                    "Secretaria Municipal de Saúde"
-            );
-            cab.add(new Phrase(nomeEstab + "\n", small));
-            cab.setAlignment(Element.ALIGN_CENTER);
-            document.add(cab);
-
-            Paragraph titulo = new Paragraph("ATESTADO MÉDICO", title);
-            titulo.setAlignment(Element.ALIGN_CENTER);
-            titulo.setSpacingBefore(6);
-            titulo.setSpacingAfter(10);
-            document.add(titulo);
-
-            // ====== Bloco "UNIDADE / ENDEREÇO"
-            PdfPTable unTable = new PdfPTable(1);
-            unTable.setWidthPercentage(100);
-            unTable.addCell(cellNoBorder("UNIDADE: " + firstNotBlank(
-                    un != null ? invokeString(un, "getNome") : null,
-                    dto.getEstabelecimentoNome(),
-                    "UNIDADE DE SAÚDE"), normal));
-            if (dto.getEstabelecimentoEndereco() != null && !dto.getEstabelecimentoEndereco().isBlank()) {
-                unTable.addCell(cellNoBorder("ENDEREÇO: " + dto.getEstabelecimentoEndereco(), normal));
-            }
-            document.add(unTable);
-
-            document.add(new Paragraph(" ")); // espaçamento
-
-            // ====== Opções (afastamento/comparecimento)
-            String nomePaciente = p != null ? safeString(invokeString(p, "getNomeCompleto"), "PACIENTE") : "PACIENTE";
-            String cns = p != null ? safeString(invokeString(p, "getCns"), "") : "";
-
-            String linhaAfast = "(  " + (dto.getTipo() == AtestadoDTO.TipoAtestado.AFASTAMENTO ? "X" : " ") + "  ) "
-                    + "Atesto que o(a) Sr.(a) " + nomePaciente + (cns.isBlank() ? "" : ", Cartão SUS: " + cns)
-                    + ", foi atendido(a) em " + dataHojeBR()
-                    + " e necessita de " + (dto.getDiasAfastamento() != null ? dto.getDiasAfastamento() : 0)
-                    + " dia(s) de repouso, por motivo de " + (dto.getMotivo() != null ? dto.getMotivo() : "doença") + ".";
-
-            String linhaComp = "(  " + (dto.getTipo() == AtestadoDTO.TipoAtestado.COMPARECIMENTO ? "X" : " ") + "  ) "
-                    + "Declaro que o(a) Sr.(a) " + nomePaciente + (cns.isBlank() ? "" : ", Cartão SUS: " + cns)
-                    + ", compareceu em " + dataHojeBR()
-                    + ", na unidade acima, no período das "
-                    + (dto.getHoraInicio() != null ? dto.getHoraInicio() : "__:__")
-                    + " às " + (dto.getHoraFim() != null ? dto.getHoraFim() : "__:__") + ".";
-
-            document.add(new Paragraph(linhaAfast, normal));
-            document.add(new Paragraph(" ", normal));
-            document.add(new Paragraph(linhaComp, normal));
-
-            document.add(new Paragraph(" "));
-
-            // ====== CID + consentimento (só imprime o CID se consentimentoCid = true)
-            if (Boolean.TRUE.equals(dto.getConsentimentoCid())
-                    && dto.getCid() != null && !dto.getCid().isBlank()) {
-                Paragraph cid = new Paragraph("CID: " + dto.getCid(), sub);
-                cid.setSpacingBefore(8);
-                document.add(cid);
-            }
+            Document documento = new Document(PageSize.A4, 36, 36, 28, 28);
+            return pdfRenderEngine.renderizar("atestado", documento, null, document -> {
+                // ====== Cabeçalho
+                Paragraph cab = new Paragraph();
+                if (dto.getEstabelecimentoCnpj() != null) {
+                    cab.add(new Phrase("C.N.P.J.: " + dto.getEstabelecimentoCnpj() + "\n", SMALL_FONT));
+                }
+                String nomeEstab = firstNotBlank(
+                        dto.getEstabelecimentoNome(),
+                        un != null ? invokeString(un, "getNome") : null,
+                        "Secretaria Municipal de Saúde"
+                );
+                cab.add(new Phrase(nomeEstab + "\n", SMALL_FONT));
+                cab.setAlignment(Element.ALIGN_CENTER);
+                document.add(cab);
+
+                Paragraph titulo = new Paragraph("ATESTADO MÉDICO", TITLE_FONT);
+                titulo.setAlignment(Element.ALIGN_CENTER);
+                titulo.setSpacingBefore(6);
+                titulo.setSpacingAfter(10);
+                document.add(titulo);
+
+                // ====== Bloco "UNIDADE / ENDEREÇO"
+                PdfPTable unTable = new PdfPTable(1);
+                unTable.setWidthPercentage(100);
+                unTable.addCell(cellNoBorder("UNIDADE: " + firstNotBlank(
+                        un != null ? invokeString(un, "getNome") : null,
+                        dto.getEstabelecimentoNome(),
+                        "UNIDADE DE SAÚDE"), NORMAL_FONT));
+                if (dto.getEstabelecimentoEndereco() != null && !dto.getEstabelecimentoEndereco().isBlank()) {
+                    unTable.addCell(cellNoBorder("ENDEREÇO: " + dto.getEstabelecimentoEndereco(), NORMAL_FONT));
+                }
+                document.add(unTable);
+
+                document.add(new Paragraph(" ")); // espaçamento
+
+                // ====== Opções (afastamento/comparecimento)
+                String nomePaciente = p != null ? safeString(invokeString(p, "getNomeCompleto"), "PACIENTE") : "PACIENTE";
+                String cns = p != null ? safeString(invokeString(p, "getCns"), "") : "";
+
+                String linhaAfast = "(  " + (dto.getTipo() == AtestadoDTO.TipoAtestado.AFASTAMENTO ? "X" : " ") + "  ) "
+                        + "Atesto que o(a) Sr.(a) " + nomePaciente + (cns.isBlank() ? "" : ", Cartão SUS: " + cns)
+                        + ", foi atendido(a) em " + dataHojeBR()
+                        + " e necessita de " + (dto.getDiasAfastamento() != null ? dto.getDiasAfastamento() : 0)
+                        + " dia(s) de repouso, por motivo de " + (dto.getMotivo() != null ? dto.getMotivo() : "doença") + ".";
+
+                String linhaComp = "(  " + (dto.getTipo() == AtestadoDTO.TipoAtestado.COMPARECIMENTO ? "X" : " ") + "  ) "
+                        + "Declaro que o(a) Sr.(a) " + nomePaciente + (cns.isBlank() ? "" : ", Cartão SUS: " + cns)
+                        + ", compareceu em " + dataHojeBR()
+                        + ", na unidade acima, no período das "
+                        + (dto.getHoraInicio() != null ? dto.getHoraInicio() : "__:__")
+                        + " às " + (dto.getHoraFim() != null ? dto.getHoraFim() : "__:__") + ".";
+
+                document.add(new Paragraph(linhaAfast, NORMAL_FONT));
+                document.add(new Paragraph(" ", NORMAL_FONT));
+                document.add(new Paragraph(linhaComp, NORMAL_FONT));
+
+                document.add(new Paragraph(" "));
+
+                // ====== CID + consentimento (só imprime o CID se consentimentoCid = true)
+                if (Boolean.TRUE.equals(dto.getConsentimentoCid())
+                        && dto.getCid() != null && !dto.getCid().isBlank()) {
+                    Paragraph cid = new Paragraph("CID: " + dto.getCid(), SUB_FONT);
+                    cid.setSpacingBefore(8);
+                    document.add(cid);
+                }
 
-            // ====== Autorização + Assinatura do Paciente
-            document.add(new Paragraph(" "));
-            Paragraph aut = new Paragraph("Autorizo a divulgação do Diagnóstico (CID) pelo profissional de atendimento.", small);
-            document.add(aut);
-            document.add(new Paragraph(" "));
-            document.add(linhaAssinatura("Assinatura do Paciente ou Responsável"));
-
-            // ====== Rodapé com local/data e assinatura do profissional (CRM/CRO)
-            document.add(new Paragraph(" "));
-            String localData = firstNotBlank(dto.getMunicipio(), "Rio Claro")
-                    + " - " + firstNotBlank(dto.getUf(), "SP") + ", " + dataHojeExtenso();
-            Paragraph ld = new Paragraph(localData, normal);
-            ld.setAlignment(Element.ALIGN_LEFT);
-            document.add(ld);
-
-            document.add(new Paragraph(" "));
-
-            String nomeProf = prof != null ? safeString(invokeString(prof, "getNomeCompleto"), "Profissional") : "Profissional";
-            ConselhoRegistro reg = obterRegistroConselho(prof); // <<<<<< FIX: resolve CRM/CRO dinamicamente
-
-            document.add(linhaAssinatura(nomeProf));
-            Paragraph crm = new Paragraph(reg.sigla + ": " + reg.numero, small);
-            crm.setAlignment(Element.ALIGN_CENTER);
-            document.add(crm);
-
-            document.close();
-            return baos.toByteArray();
+                // ====== Autorização + Assinatura do Paciente
+                document.add(new Paragraph(" "));
+                Paragraph aut = new Paragraph("Autorizo a divulgação do Diagnóstico (CID) pelo profissional de atendimento.", SMALL_FONT);
+                document.add(aut);
+                document.add(new Paragraph(" "));
+                document.add(linhaAssinatura("Assinatura do Paciente ou Responsável"));
+
+                // ====== Rodapé com local/data e assinatura do profissional (CRM/CRO)
+                document.add(new Paragraph(" "));
+                String localData = firstNotBlank(dto.getMunicipio(), "Rio Claro")
+                        + " - " + firstNotBlank(dto.getUf(), "SP") + ", " + dataHojeExtenso();
+                Paragraph ld = new Paragraph(localData, NORMAL_FONT);
+                ld.setAlignment(Element.ALIGN_LEFT);
+                document.add(ld);
+
+                document.add(new Paragraph(" "));
+
+                String nomeProf = prof != null ? safeString(invokeString(prof, "getNomeCompleto"), "Profissional") : "Profissional";
+                ConselhoRegistro reg = obterRegistroConselho(prof); // <<<<<< FIX: resolve CRM/CRO dinamicamente
+
+                document.add(linhaAssinatura(nomeProf));
+                Paragraph crm = new Paragraph(reg.sigla + ": " + reg.numero, SMALL_FONT);
+                crm.setAlignment(Element.ALIGN_CENTER);
+                document.add(crm);
+            });
         } catch (Exception e) {
             log.error("Erro ao gerar PDF de atestado", e);
             throw new RuntimeException("Erro ao gerar PDF de atestado", e);
@@ -154,15 +154,11 @@ public class AtestadoPdfService {
 
     private Paragraph linhaAssinatura(String rotulo) {
         Paragraph p = new Paragraph("_________________________________\n" + rotulo,
-                FontFactory.getFont(FontFactory.HELVETICA,  ninth(10))); // 9~10 para boa leitura
+                ASSINATURA_FONT);
         p.setAlignment(Element.ALIGN_CENTER);
         return p;
     }
 
-    private int ninth(int base) { // micro-ajuste visual opcional
-        return Math.max(8, base);
-    }
-
     private String dataHojeBR() {
         return LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy", PT_BR));
     }
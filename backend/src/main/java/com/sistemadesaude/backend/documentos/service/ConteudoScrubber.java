@@ -0,0 +1,270 @@
+package com.sistemadesaude.backend.documentos.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Manutenção em segundo plano do armazenamento de conteúdo ({@link ArmazenamentoConteudoService}).
+ *
+ * - Coleta: apaga linha e arquivo dos conteúdos sem referência há mais que a carência.
+ *   A linha é removida com FOR UPDATE SKIP LOCKED e o arquivo é apagado ANTES do commit:
+ *   um armazenar() concorrente do mesmo hash espera a linha e, ao prosseguir, não encontra
+ *   o arquivo e grava de novo.
+ * - Órfãos: varre o diretório (a cada app.storage.conteudo.scrubber.orfaos-intervalo-horas) e
+ *   apaga arquivos sem linha em conteudo_blob, e temporários de gravações interrompidas, mais
+ *   antigos que a carência. Cobre o que o rollback de armazenar() não alcança (queda do processo
+ *   entre a gravação e o commit). Cada órfão é travado inserindo a própria linha antes de apagar:
+ *   um armazenar() concorrente do mesmo hash espera e depois grava o arquivo de novo.
+ * - Verificação: relê em streaming os arquivos referenciados não verificados há mais de
+ *   N dias e marca corrompido = true quando o hash não confere (ou o arquivo sumiu).
+ *   É aqui, e não no download, que a integridade é conferida.
+ *
+ * Métricas: conteudo.scrubber.removidos, conteudo.scrubber.orfaos, conteudo.scrubber.verificados,
+ * conteudo.scrubber.corrompidos.
+ */
+@Slf4j
+@Component
+public class ConteudoScrubber {
+
+    private static final String SQL_REMOVER_SEM_REFERENCIA = """
+            DELETE FROM conteudo_blob
+             WHERE hash IN (SELECT hash FROM conteudo_blob
+                             WHERE referencias = 0 AND atualizado_em < ?
+                             ORDER BY atualizado_em
+                             LIMIT ?
+                             FOR UPDATE SKIP LOCKED)
+               AND referencias = 0
+            RETURNING hash
+            """;
+    private static final String SQL_PENDENTES_VERIFICACAO = """
+            SELECT hash FROM conteudo_blob
+             WHERE referencias > 0 AND (verificado_em IS NULL OR verificado_em < ?)
+             ORDER BY verificado_em NULLS FIRST
+             LIMIT ?
+            """;
+    private static final String SQL_HASHES_EXISTENTES =
+            "SELECT hash FROM conteudo_blob WHERE hash = ANY (?)";
+    /** Linha provisória do órfão: trava o hash até o commit; DO NOTHING se alguém já tem a linha. */
+    private static final String SQL_TRAVAR_ORFAO = """
+            INSERT INTO conteudo_blob (hash, tamanho_bytes, referencias) VALUES (?, 0, 0)
+            ON CONFLICT (hash) DO NOTHING
+            RETURNING hash
+            """;
+    private static final String SQL_REMOVER_LINHA = "DELETE FROM conteudo_blob WHERE hash = ?";
+    private static final String SQL_MARCAR_VERIFICADO =
+            "UPDATE conteudo_blob SET verificado_em = CURRENT_TIMESTAMP, corrompido = ? WHERE hash = ?";
+
+    private final ArmazenamentoConteudoService armazenamento;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transacao;
+    private final boolean habilitado;
+    private final long intervaloMs;
+    private final int tamanhoLote;
+    private final long carenciaHoras;
+    private final long reverificarDias;
+    private final long orfaosIntervaloHoras;
+    private final Counter removidos;
+    private final Counter orfaos;
+    private final Counter verificados;
+    private final Counter corrompidos;
+
+    private ScheduledExecutorService executor;
+
+    public ConteudoScrubber(ArmazenamentoConteudoService armazenamento,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.storage.conteudo.scrubber.habilitado:true}") boolean habilitado,
+                            @Value("${app.storage.conteudo.scrubber.intervalo-ms:600000}") long intervaloMs,
+                            @Value("${app.storage.conteudo.scrubber.tamanho-lote:200}") int tamanhoLote,
+                            @Value("${app.storage.conteudo.scrubber.carencia-horas:24}") long carenciaHoras,
+                            @Value("${app.storage.conteudo.scrubber.reverificar-dias:30}") long reverificarDias,
+                            @Value("${app.storage.conteudo.scrubber.orfaos-intervalo-horas:24}") long orfaosIntervaloHoras) {
+        this.armazenamento = armazenamento;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.habilitado = habilitado;
+        this.intervaloMs = intervaloMs;
+        this.tamanhoLote = Math.max(1, tamanhoLote);
+        this.carenciaHoras = carenciaHoras;
+        this.reverificarDias = reverificarDias;
+        this.orfaosIntervaloHoras = Math.max(1, orfaosIntervaloHoras);
+        this.removidos = Counter.builder("conteudo.scrubber.removidos")
+                .description("Arquivos sem referência apagados")
+                .register(meterRegistry);
+        this.orfaos = Counter.builder("conteudo.scrubber.orfaos")
+                .description("Arquivos sem linha em conteudo_blob apagados")
+                .register(meterRegistry);
+        this.verificados = Counter.builder("conteudo.scrubber.verificados").register(meterRegistry);
+        this.corrompidos = Counter.builder("conteudo.scrubber.corrompidos")
+                .description("Arquivos cujo hash não confere ou que sumiram do disco")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (!habilitado) return;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "conteudo-scrubber");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::cicloSeguro, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::varreduraSegura, orfaosIntervaloHoras, orfaosIntervaloHoras, TimeUnit.HOURS);
+        log.info("🧹 Scrubber do armazenamento de conteúdo iniciado (intervalo={}ms, carência={}h, reverificação={} dias, órfãos a cada {}h)",
+                intervaloMs, carenciaHoras, reverificarDias, orfaosIntervaloHoras);
+    }
+
+    /** Apaga um lote de conteúdos sem referência; retorna quantos foram removidos. */
+    public int coletarSemReferencia() {
+        Timestamp limite = Timestamp.valueOf(LocalDateTime.now().minusHours(carenciaHoras));
+        List<String> hashes = transacao.execute(status -> {
+            List<String> apagados = jdbcTemplate.queryForList(SQL_REMOVER_SEM_REFERENCIA, String.class, limite, tamanhoLote);
+            for (String hash : apagados) {
+                try {
+                    armazenamento.apagarArquivo(hash);
+                } catch (IOException e) {
+                    // volta a transação: a linha permanece e a coleta tenta de novo no próximo ciclo
+                    throw new UncheckedIOException("Falha ao apagar conteúdo " + hash, e);
+                }
+            }
+            return apagados;
+        });
+        int total = hashes == null ? 0 : hashes.size();
+        if (total > 0) {
+            removidos.increment(total);
+            log.info("🧹 {} arquivo(s) sem referência removidos do armazenamento de conteúdo", total);
+        }
+        return total;
+    }
+
+    /**
+     * Apaga arquivos sem linha em conteudo_blob e temporários mais antigos que a carência.
+     * Percorre o diretório em streaming e consulta o banco em lotes; retorna quantos apagou.
+     */
+    public int removerOrfaos() {
+        Path base = armazenamento.base();
+        if (!Files.isDirectory(base)) return 0;
+        FileTime limite = FileTime.from(Instant.now().minus(Duration.ofHours(carenciaHoras)));
+        int total = 0;
+        List<String> lote = new ArrayList<>(tamanhoLote);
+        try (Stream<Path> arquivos = Files.walk(base)) {
+            Iterator<Path> it = arquivos.filter(Files::isRegularFile).iterator();
+            while (it.hasNext()) {
+                Path arquivo = it.next();
+                if (Files.getLastModifiedTime(arquivo).compareTo(limite) >= 0) continue;
+                String nome = arquivo.getFileName().toString();
+                if (nome.endsWith(".tmp")) {
+                    // gravação interrompida antes do move: nunca foi um conteúdo
+                    if (Files.deleteIfExists(arquivo)) total++;
+                } else if (ArmazenamentoConteudoService.hashValido(nome)) {
+                    lote.add(nome);
+                    if (lote.size() == tamanhoLote) {
+                        total += removerOrfaos(lote);
+                        lote.clear();
+                    }
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("⚠️ Varredura de órfãos interrompida: {}", e.getMessage());
+        }
+        total += removerOrfaos(lote);
+        if (total > 0) {
+            orfaos.increment(total);
+            log.info("🧹 {} arquivo(s) órfão(s) removidos do armazenamento de conteúdo", total);
+        }
+        return total;
+    }
+
+    private int removerOrfaos(List<String> hashes) {
+        if (hashes.isEmpty()) return 0;
+        Set<String> comLinha = new HashSet<>(jdbcTemplate.query(SQL_HASHES_EXISTENTES,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", hashes.toArray())),
+                (rs, i) -> rs.getString(1)));
+        int apagados = 0;
+        for (String hash : hashes) {
+            if (comLinha.contains(hash)) continue;
+            Boolean apagou = transacao.execute(status -> {
+                if (jdbcTemplate.queryForList(SQL_TRAVAR_ORFAO, String.class, hash).isEmpty()) {
+                    return false; // a linha apareceu (armazenar concorrente): não é mais órfão
+                }
+                try {
+                    armazenamento.apagarArquivo(hash);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Falha ao apagar órfão " + hash, e);
+                }
+                jdbcTemplate.update(SQL_REMOVER_LINHA, hash);
+                return true;
+            });
+            if (Boolean.TRUE.equals(apagou)) apagados++;
+        }
+        return apagados;
+    }
+
+    /** Relê um lote de arquivos e confere o hash; retorna quantos estavam corrompidos. */
+    public int verificarLote() {
+        Timestamp limite = Timestamp.valueOf(LocalDateTime.now().minusDays(reverificarDias));
+        List<String> hashes = jdbcTemplate.queryForList(SQL_PENDENTES_VERIFICACAO, String.class, limite, tamanhoLote);
+        int ruins = 0;
+        for (String hash : hashes) {
+            boolean integro = armazenamento.verificar(hash);
+            jdbcTemplate.update(SQL_MARCAR_VERIFICADO, !integro, hash);
+            verificados.increment();
+            if (!integro) {
+                ruins++;
+                corrompidos.increment();
+                log.error("❌ Conteúdo {} corrompido ou ausente em {}", hash, armazenamento.caminho(hash));
+            }
+        }
+        return ruins;
+    }
+
+    private void cicloSeguro() {
+        try {
+            coletarSemReferencia();
+            verificarLote();
+        } catch (Exception e) {
+            log.error("❌ Erro no ciclo do scrubber de conteúdo: {}", e.getMessage());
+        }
+    }
+
+    private void varreduraSegura() {
+        try {
+            removerOrfaos();
+        } catch (Exception e) {
+            log.error("❌ Erro na varredura de órfãos do armazenamento de conteúdo: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (executor != null) executor.shutdownNow();
+    }
+}
@@ -8,17 +8,15 @@ import com.sistemadesaude.backend.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
-import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -26,8 +24,11 @@ import java.util.Optional;
 
 /**
  * Serviço para gerenciar persistência e reimpressão de documentos PDF.
- * CONFORME ISSUE: Salvar PDF gerado (ex.: storage/documentos/{tipo}/{yyyy}/{MM}/{id}.pdf) 
- * e gravar metadados em tabela documentos.
+ * CONFORME ISSUE: Salvar PDF gerado e gravar metadados em tabela documentos.
+ *
+ * O conteúdo vai para o ArmazenamentoConteudoService (um arquivo por SHA-256, com contagem de
+ * referências); caminho_arquivo guarda "cas:{hash}". Documentos antigos continuam no caminho
+ * {tipo}/{yyyy}/{MM}/{id}.pdf e são lidos de lá.
  */
 @Service
 @Slf4j
@@ -35,7 +36,11 @@ import java.util.Optional;
 @Transactional
 public class DocumentoService {
 
+    /** Prefixo de caminho_arquivo para documentos no armazenamento endereçado por conteúdo. */
+    static final String PREFIXO_CONTEUDO = "cas:";
+
     private final DocumentoRepository documentoRepository;
+    private final ArmazenamentoConteudoService armazenamento;
 
     /**
      * Diretório base para armazenamento dos PDFs.
@@ -47,55 +52,35 @@ public class DocumentoService {
     // ========== PERSISTÊNCIA DE DOCUMENTOS ==========
 
     /**
-     * Salva um documento PDF no sistema de arquivos e persiste metadados no banco.
-     * CONFORME ISSUE: storage/documentos/{tipo}/{yyyy}/{MM}/{id}.pdf
+     * Salva um documento PDF no armazenamento de conteúdo e persiste metadados no banco.
      *
      * @param tipo Tipo do documento (ATESTADO, RECEITUARIO, COMPROVANTE)
      * @param paciente Paciente proprietário do documento
      * @param pdfBytes Conteúdo do PDF em bytes
      * @param nomeArquivoSugerido Nome sugerido para o arquivo (opcional)
-     * @return Documento persistido com ID e caminho do arquivo
+     * @return Documento persistido com ID e caminho do conteúdo
      */
     public Documento salvarDocumento(TipoDocumento tipo, Paciente paciente, 
                                    byte[] pdfBytes, String nomeArquivoSugerido) {
         log.info("Iniciando salvamento de documento {} para paciente ID {}", tipo, paciente.getId());
 
         try {
-            // 1. Calcular hash do conteúdo para integridade
-            String hash = calcularHashSHA256(pdfBytes);
-            
-            // 2. Verificar se já existe documento com mesmo hash (evitar duplicatas)
-            if (documentoRepository.existsByHashAndAtivoTrue(hash)) {
-                log.warn("Documento com hash {} já existe. Possível duplicata.", hash);
-                // Nota: Dependendo da regra de negócio, pode retornar o existente ou continuar
-            }
+            // 1. Armazenar o conteúdo (hash calculado uma vez; conteúdo repetido não é regravado)
+            String hash = armazenamento.armazenar(pdfBytes);
 
-            // 3. Criar entrada no banco primeiro (para obter ID)
+            // 2. Persistir metadados apontando para o conteúdo
             Documento documento = new Documento();
             documento.setTipo(tipo);
             documento.setPaciente(paciente);
             documento.setHash(hash);
+            documento.setCaminhoArquivo(PREFIXO_CONTEUDO + hash);
             documento.setNomeArquivo(gerarNomeArquivo(tipo, nomeArquivoSugerido));
             documento.setTamanhoBytes((long) pdfBytes.length);
             documento.setAtivo(true);
-
-            // Salvar para obter ID
             documento = documentoRepository.save(documento);
-            
-            // 4. Gerar caminho do arquivo baseado no ID
-            String caminhoRelativo = gerarCaminhoArquivo(tipo, documento.getId());
-            documento.setCaminhoArquivo(caminhoRelativo);
 
-            // 5. Salvar arquivo no sistema de arquivos
-            Path caminhoCompleto = Paths.get(storageBasePath).resolve(caminhoRelativo);
-            criarDiretorioSeNaoExistir(caminhoCompleto.getParent());
-            Files.write(caminhoCompleto, pdfBytes, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
-
-            // 6. Atualizar documento com caminho do arquivo
-            documento = documentoRepository.save(documento);
-
-            log.info("✅ Documento {} salvo com sucesso. ID: {}, Arquivo: {}", 
-                    tipo, documento.getId(), caminhoCompleto);
+            log.info("✅ Documento {} salvo com sucesso. ID: {}, Conteúdo: {}", 
+                    tipo, documento.getId(), hash);
 
             return documento;
 
@@ -107,40 +92,23 @@ public class DocumentoService {
     }
 
     /**
-     * Recupera o conteúdo de um documento PDF pelo ID.
-     * Para reimpressão conforme especificado na issue.
+     * Recupera o arquivo de um documento PDF pelo ID, para reimpressão em streaming.
+     * O conteúdo não é carregado em memória nem recalculado: a integridade é conferida
+     * na gravação e periodicamente pelo ConteudoScrubber.
      */
-    public byte[] recuperarConteudoDocumento(Long documentoId) {
-        log.info("Recuperando conteúdo do documento ID {}", documentoId);
+    @Transactional(readOnly = true)
+    public Resource recuperarArquivoDocumento(Long documentoId) {
+        log.debug("Recuperando arquivo do documento ID {}", documentoId);
 
         Documento documento = documentoRepository.findByIdAndAtivoTrue(documentoId)
                 .orElseThrow(() -> new ResourceNotFoundException("Documento não encontrado ou inativo: " + documentoId));
 
-        try {
-            Path caminhoCompleto = Paths.get(storageBasePath).resolve(documento.getCaminhoArquivo());
-            
-            if (!Files.exists(caminhoCompleto)) {
-                log.error("❌ Arquivo físico não encontrado: {}", caminhoCompleto);
-                throw new ResourceNotFoundException("Arquivo PDF não encontrado no sistema de arquivos");
-            }
-
-            byte[] conteudo = Files.readAllBytes(caminhoCompleto);
-            
-            // Verificar integridade via hash
-            String hashCalculado = calcularHashSHA256(conteudo);
-            if (!hashCalculado.equals(documento.getHash())) {
-                log.error("❌ Hash do arquivo não confere. Arquivo pode estar corrompido. " +
-                         "Esperado: {}, Calculado: {}", documento.getHash(), hashCalculado);
-                throw new RuntimeException("Arquivo corrompido - hash não confere");
-            }
-
-            log.info("✅ Conteúdo do documento {} recuperado com sucesso", documentoId);
-            return conteudo;
-
-        } catch (IOException e) {
-            log.error("❌ Erro de I/O ao recuperar documento {}: {}", documentoId, e.getMessage(), e);
-            throw new RuntimeException("Erro ao recuperar arquivo: " + e.getMessage(), e);
+        Resource arquivo = resolverArquivo(documento);
+        if (arquivo == null) {
+            log.error("❌ Arquivo físico não encontrado para documento {}: {}", documentoId, documento.getCaminhoArquivo());
+            throw new ResourceNotFoundException("Arquivo PDF não encontrado no sistema de arquivos");
         }
+        return arquivo;
     }
 
     // ========== CONSULTAS ==========
@@ -172,16 +140,17 @@ public class DocumentoService {
     // ========== MÉTODOS AUXILIARES ==========
 
     /**
-     * Gera caminho relativo do arquivo conforme padrão da issue:
-     * {tipo}/{yyyy}/{MM}/{id}.pdf
+     * Arquivo do documento: conteúdo endereçado por hash ("cas:{hash}") ou, em documentos
+     * antigos, o caminho {tipo}/{yyyy}/{MM}/{id}.pdf sob app.storage.documentos.path.
      */
-    private String gerarCaminhoArquivo(TipoDocumento tipo, Long documentoId) {
-        LocalDateTime agora = LocalDateTime.now();
-        String ano = agora.format(DateTimeFormatter.ofPattern("yyyy"));
-        String mes = agora.format(DateTimeFormatter.ofPattern("MM"));
-        
-        return String.format("%s/%s/%s/%d.pdf", 
-                           tipo.name().toLowerCase(), ano, mes, documentoId);
+    private Resource resolverArquivo(Documento documento) {
+        String caminho = documento.getCaminhoArquivo();
+        if (caminho == null) return null;
+        if (caminho.startsWith(PREFIXO_CONTEUDO)) {
+            return armazenamento.recurso(caminho.substring(PREFIXO_CONTEUDO.length()));
+        }
+        Path legado = Paths.get(storageBasePath).resolve(caminho);
+        return Files.isRegularFile(legado) ? new FileSystemResource(legado) : null;
     }
 
     /**
@@ -201,41 +170,6 @@ public class DocumentoService {
         return String.format("%s_%s.pdf", tipo.getDescricao().replace(" ", "_"), timestamp);
     }
 
-    /**
-     * Calcula hash SHA-256 do conteúdo para integridade
-     */
-    private String calcularHashSHA256(byte[] conteudo) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(conteudo);
-            
-            // Converter para hexadecimal
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            return hexString.toString();
-            
-        } catch (NoSuchAlgorithmException e) {
-            log.error("❌ Algoritmo SHA-256 não disponível", e);
-            throw new RuntimeException("Erro ao calcular hash do documento", e);
-        }
-    }
-
-    /**
-     * Cria diretórios necessários se não existirem
-     */
-    private void criarDiretorioSeNaoExistir(Path diretorio) throws IOException {
-        if (!Files.exists(diretorio)) {
-            Files.createDirectories(diretorio);
-            log.debug("📁 Diretório criado: {}", diretorio);
-        }
-    }
-
     /**
      * Verifica se um documento existe e está acessível
      */
@@ -246,15 +180,21 @@ public class DocumentoService {
             return false;
         }
 
-        Path caminhoCompleto = Paths.get(storageBasePath).resolve(documento.get().getCaminhoArquivo());
-        return Files.exists(caminhoCompleto) && Files.isReadable(caminhoCompleto);
+        Resource arquivo = resolverArquivo(documento.get());
+        return arquivo != null && arquivo.isReadable();
     }
 
     /**
-     * Soft delete de documento (marca como inativo)
+     * Soft delete de documento (marca como inativo) e libera a referência ao conteúdo.
      */
     public void marcarComoInativo(Long documentoId) {
         log.info("Marcando documento {} como inativo", documentoId);
-        documentoRepository.marcarComoInativo(documentoId);
+        Documento documento = documentoRepository.findByIdAndAtivoTrue(documentoId).orElse(null);
+        if (documento == null) return;
+        if (documentoRepository.marcarComoInativo(documentoId) == 1
+                && documento.getCaminhoArquivo() != null
+                && documento.getCaminhoArquivo().startsWith(PREFIXO_CONTEUDO)) {
+            armazenamento.liberar(documento.getHash());
+        }
     }
 }
\ No newline at end of file
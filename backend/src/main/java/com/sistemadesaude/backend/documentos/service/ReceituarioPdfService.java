@@ -6,10 +6,11 @@ import com.sistemadesaude.backend.documentos.dto.ReceituarioDTO;
 import com.sistemadesaude.backend.paciente.entity.Paciente;
 import com.sistemadesaude.backend.profissional.entity.Profissional;
 import com.sistemadesaude.backend.unidadesaude.entity.UnidadeSaude;
+import com.sistemadesaude.backend.pdf.PdfRenderEngine;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
 import java.lang.reflect.Method;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -30,113 +31,112 @@ import java.util.Locale;
  */
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class ReceituarioPdfService {
 
     private static final Locale PT_BR = new Locale("pt", "BR");
 
+    // Fontes criadas uma vez (FontFactory faz lookup a cada chamada)
+    private static final Font TITLE_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16);
+    private static final Font HEAD_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
+    private static final Font NORMAL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 10);
+    private static final Font SMALL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 9);
+
+    private final PdfRenderEngine pdfRenderEngine;
+
     public byte[] gerarPdf(ReceituarioDTO dto, Paciente p, Profissional prof, UnidadeSaude un) {
         try {
-            Document document = new Document(PageSize.A4, 36, 36, 28, 28);
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            PdfWriter.getInstance(document, baos);
-            document.open();
-
-            Font title = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16);
-            Font head = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
-            Font normal = FontFactory.getFont(FontFactory.HELVETICA, 10);
-            Font small = FontFactory.getFont(FontFactory.HELVETICA, 9);
-
-            // ===== Cabeçalho simples
-            Paragraph cab = new Paragraph();
-            if (dto.getEstabelecimentoCnpj() != null) {
-                cab.add(new Phrase("C.N.P.J.: " + dto.getEstabelecimentoCnpj() + "\n", small));
-            }
-            String prefeitura = dto.getEstabelecimentoNome() != null ? dto.getEstabelecimentoNome() : "PREFEITURA MUNICIPAL";
-            cab.add(new Phrase(prefeitura + "\n", small));
-            cab.add(new Phrase("Fundação Municipal de Saúde\n", small));
-            cab.setAlignment(Element.ALIGN_CENTER);
-            document.add(cab);
-
-            Paragraph titulo = new Paragraph("RECEITUÁRIO", title);
-            titulo.setAlignment(Element.ALIGN_CENTER);
-            titulo.setSpacingBefore(6);
-            titulo.setSpacingAfter(10);
-            document.add(titulo);
-
-            // ===== Unidade
-            String unidadeNome = dto.getUnidadeNome() != null ? dto.getUnidadeNome()
-                    : (un != null ? un.getNome() : "UNIDADE DE SAÚDE");
-            document.add(new Paragraph("Unidade: " + unidadeNome, head));
-
-            // ===== Paciente
-            String pacienteNome = dto.getPacienteNome() != null ? dto.getPacienteNome()
-                    : (p != null ? p.getNomeCompleto() : "PACIENTE");
-            String cns = dto.getPacienteCns() != null ? dto.getPacienteCns()
-                    : (p != null ? p.getCns() : "");
-            String endereco = dto.getPacienteEndereco() != null ? dto.getPacienteEndereco()
-                    : (p != null ? (p.getLogradouro() != null ? p.getLogradouro() + ", " : "")
-                    + (p.getNumero() != null ? p.getNumero() + " - " : "")
-                    + (p.getBairro() != null ? p.getBairro() + " - " : "")
-                    + (p.getMunicipio() != null ? p.getMunicipio() : "") : "");
-            String municipio = dto.getPacienteMunicipio() != null ? dto.getPacienteMunicipio()
-                    : (p != null && p.getMunicipio() != null ? p.getMunicipio() : "");
-
-            document.add(new Paragraph("Ao Senhor(a)  -  " + pacienteNome, normal));
-            if (cns != null && !cns.isBlank()) {
-                document.add(new Paragraph("Cartão SUS: " + cns, normal));
-            }
-            if (endereco != null && !endereco.isBlank()) {
-                document.add(new Paragraph("Endereço: " + endereco + (municipio == null || municipio.isBlank() ? "" : " - Município: " + municipio), normal));
-            }
-
-            document.add(new Paragraph(" "));
+            Document documento = new Document(PageSize.A4, 36, 36, 28, 28);
+            return pdfRenderEngine.renderizar("receituario", documento, null, document -> {
+                // ===== Cabeçalho simples
+                Paragraph cab = new Paragraph();
+                if (dto.getEstabelecimentoCnpj() != null) {
+                    cab.add(new Phrase("C.N.P.J.: " + dto.getEstabelecimentoCnpj() + "\n", SMALL_FONT));
+                }
+                String prefeitura = dto.getEstabelecimentoNome() != null ? dto.getEstabelecimentoNome() : "PREFEITURA MUNICIPAL";
+                cab.add(new Phrase(prefeitura + "\n", SMALL_FONT));
+                cab.add(new Phrase("Fundação Municipal de Saúde\n", SMALL_FONT));
+                cab.setAlignment(Element.ALIGN_CENTER);
+                document.add(cab);
+
+                Paragraph titulo = new Paragraph("RECEITUÁRIO", TITLE_FONT);
+                titulo.setAlignment(Element.ALIGN_CENTER);
+                titulo.setSpacingBefore(6);
+                titulo.setSpacingAfter(10);
+                document.add(titulo);
+
+                // ===== Unidade
+                String unidadeNome = dto.getUnidadeNome() != null ? dto.getUnidadeNome()
+                        : (un != null ? un.getNome() : "UNIDADE DE SAÚDE");
+                document.add(new Paragraph("Unidade: " + unidadeNome, HEAD_FONT));
+
+                // ===== Paciente
+                String pacienteNome = dto.getPacienteNome() != null ? dto.getPacienteNome()
+                        : (p != null ? p.getNomeCompleto() : "PACIENTE");
+                String cns = dto.getPacienteCns() != null ? dto.getPacienteCns()
+                        : (p != null ? p.getCns() : "");
+                String endereco = dto.getPacienteEndereco() != null ? dto.getPacienteEndereco()
+                        : (p != null ? (p.getLogradouro() != null ? p.getLogradouro() + ", " : "")
+                        + (p.getNumero() != null ? p.getNumero() + " - " : "")
+                        + (p.getBairro() != null ? p.getBairro() + " - " : "")
+                        + (p.getMunicipio() != null ? p.getMunicipio() : "") : "");
+                String municipio = dto.getPacienteMunicipio() != null ? dto.getPacienteMunicipio()
+                        : (p != null && p.getMunicipio() != null ? p.getMunicipio() : "");
+
+                document.add(new Paragraph("Ao Senhor(a)  -  " + pacienteNome, NORMAL_FONT));
+                if (cns != null && !cns.isBlank()) {
+                    document.add(new Paragraph("Cartão SUS: " + cns, NORMAL_FONT));
+                }
+                if (endereco != null && !endereco.isBlank()) {
+                    document.add(new Paragraph("Endereço: " + endereco + (municipio == null || municipio.isBlank() ? "" : " - Município: " + municipio), NORMAL_FONT));
+                }
 
-            // ===== Lista de itens (item numerado com via/dose/posologia/duração)
-            int i = 1;
-            if (dto.getItens() != null) {
-                for (ReceituarioDTO.ItemReceita it : dto.getItens()) {
-                    document.add(new Paragraph(i + ") " + (it.getNome() != null ? it.getNome() : ""), head));
-                    if (it.getQuantidade() != null && !it.getQuantidade().isBlank()) {
-                        document.add(new Paragraph(it.getQuantidade(), normal));
+                document.add(new Paragraph(" "));
+
+                // ===== Lista de itens (item numerado com via/dose/posologia/duração)
+                int i = 1;
+                if (dto.getItens() != null) {
+                    for (ReceituarioDTO.ItemReceita it : dto.getItens()) {
+                        document.add(new Paragraph(i + ") " + (it.getNome() != null ? it.getNome() : ""), HEAD_FONT));
+                        if (it.getQuantidade() != null && !it.getQuantidade().isBlank()) {
+                            document.add(new Paragraph(it.getQuantidade(), NORMAL_FONT));
+                        }
+                        if (it.getVia() != null && !it.getVia().isBlank()) {
+                            document.add(new Paragraph(it.getVia() + " - Via", NORMAL_FONT)); // ex.: VO - Via Oral
+                        }
+                        if (it.getDose() != null && !it.getDose().isBlank()) {
+                            document.add(new Paragraph("Dose/Posologia: " + it.getDose(), NORMAL_FONT));
+                        }
+                        if (it.getPosologia() != null && !it.getPosologia().isBlank()) {
+                            document.add(new Paragraph("Posologia: " + it.getPosologia(), NORMAL_FONT));
+                        }
+                        if (it.getDuracao() != null && !it.getDuracao().isBlank()) {
+                            document.add(new Paragraph("Duração: " + it.getDuracao(), NORMAL_FONT));
+                        }
+                        if (it.getObservacoes() != null && !it.getObservacoes().isBlank()) {
+                            document.add(new Paragraph("Obs.: " + it.getObservacoes(), NORMAL_FONT));
+                        }
+                        document.add(new Paragraph(" "));
+                        i++;
                     }
-                    if (it.getVia() != null && !it.getVia().isBlank()) {
-                        document.add(new Paragraph(it.getVia() + " - Via", normal)); // ex.: VO - Via Oral
-                    }
-                    if (it.getDose() != null && !it.getDose().isBlank()) {
-                        document.add(new Paragraph("Dose/Posologia: " + it.getDose(), normal));
-                    }
-                    if (it.getPosologia() != null && !it.getPosologia().isBlank()) {
-                        document.add(new Paragraph("Posologia: " + it.getPosologia(), normal));
-                    }
-                    if (it.getDuracao() != null && !it.getDuracao().isBlank()) {
-                        document.add(new Paragraph("Duração: " + it.getDuracao(), normal));
-                    }
-                    if (it.getObservacoes() != null && !it.getObservacoes().isBlank()) {
-                        document.add(new Paragraph("Obs.: " + it.getObservacoes(), normal));
-                    }
-                    document.add(new Paragraph(" "));
-                    i++;
                 }
-            }
-
-            // ===== Data e assinatura
-            String data = LocalDate.now().format(DateTimeFormatter.ofPattern("dd 'de' MMMM 'de' yyyy", PT_BR));
-            Paragraph pData = new Paragraph("Rio Claro, " + data, normal);
-            document.add(pData);
-
-            document.add(new Paragraph(" "));
-            String nomeProf = prof != null ? safeString(invokeString(prof, "getNomeCompleto"), "Profissional") : "Profissional";
-            ConselhoRegistro reg = obterRegistroConselho(prof); // <<<<<<<<<<<<<< FIX AQUI
-
-            Paragraph ass = new Paragraph(
-                    "_________________________________\n" + nomeProf + "\n" + reg.sigla + ": " + reg.numero,
-                    small
-            );
-            ass.setAlignment(Element.ALIGN_CENTER);
-            document.add(ass);
 
-            document.close();
-            return baos.toByteArray();
+                // ===== Data e assinatura
+                String data = LocalDate.now().format(DateTimeFormatter.ofPattern("dd 'de' MMMM 'de' yyyy", PT_BR));
+                Paragraph pData = new Paragraph("Rio Claro, " + data, NORMAL_FONT);
+                document.add(pData);
+
+                document.add(new Paragraph(" "));
+                String nomeProf = prof != null ? safeString(invokeString(prof, "getNomeCompleto"), "Profissional") : "Profissional";
+                ConselhoRegistro reg = obterRegistroConselho(prof); // <<<<<<<<<<<<<< FIX AQUI
+
+                Paragraph ass = new Paragraph(
+                        "_________________________________\n" + nomeProf + "\n" + reg.sigla + ": " + reg.numero,
+                        SMALL_FONT
+                );
+                ass.setAlignment(Element.ALIGN_CENTER);
+                document.add(ass);
+            });
         } catch (Exception e) {
             log.error("Erro ao gerar PDF de receituário", e);
             throw new RuntimeException("Erro ao gerar PDF de receituário", e);
@@ -1,9 +1,15 @@
 package com.sistemadesaude.backend.estoque.controller;
 
 import com.sistemadesaude.backend.estoque.dto.SaldoPorLoteDTO;
+import com.sistemadesaude.backend.estoque.dto.VencimentoResumoDTO;
 import com.sistemadesaude.backend.estoque.service.ConsultaSaldoService;
+import com.sistemadesaude.backend.estoque.service.VencimentoResumoService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -13,6 +19,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ConsultaSaldoController {
     private final ConsultaSaldoService service;
+    private final VencimentoResumoService resumoService;
 
     @GetMapping("/saldos")
     public List<SaldoPorLoteDTO> listarSaldos(@RequestParam Long localId, @RequestParam Long insumoId) {
@@ -26,4 +33,28 @@ public class ConsultaSaldoController {
         // Cobertura para "Verificação de Vencimentos de Insumos" por data. :contentReference[oaicite:18]{index=18}
         return service.listarVencimentos(localId, LocalDate.parse(dataLimite));
     }
+
+    /** Relatório de vencimentos de todos os locais, em CSV, gerado em streaming. */
+    @GetMapping("/vencimentos/relatorio")
+    public ResponseEntity<StreamingResponseBody> relatorioVencimentos(@RequestParam String dataLimite) {
+        LocalDate limite = LocalDate.parse(dataLimite);
+        StreamingResponseBody corpo = out -> service.exportarVencimentosCsv(limite, out);
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", java.nio.charset.StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=vencimentos-" + limite + ".csv")
+                .body(corpo);
+    }
+
+    /** Resumo pré-calculado por faixa de vencimento (painel da farmácia). */
+    @GetMapping("/vencimentos/resumo")
+    public List<VencimentoResumoDTO> resumoVencimentos(@RequestParam(required = false) Long localId) {
+        return resumoService.listar(localId);
+    }
+
+    /** Recalcula o resumo agora (ex.: após inventário), sem esperar o ciclo diário. */
+    @PostMapping("/vencimentos/resumo/recalcular")
+    public List<VencimentoResumoDTO> recalcularResumoVencimentos(@RequestParam(required = false) Long localId) {
+        resumoService.recalcular();
+        return resumoService.listar(localId);
+    }
 }
@@ -0,0 +1,19 @@
+package com.sistemadesaude.backend.estoque.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/** Lotes com saldo em um local agrupados por faixa de vencimento (pré-calculado). */
+@Data @NoArgsConstructor @AllArgsConstructor @Builder
+public class VencimentoResumoDTO {
+    private Long localId;
+    /** VENCIDO, ATE_30_DIAS, ATE_60_DIAS, ATE_90_DIAS ou ACIMA_90_DIAS */
+    private String faixa;
+    private Integer quantidadeLotes;
+    private BigDecimal saldoTotal;
+    /** Dia usado como "hoje" no cálculo das faixas */
+    private LocalDate dataReferencia;
+    private LocalDateTime calculadoEm;
+}
@@ -1,12 +1,38 @@
 package com.sistemadesaude.backend.estoque.repository;
 
+import com.sistemadesaude.backend.estoque.dto.SaldoPorLoteDTO;
 import com.sistemadesaude.backend.estoque.entity.EstoqueLote;
 import com.sistemadesaude.backend.estoque.entity.Lote;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 public interface EstoqueLoteRepository extends JpaRepository<EstoqueLote, Long> {
     Optional<EstoqueLote> findByLocalIdAndLoteId(Long localId, Long loteId);
     List<EstoqueLote> findByLocalIdAndLoteIn(Long localId, List<Lote> lotes);
+
+    /** Saldos dos lotes de um insumo no local, em uma consulta (sem carregar os lotes antes). */
+    @Query("SELECT new com.sistemadesaude.backend.estoque.dto.SaldoPorLoteDTO(" +
+            "l.id, i.id, i.descricao, l.loteFabricante, l.codigoBarras, l.dataVencimento, e.saldo) " +
+            "FROM EstoqueLote e JOIN e.lote l JOIN l.insumo i " +
+            "WHERE e.local.id = :localId AND i.id = :insumoId " +
+            "ORDER BY l.dataVencimento ASC NULLS LAST, l.id ASC")
+    List<SaldoPorLoteDTO> listarSaldosPorInsumo(@Param("localId") Long localId,
+                                                @Param("insumoId") Long insumoId);
+
+    /**
+     * Lotes com saldo positivo no local vencendo até a data (inclusive), mais próximos primeiro.
+     * Usa idx_est_estoque_lote_positivo + PK de est_lote.
+     */
+    @Query("SELECT new com.sistemadesaude.backend.estoque.dto.SaldoPorLoteDTO(" +
+            "l.id, i.id, i.descricao, l.loteFabricante, l.codigoBarras, l.dataVencimento, e.saldo) " +
+            "FROM EstoqueLote e JOIN e.lote l JOIN l.insumo i " +
+            "WHERE e.local.id = :localId AND e.saldo > 0 AND l.dataVencimento <= :dataLimite " +
+            "ORDER BY l.dataVencimento ASC, l.id ASC")
+    List<SaldoPorLoteDTO> listarVencendoAte(@Param("localId") Long localId,
+                                            @Param("dataLimite") LocalDate dataLimite);
 }
@@ -2,10 +2,18 @@ package com.sistemadesaude.backend.estoque.repository;
 
 import com.sistemadesaude.backend.estoque.entity.Lote;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface LoteRepository extends JpaRepository<Lote, Long> {
     Optional<Lote> findByInsumoIdAndFabricanteIdAndLoteFabricante(Long insumoId, Long fabricanteId, String loteFabricante);
     List<Lote> findByInsumoId(Long insumoId);
+
+    /** Quais dos ids informados existem (validação em lote, sem carregar as entidades). */
+    @Query("SELECT l.id FROM Lote l WHERE l.id IN :ids")
+    List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
 }
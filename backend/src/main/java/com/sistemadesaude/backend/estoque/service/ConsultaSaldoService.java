@@ -1,38 +1,102 @@
 package com.sistemadesaude.backend.estoque.service;
 
 import com.sistemadesaude.backend.estoque.dto.SaldoPorLoteDTO;
-import com.sistemadesaude.backend.estoque.entity.Lote;
-import com.sistemadesaude.backend.estoque.mapper.EstoqueMapper;
 import com.sistemadesaude.backend.estoque.repository.EstoqueLoteRepository;
-import com.sistemadesaude.backend.estoque.repository.LoteRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
 import java.time.LocalDate;
 import java.util.List;
 
+/**
+ * Consultas de saldo e vencimento por lote.
+ *
+ * - Saldos e vencimentos de um local: uma consulta indexada cada (sem carregar todos os lotes).
+ * - Relatório de vencimentos de todos os locais: streaming em CSV direto do cursor do banco,
+ *   sem montar a lista em memória.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ConsultaSaldoService {
+
+    private static final String SQL_RELATORIO_VENCIMENTOS = """
+            SELECT la.id, la.nome, l.id, i.id, i.descricao, l.lote_fabricante, l.data_vencimento, e.saldo
+              FROM est_estoque_lote e
+              JOIN est_lote l                 ON l.id = e.lote_id
+              JOIN est_insumo i               ON i.id = l.insumo_id
+              JOIN est_local_armazenamento la ON la.id = e.local_id
+             WHERE e.saldo > 0
+               AND l.data_vencimento <= ?
+             ORDER BY l.data_vencimento, la.id, l.id
+            """;
+
     private final EstoqueLoteRepository estoqueRepo;
-    private final LoteRepository loteRepo;
-    private final EstoqueMapper mapper;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.estoque.relatorio.fetch-size:1000}")
+    private int fetchSize;
 
+    @Transactional(readOnly = true)
     public List<SaldoPorLoteDTO> listarSaldosPorInsumo(Long localId, Long insumoId) {
-        List<Lote> lotes = loteRepo.findByInsumoId(insumoId);
-        return estoqueRepo.findByLocalIdAndLoteIn(localId, lotes)
-                .stream().map(mapper::toSaldoDTO).toList();
+        return estoqueRepo.listarSaldosPorInsumo(localId, insumoId);
     }
 
     /** Lista lotes vencidos/à vencer no local (tipo=CONFIGURACAO ou DATA, vide manual). */
+    @Transactional(readOnly = true)
     public List<SaldoPorLoteDTO> listarVencimentos(Long localId, LocalDate dataLimite) {
-        return estoqueRepo.findByLocalIdAndLoteIn(localId, loteRepo.findAll())
-                .stream()
-                .filter(s -> s.getLote().getDataVencimento() != null
-                        && s.getSaldo().signum() > 0)
-                .map(mapper::toSaldoDTO)
-                .filter(dto -> dto.getDataVencimento() != null && !dto.getDataVencimento().isAfter(dataLimite))
-                .toList();
+        return estoqueRepo.listarVencendoAte(localId, dataLimite);
+    }
+
+    /**
+     * Relatório de vencimentos de todos os locais em CSV (separador ';'), escrito linha a linha.
+     * Transação somente leitura: o driver do PostgreSQL só usa cursor (fetch size) com autocommit desligado.
+     */
+    @Transactional(readOnly = true)
+    public long exportarVencimentosCsv(LocalDate dataLimite, OutputStream out) {
+        Writer w = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        long[] linhas = {0};
+        try {
+            w.write("local_id;local;lote_id;insumo_id;insumo;lote_fabricante;data_vencimento;saldo\n");
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SQL_RELATORIO_VENCIMENTOS);
+                ps.setFetchSize(fetchSize);
+                ps.setDate(1, Date.valueOf(dataLimite));
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    w.write(rs.getLong(1) + ";" + csv(rs.getString(2)) + ";" + rs.getLong(3) + ";"
+                            + rs.getLong(4) + ";" + csv(rs.getString(5)) + ";" + csv(rs.getString(6)) + ";"
+                            + rs.getDate(7) + ";" + rs.getBigDecimal(8).toPlainString() + "\n");
+                    linhas[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            w.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("📄 Relatório de vencimentos até {}: {} linhas", dataLimite, linhas[0]);
+        return linhas[0];
+    }
 
+    private static String csv(String v) {
+        if (v == null) return "";
+        if (v.indexOf(';') < 0 && v.indexOf('"') < 0 && v.indexOf('\n') < 0) return v;
+        return '"' + v.replace("\"", "\"\"") + '"';
     }
 }
@@ -9,7 +9,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -37,6 +40,7 @@ public class EntradaService {
                 .observacao(dto.getObservacao())
                 .build();
 
+        Map<Long, BigDecimal> creditos = new HashMap<>();
         dto.getItens().forEach(it -> {
             Insumo insumo = insumoRepo.findById(it.getInsumoId())
                     .orElseThrow(() -> new IllegalArgumentException("Insumo não encontrado."));
@@ -50,8 +54,9 @@ public class EntradaService {
                     .localizacaoFisica(it.getLocalizacaoFisica())
                     .build();
             entrada.getItens().add(item);
-            movService.creditar(local, lote, it.getQuantidade());
+            creditos.merge(lote.getId(), it.getQuantidade(), BigDecimal::add);
         });
+        movService.creditarLote(local.getId(), creditos);
 
         Entrada salvo = entradaRepo.save(entrada);
         return new ApiResponse<>(true, "Entrada registrada com sucesso.", salvo.getId());
@@ -1,40 +1,114 @@
 package com.sistemadesaude.backend.estoque.service;
 
 import com.sistemadesaude.backend.estoque.entity.*;
-import com.sistemadesaude.backend.estoque.repository.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
+/**
+ * Movimentação de saldo por LOTE em um LOCAL.
+ *
+ * Sem read-modify-write: cada movimento é um único comando condicional no banco.
+ * - Débito: UPDATE ... SET saldo = saldo - q WHERE saldo >= q (0 linhas = saldo insuficiente).
+ * - Crédito: INSERT ... ON CONFLICT (local_id, lote_id) DO UPDATE SET saldo = saldo + q.
+ *
+ * Os movimentos de um documento inteiro (saída, entrada, transferência) vão em um único
+ * batch JDBC, agregados por lote e ordenados por id (ordem de lock estável, sem deadlock
+ * entre documentos concorrentes). Qualquer falha lança exceção e desfaz a transação.
+ */
 @Service
 @RequiredArgsConstructor
 public class EstoqueMovimentoService {
 
-    private final EstoqueLoteRepository estoqueLoteRepository;
+    private static final String SQL_DEBITO =
+            "UPDATE est_estoque_lote SET saldo = saldo - ?, version = version + 1 " +
+            "WHERE local_id = ? AND lote_id = ? AND saldo >= ?";
+
+    private static final String SQL_CREDITO =
+            "INSERT INTO est_estoque_lote (local_id, lote_id, saldo, version) VALUES (?, ?, ?, 0) " +
+            "ON CONFLICT (local_id, lote_id) DO UPDATE " +
+            "SET saldo = est_estoque_lote.saldo + EXCLUDED.saldo, version = est_estoque_lote.version + 1";
+
+    private final JdbcTemplate jdbcTemplate;
 
     /** Credita quantidade no saldo do LOTE em um LOCAL. */
     @Transactional
-    public EstoqueLote creditar(LocalArmazenamento local, Lote lote, BigDecimal qtd) {
-        EstoqueLote el = estoqueLoteRepository
-                .findByLocalIdAndLoteId(local.getId(), lote.getId())
-                .orElse(EstoqueLote.builder().local(local).lote(lote).saldo(BigDecimal.ZERO).build());
-
-        el.setSaldo(el.getSaldo().add(qtd));
-        return estoqueLoteRepository.save(el);
+    public void creditar(LocalArmazenamento local, Lote lote, BigDecimal qtd) {
+        creditarLote(local.getId(), Map.of(lote.getId(), qtd));
     }
 
     /** Debita quantidade do saldo do LOTE em um LOCAL, validando saldo não negativo. */
     @Transactional
-    public EstoqueLote debitar(LocalArmazenamento local, Lote lote, BigDecimal qtd) {
-        EstoqueLote el = estoqueLoteRepository
-                .findByLocalIdAndLoteId(local.getId(), lote.getId())
-                .orElseThrow(() -> new IllegalArgumentException("Saldo inexistente para o lote no local."));
-        if (el.getSaldo().compareTo(qtd) < 0) {
-            throw new IllegalArgumentException("Saldo insuficiente para o lote no local.");
+    public void debitar(LocalArmazenamento local, Lote lote, BigDecimal qtd) {
+        debitarLote(local.getId(), Map.of(lote.getId(), qtd));
+    }
+
+    /**
+     * Credita vários lotes no mesmo local em um único batch.
+     * @param quantidadesPorLote loteId → quantidade (positiva)
+     */
+    @Transactional
+    public void creditarLote(Long localId, Map<Long, BigDecimal> quantidadesPorLote) {
+        List<Map.Entry<Long, BigDecimal>> movimentos = normalizar(quantidadesPorLote);
+        if (movimentos.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(SQL_CREDITO, movimentos, movimentos.size(), (ps, m) -> {
+            ps.setLong(1, localId);
+            ps.setLong(2, m.getKey());
+            ps.setBigDecimal(3, m.getValue());
+        });
+    }
+
+    /**
+     * Debita vários lotes do mesmo local em um único batch; tudo ou nada.
+     * @param quantidadesPorLote loteId → quantidade (positiva)
+     * @throws IllegalArgumentException se algum lote não tiver saldo suficiente no local
+     */
+    @Transactional
+    public void debitarLote(Long localId, Map<Long, BigDecimal> quantidadesPorLote) {
+        List<Map.Entry<Long, BigDecimal>> movimentos = normalizar(quantidadesPorLote);
+        if (movimentos.isEmpty()) return;
+
+        int[][] resultado = jdbcTemplate.batchUpdate(SQL_DEBITO, movimentos, movimentos.size(), (ps, m) -> {
+            ps.setBigDecimal(1, m.getValue());
+            ps.setLong(2, localId);
+            ps.setLong(3, m.getKey());
+            ps.setBigDecimal(4, m.getValue());
+        });
+
+        List<Long> semSaldo = new ArrayList<>();
+        for (int i = 0; i < movimentos.size(); i++) {
+            if (resultado[0][i] == 0) {
+                semSaldo.add(movimentos.get(i).getKey());
+            }
         }
-        el.setSaldo(el.getSaldo().subtract(qtd));
-        return estoqueLoteRepository.save(el);
+        if (!semSaldo.isEmpty()) {
+            // Exceção não verificada: a transação do chamador é desfeita por inteiro
+            throw new IllegalArgumentException("Saldo insuficiente para o(s) lote(s) " + semSaldo + " no local.");
+        }
+    }
+
+    /** Agrega por lote (mesmo lote repetido no documento) e ordena por id. */
+    private static List<Map.Entry<Long, BigDecimal>> normalizar(Map<Long, BigDecimal> quantidadesPorLote) {
+        TreeMap<Long, BigDecimal> agregado = new TreeMap<>();
+        quantidadesPorLote.forEach((loteId, qtd) -> {
+            if (loteId == null || qtd == null) {
+                throw new IllegalArgumentException("Movimento inválido: informe lote e quantidade.");
+            }
+            if (qtd.signum() < 0) {
+                throw new IllegalArgumentException("Quantidade não pode ser negativa (lote " + loteId + ").");
+            }
+            if (qtd.signum() > 0) {
+                agregado.merge(loteId, qtd, BigDecimal::add);
+            }
+        });
+        return new ArrayList<>(agregado.entrySet());
     }
 }
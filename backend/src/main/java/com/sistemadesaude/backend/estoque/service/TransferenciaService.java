@@ -77,7 +77,8 @@ public class TransferenciaService {
         callSetterIfExists(t, "setObservacoes", dto.getObservacoes());
         ensureItemsList(t);
 
-        // --- itens + debita origem ---
+        // --- itens + debita origem (um único batch no final) ---
+        Map<Long, BigDecimal> debitos = new HashMap<>();
         dto.getItens().forEach(it -> {
             Lote lote = loteRepo.findById(it.getLoteId()).orElseThrow();
 
@@ -87,8 +88,9 @@ public class TransferenciaService {
             callSetterIfExists(ti, "setQuantidadeEnviada", it.getQuantidade());
 
             addItemToTransfer(t, ti);
-            movService.debitar(lo, lote, toBigDecimal(it.getQuantidade()));
+            debitos.merge(lote.getId(), toBigDecimal(it.getQuantidade()), BigDecimal::add);
         });
+        movService.debitarLote(lo.getId(), debitos);
 
         Transferencia salvo = transfRepo.save(t);
         return new ApiResponse<>(true, "Transferência criada com sucesso.", getIdIfExists(salvo));
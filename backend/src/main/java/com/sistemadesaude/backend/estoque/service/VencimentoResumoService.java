@@ -0,0 +1,149 @@
+package com.sistemadesaude.backend.estoque.service;
+
+import com.sistemadesaude.backend.estoque.dto.VencimentoResumoDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resumo de vencimentos por local e faixa, pré-calculado para o painel da farmácia.
+ *
+ * - Recalculado uma vez por dia (app.estoque.vencimento-resumo.hora, padrão 02:00) por uma
+ *   thread própria (a aplicação não usa @EnableScheduling) e na subida, se o resumo não for de hoje.
+ * - O recálculo troca o conteúdo da tabela em uma transação: o painel nunca vê o resumo pela metade.
+ * - A leitura do painel é um SELECT na tabela de resumo, sem tocar em saldos/lotes.
+ * - Recálculo manual: {@link #recalcular()} (após inventário, por exemplo).
+ */
+@Slf4j
+@Service
+public class VencimentoResumoService {
+
+    /** Serializa recálculos concorrentes (várias instâncias no mesmo horário, ou manual + agendado) */
+    private static final String SQL_LOCK = "SELECT pg_advisory_xact_lock(hashtext('est_vencimento_resumo'))";
+
+    private static final String SQL_LIMPAR = "DELETE FROM est_vencimento_resumo";
+
+    private static final String SQL_CALCULAR = """
+            INSERT INTO est_vencimento_resumo (local_id, faixa, quantidade_lotes, saldo_total, data_referencia, calculado_em)
+            SELECT e.local_id,
+                   CASE WHEN l.data_vencimento <  CAST(? AS date)      THEN 'VENCIDO'
+                        WHEN l.data_vencimento <= CAST(? AS date) + 30 THEN 'ATE_30_DIAS'
+                        WHEN l.data_vencimento <= CAST(? AS date) + 60 THEN 'ATE_60_DIAS'
+                        WHEN l.data_vencimento <= CAST(? AS date) + 90 THEN 'ATE_90_DIAS'
+                        ELSE 'ACIMA_90_DIAS' END AS faixa,
+                   count(*), sum(e.saldo), CAST(? AS date), now()
+              FROM est_estoque_lote e
+              JOIN est_lote l ON l.id = e.lote_id
+             WHERE e.saldo > 0
+               AND l.data_vencimento IS NOT NULL
+             GROUP BY e.local_id, faixa
+            """;
+
+    private static final String SQL_LISTAR = """
+            SELECT local_id, faixa, quantidade_lotes, saldo_total, data_referencia, calculado_em
+              FROM est_vencimento_resumo
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LocalTime horario;
+
+    private ScheduledExecutorService executor;
+
+    public VencimentoResumoService(JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${app.estoque.vencimento-resumo.hora:2}") int hora) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.horario = LocalTime.of(hora, 0);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "estoque-vencimento-resumo");
+            t.setDaemon(true);
+            return t;
+        });
+
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime proxima = agora.toLocalDate().atTime(horario);
+        if (!proxima.isAfter(agora)) {
+            proxima = proxima.plusDays(1);
+        }
+        long atrasoInicialMs = Duration.between(agora, proxima).toMillis();
+        executor.scheduleAtFixedRate(this::recalcularSeguro, atrasoInicialMs,
+                TimeUnit.DAYS.toMillis(1), TimeUnit.MILLISECONDS);
+
+        // Subida: resumo ausente ou de outro dia é recalculado em segundo plano
+        executor.execute(() -> {
+            try {
+                LocalDate referencia = jdbcTemplate.queryForObject(
+                        "SELECT max(data_referencia) FROM est_vencimento_resumo", LocalDate.class);
+                if (!LocalDate.now().equals(referencia)) {
+                    recalcularSeguro();
+                }
+            } catch (Exception e) {
+                log.warn("⚠️ Resumo de vencimentos não verificado na subida: {}", e.getMessage());
+            }
+        });
+        log.info("📅 Resumo de vencimentos agendado diariamente às {}", horario);
+    }
+
+    @PreDestroy
+    void parar() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /** Resumo do local (ou de todos os locais, se localId for null). */
+    public List<VencimentoResumoDTO> listar(Long localId) {
+        String sql = SQL_LISTAR + (localId != null ? " WHERE local_id = ?" : "") + " ORDER BY local_id, faixa";
+        Object[] args = localId != null ? new Object[]{localId} : new Object[0];
+        return jdbcTemplate.query(sql, (rs, i) -> VencimentoResumoDTO.builder()
+                .localId(rs.getLong(1))
+                .faixa(rs.getString(2))
+                .quantidadeLotes(rs.getInt(3))
+                .saldoTotal(rs.getBigDecimal(4))
+                .dataReferencia(rs.getDate(5).toLocalDate())
+                .calculadoEm(rs.getTimestamp(6).toLocalDateTime())
+                .build(), args);
+    }
+
+    /** Recalcula o resumo com a data de hoje; retorna a quantidade de linhas (local × faixa). */
+    public int recalcular() {
+        long inicio = System.currentTimeMillis();
+        Date hoje = Date.valueOf(LocalDate.now());
+        Integer linhas = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute(SQL_LOCK);
+            jdbcTemplate.update(SQL_LIMPAR);
+            return jdbcTemplate.update(SQL_CALCULAR, hoje, hoje, hoje, hoje, hoje);
+        });
+        int total = linhas == null ? 0 : linhas;
+        log.info("✅ Resumo de vencimentos recalculado: {} linhas em {} ms", total, System.currentTimeMillis() - inicio);
+        return total;
+    }
+
+    private void recalcularSeguro() {
+        try {
+            recalcular();
+        } catch (Exception e) {
+            log.error("❌ Falha ao recalcular resumo de vencimentos: {}", e.getMessage(), e);
+        }
+    }
+}
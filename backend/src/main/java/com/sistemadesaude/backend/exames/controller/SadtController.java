@@ -7,6 +7,7 @@ import com.sistemadesaude.backend.exames.service.SadtService;
 import com.sistemadesaude.backend.prontuario.entity.ProntuarioDocumento;
 import com.sistemadesaude.backend.prontuario.enums.TipoDocumento;
 import com.sistemadesaude.backend.prontuario.repository.ProntuarioDocumentoRepository;
+import com.sistemadesaude.backend.prontuario.service.ProntuarioDocumentoService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -41,6 +42,7 @@ public class SadtController {
 
     // ➕ leitura do PDF PERSISTIDO no prontuário
     private final ProntuarioDocumentoRepository documentoRepository;
+    private final ProntuarioDocumentoService documentoService;
 
     // 1) Geração (mantido)
     @PostMapping("/gerar")
@@ -101,8 +103,9 @@ public class SadtController {
                 .findFirstByAgendamentoIdAndTipoOrderByCriadoEmDesc(agendamentoId, TipoDocumento.SADT)
                 .orElse(null);
 
-        if (doc != null && doc.getArquivoPdf() != null && doc.getArquivoPdf().length > 0) {
-            return doc.getArquivoPdf();
+        byte[] persistido = documentoService.lerConteudo(doc);
+        if (persistido != null && persistido.length > 0) {
+            return persistido;
         }
 
         // fallback: última SADT desse agendamento (cache em Sadt)
@@ -37,13 +37,6 @@ public interface SadtRepository extends JpaRepository<Sadt, Long> {
     /** Verificação rápida de duplicidade de número. */
     boolean existsByNumeroSadt(String numeroSadt);
 
-    /**
-     * Retorna a "maior" SADT para um prefixo (ex.: "20250903-"), ordenando lexicograficamente DESC.
-     * Funciona porque a parte sequencial é zero-padded (000001, 000002, ...).
-     * ÚTIL para o SadtNumeroService.
-     */
-    Optional<Sadt> findTopByNumeroSadtStartingWithOrderByNumeroSadtDesc(String prefix);
-
     /** Conta por prefixo (opcional – útil para relatórios). */
     long countByNumeroSadtStartingWith(String prefixo);
 
@@ -9,6 +9,7 @@ import com.sistemadesaude.backend.operador.entity.Operador;
 import com.sistemadesaude.backend.paciente.entity.Paciente;
 import com.sistemadesaude.backend.paciente.repository.PacienteRepository;
 import com.sistemadesaude.backend.service.BarcodeService;
+import com.sistemadesaude.backend.service.NumeroDocumentoService;
 import com.google.zxing.WriterException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,6 +17,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -32,6 +34,7 @@ public class RecepcaoExameService {
     private final MotivoExameRepository motivoExameRepository;
     private final ConfiguracaoLaboratorioRepository configuracaoRepository;
     private final BarcodeService barcodeService;
+    private final NumeroDocumentoService numeroDocumentoService;
 
     @Transactional
     public RecepcaoExame criar(CriarRecepcaoRequest request, Operador operador) {
@@ -136,10 +139,10 @@ public class RecepcaoExameService {
     }
 
     private String gerarNumeroRecepcao() {
-        String prefixo = "LAB";
-        String data = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String sequencia = String.format("%06d", System.currentTimeMillis() % 1000000);
-        return prefixo + data + sequencia;
+        // LAB + yyyyMMdd + sequência do dia (série "LAB_RECEPCAO"), sem colisão entre recepções simultâneas
+        LocalDate hoje = LocalDate.now();
+        long sequencia = numeroDocumentoService.proximo("LAB_RECEPCAO", hoje);
+        return "LAB" + hoje.format(DateTimeFormatter.ofPattern("yyyyMMdd")) + String.format("%06d", sequencia);
     }
 
     // Método obsoleto - usar BarcodeService.gerarCodigoRecepcaoLaboratorio()
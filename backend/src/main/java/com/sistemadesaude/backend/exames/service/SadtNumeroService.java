@@ -1,23 +1,24 @@
 package com.sistemadesaude.backend.exames.service;
 
-import com.sistemadesaude.backend.exames.entity.Sadt;
-import com.sistemadesaude.backend.exames.repository.SadtRepository;
+import com.sistemadesaude.backend.service.NumeroDocumentoService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.Optional;
 
 /**
  * Gera números SADT no formato: yyyyMMdd-XXXXXX (com zero-padding).
- * Evita usar SQL com substring/like e funciona em qualquer banco suportado por JPA.
+ * A sequência do dia vem do {@link NumeroDocumentoService} (série "SADT"): sem consulta
+ * ao último número e sem colisão entre requisições/instâncias simultâneas.
  */
 @Service
 @RequiredArgsConstructor
 public class SadtNumeroService {
 
-    private final SadtRepository sadtRepository;
+    static final String SERIE = "SADT";
+
+    private final NumeroDocumentoService numeroDocumentoService;
 
     private static final DateTimeFormatter DIA = DateTimeFormatter.ofPattern("yyyyMMdd");
     private static final int LARGURA = 6;
@@ -27,23 +28,7 @@ public class SadtNumeroService {
      * Exemplo: 20250903-000001
      */
     public String gerarProximoNumero(LocalDate data) {
-        String prefixo = data.format(DIA) + "-";
-
-        // Busca a última SADT do dia, ordenada pelo numeroSadt (funciona pq tem zero-padding)
-        Optional<Sadt> ultimo = sadtRepository.findTopByNumeroSadtStartingWithOrderByNumeroSadtDesc(prefixo);
-
-        long proximo = 1L;
-        if (ultimo.isPresent()) {
-            String ultimoNumero = ultimo.get().getNumeroSadt(); // ex.: 20250903-000014
-            if (ultimoNumero != null && ultimoNumero.startsWith(prefixo)) {
-                try {
-                    long seq = Long.parseLong(ultimoNumero.substring(prefixo.length())); // "000014"
-                    proximo = seq + 1L;
-                } catch (NumberFormatException ignore) {
-                    proximo = 1L;
-                }
-            }
-        }
-        return prefixo + String.format("%0" + LARGURA + "d", proximo);
+        long proximo = numeroDocumentoService.proximo(SERIE, data);
+        return data.format(DIA) + "-" + String.format("%0" + LARGURA + "d", proximo);
     }
 }
@@ -25,6 +25,21 @@ public class SadtPdfService {
 
     private final PdfCreationService pdfCreationService;
 
+    // Fontes criadas uma vez (FontFactory faz lookup a cada chamada)
+    private static final Font TITLE_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, BaseColor.BLACK);
+    private static final Font HEADER_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 9, BaseColor.BLACK);
+    private static final Font NORMAL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 8, BaseColor.BLACK);
+    private static final Font SMALL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 7, BaseColor.GRAY);
+    private static final Font URGENTE_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, BaseColor.RED);
+    private static final Font CAMPO_LABEL_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 9);
+    private static final Font LABEL_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 8);
+    private static final Font VALUE_FONT = FontFactory.getFont(FontFactory.HELVETICA, 8);
+    private static final Font ITEM_FONT = FontFactory.getFont(FontFactory.HELVETICA, 7);
+    private static final Font ITEM_VAZIO_FONT = FontFactory.getFont(FontFactory.HELVETICA_OBLIQUE, 7);
+    private static final Font RODAPE_FONT = FontFactory.getFont(FontFactory.HELVETICA, 6, BaseColor.GRAY);
+    private static final Font ESPACO_FONT = FontFactory.getFont(FontFactory.HELVETICA, 5);
+    private static final Font ESPACO_COMPACTO_FONT = FontFactory.getFont(FontFactory.HELVETICA, 3);
+
     // Mapeamento dos códigos para nomes do frontend
     private static final Map<String, String> MAPA_EXAMES = new HashMap<>();
     static {
@@ -48,31 +63,25 @@ public class SadtPdfService {
         try {
             String nomeEstabelecimento = sadtDto.getEstabelecimentoNome() != null ? sadtDto.getEstabelecimentoNome() : "Clínica Padrão";
 
-            return pdfCreationService.gerarPdfComCabecalho(nomeEstabelecimento, document -> {
-            // Fontes
-            Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, BaseColor.BLACK);
-            Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 9, BaseColor.BLACK);
-            Font normalFont = FontFactory.getFont(FontFactory.HELVETICA, 8, BaseColor.BLACK);
-            Font smallFont = FontFactory.getFont(FontFactory.HELVETICA, 7, BaseColor.GRAY);
-
+            return pdfCreationService.gerarPdfComCabecalho("sadt", nomeEstabelecimento, document -> {
             // Adiciona o título específico do SADT e o número (abaixo do logo)
-            adicionarTituloSadt(document, sadtDto, titleFont, headerFont, normalFont, smallFont);
+            adicionarTituloSadt(document, sadtDto, TITLE_FONT, HEADER_FONT, NORMAL_FONT, SMALL_FONT);
 
             // Adiciona o restante do conteúdo
-            adicionarDadosEstabelecimentoCompacto(document, sadtDto, headerFont, normalFont);
-            document.add(new Paragraph(" ", FontFactory.getFont(FontFactory.HELVETICA, 3)));
-            adicionarDadosPacienteCompacto(document, sadtDto, headerFont, normalFont);
-            document.add(new Paragraph(" ", FontFactory.getFont(FontFactory.HELVETICA, 3)));
-            adicionarDadosSolicitanteCompacto(document, sadtDto, headerFont, normalFont);
-            document.add(new Paragraph(" ", FontFactory.getFont(FontFactory.HELVETICA, 3)));
-            adicionarProcedimentosLista(document, sadtDto, headerFont, normalFont);
+            adicionarDadosEstabelecimentoCompacto(document, sadtDto, HEADER_FONT, NORMAL_FONT);
+            document.add(new Paragraph(" ", ESPACO_COMPACTO_FONT));
+            adicionarDadosPacienteCompacto(document, sadtDto, HEADER_FONT, NORMAL_FONT);
+            document.add(new Paragraph(" ", ESPACO_COMPACTO_FONT));
+            adicionarDadosSolicitanteCompacto(document, sadtDto, HEADER_FONT, NORMAL_FONT);
+            document.add(new Paragraph(" ", ESPACO_COMPACTO_FONT));
+            adicionarProcedimentosLista(document, sadtDto, HEADER_FONT, NORMAL_FONT);
 
             if (sadtDto.getObservacoes() != null && !sadtDto.getObservacoes().trim().isEmpty()) {
-                document.add(new Paragraph(" ", FontFactory.getFont(FontFactory.HELVETICA, 3)));
-                adicionarObservacoesCompacto(document, sadtDto, headerFont, normalFont);
+                document.add(new Paragraph(" ", ESPACO_COMPACTO_FONT));
+                adicionarObservacoesCompacto(document, sadtDto, HEADER_FONT, NORMAL_FONT);
             }
 
-            adicionarRodapeCompacto(document, sadtDto, smallFont);
+            adicionarRodapeCompacto(document, sadtDto, SMALL_FONT);
             });
         } catch (Exception e) {
             log.error("Erro ao gerar PDF da SADT {}: {}", sadtDto.getNumeroSadt(), e.getMessage(), e);
@@ -105,7 +114,7 @@ public class SadtPdfService {
         infoCell.addElement(new Paragraph("SADT Nº: " + sadtDto.getNumeroSadt(), headerFont));
         infoCell.addElement(new Paragraph("Data: " + sadtDto.getDataEmissao().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")), normalFont));
         if (sadtDto.getUrgente() != null && sadtDto.getUrgente()) {
-            Paragraph urgente = new Paragraph("🚨 URGENTE", FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, BaseColor.RED));
+            Paragraph urgente = new Paragraph("🚨 URGENTE", URGENTE_FONT);
             urgente.setAlignment(Element.ALIGN_RIGHT);
             infoCell.addElement(urgente);
         }
@@ -130,33 +139,33 @@ public class SadtPdfService {
         table.setWidths(new float[]{0.25f, 0.25f, 0.25f, 0.25f});
         table.setSpacingAfter(2);
 
-        PdfPCell nomeLabel = new PdfPCell(new Phrase("Estabelecimento:", FontFactory.getFont(FontFactory.HELVETICA_BOLD, 8)));
+        PdfPCell nomeLabel = new PdfPCell(new Phrase("Estabelecimento:", LABEL_FONT));
         nomeLabel.setBorder(Rectangle.NO_BORDER);
         nomeLabel.setPadding(1);
         table.addCell(nomeLabel);
 
-        PdfPCell nomeValue = new PdfPCell(new Phrase(sadtDto.getEstabelecimentoNome() != null ? sadtDto.getEstabelecimentoNome() : "", FontFactory.getFont(FontFactory.HELVETICA, 8)));
+        PdfPCell nomeValue = new PdfPCell(new Phrase(sadtDto.getEstabelecimentoNome() != null ? sadtDto.getEstabelecimentoNome() : "", VALUE_FONT));
         nomeValue.setBorder(Rectangle.NO_BORDER);
         nomeValue.setPadding(1);
         nomeValue.setColspan(3);
         table.addCell(nomeValue);
 
-        PdfPCell cnesLabel = new PdfPCell(new Phrase("CNES:", FontFactory.getFont(FontFactory.HELVETICA_BOLD, 8)));
+        PdfPCell cnesLabel = new PdfPCell(new Phrase("CNES:", LABEL_FONT));
         cnesLabel.setBorder(Rectangle.NO_BORDER);
         cnesLabel.setPadding(1);
         table.addCell(cnesLabel);
 
-        PdfPCell cnesValue = new PdfPCell(new Phrase(sadtDto.getEstabelecimentoCnes() != null ? sadtDto.getEstabelecimentoCnes() : "", FontFactory.getFont(FontFactory.HELVETICA, 8)));
+        PdfPCell cnesValue = new PdfPCell(new Phrase(sadtDto.getEstabelecimentoCnes() != null ? sadtDto.getEstabelecimentoCnes() : "", VALUE_FONT));
         cnesValue.setBorder(Rectangle.NO_BORDER);
         cnesValue.setPadding(1);
         table.addCell(cnesValue);
 
-        PdfPCell telefoneLabel = new PdfPCell(new Phrase("Telefone:", FontFactory.getFont(FontFactory.HELVETICA_BOLD, 8)));
+        PdfPCell telefoneLabel = new PdfPCell(new Phrase("Telefone:", LABEL_FONT));
         telefoneLabel.setBorder(Rectangle.NO_BORDER);
         telefoneLabel.setPadding(1);
         table.addCell(telefoneLabel);
 
-        PdfPCell telefoneValue = new PdfPCell(new Phrase(sadtDto.getEstabelecimentoTelefone() != null ? sadtDto.getEstabelecimentoTelefone() : "", FontFactory.getFont(FontFactory.HELVETICA, 8)));
+        PdfPCell telefoneValue = new PdfPCell(new Phrase(sadtDto.getEstabelecimentoTelefone() != null ? sadtDto.getEstabelecimentoTelefone() : "", VALUE_FONT));
         telefoneValue.setBorder(Rectangle.NO_BORDER);
         telefoneValue.setPadding(1);
         table.addCell(telefoneValue);
@@ -221,7 +230,7 @@ public class SadtPdfService {
                 String nome = obterNomeExameFormatado(codigo, procedimento.getNome());
                 Integer quantidade = procedimento.getQuantidade() != null ? procedimento.getQuantidade() : 1;
 
-                PdfPCell codigoCell = new PdfPCell(new Phrase(codigo, FontFactory.getFont(FontFactory.HELVETICA, 7)));
+                PdfPCell codigoCell = new PdfPCell(new Phrase(codigo, ITEM_FONT));
                 codigoCell.setBorder(Rectangle.NO_BORDER);
                 codigoCell.setPadding(1);
                 table.addCell(codigoCell);
@@ -231,13 +240,13 @@ public class SadtPdfService {
                     nomeFormatado += " (Qtd: " + quantidade + ")";
                 }
 
-                PdfPCell nomeCell = new PdfPCell(new Phrase(nomeFormatado, FontFactory.getFont(FontFactory.HELVETICA, 7)));
+                PdfPCell nomeCell = new PdfPCell(new Phrase(nomeFormatado, ITEM_FONT));
                 nomeCell.setBorder(Rectangle.NO_BORDER);
                 nomeCell.setPadding(1);
                 table.addCell(nomeCell);
             }
         } else {
-            PdfPCell nomeCell = new PdfPCell(new Phrase("Nenhum procedimento solicitado.", FontFactory.getFont(FontFactory.HELVETICA_OBLIQUE, 7)));
+            PdfPCell nomeCell = new PdfPCell(new Phrase("Nenhum procedimento solicitado.", ITEM_VAZIO_FONT));
             nomeCell.setBorder(Rectangle.NO_BORDER);
             nomeCell.setColspan(2);
             nomeCell.setPadding(1);
@@ -252,7 +261,7 @@ public class SadtPdfService {
         secao.setSpacingAfter(1);
         document.add(secao);
 
-        Font obsFont = FontFactory.getFont(FontFactory.HELVETICA, 7);
+        Font obsFont = ITEM_FONT;
         Paragraph observacoes = new Paragraph(sadtDto.getObservacoes(), obsFont);
         observacoes.setIndentationLeft(5);
         observacoes.setAlignment(Element.ALIGN_JUSTIFIED);
@@ -270,10 +279,10 @@ public class SadtPdfService {
         assinaturaMedicoCell.setBorder(Rectangle.TOP);
         assinaturaMedicoCell.setHorizontalAlignment(Element.ALIGN_CENTER);
         assinaturaMedicoCell.setPadding(2);
-        Paragraph medicoNome = new Paragraph(sadtDto.getSolicitanteNome() != null ? sadtDto.getSolicitanteNome() : "Dr. Sistema", FontFactory.getFont(FontFactory.HELVETICA, 7));
+        Paragraph medicoNome = new Paragraph(sadtDto.getSolicitanteNome() != null ? sadtDto.getSolicitanteNome() : "Dr. Sistema", ITEM_FONT);
         medicoNome.setAlignment(Element.ALIGN_CENTER);
         assinaturaMedicoCell.addElement(medicoNome);
-        Paragraph medicoLabel = new Paragraph("Médico Solicitante", FontFactory.getFont(FontFactory.HELVETICA, 7, BaseColor.GRAY));
+        Paragraph medicoLabel = new Paragraph("Médico Solicitante", SMALL_FONT);
         medicoLabel.setAlignment(Element.ALIGN_CENTER);
         assinaturaMedicoCell.addElement(medicoLabel);
         assinaturasTable.addCell(assinaturaMedicoCell);
@@ -282,16 +291,16 @@ public class SadtPdfService {
         operadorCell.setBorder(Rectangle.TOP);
         operadorCell.setHorizontalAlignment(Element.ALIGN_CENTER);
         operadorCell.setPadding(2);
-        Paragraph operadorNome = new Paragraph(sadtDto.getCriadoPor() != null ? sadtDto.getCriadoPor() : "Operador do Sistema", FontFactory.getFont(FontFactory.HELVETICA, 7));
+        Paragraph operadorNome = new Paragraph(sadtDto.getCriadoPor() != null ? sadtDto.getCriadoPor() : "Operador do Sistema", ITEM_FONT);
         operadorNome.setAlignment(Element.ALIGN_CENTER);
         operadorCell.addElement(operadorNome);
-        Paragraph operadorLabel = new Paragraph("Responsável pela Autorização", FontFactory.getFont(FontFactory.HELVETICA, 7, BaseColor.GRAY));
+        Paragraph operadorLabel = new Paragraph("Responsável pela Autorização", SMALL_FONT);
         operadorLabel.setAlignment(Element.ALIGN_CENTER);
         operadorCell.addElement(operadorLabel);
         assinaturasTable.addCell(operadorCell);
         document.add(assinaturasTable);
 
-        document.add(new Paragraph("\n", FontFactory.getFont(FontFactory.HELVETICA, 5)));
+        document.add(new Paragraph("\n", ESPACO_FONT));
         PdfPTable rodapeTable = new PdfPTable(2);
         rodapeTable.setWidthPercentage(100);
         rodapeTable.setWidths(new float[]{1f, 1f});
@@ -300,7 +309,7 @@ public class SadtPdfService {
         leftFooter.setBorder(Rectangle.NO_BORDER);
         leftFooter.setVerticalAlignment(Element.ALIGN_BOTTOM);
         String tipoImpressao = isReimpressao(sadtDto) ? "🖨️ REIMPRESSÃO" : "📋 IMPRESSÃO ORIGINAL";
-        Paragraph tipoDoc = new Paragraph(tipoImpressao, FontFactory.getFont(FontFactory.HELVETICA, 6, BaseColor.GRAY));
+        Paragraph tipoDoc = new Paragraph(tipoImpressao, RODAPE_FONT);
         leftFooter.addElement(tipoDoc);
         rodapeTable.addCell(leftFooter);
 
@@ -308,7 +317,7 @@ public class SadtPdfService {
         rightFooter.setBorder(Rectangle.NO_BORDER);
         rightFooter.setHorizontalAlignment(Element.ALIGN_RIGHT);
         rightFooter.setVerticalAlignment(Element.ALIGN_BOTTOM);
-        Paragraph sistema = new Paragraph("Sistema de Saúde Digital v2.0", FontFactory.getFont(FontFactory.HELVETICA, 6, BaseColor.GRAY));
+        Paragraph sistema = new Paragraph("Sistema de Saúde Digital v2.0", RODAPE_FONT);
         sistema.setAlignment(Element.ALIGN_RIGHT);
         rightFooter.addElement(sistema);
         rodapeTable.addCell(rightFooter);
@@ -316,7 +325,7 @@ public class SadtPdfService {
     }
 
     private void adicionarCelulaCompacta(PdfPTable table, String label, String value, Font font) {
-        PdfPCell labelCell = new PdfPCell(new Phrase(label, FontFactory.getFont(FontFactory.HELVETICA_BOLD, 9)));
+        PdfPCell labelCell = new PdfPCell(new Phrase(label, CAMPO_LABEL_FONT));
         labelCell.setBorder(Rectangle.NO_BORDER);
         labelCell.setPadding(2);
         table.addCell(labelCell);
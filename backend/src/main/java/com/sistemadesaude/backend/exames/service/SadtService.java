@@ -28,7 +28,6 @@ import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.Base64;
 import java.util.List;
 import java.util.Objects;
@@ -57,7 +56,6 @@ public class SadtService {
     private final UnidadeSaudeRepository unidadeSaudeRepository;
     private final BarcodeService barcodeService;
 
-    private static final DateTimeFormatter DIA = DateTimeFormatter.ofPattern("yyyyMMdd");
 
     // ===================== AÇÃO PRINCIPAL =====================
 
@@ -88,9 +86,8 @@ public class SadtService {
             // 1.5) Preencher dados obrigatórios do estabelecimento
             preencherDadosEstabelecimento(sadt);
 
-            // 2) Gerar número (yyyyMMdd-XXXXXX) com unicidade simples
-            String prefixo = LocalDate.now().format(DIA) + "-";
-            String numero = proximoNumeroSeguro(prefixo);
+            // 2) Gerar número (yyyyMMdd-XXXXXX), único mesmo com SADTs simultâneas
+            String numero = sadtNumeroService.gerarProximoNumero(LocalDate.now());
             sadt.setNumeroSadt(numero);
 
             // 3) Mapear procedimentos (associação bidirecional)
@@ -233,24 +230,6 @@ public class SadtService {
             throw new IllegalArgumentException("Ao menos um procedimento é obrigatório");
     }
 
-    /** Garante unicidade simples para o número (evita colisão em concorrência leve). */
-    private String proximoNumeroSeguro(String prefixo) {
-        // Usa o gerador (que olha a última do dia e incrementa)
-        String numero = sadtNumeroService.gerarProximoNumero(LocalDate.now());
-
-        // Se, por algum motivo, alguém salvou o mesmo número em paralelo, tenta de novo
-        int tentativas = 0;
-        while (sadtRepository.findByNumeroSadt(numero).isPresent() && tentativas < 5) {
-            tentativas++;
-            // força novo cálculo: como o gerador consulta o "último", ele incrementa
-            numero = sadtNumeroService.gerarProximoNumero(LocalDate.now());
-        }
-        if (sadtRepository.findByNumeroSadt(numero).isPresent()) {
-            throw new IllegalStateException("Não foi possível gerar um número SADT único após múltiplas tentativas.");
-        }
-        return numero;
-    }
-
     /** Converte o request em entidades de procedimento ligadas à SADT. */
     private List<ProcedimentoSadt> mapProcedimentos(GerarSadtRequest request, Sadt sadt, String operador) {
         return request.getProcedimentos().stream().map(pr -> {
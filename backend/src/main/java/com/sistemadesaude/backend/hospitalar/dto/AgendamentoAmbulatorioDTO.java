@@ -26,6 +26,7 @@ public class AgendamentoAmbulatorioDTO {
     private String nomeEspecialidade;
     private LocalDate dataAgendamento;
     private LocalTime horaAgendamento;
+    private Long escalaId;
     private AgendamentoAmbulatorio.TipoConsulta tipoConsulta;
     private AgendamentoAmbulatorio.StatusAgendamento statusAgendamento;
     private AgendamentoAmbulatorio.PrioridadeAgendamento prioridade;
@@ -32,6 +32,9 @@ public class CriarAgendamentoAmbulatorioRequest {
     @NotNull(message = "Hora do agendamento é obrigatória")
     private LocalTime horaAgendamento;
 
+    /** Escala em que a vaga será ocupada (opcional: sem ela, usa a escala ativa que cobre o horário) */
+    private Long escalaId;
+
     private AgendamentoAmbulatorio.TipoConsulta tipoConsulta;
     private AgendamentoAmbulatorio.PrioridadeAgendamento prioridade;
     private String observacoes;
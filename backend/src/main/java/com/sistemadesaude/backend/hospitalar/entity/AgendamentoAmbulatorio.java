@@ -44,6 +44,10 @@ public class AgendamentoAmbulatorio {
     @Column(name = "hora_agendamento", nullable = false)
     private LocalTime horaAgendamento;
 
+    /** Escala médica em que a vaga foi ocupada */
+    @Column(name = "escala_id")
+    private Long escalaId;
+
     @Column(name = "tipo_consulta")
     @Enumerated(EnumType.STRING)
     private TipoConsulta tipoConsulta;
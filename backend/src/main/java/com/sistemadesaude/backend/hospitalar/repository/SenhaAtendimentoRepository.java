@@ -19,8 +19,18 @@ public interface SenhaAtendimentoRepository extends JpaRepository<SenhaAtendimen
 
     Optional<SenhaAtendimento> findByNumeroSenhaAndFilaId(String numeroSenha, Long filaId);
 
-    @Query("SELECT s FROM SenhaAtendimento s WHERE s.fila.id = :filaId AND s.status = 'AGUARDANDO' ORDER BY s.tipoSenha DESC, s.sequencia ASC")
-    List<SenhaAtendimento> findProximasSenhasParaChamada(@Param("filaId") Long filaId);
+    /**
+     * Próxima senha a chamar, já travada para esta transação (idx_senha_fila_aguardando).
+     * SKIP LOCKED: guichês simultâneos pegam senhas diferentes em vez de esperar uns pelos outros.
+     */
+    @Query(value = """
+        SELECT * FROM senha_atendimento
+         WHERE fila_id = :filaId AND status = 'AGUARDANDO'
+         ORDER BY tipo_senha DESC, data_emissao ASC, sequencia ASC
+         LIMIT 1
+         FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    Optional<SenhaAtendimento> travarProximaSenhaParaChamada(@Param("filaId") Long filaId);
 
     @Query("SELECT s FROM SenhaAtendimento s WHERE s.fila.id = :filaId AND s.status = 'CHAMADA' ORDER BY s.dataChamada DESC")
     List<SenhaAtendimento> findUltimasSenhasChamadas(@Param("filaId") Long filaId);
@@ -34,8 +44,5 @@ public interface SenhaAtendimentoRepository extends JpaRepository<SenhaAtendimen
     @Query("SELECT s FROM SenhaAtendimento s WHERE s.dataEmissao >= :dataInicio AND s.dataEmissao <= :dataFim")
     List<SenhaAtendimento> findByPeriodo(@Param("dataInicio") LocalDateTime dataInicio, @Param("dataFim") LocalDateTime dataFim);
 
-    @Query(value = "SELECT MAX(sequencia) FROM senha_atendimento WHERE fila_id = :filaId AND DATE(data_emissao) = CURRENT_DATE", nativeQuery = true)
-    Optional<Integer> findUltimaSequenciaDoDia(@Param("filaId") Long filaId);
-
     List<SenhaAtendimento> findByPacienteIdAndDataEmissaoBetween(Long pacienteId, LocalDateTime inicio, LocalDateTime fim);
 }
\ No newline at end of file
@@ -41,18 +41,16 @@ public class AgendamentoAmbulatorioService {
             // Verificar disponibilidade de horário
             verificarDisponibilidadeHorario(request);
 
-            // Verificar se existe escala médica ativa
-            verificarEscalaMedicaAtiva(request);
+            // Ocupar vaga na escala médica (UPDATE condicional; desfeito junto com a transação)
+            Long escalaId = ocuparVagaEscala(request);
 
             // Criar entidade
             AgendamentoAmbulatorio agendamento = criarEntidadeAgendamento(request);
+            agendamento.setEscalaId(escalaId);
 
             // Salvar
             agendamento = agendamentoRepository.save(agendamento);
 
-            // Atualizar vaga na escala médica
-            escalaMedicaService.ocuparVaga(request.getProfissionalId(), request.getDataAgendamento());
-
             // Converter para DTO
             AgendamentoAmbulatorioDTO dto = convertToDTO(agendamento);
 
@@ -168,7 +166,13 @@ public class AgendamentoAmbulatorioService {
             agendamento = agendamentoRepository.save(agendamento);
 
             // Liberar vaga na escala médica
-            escalaMedicaService.liberarVaga(agendamento.getProfissionalId(), agendamento.getDataAgendamento());
+            Long escalaId = agendamento.getEscalaId() != null
+                    ? agendamento.getEscalaId()
+                    : escalaMedicaService.resolverEscala(agendamento.getProfissionalId(),
+                            agendamento.getDataAgendamento(), agendamento.getHoraAgendamento());
+            if (escalaId != null) {
+                escalaMedicaService.liberarVaga(escalaId);
+            }
 
             AgendamentoAmbulatorioDTO dto = convertToDTO(agendamento);
 
@@ -270,16 +274,32 @@ public class AgendamentoAmbulatorioService {
         }
     }
 
-    private void verificarEscalaMedicaAtiva(CriarAgendamentoAmbulatorioRequest request) {
-        boolean temEscalaAtiva = escalaMedicaService.verificarEscalaAtiva(
+    /**
+     * Ocupa a vaga na escala informada (ou na escala ativa que cobre o horário).
+     * @return id da escala em que a vaga foi ocupada
+     */
+    private Long ocuparVagaEscala(CriarAgendamentoAmbulatorioRequest request) {
+        Long escalaId = request.getEscalaId() != null
+                ? request.getEscalaId()
+                : escalaMedicaService.resolverEscala(
+                        request.getProfissionalId(),
+                        request.getDataAgendamento(),
+                        request.getHoraAgendamento());
+
+        if (escalaId == null) {
+            throw new BusinessException("Profissional não possui escala ativa para esta data/horário");
+        }
+
+        boolean ocupou = escalaMedicaService.ocuparVaga(
+                escalaId,
                 request.getProfissionalId(),
                 request.getDataAgendamento(),
-                request.getHoraAgendamento()
-        );
+                request.getHoraAgendamento());
 
-        if (!temEscalaAtiva) {
-            throw new BusinessException("Profissional não possui escala ativa para esta data/horário");
+        if (!ocupou) {
+            throw new BusinessException("Escala sem vagas disponíveis para esta data/horário");
         }
+        return escalaId;
     }
 
     private AgendamentoAmbulatorio criarEntidadeAgendamento(CriarAgendamentoAmbulatorioRequest request) {
@@ -328,6 +348,7 @@ public class AgendamentoAmbulatorioService {
         dto.setEspecialidadeId(agendamento.getEspecialidadeId());
         dto.setDataAgendamento(agendamento.getDataAgendamento());
         dto.setHoraAgendamento(agendamento.getHoraAgendamento());
+        dto.setEscalaId(agendamento.getEscalaId());
         dto.setTipoConsulta(agendamento.getTipoConsulta());
         dto.setStatusAgendamento(agendamento.getStatusAgendamento());
         dto.setPrioridade(agendamento.getPrioridade());
@@ -4,29 +4,82 @@ import com.sistemadesaude.backend.hospitalar.dto.CriarEscalaMedicaRequest;
 import com.sistemadesaude.backend.hospitalar.dto.EscalaMedicaDTO;
 import com.sistemadesaude.backend.hospitalar.entity.EscalaMedica;
 import com.sistemadesaude.backend.hospitalar.repository.EscalaMedicaRepository;
+import com.sistemadesaude.backend.config.AposCommit;
 import com.sistemadesaude.backend.exception.BusinessException;
 import com.sistemadesaude.backend.exception.ResourceNotFoundException;
 import com.sistemadesaude.backend.response.ApiResponse;
 import com.sistemadesaude.backend.operador.repository.OperadorRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Date;
+import java.sql.Time;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
+/**
+ * Escalas médicas do ambulatório e suas vagas.
+ *
+ * Sem read-modify-write nas vagas: ocupar, liberar, bloquear e inativar são um único UPDATE
+ * condicional na escala (0 linhas = sem vaga / estado não permite), que devolve os contadores
+ * novos para a foto do dia em {@link EscalaVagasDiaCache}.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
 public class EscalaMedicaService {
 
+    private static final String RETORNO_CONTADORES =
+            " RETURNING id, data_escala, vagas_disponveis, COALESCE(vagas_ocupadas, 0), COALESCE(vagas_bloqueadas, 0)";
+
+    private static final String SQL_RESOLVER =
+            "SELECT id FROM ambulatorio_escalas_medicas " +
+            "WHERE profissional_id = ? AND data_escala = ? AND status_escala = 'ATIVA' " +
+            "AND ? BETWEEN hora_inicio AND hora_fim ORDER BY hora_inicio, id LIMIT 1";
+
+    private static final String SQL_OCUPAR =
+            "UPDATE ambulatorio_escalas_medicas " +
+            "SET vagas_ocupadas = COALESCE(vagas_ocupadas, 0) + 1, data_ultima_alteracao = now() " +
+            "WHERE id = ? AND profissional_id = ? AND data_escala = ? AND ? BETWEEN hora_inicio AND hora_fim " +
+            "AND status_escala = 'ATIVA' " +
+            "AND COALESCE(vagas_ocupadas, 0) + COALESCE(vagas_bloqueadas, 0) < vagas_disponveis" +
+            RETORNO_CONTADORES;
+
+    private static final String SQL_LIBERAR =
+            "UPDATE ambulatorio_escalas_medicas " +
+            "SET vagas_ocupadas = vagas_ocupadas - 1, data_ultima_alteracao = now() " +
+            "WHERE id = ? AND vagas_ocupadas > 0" +
+            RETORNO_CONTADORES;
+
+    private static final String SQL_BLOQUEAR =
+            "UPDATE ambulatorio_escalas_medicas " +
+            "SET vagas_bloqueadas = COALESCE(vagas_bloqueadas, 0) + ?, operador_alteracao_id = ?, data_ultima_alteracao = now() " +
+            "WHERE id = ? AND status_escala = 'ATIVA' " +
+            "AND vagas_disponveis - COALESCE(vagas_ocupadas, 0) - COALESCE(vagas_bloqueadas, 0) >= ?" +
+            RETORNO_CONTADORES;
+
+    private static final String SQL_INATIVAR =
+            "UPDATE ambulatorio_escalas_medicas " +
+            "SET status_escala = 'INATIVA', observacoes = ?, operador_alteracao_id = ?, data_ultima_alteracao = now() " +
+            "WHERE id = ? AND status_escala = 'ATIVA' AND COALESCE(vagas_ocupadas, 0) = 0" +
+            RETORNO_CONTADORES;
+
+    private static final RowMapper<EscalaVagasDiaCache.Contadores> CONTADORES = (rs, i) ->
+            new EscalaVagasDiaCache.Contadores(rs.getLong(1), rs.getDate(2).toLocalDate(),
+                    rs.getInt(3), rs.getInt(4), rs.getInt(5));
+
     private final EscalaMedicaRepository escalaMedicaRepository;
     private final OperadorRepository operadorRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EscalaVagasDiaCache vagasCache;
 
     public ApiResponse<EscalaMedicaDTO> criarEscala(CriarEscalaMedicaRequest request) {
         try {
@@ -44,6 +97,8 @@ public class EscalaMedicaService {
 
             // Salvar
             escala = escalaMedicaRepository.save(escala);
+            LocalDate dataEscala = escala.getDataEscala();
+            AposCommit.executar(() -> vagasCache.evict(dataEscala));
 
             // Converter para DTO
             EscalaMedicaDTO dto = convertToDTO(escala);
@@ -63,64 +118,50 @@ public class EscalaMedicaService {
     @Transactional(readOnly = true)
     public boolean verificarEscalaAtiva(Long profissionalId, LocalDate data, LocalTime hora) {
         try {
-            List<EscalaMedica> escalas = escalaMedicaRepository
-                    .findByProfissionalIdAndDataEscalaOrderByHoraInicio(profissionalId, data);
-
-            return escalas.stream()
-                    .anyMatch(escala ->
-                            escala.getStatusEscala() == EscalaMedica.StatusEscala.ATIVA &&
-                            !hora.isBefore(escala.getHoraInicio()) &&
-                            !hora.isAfter(escala.getHoraFim())
-                    );
-
+            return resolverEscala(profissionalId, data, hora) != null;
         } catch (Exception e) {
             log.error("Erro ao verificar escala ativa: {}", e.getMessage(), e);
             return false;
         }
     }
 
-    public void ocuparVaga(Long profissionalId, LocalDate data) {
-        try {
-            List<EscalaMedica> escalas = escalaMedicaRepository
-                    .findByProfissionalIdAndDataEscalaOrderByHoraInicio(profissionalId, data);
-
-            EscalaMedica escalaDisponivel = escalas.stream()
-                    .filter(escala -> escala.getStatusEscala() == EscalaMedica.StatusEscala.ATIVA)
-                    .filter(EscalaMedica::hasVagasDisponiveis)
-                    .findFirst()
-                    .orElseThrow(() -> new BusinessException("Nenhuma escala disponível para ocupar vaga"));
-
-            escalaDisponivel.setVagasOcupadas(escalaDisponivel.getVagasOcupadas() + 1);
-            escalaMedicaRepository.save(escalaDisponivel);
-
-            log.info("Vaga ocupada na escala: {}", escalaDisponivel.getId());
+    /**
+     * Escala ativa do profissional que cobre o horário (a primeira, se houver mais de uma),
+     * ou null se não houver.
+     */
+    @Transactional(readOnly = true)
+    public Long resolverEscala(Long profissionalId, LocalDate data, LocalTime hora) {
+        List<Long> ids = jdbcTemplate.queryForList(SQL_RESOLVER, Long.class,
+                profissionalId, Date.valueOf(data), Time.valueOf(hora));
+        return ids.isEmpty() ? null : ids.get(0);
+    }
 
-        } catch (Exception e) {
-            log.error("Erro ao ocupar vaga na escala: {}", e.getMessage(), e);
-            throw new BusinessException("Erro ao ocupar vaga na escala");
+    /**
+     * Ocupa uma vaga na escala indicada, na transação do chamador. A mesma instrução confere
+     * profissional, data, horário dentro da escala, status ATIVA e vaga livre.
+     * @return false se a escala não aceitar o agendamento (sem vaga, inativa ou fora do horário)
+     */
+    public boolean ocuparVaga(Long escalaId, Long profissionalId, LocalDate data, LocalTime hora) {
+        List<EscalaVagasDiaCache.Contadores> r = jdbcTemplate.query(SQL_OCUPAR, CONTADORES,
+                escalaId, profissionalId, Date.valueOf(data), Time.valueOf(hora));
+        if (r.isEmpty()) {
+            log.info("Escala {} sem vaga para {} {}", escalaId, data, hora);
+            return false;
         }
+        atualizarFoto(r.get(0));
+        log.info("Vaga ocupada na escala: {}", escalaId);
+        return true;
     }
 
-    public void liberarVaga(Long profissionalId, LocalDate data) {
-        try {
-            List<EscalaMedica> escalas = escalaMedicaRepository
-                    .findByProfissionalIdAndDataEscalaOrderByHoraInicio(profissionalId, data);
-
-            EscalaMedica escalaOcupada = escalas.stream()
-                    .filter(escala -> escala.getStatusEscala() == EscalaMedica.StatusEscala.ATIVA)
-                    .filter(escala -> escala.getVagasOcupadas() > 0)
-                    .findFirst()
-                    .orElseThrow(() -> new BusinessException("Nenhuma escala com vagas ocupadas encontrada"));
-
-            escalaOcupada.setVagasOcupadas(escalaOcupada.getVagasOcupadas() - 1);
-            escalaMedicaRepository.save(escalaOcupada);
-
-            log.info("Vaga liberada na escala: {}", escalaOcupada.getId());
-
-        } catch (Exception e) {
-            log.error("Erro ao liberar vaga na escala: {}", e.getMessage(), e);
-            throw new BusinessException("Erro ao liberar vaga na escala");
+    /** Devolve uma vaga ocupada na escala (sem efeito se não houver vaga ocupada). */
+    public void liberarVaga(Long escalaId) {
+        List<EscalaVagasDiaCache.Contadores> r = jdbcTemplate.query(SQL_LIBERAR, CONTADORES, escalaId);
+        if (r.isEmpty()) {
+            log.warn("Escala {} sem vagas ocupadas para liberar", escalaId);
+            return;
         }
+        atualizarFoto(r.get(0));
+        log.info("Vaga liberada na escala: {}", escalaId);
     }
 
     @Transactional(readOnly = true)
@@ -149,11 +190,10 @@ public class EscalaMedicaService {
     @Transactional(readOnly = true)
     public ApiResponse<List<EscalaMedicaDTO>> listarEscalasComVagas(LocalDate data) {
         try {
-            List<EscalaMedica> escalas = escalaMedicaRepository.findEscalasComVagasDisponiveis(data);
-
-            List<EscalaMedicaDTO> dtos = escalas.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            List<EscalaMedicaDTO> dtos = vagasCache.comVagas(data, () ->
+                    escalaMedicaRepository.findEscalasAtivasPorData(data).stream()
+                            .map(this::convertToDTO)
+                            .collect(Collectors.toList()));
 
             return ApiResponse.success(dtos, "Escalas com vagas listadas com sucesso");
 
@@ -165,27 +205,27 @@ public class EscalaMedicaService {
 
     public ApiResponse<EscalaMedicaDTO> inativarEscala(Long escalaId, Long operadorId, String motivo) {
         try {
-            EscalaMedica escala = buscarEscalaPorId(escalaId);
-
-            if (escala.getStatusEscala() != EscalaMedica.StatusEscala.ATIVA) {
-                throw new BusinessException("Apenas escalas ativas podem ser inativadas");
-            }
-
-            if (escala.getVagasOcupadas() > 0) {
+            List<EscalaVagasDiaCache.Contadores> r = jdbcTemplate.query(SQL_INATIVAR, CONTADORES,
+                    motivo, operadorExistente(operadorId), escalaId);
+
+            if (r.isEmpty()) {
+                EscalaMedica escala = buscarEscalaPorId(escalaId);
+                if (escala.getStatusEscala() != EscalaMedica.StatusEscala.ATIVA) {
+                    throw new BusinessException("Apenas escalas ativas podem ser inativadas");
+                }
                 throw new BusinessException("Não é possível inativar escala com agendamentos confirmados");
             }
 
-            escala.setStatusEscala(EscalaMedica.StatusEscala.INATIVA);
-            escala.setObservacoes(motivo);
-            escala.setOperadorAlteracao(operadorRepository.findById(operadorId).orElse(null));
-
-            escala = escalaMedicaRepository.save(escala);
-
-            EscalaMedicaDTO dto = convertToDTO(escala);
+            LocalDate dataEscala = r.get(0).data();
+            AposCommit.executar(() -> vagasCache.evict(dataEscala));
+            EscalaMedicaDTO dto = convertToDTO(buscarEscalaPorId(escalaId));
 
             log.info("Escala médica inativada: {}", escalaId);
             return ApiResponse.success(dto, "Escala médica inativada com sucesso");
 
+        } catch (BusinessException e) {
+            log.error("Erro de negócio ao inativar escala: {}", e.getMessage());
+            return ApiResponse.error(e.getMessage());
         } catch (Exception e) {
             log.error("Erro ao inativar escala: {}", e.getMessage(), e);
             return ApiResponse.error("Erro ao inativar escala");
@@ -194,26 +234,30 @@ public class EscalaMedicaService {
 
     public ApiResponse<EscalaMedicaDTO> bloquearVagas(Long escalaId, Integer quantidadeVagas, Long operadorId, String motivo) {
         try {
-            EscalaMedica escala = buscarEscalaPorId(escalaId);
-
-            if (escala.getStatusEscala() != EscalaMedica.StatusEscala.ATIVA) {
-                throw new BusinessException("Apenas escalas ativas podem ter vagas bloqueadas");
+            if (quantidadeVagas == null || quantidadeVagas <= 0) {
+                throw new BusinessException("Quantidade de vagas a bloquear deve ser positiva");
             }
 
-            if (escala.getVagasLivres() < quantidadeVagas) {
+            List<EscalaVagasDiaCache.Contadores> r = jdbcTemplate.query(SQL_BLOQUEAR, CONTADORES,
+                    quantidadeVagas, operadorExistente(operadorId), escalaId, quantidadeVagas);
+
+            if (r.isEmpty()) {
+                EscalaMedica escala = buscarEscalaPorId(escalaId);
+                if (escala.getStatusEscala() != EscalaMedica.StatusEscala.ATIVA) {
+                    throw new BusinessException("Apenas escalas ativas podem ter vagas bloqueadas");
+                }
                 throw new BusinessException("Não há vagas suficientes disponíveis para bloqueio");
             }
 
-            escala.setVagasBloqueadas(escala.getVagasBloqueadas() + quantidadeVagas);
-            escala.setOperadorAlteracao(operadorRepository.findById(operadorId).orElse(null));
-
-            escala = escalaMedicaRepository.save(escala);
-
-            EscalaMedicaDTO dto = convertToDTO(escala);
+            atualizarFoto(r.get(0));
+            EscalaMedicaDTO dto = convertToDTO(buscarEscalaPorId(escalaId));
 
             log.info("Vagas bloqueadas na escala: {} - Quantidade: {}", escalaId, quantidadeVagas);
             return ApiResponse.success(dto, "Vagas bloqueadas com sucesso");
 
+        } catch (BusinessException e) {
+            log.error("Erro de negócio ao bloquear vagas: {}", e.getMessage());
+            return ApiResponse.error(e.getMessage());
         } catch (Exception e) {
             log.error("Erro ao bloquear vagas: {}", e.getMessage(), e);
             return ApiResponse.error("Erro ao bloquear vagas");
@@ -283,6 +327,16 @@ public class EscalaMedicaService {
         return escala;
     }
 
+    /** Operador para auditoria da alteração (null se não existir, como antes). */
+    private Long operadorExistente(Long operadorId) {
+        return operadorId != null && operadorRepository.existsById(operadorId) ? operadorId : null;
+    }
+
+    /** Aplica os contadores na foto do dia só depois do commit (rollback não deixa a foto errada). */
+    private void atualizarFoto(EscalaVagasDiaCache.Contadores contadores) {
+        AposCommit.executar(() -> vagasCache.atualizar(contadores));
+    }
+
     private EscalaMedica buscarEscalaPorId(Long id) {
         return escalaMedicaRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Escala médica não encontrada"));
@@ -0,0 +1,80 @@
+package com.sistemadesaude.backend.hospitalar.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sistemadesaude.backend.hospitalar.dto.EscalaMedicaDTO;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Foto local (Caffeine) da capacidade das escalas ativas de cada dia.
+ *
+ * - "Escalas com vagas" é filtrada na foto, sem consultar o banco a cada chamada.
+ * - Ocupar/liberar/bloquear vagas nesta instância atualiza a escala na foto com os contadores
+ *   devolvidos pelo próprio UPDATE (após o commit).
+ * - Criar/inativar escala invalida o dia; alterações feitas em outra instância aparecem,
+ *   no máximo, após o TTL.
+ */
+@Component
+public class EscalaVagasDiaCache {
+
+    /** Contadores de uma escala logo após o UPDATE condicional */
+    public record Contadores(Long escalaId, LocalDate data, int disponiveis, int ocupadas, int bloqueadas) { }
+
+    private final Cache<LocalDate, Map<Long, EscalaMedicaDTO>> cache;
+
+    public EscalaVagasDiaCache(@Value("${app.ambulatorio.escalas-cache.ttl-segundos:30}") long ttlSegundos,
+                               @Value("${app.ambulatorio.escalas-cache.tamanho-maximo:60}") long tamanhoMaximo) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .maximumSize(tamanhoMaximo)
+                .recordStats()
+                .build();
+    }
+
+    /** Escalas ativas do dia com vaga livre, por hora de início; carrega o dia apenas em cache miss. */
+    public List<EscalaMedicaDTO> comVagas(LocalDate data, Supplier<List<EscalaMedicaDTO>> carregarAtivas) {
+        Map<Long, EscalaMedicaDTO> foto = cache.get(data, k -> {
+            Map<Long, EscalaMedicaDTO> m = new ConcurrentHashMap<>();
+            carregarAtivas.get().forEach(e -> m.put(e.getId(), e));
+            return m;
+        });
+        return foto.values().stream()
+                .filter(e -> e.getVagasLivres() != null && e.getVagasLivres() > 0)
+                .sorted(Comparator.comparing(EscalaMedicaDTO::getHoraInicio,
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    /** Substitui a escala na foto do dia (se o dia estiver carregado) por uma cópia com os novos contadores. */
+    public void atualizar(Contadores c) {
+        Map<Long, EscalaMedicaDTO> foto = cache.getIfPresent(c.data());
+        if (foto == null) return;
+        foto.computeIfPresent(c.escalaId(), (id, atual) -> {
+            EscalaMedicaDTO copia = new EscalaMedicaDTO();
+            BeanUtils.copyProperties(atual, copia);
+            int livres = c.disponiveis() - c.ocupadas() - c.bloqueadas();
+            copia.setVagasDisponiveis(c.disponiveis());
+            copia.setVagasOcupadas(c.ocupadas());
+            copia.setVagasBloqueadas(c.bloqueadas());
+            copia.setVagasLivres(livres);
+            copia.setHasVagasDisponiveis(livres > 0);
+            return copia;
+        });
+    }
+
+    /** Invalida o dia. */
+    public void evict(LocalDate data) {
+        if (data == null) return;
+        cache.invalidate(data);
+    }
+}
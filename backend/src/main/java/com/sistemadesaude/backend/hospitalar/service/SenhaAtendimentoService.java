@@ -7,14 +7,18 @@ import com.sistemadesaude.backend.hospitalar.entity.SenhaAtendimento;
 import com.sistemadesaude.backend.hospitalar.entity.FilaAtendimento;
 import com.sistemadesaude.backend.hospitalar.repository.SenhaAtendimentoRepository;
 import com.sistemadesaude.backend.hospitalar.repository.FilaAtendimentoRepository;
+import com.sistemadesaude.backend.paciente.entity.Paciente;
 import com.sistemadesaude.backend.paciente.repository.PacienteRepository;
 import com.sistemadesaude.backend.response.ApiResponse;
 import com.sistemadesaude.backend.exception.BusinessException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
+import java.sql.Date;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
@@ -27,9 +31,22 @@ import java.util.stream.Collectors;
 @Slf4j
 public class SenhaAtendimentoService {
 
+    /**
+     * Próximo número da fila no dia, atômico: cria o contador com 1 ou incrementa o existente.
+     * A linha fica travada até o commit da emissão (totens simultâneos esperam em fila, sem
+     * número repetido) e um rollback desfaz o incremento (sequência sem buracos).
+     */
+    private static final String SQL_PROXIMA_SEQUENCIA = """
+            INSERT INTO senha_sequencia_dia (fila_id, data, ultima_sequencia) VALUES (?, ?, 1)
+            ON CONFLICT (fila_id, data)
+            DO UPDATE SET ultima_sequencia = senha_sequencia_dia.ultima_sequencia + 1
+            RETURNING ultima_sequencia
+            """;
+
     private final SenhaAtendimentoRepository senhaRepository;
     private final FilaAtendimentoRepository filaRepository;
     private final PacienteRepository pacienteRepository;
+    private final JdbcTemplate jdbcTemplate;
 
     @Transactional
     public ApiResponse<SenhaAtendimentoDTO> emitirSenha(EmitirSenhaRequest request) {
@@ -47,24 +64,25 @@ public class SenhaAtendimentoService {
                 throw new BusinessException("Fora do horário de funcionamento da fila");
             }
 
+            Paciente paciente = null;
             if (request.getPacienteId() != null) {
-                pacienteRepository.findById(request.getPacienteId())
+                paciente = pacienteRepository.findById(request.getPacienteId())
                         .orElseThrow(() -> new BusinessException("Paciente não encontrado"));
             }
 
-            Integer proximaSequencia = obterProximaSequencia(fila);
+            // Alocação por último: segura o lock do contador da fila pelo menor tempo possível
+            LocalDateTime agora = LocalDateTime.now();
+            Integer proximaSequencia = obterProximaSequencia(fila, agora);
             String numeroSenha = gerarNumeroSenha(fila, proximaSequencia, request.getTipoSenha());
 
             SenhaAtendimento senha = new SenhaAtendimento();
             senha.setNumeroSenha(numeroSenha);
             senha.setSequencia(proximaSequencia);
             senha.setFila(fila);
-            if (request.getPacienteId() != null) {
-                senha.setPaciente(pacienteRepository.findById(request.getPacienteId()).get());
-            }
+            senha.setPaciente(paciente);
             senha.setTipoSenha(request.getTipoSenha());
             senha.setStatus(SenhaAtendimento.StatusSenha.AGUARDANDO);
-            senha.setDataEmissao(LocalDateTime.now());
+            senha.setDataEmissao(agora);
             // Nota: Campo operadorEmissaoId não existe na entidade
             // Nota: Campo prioridade não existe na entidade
 
@@ -77,6 +95,8 @@ public class SenhaAtendimentoService {
             log.error("Erro de negócio ao emitir senha: {}", e.getMessage());
             return ApiResponse.error(e.getMessage());
         } catch (Exception e) {
+            // desfaz também o incremento do contador (a resposta de erro não pode "queimar" um número)
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             log.error("Erro inesperado ao emitir senha", e);
             return ApiResponse.error("Erro interno do servidor");
         }
@@ -90,14 +110,14 @@ public class SenhaAtendimentoService {
             FilaAtendimento fila = filaRepository.findById(request.getFilaId())
                     .orElseThrow(() -> new BusinessException("Fila não encontrada"));
 
-            List<SenhaAtendimento> senhasAguardando = senhaRepository
-                    .findProximasSenhasParaChamada(request.getFilaId());
+            Optional<SenhaAtendimento> senhaTravada = senhaRepository
+                    .travarProximaSenhaParaChamada(fila.getId());
 
-            if (senhasAguardando.isEmpty()) {
+            if (senhaTravada.isEmpty()) {
                 return ApiResponse.error("Não há senhas aguardando na fila");
             }
 
-            SenhaAtendimento proximaSenha = senhasAguardando.get(0);
+            SenhaAtendimento proximaSenha = senhaTravada.get();
             proximaSenha.setStatus(SenhaAtendimento.StatusSenha.CHAMADA);
             proximaSenha.setDataChamada(LocalDateTime.now());
             // Nota: Campo operadorChamadaId não existe, usando relacionamento
@@ -197,9 +217,10 @@ public class SenhaAtendimentoService {
         }
     }
 
-    private Integer obterProximaSequencia(FilaAtendimento fila) {
-        Optional<Integer> ultimaSequencia = senhaRepository.findUltimaSequenciaDoDia(fila.getId());
-        return ultimaSequencia.orElse(0) + 1;
+    private Integer obterProximaSequencia(FilaAtendimento fila, LocalDateTime emissao) {
+        // mesmo dia da data_emissao gravada (relógio da aplicação, não CURRENT_DATE do banco)
+        return jdbcTemplate.queryForObject(SQL_PROXIMA_SEQUENCIA, Integer.class,
+                fila.getId(), Date.valueOf(emissao.toLocalDate()));
     }
 
     private String gerarNumeroSenha(FilaAtendimento fila, Integer sequencia, SenhaAtendimento.TipoSenha tipo) {
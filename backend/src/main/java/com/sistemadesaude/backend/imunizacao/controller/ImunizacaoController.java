@@ -2,6 +2,7 @@ package com.sistemadesaude.backend.imunizacao.controller;
 
 import com.sistemadesaude.backend.imunizacao.dto.AplicacaoVacinaDTO;
 import com.sistemadesaude.backend.imunizacao.service.AplicacaoVacinaService;
+import com.sistemadesaude.backend.imunizacao.service.ExportacaoRndsService;
 import com.sistemadesaude.backend.response.ApiResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -13,7 +14,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controller para o módulo de Imunização
@@ -26,6 +29,7 @@ import java.util.List;
 public class ImunizacaoController {
 
     private final AplicacaoVacinaService aplicacaoVacinaService;
+    private final ExportacaoRndsService exportacaoRndsService;
 
     /**
      * ENDPOINT: POST /api/imunizacao/aplicacoes
@@ -145,6 +149,40 @@ public class ImunizacaoController {
         }
     }
 
+    /**
+     * ENDPOINT: POST /api/imunizacao/rnds/exportacao
+     * Dispara em segundo plano a exportação de todas as aplicações pendentes para RNDS
+     */
+    @PostMapping("/rnds/exportacao")
+    public ResponseEntity<ApiResponse<Void>> iniciarExportacaoRnds() {
+
+        log.info("🚀 Solicitada exportação RNDS das aplicações pendentes");
+
+        boolean iniciada = exportacaoRndsService.iniciarExportacao();
+        return ResponseEntity.accepted().body(ApiResponse.<Void>builder()
+            .success(iniciada)
+            .message(iniciada ? "Exportação RNDS iniciada" : "Exportação RNDS já está em andamento")
+            .build());
+    }
+
+    /**
+     * ENDPOINT: GET /api/imunizacao/rnds/exportacao
+     * Situação da exportação RNDS (em andamento e resumo da última execução)
+     */
+    @GetMapping("/rnds/exportacao")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> situacaoExportacaoRnds() {
+
+        Map<String, Object> situacao = new HashMap<>();
+        situacao.put("emExecucao", exportacaoRndsService.isEmExecucao());
+        situacao.put("ultimaExecucao", exportacaoRndsService.getUltimaExecucao());
+
+        return ResponseEntity.ok(ApiResponse.<Map<String, Object>>builder()
+            .success(true)
+            .message("Situação da exportação RNDS")
+            .data(situacao)
+            .build());
+    }
+
     /**
      * ENDPOINT: PUT /api/imunizacao/aplicacoes/{id}/exportar-esus
      * Marca aplicação como exportada para e-SUS AB
@@ -5,11 +5,13 @@ import com.sistemadesaude.backend.imunizacao.enums.EstrategiaVacinacao;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -41,6 +43,32 @@ public interface AplicacaoVacinaRepository extends JpaRepository<AplicacaoVacina
            "AND v.exportarSipni = false")
     List<AplicacaoVacina> findPendentesExportacaoRnds();
 
+    /**
+     * Página de pendentes RNDS por keyset (id > :ultimoId), já com os campos do payload.
+     * Linhas: [id, cpf, nomePaciente, codigoVacina, nomeVacina, lote, dataAplicacao,
+     *          estrategia, cnes, nomeUnidade]
+     */
+    @Query("SELECT a.id, p.cpf, p.nomeCompleto, v.codigo, v.nome, a.lote, a.dataAplicacao, " +
+           "a.estrategiaVacinacao, u.codigoCnes, u.nome " +
+           "FROM AplicacaoVacina a " +
+           "JOIN a.paciente p " +
+           "JOIN a.vacina v " +
+           "JOIN a.unidade u " +
+           "WHERE a.exportadoRnds = false " +
+           "AND a.id > :ultimoId " +
+           "AND v.calendarioVacinal = true " +
+           "AND v.tipoVacina != 'COVID19' " +
+           "AND v.exportarSipni = false " +
+           "AND EXISTS (SELECT 1 FROM ConfiguracaoImunizacao c WHERE c.unidade.id = u.id " +
+           "            AND c.exportarRnds = true AND c.exportarEsusAb = false) " +
+           "ORDER BY a.id")
+    List<Object[]> buscarPendentesRndsAposId(@Param("ultimoId") Long ultimoId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE AplicacaoVacina a SET a.exportadoRnds = true, a.dataExportacaoRnds = :data, a.updatedAt = :data " +
+           "WHERE a.id IN :ids AND a.exportadoRnds = false")
+    int marcarExportadasRnds(@Param("ids") List<Long> ids, @Param("data") LocalDateTime data);
+
     // Aplicações pendentes de exportação para e-SUS AB
     @Query("SELECT a FROM AplicacaoVacina a " +
            "JOIN a.unidade u " +
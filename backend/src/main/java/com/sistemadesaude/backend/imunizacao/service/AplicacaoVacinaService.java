@@ -139,6 +139,19 @@ public class AplicacaoVacinaService {
         log.info("📤 Aplicação {} marcada como exportada para RNDS", aplicacaoId);
     }
 
+    /**
+     * Marca um lote de aplicações como exportadas para RNDS (um único UPDATE)
+     */
+    @Transactional
+    public int marcarComoExportadasRnds(List<Long> aplicacaoIds) {
+        if (aplicacaoIds.isEmpty()) {
+            return 0;
+        }
+        int atualizadas = aplicacaoVacinaRepository.marcarExportadasRnds(aplicacaoIds, LocalDateTime.now());
+        log.debug("📤 {} aplicações marcadas como exportadas para RNDS", atualizadas);
+        return atualizadas;
+    }
+
     @Transactional
     public void marcarComoExportadoEsus(Long aplicacaoId) {
         AplicacaoVacina aplicacao = aplicacaoVacinaRepository.findById(aplicacaoId)
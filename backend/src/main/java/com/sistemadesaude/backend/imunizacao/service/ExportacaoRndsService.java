@@ -1,28 +1,120 @@
 package com.sistemadesaude.backend.imunizacao.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sistemadesaude.backend.imunizacao.entity.AplicacaoVacina;
 import com.sistemadesaude.backend.imunizacao.repository.AplicacaoVacinaRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service para exportação de aplicações de vacina para RNDS
  * Implementa regras conforme PDF SAUDE-89087
+ *
+ * Pipeline em streaming:
+ * - Leitura por keyset (id > último), em páginas de app.rnds.exportacao.tamanho-pagina,
+ *   com os campos do payload na própria consulta (sem carregar entidades/lazy).
+ * - Envio em pool limitado (app.rnds.exportacao.paralelismo) via {@link RndsTransporte}.
+ * - Retentativa com backoff exponencial + jitter para falhas transitórias.
+ * - Chave de idempotência determinística por aplicação (reenvio não duplica na RNDS).
+ * - Status gravado em lote: um UPDATE por página.
+ *
+ * Falhas definitivas ficam pendentes e voltam na próxima execução.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ExportacaoRndsService {
 
+    /** Resumo de uma execução da exportação */
+    public record ResumoExportacao(int enviadas, int falhas, int rejeitadas,
+                                  long duracaoMs, LocalDateTime iniciadaEm, LocalDateTime concluidaEm) {
+    }
+
     private final AplicacaoVacinaRepository aplicacaoVacinaRepository;
     private final AplicacaoVacinaService aplicacaoVacinaService;
+    private final RndsTransporte transporte;
+    private final ObjectMapper objectMapper;
+
+    private final int tamanhoPagina;
+    private final int maxTentativas;
+    private final long backoffInicialMs;
+    private final ExecutorService envios;
+    private final ExecutorService coordenador;
+
+    private final AtomicBoolean emExecucao = new AtomicBoolean(false);
+    private volatile ResumoExportacao ultimaExecucao;
+
+    private final Counter enviadas;
+    private final Counter falhas;
+    private final Counter retentativas;
+    private final Timer tempoEnvio;
+
+    public ExportacaoRndsService(AplicacaoVacinaRepository aplicacaoVacinaRepository,
+                                 AplicacaoVacinaService aplicacaoVacinaService,
+                                 RndsTransporte transporte,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.rnds.exportacao.tamanho-pagina:500}") int tamanhoPagina,
+                                 @Value("${app.rnds.exportacao.paralelismo:32}") int paralelismo,
+                                 @Value("${app.rnds.exportacao.max-tentativas:4}") int maxTentativas,
+                                 @Value("${app.rnds.exportacao.backoff-inicial-ms:200}") long backoffInicialMs) {
+        this.aplicacaoVacinaRepository = aplicacaoVacinaRepository;
+        this.aplicacaoVacinaService = aplicacaoVacinaService;
+        this.transporte = transporte;
+        this.objectMapper = objectMapper;
+        this.tamanhoPagina = tamanhoPagina;
+        this.maxTentativas = Math.max(1, maxTentativas);
+        this.backoffInicialMs = backoffInicialMs;
+
+        AtomicInteger seq = new AtomicInteger();
+        this.envios = Executors.newFixedThreadPool(paralelismo, r -> {
+            Thread t = new Thread(r, "rnds-envio-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.coordenador = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "rnds-exportacao");
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.enviadas = meterRegistry.counter("rnds.exportacao.enviadas");
+        this.falhas = meterRegistry.counter("rnds.exportacao.falhas");
+        this.retentativas = meterRegistry.counter("rnds.exportacao.retentativas");
+        this.tempoEnvio = Timer.builder("rnds.exportacao.envio")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        coordenador.shutdownNow();
+        envios.shutdownNow();
+    }
 
     /**
      * Executa exportação automática a cada hora
@@ -31,85 +123,132 @@ public class ExportacaoRndsService {
     @Scheduled(fixedRate = 3600000) // 1 hora = 3600000ms
     @Async
     public void exportarAplicacoesPendentes() {
-        log.info("🚀 Iniciando exportação automática para RNDS...");
+        exportarPendentes();
+    }
 
-        try {
-            // Buscar aplicações pendentes conforme regras:
-            // 1. Unidade NÃO exporta para e-SUS AB
-            // 2. Configurada para exportar para RNDS
-            // 3. Vacinas do calendário (exceto COVID-19)
-            // 4. Checkbox 'Exportar ao SI-PNI' desmarcada
-            List<AplicacaoVacina> pendentes = aplicacaoVacinaRepository.findPendentesExportacaoRnds();
-
-            if (pendentes.isEmpty()) {
-                log.info("📭 Nenhuma aplicação pendente para exportação RNDS");
-                return;
-            }
+    /**
+     * Dispara a exportação em segundo plano.
+     * @return false se já houver uma execução em andamento
+     */
+    public boolean iniciarExportacao() {
+        if (emExecucao.get()) {
+            return false;
+        }
+        coordenador.execute(this::exportarPendentes);
+        return true;
+    }
 
-            log.info("📦 Encontradas {} aplicações para exportar para RNDS", pendentes.size());
+    public boolean isEmExecucao() {
+        return emExecucao.get();
+    }
 
-            int sucessos = 0;
-            int falhas = 0;
+    public ResumoExportacao getUltimaExecucao() {
+        return ultimaExecucao;
+    }
 
-            for (AplicacaoVacina aplicacao : pendentes) {
-                try {
-                    // Simular envio para RNDS (aqui implementaria o webservice real)
-                    boolean envioSucesso = enviarParaRnds(aplicacao);
+    /**
+     * Drena todas as pendentes (regras: unidade não exporta para e-SUS AB, configurada
+     * para RNDS, vacina do calendário exceto COVID-19, sem 'Exportar ao SI-PNI').
+     */
+    public ResumoExportacao exportarPendentes() {
+        if (!emExecucao.compareAndSet(false, true)) {
+            log.info("⏳ Exportação RNDS já em andamento");
+            return null;
+        }
 
-                    if (envioSucesso) {
-                        aplicacaoVacinaService.marcarComoExportadoRnds(aplicacao.getId());
-                        sucessos++;
-                        log.debug("✅ Aplicação {} exportada com sucesso para RNDS", aplicacao.getId());
-                    } else {
-                        falhas++;
-                        log.warn("⚠️ Falha ao exportar aplicação {} para RNDS", aplicacao.getId());
-                    }
+        LocalDateTime inicio = LocalDateTime.now();
+        long t0 = System.nanoTime();
+        int ok = 0, erro = 0, rejeitadas = 0;
+        log.info("🚀 Iniciando exportação para RNDS...");
 
-                } catch (Exception e) {
-                    falhas++;
-                    log.error("❌ Erro ao exportar aplicação {} para RNDS: {}", aplicacao.getId(), e.getMessage());
+        try {
+            long ultimoId = 0L;
+            while (!Thread.currentThread().isInterrupted()) {
+                List<Object[]> pagina = aplicacaoVacinaRepository.buscarPendentesRndsAposId(
+                        ultimoId, PageRequest.of(0, tamanhoPagina));
+                if (pagina.isEmpty()) {
+                    break;
+                }
+                ultimoId = ((Number) pagina.get(pagina.size() - 1)[0]).longValue();
+
+                List<CompletableFuture<Envio>> futuros = new ArrayList<>(pagina.size());
+                for (Object[] linha : pagina) {
+                    futuros.add(CompletableFuture.supplyAsync(() -> enviarLinha(linha), envios));
                 }
-            }
 
-            log.info("📊 Exportação RNDS concluída - Sucessos: {}, Falhas: {}", sucessos, falhas);
+                List<Long> sucesso = new ArrayList<>(pagina.size());
+                for (CompletableFuture<Envio> f : futuros) {
+                    Envio envio = f.join();
+                    switch (envio.resultado()) {
+                        case SUCESSO -> sucesso.add(envio.id());
+                        case REJEITADO -> rejeitadas++;
+                        default -> erro++;
+                    }
+                }
 
+                aplicacaoVacinaService.marcarComoExportadasRnds(sucesso);
+                ok += sucesso.size();
+                log.debug("📦 Página RNDS até id {}: {} enviadas", ultimoId, sucesso.size());
+            }
         } catch (Exception e) {
             log.error("💥 Erro geral na exportação RNDS: {}", e.getMessage(), e);
         }
+
+        ResumoExportacao resumo = new ResumoExportacao(ok, erro, rejeitadas,
+                (System.nanoTime() - t0) / 1_000_000, inicio, LocalDateTime.now());
+        ultimaExecucao = resumo;
+        emExecucao.set(false);
+        log.info("📊 Exportação RNDS concluída - Sucessos: {}, Falhas: {}, Rejeitadas: {} em {} ms",
+                ok, erro, rejeitadas, resumo.duracaoMs());
+        return resumo;
     }
 
-    /**
-     * Envia uma aplicação específica para RNDS
-     * Implementa as regras de negócio conforme SAUDE-89087
-     */
-    private boolean enviarParaRnds(AplicacaoVacina aplicacao) {
+    private Envio enviarLinha(Object[] linha) {
+        Long id = ((Number) linha[0]).longValue();
         try {
-            log.debug("📡 Enviando aplicação {} para RNDS...", aplicacao.getId());
-
-            // Validar regras antes do envio
-            if (!validarRegrasExportacao(aplicacao)) {
-                log.warn("⚠️ Aplicação {} não atende às regras para exportação RNDS", aplicacao.getId());
-                return false;
-            }
-
-            // Aqui seria implementado o webservice real para RNDS
-            // Por enquanto, simular sucesso
-            String payload = construirPayloadRnds(aplicacao);
-            log.debug("📄 Payload RNDS: {}", payload);
+            return new Envio(id, enviarComRetentativa(id, construirPayloadRnds(linha)));
+        } catch (Exception e) {
+            falhas.increment();
+            log.error("❌ Erro ao exportar aplicação {} para RNDS: {}", id, e.getMessage());
+            return new Envio(id, RndsTransporte.Resultado.FALHA_TEMPORARIA);
+        }
+    }
 
-            // Simular delay de rede
-            Thread.sleep(100);
+    private RndsTransporte.Resultado enviarComRetentativa(Long id, String payload) throws InterruptedException {
+        String chave = chaveIdempotencia(id);
+        RndsTransporte.Resultado resultado = RndsTransporte.Resultado.FALHA_TEMPORARIA;
 
-            // TODO: Implementar chamada real para RNDS
-            // RestTemplate ou WebClient para chamar o webservice
-            // Certificado digital, autenticação, etc.
+        for (int tentativa = 1; tentativa <= maxTentativas; tentativa++) {
+            Timer.Sample amostra = Timer.start();
+            try {
+                resultado = transporte.enviar(chave, payload);
+            } catch (RuntimeException e) {
+                log.debug("RNDS: erro no envio da aplicação {} (tentativa {}): {}", id, tentativa, e.getMessage());
+                resultado = RndsTransporte.Resultado.FALHA_TEMPORARIA;
+            } finally {
+                amostra.stop(tempoEnvio);
+            }
 
-            return true; // Simular sucesso
+            if (resultado != RndsTransporte.Resultado.FALHA_TEMPORARIA || tentativa == maxTentativas) {
+                break;
+            }
+            retentativas.increment();
+            long espera = backoffInicialMs << (tentativa - 1);
+            Thread.sleep(espera + ThreadLocalRandom.current().nextLong(espera / 2 + 1));
+        }
 
-        } catch (Exception e) {
-            log.error("❌ Erro ao enviar para RNDS: {}", e.getMessage());
-            return false;
+        if (resultado == RndsTransporte.Resultado.SUCESSO) {
+            enviadas.increment();
+        } else {
+            falhas.increment();
+            log.warn("⚠️ Falha ao exportar aplicação {} para RNDS: {}", id, resultado);
         }
+        return resultado;
+    }
+
+    /** Mesma aplicação → mesma chave, em qualquer execução ou instância */
+    static String chaveIdempotencia(Long aplicacaoId) {
+        return UUID.nameUUIDFromBytes(("rnds-aplicacao-" + aplicacaoId).getBytes(StandardCharsets.UTF_8)).toString();
     }
 
     /**
@@ -140,40 +279,44 @@ public class ExportacaoRndsService {
     }
 
     /**
-     * Constrói payload para envio RNDS
+     * Constrói payload para envio RNDS a partir da linha da consulta keyset
      * Conforme especificação da RNDS
      */
-    private String construirPayloadRnds(AplicacaoVacina aplicacao) {
+    private String construirPayloadRnds(Object[] r) throws JsonProcessingException {
         // TODO: Implementar construção do payload real conforme RNDS
-        return String.format("""
-            {
-                "paciente": {
-                    "cpf": "%s",
-                    "nome": "%s"
-                },
-                "vacina": {
-                    "codigo": "%s",
-                    "nome": "%s",
-                    "lote": "%s",
-                    "dataAplicacao": "%s",
-                    "estrategia": "%s"
-                },
-                "estabelecimento": {
-                    "cnes": "%s",
-                    "nome": "%s"
-                }
-            }
-            """,
-            aplicacao.getPaciente().getCpf(),
-            aplicacao.getPaciente().getNomeCompleto(),
-            aplicacao.getVacina().getCodigo(),
-            aplicacao.getVacina().getNome(),
-            aplicacao.getLote(),
-            aplicacao.getDataAplicacao(),
-            aplicacao.getEstrategiaVacinacao().name(),
-            aplicacao.getUnidade().getCodigoCnes(),
-            aplicacao.getUnidade().getNome()
-        );
+        return construirPayloadRnds((String) r[1], (String) r[2], (String) r[3], (String) r[4], (String) r[5],
+                (LocalDate) r[6], r[7] != null ? ((Enum<?>) r[7]).name() : null, (String) r[8], (String) r[9]);
+    }
+
+    private String construirPayloadRnds(AplicacaoVacina a) throws JsonProcessingException {
+        return construirPayloadRnds(a.getPaciente().getCpf(), a.getPaciente().getNomeCompleto(),
+                a.getVacina().getCodigo(), a.getVacina().getNome(), a.getLote(), a.getDataAplicacao(),
+                a.getEstrategiaVacinacao().name(), a.getUnidade().getCodigoCnes(), a.getUnidade().getNome());
+    }
+
+    private String construirPayloadRnds(String cpf, String nome, String codigoVacina, String nomeVacina,
+                                        String lote, LocalDate dataAplicacao, String estrategia,
+                                        String cnes, String nomeUnidade) throws JsonProcessingException {
+        Map<String, Object> paciente = new LinkedHashMap<>();
+        paciente.put("cpf", cpf);
+        paciente.put("nome", nome);
+
+        Map<String, Object> vacina = new LinkedHashMap<>();
+        vacina.put("codigo", codigoVacina);
+        vacina.put("nome", nomeVacina);
+        vacina.put("lote", lote);
+        vacina.put("dataAplicacao", dataAplicacao != null ? dataAplicacao.toString() : null);
+        vacina.put("estrategia", estrategia);
+
+        Map<String, Object> estabelecimento = new LinkedHashMap<>();
+        estabelecimento.put("cnes", cnes);
+        estabelecimento.put("nome", nomeUnidade);
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("paciente", paciente);
+        payload.put("vacina", vacina);
+        payload.put("estabelecimento", estabelecimento);
+        return objectMapper.writeValueAsString(payload);
     }
 
     /**
@@ -191,7 +334,23 @@ public class ExportacaoRndsService {
             return false;
         }
 
-        boolean sucesso = enviarParaRnds(aplicacao);
+        if (!validarRegrasExportacao(aplicacao)) {
+            log.warn("⚠️ Aplicação {} não atende às regras para exportação RNDS", aplicacaoId);
+            return false;
+        }
+
+        boolean sucesso;
+        try {
+            sucesso = enviarComRetentativa(aplicacaoId, construirPayloadRnds(aplicacao))
+                    == RndsTransporte.Resultado.SUCESSO;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (JsonProcessingException e) {
+            log.error("❌ Erro ao montar payload RNDS da aplicação {}: {}", aplicacaoId, e.getMessage());
+            return false;
+        }
+
         if (sucesso) {
             aplicacaoVacinaService.marcarComoExportadoRnds(aplicacaoId);
             log.info("✅ Aplicação {} exportada manualmente para RNDS", aplicacaoId);
@@ -199,4 +358,7 @@ public class ExportacaoRndsService {
 
         return sucesso;
     }
-}
\ No newline at end of file
+
+    private record Envio(Long id, RndsTransporte.Resultado resultado) {
+    }
+}
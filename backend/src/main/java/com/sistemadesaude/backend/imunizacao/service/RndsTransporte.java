@@ -0,0 +1,22 @@
+package com.sistemadesaude.backend.imunizacao.service;
+
+/**
+ * Transporte de registros de vacinação para a RNDS.
+ *
+ * Implementações devem ser thread-safe (são chamadas em paralelo pelo
+ * {@link ExportacaoRndsService}) e respeitar a chave de idempotência:
+ * o mesmo registro pode ser reenviado após falha ou reinício.
+ */
+public interface RndsTransporte {
+
+    enum Resultado {
+        /** Aceito pela RNDS (inclusive reenvio já conhecido pela chave) */
+        SUCESSO,
+        /** Erro transitório (timeout, 5xx, 429): pode tentar de novo */
+        FALHA_TEMPORARIA,
+        /** Rejeitado pela validação da RNDS: não adianta reenviar */
+        REJEITADO
+    }
+
+    Resultado enviar(String chaveIdempotencia, String payload);
+}
@@ -0,0 +1,49 @@
+package com.sistemadesaude.backend.imunizacao.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Transporte local (sem rede) usado enquanto a integração real com a RNDS
+ * (certificado digital, FHIR) não está disponível.
+ *
+ * Simula latência e uma taxa de falhas transitórias configuráveis.
+ * Uma implementação real entra com app.rnds.transporte=<outro valor>.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.rnds.transporte", havingValue = "stub", matchIfMissing = true)
+public class RndsTransporteStub implements RndsTransporte {
+
+    private final long latenciaMs;
+    private final double taxaFalha;
+
+    public RndsTransporteStub(@Value("${app.rnds.stub.latencia-ms:100}") long latenciaMs,
+                              @Value("${app.rnds.stub.taxa-falha:0.0}") double taxaFalha) {
+        this.latenciaMs = latenciaMs;
+        this.taxaFalha = taxaFalha;
+        log.info("📡 RNDS em modo stub (latência {} ms, falha {}%)", latenciaMs, taxaFalha * 100);
+    }
+
+    @Override
+    public Resultado enviar(String chaveIdempotencia, String payload) {
+        try {
+            if (latenciaMs > 0) {
+                Thread.sleep(latenciaMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Resultado.FALHA_TEMPORARIA;
+        }
+
+        if (taxaFalha > 0 && ThreadLocalRandom.current().nextDouble() < taxaFalha) {
+            return Resultado.FALHA_TEMPORARIA;
+        }
+        log.trace("RNDS stub: {} recebido", chaveIdempotencia);
+        return Resultado.SUCESSO;
+    }
+}
@@ -4,6 +4,7 @@ import com.sistemadesaude.backend.operador.dto.AuditoriaLoginDTO;
 import com.sistemadesaude.backend.operador.entity.OperadorPerfil;
 import com.sistemadesaude.backend.operador.entity.key.OperadorPerfilKey;
 import com.sistemadesaude.backend.operador.repository.OperadorPerfilRepository;
+import com.sistemadesaude.backend.operador.security.UserDetailsCache;
 import com.sistemadesaude.backend.operador.service.OperadorAcessosService;
 import jakarta.transaction.Transactional;
 import lombok.Getter;
@@ -33,6 +34,7 @@ public class OperadorAcessosController {
 
     private final OperadorAcessosService service;      // usado para auditoria
     private final OperadorPerfilRepository perfilRepo; // usado para perfis
+    private final UserDetailsCache userDetailsCache;   // snapshot de authorities do filtro JWT
 
     /* =========================================================
        PERFIS DO OPERADOR (GET/PUT)
@@ -79,6 +81,9 @@ public class OperadorAcessosController {
 
                 perfilRepo.save(ent);
         }
+
+        // Perfis revogados deixam de autorizar assim que a troca for confirmada (após o commit)
+        userDetailsCache.evictOperador(operadorId);
         return ResponseEntity.noContent().build();
     }
 
@@ -2,6 +2,7 @@ package com.sistemadesaude.backend.operador.controller;
 
 import com.sistemadesaude.backend.operador.entity.OperadorHorarioAcesso;
 import com.sistemadesaude.backend.operador.repository.OperadorHorarioAcessoRepository;
+import com.sistemadesaude.backend.operador.security.PoliticaAcessoCache;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
@@ -37,6 +38,7 @@ public class OperadorHorariosController {
     private static final DateTimeFormatter T = DateTimeFormatter.ISO_LOCAL_TIME; // "HH:mm" ou "HH:mm:ss"
 
     private final OperadorHorarioAcessoRepository repo;
+    private final PoliticaAcessoCache politicaAcessoCache;
 
     /* =======================
        GET: listar horários
@@ -84,6 +86,7 @@ public class OperadorHorariosController {
         if (payload == null || payload.getHorarios() == null) {
             var atuais = repo.findByOperadorIdOrderByDiaSemanaAscHoraInicioAsc(operadorId);
             repo.deleteAll(atuais);
+            politicaAcessoCache.evict(operadorId);
             log.info("Operador {}: horários limpos (payload vazio).", operadorId);
             return ResponseEntity.noContent().build();
         }
@@ -116,6 +119,7 @@ public class OperadorHorariosController {
         var atuais = repo.findByOperadorIdOrderByDiaSemanaAscHoraInicioAsc(operadorId);
         repo.deleteAll(atuais);
         repo.saveAll(novos);
+        politicaAcessoCache.evict(operadorId);
 
         log.info("Operador {}: horários atualizados. {} registro(s).", operadorId, novos.size());
         return ResponseEntity.noContent().build();
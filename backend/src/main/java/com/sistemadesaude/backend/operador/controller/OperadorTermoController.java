@@ -11,10 +11,7 @@ import lombok.Setter;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.OffsetDateTime;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Objects;
 
 /**
  * Controller de Termo de Uso do Operador.
@@ -72,13 +69,8 @@ public class OperadorTermoController {
        ========================================= */
     @GetMapping("/vigente")
     public ResponseEntity<TermoVigenteDTO> obterVigente(@PathVariable Long operadorId) {
-        // pega o aceite mais recente globalmente (independente do operador)
-        OperadorTermoUso maisRecente = termoRepo.findAll().stream()
-                .max(Comparator.comparing(
-                        this::extractAceitoEm,
-                        Comparator.nullsLast(Comparator.naturalOrder())
-                ))
-                .orElse(null);
+        // pega o aceite mais recente globalmente (independente do operador) — índice por aceito_em
+        OperadorTermoUso maisRecente = termoRepo.findFirstByOrderByAceitoEmDesc().orElse(null);
 
         if (maisRecente == null) {
             // não há nenhum termo/aceite registrado no sistema
@@ -86,8 +78,7 @@ public class OperadorTermoController {
         }
 
         String versaoVigente = maisRecente.getVersao();
-        boolean operadorJaAceitou = termoUsoService.listarAceites(operadorId).stream()
-                .anyMatch(t -> Objects.equals(versaoVigente, t.getVersao()));
+        boolean operadorJaAceitou = termoRepo.existsByOperadorIdAndVersao(operadorId, versaoVigente);
 
         return ResponseEntity.ok(new TermoVigenteDTO(versaoVigente, operadorJaAceitou));
     }
@@ -113,44 +104,4 @@ public class OperadorTermoController {
             this.aceito = aceito;
         }
     }
-
-    /* =======================
-       Helpers locais
-       ======================= */
-
-    /** Extrai a data de aceite como OffsetDateTime, tolerando diferentes tipos/campos. */
-    private OffsetDateTime extractAceitoEm(OperadorTermoUso e) {
-        try {
-            var m = e.getClass().getMethod("getAceitoEm");
-            Object v = m.invoke(e);
-            if (v instanceof OffsetDateTime odt) return odt;
-            if (v instanceof java.time.LocalDateTime ldt)
-                return ldt.atZone(java.time.ZoneId.systemDefault()).toOffsetDateTime();
-            if (v instanceof java.time.Instant i)
-                return i.atZone(java.time.ZoneId.systemDefault()).toOffsetDateTime();
-            if (v instanceof java.util.Date d)
-                return d.toInstant().atZone(java.time.ZoneId.systemDefault()).toOffsetDateTime();
-        } catch (Exception ignored) { }
-
-        // tenta outros nomes comuns
-        try {
-            var m = e.getClass().getMethod("getDataAceite");
-            Object v = m.invoke(e);
-            if (v instanceof java.time.LocalDateTime ldt)
-                return ldt.atZone(java.time.ZoneId.systemDefault()).toOffsetDateTime();
-            if (v instanceof java.util.Date d)
-                return d.toInstant().atZone(java.time.ZoneId.systemDefault()).toOffsetDateTime();
-        } catch (Exception ignored) { }
-
-        try {
-            var m = e.getClass().getMethod("getAceiteEmData");
-            Object v = m.invoke(e);
-            if (v instanceof java.time.Instant i)
-                return i.atZone(java.time.ZoneId.systemDefault()).toOffsetDateTime();
-            if (v instanceof java.util.Date d)
-                return d.toInstant().atZone(java.time.ZoneId.systemDefault()).toOffsetDateTime();
-        } catch (Exception ignored) { }
-
-        return null;
-    }
 }
@@ -2,20 +2,19 @@ package com.sistemadesaude.backend.operador.repository;
 
 import com.sistemadesaude.backend.operador.entity.OperadorTermoUso;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repositório do Termo de Uso do Operador.
  *
  * Importante:
  * - Removemos métodos derivados que apontavam para atributos inexistentes (ex.: dataAceite).
- * - O service/controller já fazem filtro e ordenação em memória para evitar acoplamento
- *   com nomes de campos que podem variar entre projetos.
- *
- * Se a sua entidade tiver o campo de data chamado "aceitoEm" e você preferir ordenar no banco,
- * descomente o método sugerido abaixo e confirme que o nome da propriedade confere.
+ * - Consultas sempre filtradas/ordenadas no banco pelo operador (nada de findAll + filtro).
  */
 @Repository
 public interface OperadorTermoUsoRepository extends JpaRepository<OperadorTermoUso, Long> {
@@ -26,6 +25,13 @@ public interface OperadorTermoUsoRepository extends JpaRepository<OperadorTermoU
     /** Listagem simples por operador (o service ordena em memória). */
     List<OperadorTermoUso> findByOperadorId(Long operadorId);
 
-    // >>> Se sua entidade tiver o campo "aceitoEm", e quiser ordenar no banco, use:
-    // List<OperadorTermoUso> findByOperadorIdOrderByAceitoEmDesc(Long operadorId);
+    /** Aceites do operador, mais recentes primeiro (uk operador_id/versao). */
+    List<OperadorTermoUso> findByOperadorIdOrderByAceitoEmDesc(Long operadorId);
+
+    /** Versões aceitas pelo operador (compilação da PoliticaAcesso). */
+    @Query("SELECT t.versao FROM OperadorTermoUso t WHERE t.operadorId = :operadorId")
+    List<String> findVersoesAceitas(@Param("operadorId") Long operadorId);
+
+    /** Aceite mais recente de qualquer operador (versão "vigente"; idx_operador_termo_uso_aceito_em). */
+    Optional<OperadorTermoUso> findFirstByOrderByAceitoEmDesc();
 }
@@ -0,0 +1,155 @@
+package com.sistemadesaude.backend.operador.security;
+
+import com.sistemadesaude.backend.operador.entity.OperadorHorarioAcesso;
+import com.sistemadesaude.backend.operador.entity.OperadorRestricaoAcesso;
+
+import java.net.InetAddress;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Política de acesso de um operador, "compilada" a partir das tabelas de horários,
+ * restrições e aceites de termo. Imutável: pode ser compartilhada entre threads via
+ * {@link PoliticaAcessoCache}.
+ *
+ * - Horários: janelas ativas indexadas por dia (0=domingo ... 6=sábado; 7 também é domingo,
+ *   pois a tela valida 1..7). Dia sem janelas = sem restrição naquele dia.
+ * - IP: redes ativas do tipo IP (endereço ou CIDR). Sem regras = qualquer origem.
+ * - Termo: versões já aceitas pelo operador.
+ */
+public final class PoliticaAcesso {
+
+    /** Política vazia: nenhum horário, nenhuma restrição, nenhum termo aceito. */
+    public static final PoliticaAcesso SEM_REGRAS = new PoliticaAcesso(List.of(), List.of(), Set.of());
+
+    private final List<Janela>[] janelasPorDia;
+    private final boolean possuiHorarios;
+    private final List<Rede> redesPermitidas;
+    private final Set<String> versoesAceitas;
+
+    @SuppressWarnings("unchecked")
+    private PoliticaAcesso(Collection<OperadorHorarioAcesso> horarios,
+                           Collection<OperadorRestricaoAcesso> restricoes,
+                           Set<String> versoesAceitas) {
+        List<Janela>[] dias = new List[7];
+        for (int i = 0; i < 7; i++) dias[i] = new ArrayList<>();
+        boolean algum = false;
+        for (OperadorHorarioAcesso h : horarios) {
+            if (!Boolean.TRUE.equals(h.getAtivo()) || h.getDiaSemana() == null) continue;
+            int dia = h.getDiaSemana() % 7;
+            if (dia < 0) continue;
+            dias[dia].add(new Janela(h.getHoraInicio(), h.getHoraFim()));
+            algum = true;
+        }
+        for (int i = 0; i < 7; i++) dias[i] = List.copyOf(dias[i]);
+        this.janelasPorDia = dias;
+        this.possuiHorarios = algum;
+
+        List<Rede> redes = new ArrayList<>();
+        for (OperadorRestricaoAcesso r : restricoes) {
+            if (!Boolean.TRUE.equals(r.getAtivo()) || !"IP".equalsIgnoreCase(r.getTipo())) continue;
+            Rede rede = Rede.parse(r.getValor());
+            if (rede != null) redes.add(rede);
+        }
+        this.redesPermitidas = List.copyOf(redes);
+        this.versoesAceitas = Set.copyOf(versoesAceitas);
+    }
+
+    public static PoliticaAcesso compilar(Collection<OperadorHorarioAcesso> horarios,
+                                          Collection<OperadorRestricaoAcesso> restricoes,
+                                          Collection<String> versoesAceitas) {
+        return new PoliticaAcesso(horarios, restricoes, Set.copyOf(versoesAceitas));
+    }
+
+    /** True se não há janela ativa no dia, ou se o horário cai em alguma delas. */
+    public boolean permiteHorario(LocalDateTime quando) {
+        if (!possuiHorarios) return true;
+        List<Janela> janelas = janelasPorDia[diaDaSemana(quando.getDayOfWeek())];
+        if (janelas.isEmpty()) return true;
+        LocalTime hora = quando.toLocalTime();
+        for (Janela j : janelas) {
+            if (j.contem(hora)) return true;
+        }
+        return false;
+    }
+
+    /** True se não há restrição de IP, ou se o endereço está em alguma rede permitida. */
+    public boolean permiteIp(String ip) {
+        if (redesPermitidas.isEmpty()) return true;
+        byte[] endereco = Rede.literal(ip);
+        if (endereco == null) return false;
+        for (Rede r : redesPermitidas) {
+            if (r.contem(endereco)) return true;
+        }
+        return false;
+    }
+
+    public boolean aceitouVersao(String versao) {
+        return versao != null && versoesAceitas.contains(versao);
+    }
+
+    /** DayOfWeek (MON..SUN) → 0=domingo, 1=segunda ... 6=sábado. */
+    private static int diaDaSemana(DayOfWeek d) {
+        return d.getValue() % 7;
+    }
+
+    /** Janela [inicio, fim]; suporta janelas que cruzam a meia-noite (ex.: 22:00 → 06:00). */
+    private record Janela(LocalTime inicio, LocalTime fim) {
+        boolean contem(LocalTime hora) {
+            if (inicio == null && fim == null) return true;
+            if (inicio == null) return !hora.isAfter(fim);
+            if (fim == null) return !hora.isBefore(inicio);
+            if (!fim.isBefore(inicio)) return !hora.isBefore(inicio) && !hora.isAfter(fim);
+            return !hora.isBefore(inicio) || !hora.isAfter(fim);
+        }
+    }
+
+    /** Rede IPv4/IPv6 (endereço único ou CIDR), comparada bit a bit. */
+    private record Rede(byte[] endereco, int prefixo) {
+
+        static Rede parse(String valor) {
+            if (valor == null || valor.isBlank()) return null;
+            String v = valor.trim();
+            int barra = v.indexOf('/');
+            byte[] end = literal(barra < 0 ? v : v.substring(0, barra));
+            if (end == null) return null;
+            int prefixo = end.length * 8;
+            if (barra >= 0) {
+                try {
+                    prefixo = Integer.parseInt(v.substring(barra + 1).trim());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+                if (prefixo < 0 || prefixo > end.length * 8) return null;
+            }
+            return new Rede(end, prefixo);
+        }
+
+        /** Apenas literais de IP (nunca resolve DNS). */
+        static byte[] literal(String ip) {
+            if (ip == null || ip.isBlank() || !ip.trim().matches("[0-9a-fA-F:.]+")) return null;
+            try {
+                return InetAddress.getByName(ip.trim()).getAddress();
+            } catch (Exception e) {
+                return null;
+            }
+        }
+
+        boolean contem(byte[] outro) {
+            if (outro.length != endereco.length) return false;
+            int bytesInteiros = prefixo / 8;
+            for (int i = 0; i < bytesInteiros; i++) {
+                if (endereco[i] != outro[i]) return false;
+            }
+            int resto = prefixo % 8;
+            if (resto == 0) return true;
+            int mascara = 0xFF << (8 - resto);
+            return (endereco[bytesInteiros] & mascara) == (outro[bytesInteiros] & mascara);
+        }
+    }
+}
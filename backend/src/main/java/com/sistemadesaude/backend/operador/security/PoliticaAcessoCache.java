@@ -0,0 +1,101 @@
+package com.sistemadesaude.backend.operador.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sistemadesaude.backend.config.AposCommit;
+import com.sistemadesaude.backend.config.CamadaDuplaCacheManager;
+import com.sistemadesaude.backend.operador.repository.OperadorHorarioAcessoRepository;
+import com.sistemadesaude.backend.operador.repository.OperadorRestricaoAcessoRepository;
+import com.sistemadesaude.backend.operador.repository.OperadorTermoUsoRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Cache local (Caffeine) da {@link PoliticaAcesso} compilada de cada operador.
+ *
+ * - As checagens do login (janela de horário, aceite do termo) viram consultas em memória;
+ *   o banco só é lido em cache miss, com três consultas indexadas por operador_id.
+ * - Edições de horário/restrição/termo invalidam a política do operador
+ *   (OperadorAcessosService, OperadorHorariosController, TermoUsoService) após o commit:
+ *   invalidando antes, uma leitura concorrente recolocaria a política antiga no cache.
+ * - A invalidação é publicada no canal Redis de invalidação do cache em duas camadas
+ *   ({@link CamadaDuplaCacheManager#CANAL_INVALIDACAO}); as demais instâncias removem a mesma
+ *   entrada. Sem Redis, o TTL é o limite para as outras instâncias.
+ */
+@Component
+public class PoliticaAcessoCache {
+
+    /** Nome no canal de invalidação (não colide com os caches do CacheManager) */
+    static final String NOME = "local:politica-acesso";
+
+    private final OperadorHorarioAcessoRepository horarioRepo;
+    private final OperadorRestricaoAcessoRepository restricaoRepo;
+    private final OperadorTermoUsoRepository termoRepo;
+    private final Cache<Long, PoliticaAcesso> cache;
+    private final CamadaDuplaCacheManager invalidacao; // null = sem invalidação distribuída
+
+    public PoliticaAcessoCache(OperadorHorarioAcessoRepository horarioRepo,
+                               OperadorRestricaoAcessoRepository restricaoRepo,
+                               OperadorTermoUsoRepository termoRepo,
+                               CacheManager cacheManager,
+                               @Value("${app.security.politica-acesso.ttl-segundos:300}") long ttlSegundos,
+                               @Value("${app.security.politica-acesso.tamanho-maximo:5000}") long tamanhoMaximo) {
+        this.horarioRepo = horarioRepo;
+        this.restricaoRepo = restricaoRepo;
+        this.termoRepo = termoRepo;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .maximumSize(tamanhoMaximo)
+                .recordStats()
+                .build();
+
+        this.invalidacao = cacheManager instanceof CamadaDuplaCacheManager m ? m : null;
+        if (invalidacao != null) {
+            // Invalidação vinda de outra instância: só o cache local (sem republicar)
+            invalidacao.registrarCacheLocal(NOME, chave -> {
+                if (chave == null) cache.invalidateAll();
+                else cache.invalidate(Long.valueOf(chave));
+            });
+        }
+    }
+
+    /** Política do operador, compilada do banco apenas em cache miss. */
+    public PoliticaAcesso obter(Long operadorId) {
+        if (operadorId == null) return PoliticaAcesso.SEM_REGRAS;
+        return cache.get(operadorId, this::carregar);
+    }
+
+    /** Invalida a política de um operador (após editar horários, restrições ou aceitar termo). */
+    public void evict(Long operadorId) {
+        if (operadorId == null) return;
+        AposCommit.executar(() -> {
+            cache.invalidate(operadorId);
+            publicar(operadorId);
+        });
+    }
+
+    public void evictAll() {
+        AposCommit.executar(() -> {
+            cache.invalidateAll();
+            publicar(null);
+        });
+    }
+
+    public long tamanho() {
+        return cache.estimatedSize();
+    }
+
+    private void publicar(Long operadorId) {
+        if (invalidacao != null) invalidacao.publicarInvalidacao(NOME, operadorId);
+    }
+
+    private PoliticaAcesso carregar(Long operadorId) {
+        return PoliticaAcesso.compilar(
+                horarioRepo.findByOperadorIdOrderByDiaSemanaAscHoraInicioAsc(operadorId),
+                restricaoRepo.findByOperadorIdOrderByIdAsc(operadorId),
+                termoRepo.findVersoesAceitas(operadorId));
+    }
+}
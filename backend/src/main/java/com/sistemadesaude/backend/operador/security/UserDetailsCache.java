@@ -0,0 +1,70 @@
+package com.sistemadesaude.backend.operador.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sistemadesaude.backend.config.AposCommit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Cache local (Caffeine) do snapshot de {@link UserDetails} usado pelo filtro JWT.
+ *
+ * - Evita um loadUserByUsername (SELECT em operador + operador_perfis) a cada requisição autenticada.
+ * - TTL curto: alterações feitas em outra instância valem, no máximo, após o TTL.
+ * - Alterações de perfil/permissão/acesso/senha na própria instância invalidam o snapshot
+ *   (PerfilServiceImpl, OperadorAcessosService, OperadorServiceImpl, OperadorAcessosController).
+ * - Dentro de transação a invalidação roda só após o commit: antes disso uma requisição
+ *   concorrente ainda leria as linhas antigas e as colocaria de volta no cache por um TTL inteiro.
+ *   Rollback não invalida nada (o snapshot continua correto).
+ */
+@Component
+public class UserDetailsCache {
+
+    private final UserDetailsServiceImpl userDetailsService;
+    private final Cache<String, UserDetails> cache;
+
+    public UserDetailsCache(UserDetailsServiceImpl userDetailsService,
+                            @Value("${app.security.user-cache.ttl-segundos:60}") long ttlSegundos,
+                            @Value("${app.security.user-cache.tamanho-maximo:5000}") long tamanhoMaximo) {
+        this.userDetailsService = userDetailsService;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .maximumSize(tamanhoMaximo)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Retorna o snapshot do operador, carregando do banco apenas em cache miss.
+     * @throws UsernameNotFoundException se o login não existir
+     */
+    public UserDetails obter(String login) throws UsernameNotFoundException {
+        return cache.get(login, userDetailsService::loadUserByUsername);
+    }
+
+    /** Invalida o snapshot de um login específico. */
+    public void evict(String login) {
+        if (login != null) AposCommit.executar(() -> cache.invalidate(login));
+    }
+
+    /** Invalida o snapshot de um operador pelo ID (varre apenas as entradas em cache). */
+    public void evictOperador(Long operadorId) {
+        if (operadorId == null) return;
+        AposCommit.executar(() -> cache.asMap().entrySet().removeIf(e ->
+                e.getValue() instanceof UserDetailsImpl u && Objects.equals(u.getOperadorId(), operadorId)));
+    }
+
+    /** Invalida tudo (ex.: permissões de um perfil mudaram e afetam vários operadores). */
+    public void evictAll() {
+        AposCommit.executar(cache::invalidateAll);
+    }
+
+    public long tamanho() {
+        return cache.estimatedSize();
+    }
+}
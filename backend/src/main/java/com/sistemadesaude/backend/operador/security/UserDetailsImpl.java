@@ -21,6 +21,9 @@ public class UserDetailsImpl implements UserDetails {
 
     private final Operador operador;
 
+    /** Authorities calculadas uma única vez (a instância é um snapshot cacheado pelo filtro JWT). */
+    private volatile Collection<? extends GrantedAuthority> authoritiesCache;
+
     public UserDetailsImpl(Operador operador) {
         this.operador = Objects.requireNonNull(operador, "operador não pode ser nulo");
     }
@@ -37,6 +40,15 @@ public class UserDetailsImpl implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
+        Collection<? extends GrantedAuthority> cached = authoritiesCache;
+        if (cached == null) {
+            cached = calcularAuthorities();
+            authoritiesCache = cached;
+        }
+        return cached;
+    }
+
+    private Collection<? extends GrantedAuthority> calcularAuthorities() {
         // ✅ CORRIGIDO: Adiciona ROLE_ADMINISTRADOR_SISTEMA para admin.master (bypass)
         java.util.List<SimpleGrantedAuthority> authorities = new java.util.ArrayList<>();
 
@@ -86,7 +98,7 @@ public class UserDetailsImpl implements UserDetails {
             }
         } catch (Exception ignored) { }
 
-        return authorities.isEmpty() ? Collections.emptyList() : authorities;
+        return authorities.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(authorities);
     }
 
     @Override
@@ -2,6 +2,7 @@ package com.sistemadesaude.backend.operador.service;
 
 import com.sistemadesaude.backend.operador.entity.Operador;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -92,6 +93,19 @@ public class JwtService {
                 .getBody();
     }
 
+    /**
+     * Faz o parse (assinatura + expiração) uma única vez e devolve as claims.
+     * Retorna null se o token for inválido, adulterado ou expirado.
+     * Usado pelo filtro JWT para não repetir o HMAC em validate/extract/isTokenValid.
+     */
+    public Claims parseClaimsOuNull(String token) {
+        try {
+            return extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     /**
      * Função genérica para extrair uma claim específica do token.
      */
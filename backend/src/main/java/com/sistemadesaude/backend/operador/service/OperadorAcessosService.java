@@ -7,18 +7,22 @@ import com.sistemadesaude.backend.operador.dto.TermoUsoDTO;
 import com.sistemadesaude.backend.operador.entity.OperadorHorarioAcesso;
 import com.sistemadesaude.backend.operador.entity.OperadorLoginAuditoria;
 import com.sistemadesaude.backend.operador.entity.OperadorRestricaoAcesso;
+import com.sistemadesaude.backend.operador.entity.OperadorTermoUso;
 import com.sistemadesaude.backend.operador.repository.OperadorHorarioAcessoRepository;
 import com.sistemadesaude.backend.operador.repository.OperadorLoginAuditoriaRepository;
 import com.sistemadesaude.backend.operador.repository.OperadorRestricaoAcessoRepository;
 import com.sistemadesaude.backend.operador.repository.OperadorTermoUsoRepository;
+import com.sistemadesaude.backend.operador.security.PoliticaAcessoCache;
+import com.sistemadesaude.backend.operador.security.UserDetailsCache;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.lang.reflect.Method;
-import java.time.*;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 
 /**
  * Serviço central de "Acessos" do Operador:
@@ -27,10 +31,10 @@ import java.util.stream.Collectors;
  *  - Termo de Uso (listar e checar aceite por versão)
  *  - Auditoria de login (listar)
  *
- * ⚙️ Para garantir compilação em qualquer ambiente:
- *  - Evitamos depender de métodos customizados dos repositórios.
- *    Usamos findAll() + filtro/ordenação em memória.
- *  - Para TERMO DE USO, mapeamos campos por reflexão (getters com nomes alternativos).
+ * ⚙️ Desempenho:
+ *  - Listagens por operador usam consultas indexadas por operador_id, ordenadas no banco.
+ *  - Checagens do login (aceite de termo, janela de horário) leem a política compilada
+ *    do {@link PoliticaAcessoCache}; toda edição aqui invalida a política do operador.
  */
 @Service
 @RequiredArgsConstructor
@@ -40,18 +44,15 @@ public class OperadorAcessosService {
     private final OperadorRestricaoAcessoRepository restrRepo;
     private final OperadorTermoUsoRepository termoRepo;
     private final OperadorLoginAuditoriaRepository auditRepo;
+    private final UserDetailsCache userDetailsCache;
+    private final PoliticaAcessoCache politicaAcessoCache;
 
     /* =========================================================
        HORÁRIOS
        ========================================================= */
 
     public List<HorarioAcessoDTO> listarHorarios(Long operadorId) {
-        var list = horarioRepo.findAll().stream()
-                .filter(h -> Objects.equals(h.getOperadorId(), operadorId))
-                .sorted(Comparator
-                        .comparing((OperadorHorarioAcesso h) -> h.getDiaSemana() == null ? 0 : h.getDiaSemana().intValue())
-                        .thenComparing(h -> h.getHoraInicio() == null ? LocalTime.MIN : h.getHoraInicio()))
-                .collect(Collectors.toList());
+        var list = horarioRepo.findByOperadorIdOrderByDiaSemanaAscHoraInicioAsc(operadorId);
 
         List<HorarioAcessoDTO> out = new ArrayList<>(list.size());
         for (OperadorHorarioAcesso e : list) out.add(mapHorario(e));
@@ -71,7 +72,10 @@ public class OperadorAcessosService {
         if (in.getAtivo() != null) e.setAtivo(in.getAtivo());
         // entidade pode ter "atualizadoPor"; DTO não precisa disso
 
-        return mapHorario(horarioRepo.save(e));
+        var salvo = horarioRepo.save(e);
+        userDetailsCache.evictOperador(operadorId);
+        politicaAcessoCache.evict(operadorId);
+        return mapHorario(salvo);
     }
 
     @Transactional
@@ -89,7 +93,10 @@ public class OperadorAcessosService {
         e.setHoraFim(parseTimeOrNull(in.getHoraFim()));
         if (in.getAtivo() != null) e.setAtivo(in.getAtivo());
 
-        return mapHorario(horarioRepo.save(e));
+        var salvo = horarioRepo.save(e);
+        userDetailsCache.evictOperador(operadorId);
+        politicaAcessoCache.evict(operadorId);
+        return mapHorario(salvo);
     }
 
     @Transactional
@@ -99,6 +106,8 @@ public class OperadorAcessosService {
         if (!Objects.equals(e.getOperadorId(), operadorId))
             throw new IllegalArgumentException("Horário não pertence ao operador.");
         horarioRepo.delete(e);
+        userDetailsCache.evictOperador(operadorId);
+        politicaAcessoCache.evict(operadorId);
     }
 
     private void validarHorarioDTO(HorarioAcessoDTO in) {
@@ -133,10 +142,7 @@ public class OperadorAcessosService {
        ========================================================= */
 
     public List<RestricaoAcessoDTO> listarRestricoes(Long operadorId) {
-        var list = restrRepo.findAll().stream()
-                .filter(r -> Objects.equals(r.getOperadorId(), operadorId))
-                .sorted(Comparator.comparing(OperadorRestricaoAcesso::getId, Comparator.nullsLast(Long::compareTo)))
-                .collect(Collectors.toList());
+        var list = restrRepo.findByOperadorIdOrderByIdAsc(operadorId);
 
         List<RestricaoAcessoDTO> out = new ArrayList<>(list.size());
         for (OperadorRestricaoAcesso e : list) out.add(mapRestricao(e));
@@ -155,7 +161,10 @@ public class OperadorAcessosService {
         if (in.getAtivo() != null) e.setAtivo(in.getAtivo());
         // entidade pode registrar "atualizadoPor"; o DTO não expõe isso
 
-        return mapRestricao(restrRepo.save(e));
+        var salvo = restrRepo.save(e);
+        userDetailsCache.evictOperador(operadorId);
+        politicaAcessoCache.evict(operadorId);
+        return mapRestricao(salvo);
     }
 
     @Transactional
@@ -173,7 +182,10 @@ public class OperadorAcessosService {
         e.setObservacao(in.getObservacao());
         if (in.getAtivo() != null) e.setAtivo(in.getAtivo());
 
-        return mapRestricao(restrRepo.save(e));
+        var salvo = restrRepo.save(e);
+        userDetailsCache.evictOperador(operadorId);
+        politicaAcessoCache.evict(operadorId);
+        return mapRestricao(salvo);
     }
 
     @Transactional
@@ -183,6 +195,8 @@ public class OperadorAcessosService {
         if (!Objects.equals(e.getOperadorId(), operadorId))
             throw new IllegalArgumentException("Restrição não pertence ao operador.");
         restrRepo.delete(e);
+        userDetailsCache.evictOperador(operadorId);
+        politicaAcessoCache.evict(operadorId);
     }
 
     private void validarRestricaoDTO(RestricaoAcessoDTO in) {
@@ -206,45 +220,31 @@ public class OperadorAcessosService {
     }
 
     /* =========================================================
-       TERMO DE USO (reflexão para nomes diferentes de getters)
+       TERMO DE USO
        ========================================================= */
 
     public List<TermoUsoDTO> listarAceitesTermo(Long operadorId) {
-        var list = termoRepo.findAll().stream()
-                .filter(t -> Objects.equals(extractLong(t, "getOperadorId", "getIdOperador", "getOperadorCodigo"), operadorId))
-                .sorted(Comparator.comparing(
-                        (Object t) -> extractOffsetDateTime(t, "getAceitoEm", "getDataAceite", "getAceiteEmData"),
-                        Comparator.nullsLast(Comparator.reverseOrder()) // DESC
-                ))
-                .collect(Collectors.toList());
+        var list = termoRepo.findByOperadorIdOrderByAceitoEmDesc(operadorId);
 
         List<TermoUsoDTO> out = new ArrayList<>(list.size());
-        for (Object t : list) out.add(mapTermo(t));
+        for (OperadorTermoUso t : list) out.add(mapTermo(t));
         return out;
     }
 
-    /** Checa se já existe aceite para a versão informada (versão não vazia). */
+    /** Checa se já existe aceite para a versão informada (versão não vazia). Usado no login: lê a política em cache. */
     public boolean possuiAceiteDaVersao(Long operadorId, String versao) {
         if (versao == null || versao.isBlank()) return false;
-        return termoRepo.findAll().stream()
-                .anyMatch(t ->
-                        Objects.equals(extractLong(t, "getOperadorId", "getIdOperador", "getOperadorCodigo"), operadorId)
-                                && versao.equals(extractString(t, "getVersao", "getVersaoTermo", "getTermoVersao"))
-                );
+        return politicaAcessoCache.obter(operadorId).aceitouVersao(versao);
     }
 
-    private TermoUsoDTO mapTermo(Object t) {
+    private TermoUsoDTO mapTermo(OperadorTermoUso t) {
         TermoUsoDTO d = new TermoUsoDTO();
-        d.setId(extractLong(t, "getId", "getIdTermo", "getIdAceite"));
-        d.setOperadorId(extractLong(t, "getOperadorId", "getIdOperador", "getOperadorCodigo"));
-        d.setVersao(extractString(t, "getVersao", "getVersaoTermo", "getTermoVersao"));
-        // ✅ Agora converto para OffsetDateTime (evita o erro do print)
-        d.setAceitoEm(extractOffsetDateTime(t, "getAceitoEm", "getDataAceite", "getAceiteEmData"));
-        // Campos opcionais — somente se existirem na sua entidade; manter setIp/setUserAgent no DTO
-        String ip = extractString(t, "getIp", "getEnderecoIp", "getIpAddress");
-        if (ip != null) d.setIp(ip);
-        String ua = extractString(t, "getUserAgent", "getAgenteUsuario", "getNavegador");
-        if (ua != null) d.setUserAgent(ua);
+        d.setId(t.getId());
+        d.setOperadorId(t.getOperadorId());
+        d.setVersao(t.getVersao());
+        d.setAceitoEm(t.getAceitoEm());
+        d.setIp(t.getIp());
+        d.setUserAgent(t.getUserAgent());
         return d;
     }
 
@@ -253,10 +253,7 @@ public class OperadorAcessosService {
        ========================================================= */
 
     public List<AuditoriaLoginDTO> listarAuditoriaLogin(Long operadorId) {
-        var list = auditRepo.findAll().stream()
-                .filter(a -> Objects.equals(a.getOperadorId(), operadorId))
-                .sorted(Comparator.comparing(OperadorLoginAuditoria::getDataHora, Comparator.nullsLast(Comparator.reverseOrder())))
-                .collect(Collectors.toList());
+        var list = auditRepo.findByOperadorIdOrderByDataHoraDesc(operadorId);
 
         List<AuditoriaLoginDTO> out = new ArrayList<>(list.size());
         for (OperadorLoginAuditoria a : list) out.add(mapAuditoria(a));
@@ -274,55 +271,4 @@ public class OperadorAcessosService {
         d.setMotivo(a.getMotivo());
         return d;
     }
-
-    /* =========================================================
-       Helpers de reflexão (para o Termo)
-       ========================================================= */
-
-    private static Object call(Object alvo, String nome) {
-        if (alvo == null || nome == null) return null;
-        try {
-            Method m = alvo.getClass().getMethod(nome);
-            return m.invoke(alvo);
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
-    private static Long extractLong(Object alvo, String... getters) {
-        for (String g : getters) {
-            Object v = call(alvo, g);
-            if (v instanceof Number n) return n.longValue();
-            if (v != null) {
-                try { return Long.valueOf(v.toString()); } catch (Exception ignored) {}
-            }
-        }
-        return null;
-    }
-
-    private static String extractString(Object alvo, String... getters) {
-        for (String g : getters) {
-            Object v = call(alvo, g);
-            if (v != null) return String.valueOf(v);
-        }
-        return null;
-    }
-
-    private static OffsetDateTime extractOffsetDateTime(Object alvo, String... getters) {
-        for (String g : getters) {
-            Object v = call(alvo, g);
-            if (v == null) continue;
-            if (v instanceof OffsetDateTime odt) return odt;
-            if (v instanceof LocalDateTime ldt) {
-                return ldt.atZone(ZoneId.systemDefault()).toOffsetDateTime();
-            }
-            if (v instanceof Instant i) {
-                return i.atZone(ZoneId.systemDefault()).toOffsetDateTime();
-            }
-            if (v instanceof Date d) {
-                return d.toInstant().atZone(ZoneId.systemDefault()).toOffsetDateTime();
-            }
-        }
-        return null;
-    }
 }
@@ -4,6 +4,7 @@ import com.sistemadesaude.backend.operador.dto.OperadorDTO;
 import com.sistemadesaude.backend.operador.entity.Operador;
 import com.sistemadesaude.backend.operador.mapper.OperadorMapper;
 import com.sistemadesaude.backend.operador.repository.OperadorRepository;
+import com.sistemadesaude.backend.operador.security.UserDetailsCache;
 import com.sistemadesaude.backend.operador.service.OperadorService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -37,6 +38,7 @@ public class OperadorServiceImpl implements OperadorService {
     private final OperadorRepository operadorRepository;
     private final OperadorMapper operadorMapper;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
 
     // ====================================================
     // LISTAGEM / BUSCA
@@ -142,6 +144,7 @@ public class OperadorServiceImpl implements OperadorService {
         // if (dto.getSenha() != null)       entity.setSenha(passwordEncoder.encode(dto.getSenha()));
 
         Operador salvo = operadorRepository.save(entity);
+        userDetailsCache.evictOperador(id);
         return operadorMapper.toDTO(salvo);
     }
 
@@ -157,6 +160,7 @@ public class OperadorServiceImpl implements OperadorService {
                 .orElseThrow(() -> new EntityNotFoundException("Operador não encontrado com ID: " + id));
         entity.setAtivo(Boolean.TRUE.equals(ativo));
         operadorRepository.save(entity);
+        userDetailsCache.evictOperador(id);
     }
 
     // ====================================================
@@ -175,5 +179,6 @@ public class OperadorServiceImpl implements OperadorService {
         // Se existirem FKs sem ON DELETE CASCADE (ex.: operador_perfis, operador_unidade),
         // limpe as junções nas suas respectivas services antes do delete.
         operadorRepository.deleteById(id);
+        userDetailsCache.evictOperador(id);
     }
 }
@@ -4,6 +4,7 @@ import com.sistemadesaude.backend.operador.dto.TermoUsoDTO;
 import com.sistemadesaude.backend.operador.entity.Operador;
 import com.sistemadesaude.backend.operador.entity.OperadorTermoUso;
 import com.sistemadesaude.backend.operador.repository.OperadorTermoUsoRepository;
+import com.sistemadesaude.backend.operador.security.PoliticaAcessoCache;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -28,6 +29,7 @@ import java.util.stream.Collectors;
 public class TermoUsoService {
 
     private final OperadorTermoUsoRepository termoRepo;
+    private final PoliticaAcessoCache politicaAcessoCache;
 
     /** Lista todos os aceites do operador, mais recentes primeiro. */
     public List<TermoUsoDTO> listarAceites(Long operadorId) {
@@ -98,6 +100,7 @@ public class TermoUsoService {
         }
 
         OperadorTermoUso salvo = termoRepo.save(ent);
+        politicaAcessoCache.evict(operadorId);
         return toDTO(salvo);
     }
 
@@ -1,7 +1,9 @@
 package com.sistemadesaude.backend.paciente.controller;
 
+import com.sistemadesaude.backend.paciente.dto.PacienteBuscaResultadoDTO;
 import com.sistemadesaude.backend.paciente.dto.PacienteDTO;
 import com.sistemadesaude.backend.paciente.dto.PacienteListDTO;
+import com.sistemadesaude.backend.paciente.service.PacienteBuscaService;
 import com.sistemadesaude.backend.paciente.service.PacienteService;
 import com.sistemadesaude.backend.exception.BusinessException;
 import com.sistemadesaude.backend.exception.ResourceNotFoundException;
@@ -27,6 +29,7 @@ import java.util.List;
 public class PacienteController {
 
     private final PacienteService pacienteService;
+    private final PacienteBuscaService pacienteBuscaService;
 
     /**
      * Cria um novo paciente.
@@ -195,6 +198,24 @@ public class PacienteController {
         }
     }
 
+    /**
+     * Busca indexada e paginada (CPF/CNS exatos ou trecho de nome, sem acento).
+     * Para a próxima página, enviar o "proximoCursor" recebido no parâmetro cursor.
+     */
+    @GetMapping("/busca")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<PacienteBuscaResultadoDTO> buscaPaginada(
+            @RequestParam String termo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        try {
+            return ResponseEntity.ok(pacienteBuscaService.buscar(termo, cursor, limite));
+        } catch (IllegalArgumentException e) {
+            log.warn("⚠️ Busca de pacientes inválida: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Busca pacientes por múltiplos critérios.
      */
@@ -0,0 +1,24 @@
+package com.sistemadesaude.backend.paciente.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de resultados da busca de pacientes.
+ * Para a próxima página, reenviar {@code proximoCursor} no parâmetro "cursor".
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PacienteBuscaResultadoDTO {
+    private List<PacienteListDTO> itens;
+    /** Cursor opaco da próxima página (null quando não há mais resultados) */
+    private String proximoCursor;
+    /** true quando o termo foi reconhecido como CPF/CNS e a busca foi por chave exata */
+    private boolean buscaExata;
+}
@@ -31,6 +31,44 @@ public interface PacienteRepository extends JpaRepository<Paciente, Long> {
 
     boolean existsByCns(String cns);
 
+    /**
+     * Busca paginada (keyset) por nome, nome social ou nome da mãe, sem acento.
+     * Usa f_normaliza_nome() e os índices de trigramas criados em V202610170001. Os padrões
+     * chegam sem remoção de acento e passam pela mesma função das colunas indexadas.
+     *
+     * Colunas: id, nome_completo, nome_social, cpf, cns, data_nascimento,
+     *          municipio, telefone_celular, prioridade, nome_norm
+     * Prioridade: 1 = nome começa com o termo, 2 = nome social começa, 3 = contém.
+     * Cursor: (prioridade, nome_norm, id) da última linha da página anterior.
+     */
+    @Query(value = """
+        SELECT r.id, r.nome_completo, r.nome_social, r.cpf, r.cns, r.data_nascimento,
+               r.municipio, r.telefone_celular, r.prioridade, r.nome_norm
+          FROM (
+                SELECT p.id, p.nome_completo, p.nome_social, p.cpf, p.cns, p.data_nascimento,
+                       p.municipio, p.telefone_celular,
+                       f_normaliza_nome(p.nome_completo) AS nome_norm,
+                       CASE
+                           WHEN f_normaliza_nome(p.nome_completo) LIKE f_normaliza_nome(:prefixo) THEN 1
+                           WHEN f_normaliza_nome(p.nome_social) LIKE f_normaliza_nome(:prefixo) THEN 2
+                           ELSE 3
+                       END AS prioridade
+                  FROM pacientes p
+                 WHERE f_normaliza_nome(p.nome_completo) LIKE f_normaliza_nome(:contem)
+                    OR f_normaliza_nome(p.nome_social) LIKE f_normaliza_nome(:contem)
+                    OR f_normaliza_nome(p.nome_mae) LIKE f_normaliza_nome(:contem)
+               ) r
+         WHERE (r.prioridade, r.nome_norm, r.id) > (:cursorPrioridade, :cursorNome, :cursorId)
+         ORDER BY r.prioridade, r.nome_norm, r.id
+         LIMIT :limite
+        """, nativeQuery = true)
+    List<Object[]> buscarPorNomeKeyset(@Param("prefixo") String prefixo,
+                                       @Param("contem") String contem,
+                                       @Param("cursorPrioridade") int cursorPrioridade,
+                                       @Param("cursorNome") String cursorNome,
+                                       @Param("cursorId") long cursorId,
+                                       @Param("limite") int limite);
+
     /**
      * Busca pacientes por múltiplos critérios usando query personalizada.
      */
@@ -0,0 +1,156 @@
+package com.sistemadesaude.backend.paciente.service;
+
+import com.sistemadesaude.backend.paciente.dto.PacienteBuscaResultadoDTO;
+import com.sistemadesaude.backend.paciente.dto.PacienteListDTO;
+import com.sistemadesaude.backend.paciente.mapper.PacienteMapper;
+import com.sistemadesaude.backend.paciente.repository.PacienteRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Busca de pacientes indexada e paginada.
+ *
+ * - Termo com 11 dígitos → CPF; 15 dígitos → CNS (busca por chave exata).
+ * - Demais termos → nome/nome social/nome da mãe, sem acento, via índices de trigramas.
+ * - Resultado limitado por página ({@link #LIMITE_MAXIMO}) e paginado por keyset
+ *   (cursor opaco), sem OFFSET.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PacienteBuscaService {
+
+    public static final int LIMITE_PADRAO = 20;
+    public static final int LIMITE_MAXIMO = 50;
+
+    private final PacienteRepository repository;
+    private final PacienteMapper mapper;
+
+    @Transactional(readOnly = true)
+    public PacienteBuscaResultadoDTO buscar(String termo, String cursor, Integer limite) {
+        int tamanho = limite == null ? LIMITE_PADRAO : Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+        String t = termo == null ? "" : termo.trim();
+
+        // 1) Chaves exatas: CPF/CNS (aceita pontuação)
+        if (t.matches("[0-9.\\-\\s/]+")) {
+            String digitos = t.replaceAll("\\D", "");
+            Optional<PacienteListDTO> exato = switch (digitos.length()) {
+                case 11 -> repository.findByCpf(digitos).map(mapper::toListDTO);
+                case 15 -> repository.findByCns(digitos).map(mapper::toListDTO);
+                default -> null;
+            };
+            if (exato != null) {
+                return PacienteBuscaResultadoDTO.builder()
+                        .itens(exato.map(List::of).orElse(List.of()))
+                        .buscaExata(true)
+                        .build();
+            }
+        }
+
+        // 2) Nome (sem acento, por trecho; acentos e minúsculas resolvidos no banco)
+        String compactado = compactarEspacos(t);
+        if (compactado.length() < 2) {
+            return PacienteBuscaResultadoDTO.builder().itens(List.of()).build();
+        }
+        String prefixo = escaparLike(compactado) + "%";
+        String contem = "%" + String.join("%", escaparLike(compactado).split(" ")) + "%";
+
+        Cursor c = Cursor.decodificar(cursor);
+        List<Object[]> linhas = repository.buscarPorNomeKeyset(
+                prefixo, contem, c.prioridade(), c.nome(), c.id(), tamanho + 1);
+
+        boolean temMais = linhas.size() > tamanho;
+        List<PacienteListDTO> itens = new ArrayList<>(Math.min(linhas.size(), tamanho));
+        Object[] ultima = null;
+        for (int i = 0; i < linhas.size() && i < tamanho; i++) {
+            ultima = linhas.get(i);
+            itens.add(paraListDTO(ultima));
+        }
+
+        String proximo = temMais && ultima != null
+                ? new Cursor(((Number) ultima[8]).intValue(), (String) ultima[9], ((Number) ultima[0]).longValue()).codificar()
+                : null;
+
+        log.debug("🔍 Busca de pacientes '{}' → {} itens (mais: {})", t, itens.size(), temMais);
+        return PacienteBuscaResultadoDTO.builder()
+                .itens(itens)
+                .proximoCursor(proximo)
+                .build();
+    }
+
+    /** Ids da primeira página, na ordem do ranking (usado pela busca legada de múltiplos critérios). */
+    @Transactional(readOnly = true)
+    public List<Long> buscarIds(String termo, int limite) {
+        return buscar(termo, null, limite).getItens().stream()
+                .map(PacienteListDTO::getId)
+                .toList();
+    }
+
+    /* =========================
+       Helpers
+       ========================= */
+
+    private static PacienteListDTO paraListDTO(Object[] r) {
+        return PacienteListDTO.builder()
+                .id(((Number) r[0]).longValue())
+                .nomeCompleto((String) r[1])
+                .nomeSocial((String) r[2])
+                .cpf((String) r[3])
+                .cns((String) r[4])
+                .dataNascimento(paraLocalDate(r[5]))
+                .municipio((String) r[6])
+                .telefoneCelular((String) r[7])
+                .build();
+    }
+
+    private static LocalDate paraLocalDate(Object v) {
+        if (v == null) return null;
+        if (v instanceof LocalDate d) return d;
+        if (v instanceof java.sql.Date d) return d.toLocalDate();
+        return LocalDate.parse(v.toString());
+    }
+
+    /**
+     * Espaços colapsados, sem mexer em acento nem em maiúsculas: o termo passa por
+     * f_normaliza_nome() na própria consulta, com a mesma tabela de caracteres das colunas
+     * indexadas. Uma segunda regra em Java (ex.: NFD) divergiria dela em letras fora da tabela.
+     */
+    public static String compactarEspacos(String s) {
+        return s.replaceAll("\\s+", " ").trim();
+    }
+
+    private static String escaparLike(String s) {
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /** Posição (prioridade, nome normalizado, id) da última linha entregue. */
+    private record Cursor(int prioridade, String nome, long id) {
+
+        static final Cursor INICIO = new Cursor(0, "", 0L);
+
+        String codificar() {
+            String bruto = prioridade + ":" + id + ":" + nome;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decodificar(String cursor) {
+            if (cursor == null || cursor.isBlank()) return INICIO;
+            try {
+                String bruto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] p = bruto.split(":", 3);
+                return new Cursor(Integer.parseInt(p[0]), p[2], Long.parseLong(p[1]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Cursor de busca inválido");
+            }
+        }
+    }
+}
@@ -15,6 +15,9 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -26,6 +29,7 @@ public class PacienteServiceImpl implements PacienteService {
 
     private final PacienteRepository repository;
     private final PacienteMapper mapper;
+    private final PacienteBuscaService buscaService;
 
     @Override
     @CacheEvict(value = "pacientes", allEntries = true)
@@ -125,8 +129,15 @@ public class PacienteServiceImpl implements PacienteService {
 
     @Override
     public List<PacienteDTO> buscarPorMultiplosCriterios(String termo) {
-        return repository.buscarPorMultiplosCriterios(termo)
-                .stream()
+        // Delegado à busca indexada: limitada a uma página e mantendo a ordem do ranking
+        List<Long> ids = buscaService.buscarIds(termo, PacienteBuscaService.LIMITE_MAXIMO);
+        if (ids.isEmpty()) return List.of();
+
+        Map<Long, Paciente> porId = repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Paciente::getId, Function.identity()));
+        return ids.stream()
+                .map(porId::get)
+                .filter(Objects::nonNull)
                 .map(mapper::toDTO)
                 .collect(Collectors.toList());
     }
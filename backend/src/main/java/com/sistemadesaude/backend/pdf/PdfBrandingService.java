@@ -1,6 +1,7 @@
 package com.sistemadesaude.backend.pdf;
 
 import com.itextpdf.text.Image;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
@@ -31,9 +32,17 @@ public class PdfBrandingService {
     @Value("${app.brand.public-base-url:http://localhost:5173/}")
     private String publicBaseUrl;
 
-    // Cache para evitar carregar a imagem do disco repetidamente
-    private Image logoCache = null;
-    private boolean isCacheInicializado = false;
+    // Cache para evitar carregar a imagem do disco repetidamente.
+    // O protótipo nunca é entregue: cada chamada recebe uma cópia (posição/escala são mutáveis
+    // e os PDFs são gerados em paralelo pelo PdfRenderEngine). A cópia reaproveita os bytes já decodificados.
+    private volatile Image logoCache = null;
+    private volatile boolean isCacheInicializado = false;
+
+    /** Carrega o logo na subida, para o primeiro PDF do dia não pagar a leitura do disco. */
+    @PostConstruct
+    void aquecerCache() {
+        getLogoImageOrNull();
+    }
 
     /**
      * Carrega a imagem do logo conforme configurado em app.brand.logo-filename.
@@ -45,15 +54,31 @@ public class PdfBrandingService {
      * @return um objeto com.itextpdf.text.Image ou null se não encontrar
      */
     public Image getLogoImageOrNull() {
-        // Usa cache simples para evitar recarregar a imagem toda vez
+        if (!isCacheInicializado) {
+            carregarLogo();
+        }
+        Image prototipo = logoCache;
+        if (prototipo == null) {
+            return null;
+        }
+        try {
+            return Image.getInstance(prototipo);
+        } catch (Exception e) {
+            log.warn("⚠️ Falha ao copiar logo em cache: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /** Carrega o logo uma única vez (as estratégias de busca abaixo). */
+    private synchronized void carregarLogo() {
         if (isCacheInicializado) {
-            return logoCache;
+            return;
         }
 
         if (!StringUtils.hasText(logoFilename)) {
             log.warn("⚠️ Propriedade app.brand.logo-filename não está configurada. Logo será null.");
             isCacheInicializado = true;
-            return null;
+            return;
         }
 
         log.info("🔍 Tentando carregar logo: {} (via app.brand.logo-filename)", logoFilename);
@@ -62,21 +87,20 @@ public class PdfBrandingService {
         logoCache = tentarCarregarDoFrontendPublic();
         if (logoCache != null) {
             isCacheInicializado = true;
-            return logoCache;
+            return;
         }
 
         // ESTRATÉGIA 2: Fallback para classpath resources/images/
         logoCache = tentarCarregarDoClasspath();
         if (logoCache != null) {
             isCacheInicializado = true;
-            return logoCache;
+            return;
         }
 
         // ESTRATÉGIA 3: Nenhuma funcionou
         log.error("❌ Logo '{}' não foi encontrado nem em frontend/public/ nem no classpath. " +
                   "Verifique se o arquivo existe e a propriedade app.brand.logo-filename está correta.", logoFilename);
         isCacheInicializado = true;
-        return null;
     }
 
     /**
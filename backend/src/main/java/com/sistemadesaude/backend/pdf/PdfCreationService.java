@@ -3,16 +3,14 @@ package com.sistemadesaude.backend.pdf;
 import com.itextpdf.text.Document;
 import com.itextpdf.text.DocumentException;
 import com.itextpdf.text.PageSize;
-import com.itextpdf.text.pdf.PdfWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
-
 /**
  * Serviço central para criação de documentos PDF.
  * Garante que todos os PDFs gerados tenham um cabeçalho e rodapé padronizados.
+ * A renderização em si roda no pool limitado do {@link PdfRenderEngine}.
  */
 @Service
 @Slf4j
@@ -20,6 +18,7 @@ import java.io.ByteArrayOutputStream;
 public class PdfCreationService {
 
     private final PdfBrandingService pdfBrandingService;
+    private final PdfRenderEngine pdfRenderEngine;
 
     /**
      * Interface funcional para permitir que os serviços de chamada adicionem seu conteúdo específico ao PDF.
@@ -37,30 +36,32 @@ public class PdfCreationService {
      * @return Os bytes do PDF gerado.
      */
     public byte[] gerarPdfComCabecalho(String nomeOrgao, PdfContentGenerator contentGenerator) {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+        return gerarPdfComCabecalho("generico", nomeOrgao, contentGenerator);
+    }
+
+    /**
+     * Igual a {@link #gerarPdfComCabecalho(String, PdfContentGenerator)}, informando o tipo do
+     * documento para as métricas do {@link PdfRenderEngine} (ex.: "sadt").
+     */
+    public byte[] gerarPdfComCabecalho(String tipo, String nomeOrgao, PdfContentGenerator contentGenerator) {
+        try {
             Document document = new Document(PageSize.A4, 30, 30, 60, 20); // Aumentei a margem superior para o logo
-            PdfWriter writer = PdfWriter.getInstance(document, baos);
 
-            // Anexa o evento de cabeçalho/rodapé
+            // Evento de cabeçalho/rodapé (um por documento: guarda o template do cabeçalho)
             PdfHeaderFooter event = new PdfHeaderFooter(pdfBrandingService);
             if (nomeOrgao != null) {
                 event.setOrgNome(nomeOrgao);
             }
-            writer.setPageEvent(event);
-
-            document.open();
-
-            // O serviço de chamada adiciona seu conteúdo aqui
-            contentGenerator.adicionarConteudo(document);
 
-            document.close();
+            // O serviço de chamada adiciona seu conteúdo no pool de renderização
+            byte[] pdf = pdfRenderEngine.renderizar(tipo, document, event, contentGenerator);
 
             log.info("📄 PDF com cabeçalho padronizado gerado com sucesso.");
-            return baos.toByteArray();
+            return pdf;
 
         } catch (Exception e) {
             log.error("❌ Erro fatal ao criar PDF centralizado: {}", e.getMessage(), e);
             throw new RuntimeException("Erro ao gerar PDF", e);
         }
     }
-}
\ No newline at end of file
+}
@@ -3,6 +3,7 @@ package com.sistemadesaude.backend.pdf;
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.ColumnText;
 import com.itextpdf.text.pdf.PdfPageEventHelper;
+import com.itextpdf.text.pdf.PdfTemplate;
 import com.itextpdf.text.pdf.PdfWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
@@ -13,59 +14,68 @@ import lombok.extern.slf4j.Slf4j;
  * PageEvent que desenha o cabeçalho padronizado em todas as páginas.
  * - Logo da empresa no canto superior direito.
  * - Nome do sistema/órgão no canto superior esquerdo.
+ *
+ * O cabeçalho é desenhado uma vez por documento em um PdfTemplate (XObject) e apenas
+ * referenciado nas páginas seguintes: a imagem do logo é gravada uma única vez no PDF.
+ * Uma instância por documento (o template pertence ao PdfWriter).
  */
 @Slf4j
 @RequiredArgsConstructor
 @Accessors(chain = true)
 public class PdfHeaderFooter extends PdfPageEventHelper {
 
+    private static final Font FONTE_ORGAO = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, BaseColor.DARK_GRAY);
+    // Converte 4.5 cm para points (1 cm = 72 / 2.54 pt ≈ 28.35 pt)
+    private static final float TAMANHO_LOGO = 4.5f * 28.35f;
+
     private final PdfBrandingService brandingService;
 
     @Setter private String orgNome; // Opcional ("Sistema de Saúde", etc.)
 
+    private PdfTemplate cabecalho;
+    private float cabecalhoX;
+    private float cabecalhoY;
+
     @Override
     public void onEndPage(PdfWriter writer, Document document) {
         try {
-            // Define a posição Y inicial para o conteúdo do cabeçalho, um pouco abaixo do topo da página.
-            final float headerTopY = document.getPageSize().getTop() - 20;
-
-            // 1. Desenha o LOGO no canto SUPERIOR DIREITO
-            Image logo = brandingService.getLogoImageOrNull();
-            if (logo != null) {
-                // Converte 2.5 cm para points (1 cm = 72 / 2.54 pt ≈ 28.35 pt)
-                float sizeInPoints = 4.5f * 28.35f; // Aprox. 71 pontos
-                // Escala o logo para o tamanho absoluto de 2.5cm x 2.5cm.
-                logo.scaleAbsolute(sizeInPoints, sizeInPoints);
-
-                // Calcula a posição X para alinhar o logo à margem direita.
-                float x = document.right() - logo.getScaledWidth();
-                // Calcula a posição Y, alinhando o topo do logo com a linha do cabeçalho.
-                float y = headerTopY - logo.getScaledHeight();
-
-                logo.setAbsolutePosition(x, y);
-                writer.getDirectContent().addImage(logo);
+            if (cabecalho == null) {
+                montarCabecalho(writer, document);
             }
+            writer.getDirectContent().addTemplate(cabecalho, cabecalhoX, cabecalhoY);
+        } catch (Exception e) {
+            log.warn("Falha ao desenhar header com logo.", e);
+        }
+    }
 
-            // 2. Desenha o NOME DO ÓRGÃO no canto SUPERIOR ESQUERDO
-            if (orgNome != null && !orgNome.isBlank()) {
-                Font f = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, BaseColor.DARK_GRAY);
-                Phrase p = new Phrase(orgNome, f);
+    /** Desenha logo e nome do órgão no template, em coordenadas relativas à faixa do cabeçalho. */
+    private void montarCabecalho(PdfWriter writer, Document document) throws DocumentException {
+        // Define a posição Y inicial para o conteúdo do cabeçalho, um pouco abaixo do topo da página.
+        final float headerTopY = document.getPageSize().getTop() - 20;
+        final float largura = document.right() - document.left();
 
-                // Posição X na margem esquerda.
-                float leftX = document.left();
-                // Alinha o texto na mesma altura do topo do logo para um visual consistente.
-                ColumnText.showTextAligned(
-                        writer.getDirectContent(),
-                        Element.ALIGN_LEFT,
-                        p,
-                        leftX,
-                        headerTopY - 10f, // Ajuste vertical para alinhar com o centro do logo.
-                        0
-                );
-            }
+        cabecalhoX = document.left();
+        cabecalhoY = headerTopY - TAMANHO_LOGO;
+        cabecalho = writer.getDirectContent().createTemplate(largura, TAMANHO_LOGO);
 
-        } catch (Exception e) {
-            log.warn("Falha ao desenhar header com logo.", e);
+        // 1. LOGO no canto SUPERIOR DIREITO (escala absoluta, topo alinhado com a linha do cabeçalho)
+        Image logo = brandingService.getLogoImageOrNull();
+        if (logo != null) {
+            logo.scaleAbsolute(TAMANHO_LOGO, TAMANHO_LOGO);
+            logo.setAbsolutePosition(largura - logo.getScaledWidth(), TAMANHO_LOGO - logo.getScaledHeight());
+            cabecalho.addImage(logo);
+        }
+
+        // 2. NOME DO ÓRGÃO no canto SUPERIOR ESQUERDO, na altura do topo do logo
+        if (orgNome != null && !orgNome.isBlank()) {
+            ColumnText.showTextAligned(
+                    cabecalho,
+                    Element.ALIGN_LEFT,
+                    new Phrase(orgNome, FONTE_ORGAO),
+                    0,
+                    TAMANHO_LOGO - 10f, // Ajuste vertical para alinhar com o centro do logo.
+                    0
+            );
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,156 @@
+package com.sistemadesaude.backend.pdf;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.pdf.PdfPageEvent;
+import com.itextpdf.text.pdf.PdfWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Motor de renderização dos PDFs clínicos (atestado, receituário, SADT, atendimento, comprovante).
+ *
+ * - Pool limitado (app.pdf.render.threads, padrão = nº de CPUs) com fila limitada
+ *   (app.pdf.render.fila): em pico na recepção, a geração de PDF não ocupa mais CPU que o pool,
+ *   e o excedente espera na fila em vez de disputar CPU com as demais requisições.
+ * - Fila cheia: falha rápida (IllegalStateException) em vez de acumular requisições presas.
+ * - A thread da requisição aguarda o resultado até app.pdf.render.timeout-ms.
+ *
+ * Métricas: pdf.render.fila (profundidade da fila), pdf.render.ativos, pdf.render (tempo de
+ * renderização, tag documento), pdf.render.espera (tempo na fila) e pdf.render.rejeitados.
+ */
+@Slf4j
+@Component
+public class PdfRenderEngine {
+
+    private static final String PREFIXO_THREAD = "pdf-render-";
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final MeterRegistry meterRegistry;
+    private final Timer espera;
+    private final Counter rejeitados;
+    private final Map<String, Timer> tempos = new ConcurrentHashMap<>();
+
+    public PdfRenderEngine(MeterRegistry meterRegistry,
+                           @Value("${app.pdf.render.threads:0}") int threads,
+                           @Value("${app.pdf.render.fila:64}") int capacidadeFila,
+                           @Value("${app.pdf.render.timeout-ms:30000}") long timeoutMs) {
+        int tamanho = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(tamanho, tamanho, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, capacidadeFila)),
+                r -> {
+                    Thread t = new Thread(r, PREFIXO_THREAD + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMs = timeoutMs;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("pdf.render.fila", executor, e -> e.getQueue().size())
+                .description("PDFs aguardando renderização")
+                .register(meterRegistry);
+        Gauge.builder("pdf.render.ativos", executor, ThreadPoolExecutor::getActiveCount)
+                .description("PDFs em renderização")
+                .register(meterRegistry);
+        this.espera = Timer.builder("pdf.render.espera")
+                .description("Tempo de espera na fila de renderização")
+                .register(meterRegistry);
+        this.rejeitados = Counter.builder("pdf.render.rejeitados")
+                .description("Renderizações recusadas por fila cheia")
+                .register(meterRegistry);
+        log.info("📄 Motor de PDF iniciado (threads={}, fila={}, timeout={}ms)", tamanho, capacidadeFila, timeoutMs);
+    }
+
+    /**
+     * Renderiza um PDF no pool: cria o PdfWriter, registra o evento de página (opcional),
+     * abre o documento, executa o gerador de conteúdo e devolve os bytes.
+     *
+     * @param tipo      nome do documento para as métricas (ex.: "atestado", "sadt")
+     * @param documento documento já com tamanho de página e margens
+     * @param evento    cabeçalho/rodapé (pode ser null)
+     * @param conteudo  lógica específica do documento
+     */
+    public byte[] renderizar(String tipo, Document documento, PdfPageEvent evento,
+                             PdfCreationService.PdfContentGenerator conteudo) {
+        Timer tempo = tempos.computeIfAbsent(tipo, t -> Timer.builder("pdf.render")
+                .description("Tempo de renderização de PDF")
+                .tag("documento", t)
+                .register(meterRegistry));
+
+        // Chamada aninhada (já dentro do pool): executa direto para não esperar por si mesmo
+        if (Thread.currentThread().getName().startsWith(PREFIXO_THREAD)) {
+            return tempo.record(() -> gerar(documento, evento, conteudo));
+        }
+
+        long enfileiradoEm = System.nanoTime();
+        Future<byte[]> futuro;
+        try {
+            futuro = executor.submit(() -> {
+                espera.record(System.nanoTime() - enfileiradoEm, TimeUnit.NANOSECONDS);
+                return tempo.record(() -> gerar(documento, evento, conteudo));
+            });
+        } catch (RejectedExecutionException e) {
+            rejeitados.increment();
+            log.warn("⚠️ Fila de geração de PDF cheia ({} aguardando); {} recusado", executor.getQueue().size(), tipo);
+            throw new IllegalStateException("Geração de PDF sobrecarregada; tente novamente em instantes", e);
+        }
+
+        try {
+            return futuro.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            throw new IllegalStateException("Tempo esgotado ao gerar PDF de " + tipo, e);
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Geração de PDF interrompida", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException re) throw re;
+            throw new RuntimeException("Erro ao gerar PDF de " + tipo, causa);
+        }
+    }
+
+    private static byte[] gerar(Document documento, PdfPageEvent evento,
+                                PdfCreationService.PdfContentGenerator conteudo) {
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+            PdfWriter writer = PdfWriter.getInstance(documento, baos);
+            if (evento != null) {
+                writer.setPageEvent(evento);
+            }
+            documento.open();
+            conteudo.adicionarConteudo(documento);
+            documento.close();
+            return baos.toByteArray();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao gerar PDF: " + e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdown();
+    }
+}
@@ -1,5 +1,6 @@
 package com.sistemadesaude.backend.perfilacesso.service;
 
+import com.sistemadesaude.backend.operador.security.UserDetailsCache;
 import com.sistemadesaude.backend.perfilacesso.dto.PerfilDTO;
 import com.sistemadesaude.backend.perfilacesso.mapper.PerfilMapper; // Import correto
 import com.sistemadesaude.backend.perfilacesso.entity.Perfil;
@@ -28,6 +29,7 @@ public class PerfilServiceImpl implements PerfilService {
 
     private final PerfilRepository perfilRepository;
     private final PerfilMapper perfilMapper;
+    private final UserDetailsCache userDetailsCache;
 
     @Override
     @Transactional(readOnly = true)
@@ -275,6 +277,7 @@ public class PerfilServiceImpl implements PerfilService {
         }
 
         PerfilEntity perfilAtualizado = perfilRepository.save(perfilExistente);
+        userDetailsCache.evictAll(); // perfil compartilhado por vários operadores
         return perfilMapper.toDTO(perfilAtualizado);
     }
 
@@ -290,6 +293,7 @@ public class PerfilServiceImpl implements PerfilService {
         }
 
         perfilRepository.delete(perfil);
+        userDetailsCache.evictAll();
     }
 
     @Override
@@ -318,6 +322,7 @@ public class PerfilServiceImpl implements PerfilService {
         log.debug("📋 Permissões DEPOIS de setPermissoes: {}", perfil.getPermissoes());
 
         PerfilEntity perfilAtualizado = perfilRepository.save(perfil);
+        userDetailsCache.evictAll();
         log.info("💾 Perfil salvo. Permissões após save: {}", perfilAtualizado.getPermissoes());
         
         PerfilDTO dto = perfilMapper.toDTO(perfilAtualizado);
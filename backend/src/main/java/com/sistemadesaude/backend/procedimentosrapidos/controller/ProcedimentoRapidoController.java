@@ -9,6 +9,10 @@ import com.sistemadesaude.backend.exception.ApiErrorResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -101,6 +105,33 @@ public class ProcedimentoRapidoController {
         }
     }
 
+    /**
+     * GET /api/procedimentos-rapidos/pagina?page=0&size=20&sort=dataCriacao,desc
+     * Lista procedimentos com filtros, paginado e ordenado no banco
+     */
+    @GetMapping("/pagina")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiErrorResponse<Page<ProcedimentoRapidoListDTO>>> listarPaginado(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataFim,
+            @RequestParam(required = false) List<StatusProcedimento> statuses,
+            @RequestParam(required = false) String especialidade,
+            @RequestParam(required = false) String termo,
+            @PageableDefault(size = 20, sort = "dataCriacao", direction = Sort.Direction.DESC) Pageable pageable
+    ) {
+        try {
+            Page<ProcedimentoRapidoListDTO> pagina = procedimentoService.listarPaginado(
+                    dataInicio, dataFim, statuses, especialidade, termo, pageable);
+            return ResponseEntity.ok(new ApiErrorResponse<>(true, "Procedimentos listados com sucesso", pagina));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiErrorResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            log.error("Erro ao listar procedimentos paginados: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiErrorResponse<>(false, "Erro ao listar procedimentos", null));
+        }
+    }
+
     /**
      * GET /api/procedimentos-rapidos/aguardando
      * Lista procedimentos aguardando atendimento
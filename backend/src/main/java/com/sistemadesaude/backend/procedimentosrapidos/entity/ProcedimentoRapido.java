@@ -106,6 +106,13 @@ public class ProcedimentoRapido {
     @Column(name = "atualizado_por", length = 100)
     private String atualizadoPor;
 
+    /**
+     * Médico, especialidade e origem normalizados (coluna gerada pelo banco, indexada por
+     * trigramas). Somente leitura: usada pela busca por termo da listagem.
+     */
+    @Column(name = "texto_busca", insertable = false, updatable = false)
+    private String textoBusca;
+
     /**
      * Adiciona uma atividade à lista de atividades
      */
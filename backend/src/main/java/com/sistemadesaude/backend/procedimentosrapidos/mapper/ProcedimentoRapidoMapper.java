@@ -40,6 +40,7 @@ public interface ProcedimentoRapidoMapper {
     @Mapping(target = "atividades", ignore = true)
     @Mapping(target = "dataCriacao", ignore = true)
     @Mapping(target = "dataAtualizacao", ignore = true)
+    @Mapping(target = "textoBusca", ignore = true)
     ProcedimentoRapido toEntity(ProcedimentoRapidoDTO procedimentoDTO);
 
     /**
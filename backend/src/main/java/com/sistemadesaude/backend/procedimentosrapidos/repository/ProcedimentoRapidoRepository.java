@@ -12,7 +12,8 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProcedimentoRapidoRepository extends JpaRepository<ProcedimentoRapido, Long> {
+public interface ProcedimentoRapidoRepository extends JpaRepository<ProcedimentoRapido, Long>,
+        ProcedimentoRapidoRepositoryCustom {
 
     /**
      * Busca procedimentos por paciente
@@ -138,55 +139,4 @@ public interface ProcedimentoRapidoRepository extends JpaRepository<Procedimento
         LIMIT 1
     """, nativeQuery = true)
     Optional<ProcedimentoRapido> findProcedimentoAtivoPorPaciente(@Param("pacienteId") Long pacienteId);
-
-    /**
-     * Busca todos os procedimentos com associações carregadas
-     */
-    @Query("""
-        SELECT DISTINCT p FROM ProcedimentoRapido p
-        LEFT JOIN FETCH p.paciente
-        LEFT JOIN FETCH p.operadorResponsavel
-        LEFT JOIN FETCH p.atividades
-        ORDER BY p.dataCriacao DESC
-    """)
-    List<ProcedimentoRapido> findAllWithAssociations();
-
-    /**
-     * Busca procedimentos com filtros avançados (termo de pesquisa)
-     */
-    @Query("""
-        SELECT DISTINCT p FROM ProcedimentoRapido p
-        LEFT JOIN FETCH p.paciente
-        LEFT JOIN FETCH p.operadorResponsavel
-        WHERE (
-            UPPER(p.paciente.nomeCompleto) LIKE UPPER(CONCAT('%', :termo, '%'))
-            OR UPPER(p.paciente.cpf) LIKE UPPER(CONCAT('%', :termo, '%'))
-            OR UPPER(p.medicoSolicitante) LIKE UPPER(CONCAT('%', :termo, '%'))
-            OR UPPER(p.especialidadeOrigem) LIKE UPPER(CONCAT('%', :termo, '%'))
-            OR UPPER(p.origemEncaminhamento) LIKE UPPER(CONCAT('%', :termo, '%'))
-            OR CAST(p.id AS string) LIKE CONCAT('%', :termo, '%')
-        )
-        ORDER BY p.dataCriacao DESC
-    """)
-    List<ProcedimentoRapido> buscarPorTermo(@Param("termo") String termo);
-
-    /**
-     * Busca procedimentos com múltiplos status
-     */
-    @Query("""
-        SELECT p FROM ProcedimentoRapido p
-        WHERE p.status IN :statuses
-        ORDER BY p.dataCriacao DESC
-    """)
-    List<ProcedimentoRapido> findByStatusIn(@Param("statuses") List<StatusProcedimento> statuses);
-
-    /**
-     * Busca procedimentos por especialidade/origem
-     */
-    @Query("""
-        SELECT p FROM ProcedimentoRapido p
-        WHERE UPPER(p.especialidadeOrigem) LIKE UPPER(CONCAT('%', :especialidade, '%'))
-        ORDER BY p.dataCriacao DESC
-    """)
-    List<ProcedimentoRapido> findByEspecialidade(@Param("especialidade") String especialidade);
 }
@@ -0,0 +1,19 @@
+package com.sistemadesaude.backend.procedimentosrapidos.repository;
+
+import com.sistemadesaude.backend.procedimentosrapidos.dto.ProcedimentoRapidoListDTO;
+import com.sistemadesaude.backend.procedimentosrapidos.entity.ProcedimentoRapido;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface ProcedimentoRapidoRepositoryCustom {
+
+    /**
+     * Listagem filtrada e paginada no banco, projetada direto em {@link ProcedimentoRapidoListDTO}
+     * (paciente e operador no mesmo SELECT, sem carregar entidades nem atividades).
+     *
+     * Ordenação aceita: dataCriacao (padrão, decrescente), dataHoraInicioAtendimento, status,
+     * pacienteNome, medicoSolicitante e id.
+     */
+    Page<ProcedimentoRapidoListDTO> listarResumo(Specification<ProcedimentoRapido> filtro, Pageable pageable);
+}
@@ -0,0 +1,131 @@
+package com.sistemadesaude.backend.procedimentosrapidos.repository;
+
+import com.sistemadesaude.backend.operador.entity.Operador;
+import com.sistemadesaude.backend.paciente.entity.Paciente;
+import com.sistemadesaude.backend.procedimentosrapidos.dto.ProcedimentoRapidoListDTO;
+import com.sistemadesaude.backend.procedimentosrapidos.entity.ProcedimentoRapido;
+import com.sistemadesaude.backend.procedimentosrapidos.enums.StatusProcedimento;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementação de {@link ProcedimentoRapidoRepositoryCustom} (fragmento do Spring Data).
+ */
+public class ProcedimentoRapidoRepositoryImpl implements ProcedimentoRapidoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ProcedimentoRapidoListDTO> listarResumo(Specification<ProcedimentoRapido> filtro, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<ProcedimentoRapido> p = cq.from(ProcedimentoRapido.class);
+        Join<ProcedimentoRapido, Paciente> paciente = p.join("paciente");
+        Join<ProcedimentoRapido, Operador> operador = p.join("operadorResponsavel", JoinType.LEFT);
+
+        cq.multiselect(
+                p.get("id").alias("id"),
+                paciente.get("nomeCompleto").alias("pacienteNome"),
+                p.get("status").alias("status"),
+                p.get("medicoSolicitante").alias("medicoSolicitante"),
+                p.get("origemEncaminhamento").alias("origemEncaminhamento"),
+                operador.get("nome").alias("operadorResponsavelNome"),
+                p.get("dataCriacao").alias("dataCriacao"),
+                p.get("dataHoraInicioAtendimento").alias("dataHoraInicioAtendimento"));
+        Predicate where = filtro == null ? null : filtro.toPredicate(p, cq, cb);
+        if (where != null) {
+            cq.where(where);
+        }
+        cq.orderBy(ordenacao(pageable.getSort(), p, paciente, cb));
+
+        TypedQuery<Tuple> query = entityManager.createQuery(cq);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<ProcedimentoRapidoListDTO> itens = query.getResultList().stream()
+                .map(ProcedimentoRapidoRepositoryImpl::paraListDTO)
+                .toList();
+
+        return PageableExecutionUtils.getPage(itens, pageable, () -> contar(filtro));
+    }
+
+    private long contar(Specification<ProcedimentoRapido> filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<ProcedimentoRapido> p = cq.from(ProcedimentoRapido.class);
+        cq.select(cb.count(p));
+        Predicate where = filtro == null ? null : filtro.toPredicate(p, cq, cb);
+        if (where != null) {
+            cq.where(where);
+        }
+        return entityManager.createQuery(cq).getSingleResult();
+    }
+
+    /** Ordenação pedida (propriedades conhecidas) + id como desempate, para páginas estáveis. */
+    private static List<Order> ordenacao(Sort sort, Root<ProcedimentoRapido> p,
+                                         Join<ProcedimentoRapido, Paciente> paciente, CriteriaBuilder cb) {
+        List<Order> ordens = new ArrayList<>();
+        boolean porId = false;
+        for (Sort.Order o : sort) {
+            Expression<?> campo = switch (o.getProperty()) {
+                case "dataCriacao" -> p.get("dataCriacao");
+                case "dataHoraInicioAtendimento" -> p.get("dataHoraInicioAtendimento");
+                case "status" -> p.get("status");
+                case "pacienteNome" -> paciente.get("nomeCompleto");
+                case "medicoSolicitante" -> p.get("medicoSolicitante");
+                case "id" -> p.get("id");
+                default -> throw new IllegalArgumentException("Ordenação não suportada: " + o.getProperty());
+            };
+            porId |= "id".equals(o.getProperty());
+            ordens.add(o.isAscending() ? cb.asc(campo) : cb.desc(campo));
+        }
+        if (ordens.isEmpty()) {
+            ordens.add(cb.desc(p.get("dataCriacao")));
+        }
+        if (!porId) {
+            ordens.add(cb.desc(p.get("id")));
+        }
+        return ordens;
+    }
+
+    /** Mesmos valores padrão do ProcedimentoRapidoMapper.toListDTO para os campos calculados. */
+    private static ProcedimentoRapidoListDTO paraListDTO(Tuple t) {
+        return ProcedimentoRapidoListDTO.builder()
+                .id(t.get("id", Long.class))
+                .pacienteNome(t.get("pacienteNome", String.class))
+                .status(t.get("status", StatusProcedimento.class))
+                .medicoSolicitante(t.get("medicoSolicitante", String.class))
+                .origemEncaminhamento(t.get("origemEncaminhamento", String.class))
+                .operadorResponsavelNome(t.get("operadorResponsavelNome", String.class))
+                .dataCriacao(t.get("dataCriacao", LocalDateTime.class))
+                .dataHoraInicioAtendimento(t.get("dataHoraInicioAtendimento", LocalDateTime.class))
+                .pacienteIdade(null)
+                .bloqueado(false)
+                .quantidadeAtividadesTotal(0L)
+                .quantidadeAtividadesPendentes(0L)
+                .temAtividadesUrgentes(false)
+                .temAtividadesAtrasadas(false)
+                .build();
+    }
+}
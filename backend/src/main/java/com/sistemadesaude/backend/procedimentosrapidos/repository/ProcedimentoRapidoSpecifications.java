@@ -0,0 +1,95 @@
+package com.sistemadesaude.backend.procedimentosrapidos.repository;
+
+import com.sistemadesaude.backend.paciente.entity.Paciente;
+import com.sistemadesaude.backend.paciente.service.PacienteBuscaService;
+import com.sistemadesaude.backend.procedimentosrapidos.entity.ProcedimentoRapido;
+import com.sistemadesaude.backend.procedimentosrapidos.enums.StatusProcedimento;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Filtros da listagem de procedimentos rápidos, executados no banco.
+ * Cada método devolve null quando o filtro não foi informado (Specification.where/and ignoram null).
+ */
+public final class ProcedimentoRapidoSpecifications {
+
+    private ProcedimentoRapidoSpecifications() {
+    }
+
+    /** data_criacao no período (qualquer uma das pontas pode ser aberta). */
+    public static Specification<ProcedimentoRapido> criadoEntre(LocalDateTime inicio, LocalDateTime fim) {
+        if (inicio == null && fim == null) return null;
+        return (root, query, cb) -> {
+            if (inicio == null) return cb.lessThanOrEqualTo(root.get("dataCriacao"), fim);
+            if (fim == null) return cb.greaterThanOrEqualTo(root.get("dataCriacao"), inicio);
+            return cb.between(root.get("dataCriacao"), inicio, fim);
+        };
+    }
+
+    public static Specification<ProcedimentoRapido> comStatus(Collection<StatusProcedimento> statuses) {
+        if (statuses == null || statuses.isEmpty()) return null;
+        if (statuses.size() == 1) {
+            StatusProcedimento status = statuses.iterator().next();
+            return (root, query, cb) -> cb.equal(root.get("status"), status);
+        }
+        return (root, query, cb) -> root.get("status").in(statuses);
+    }
+
+    /** Especialidade de origem contendo o texto (sem diferenciar maiúsculas). */
+    public static Specification<ProcedimentoRapido> daEspecialidade(String especialidade) {
+        if (especialidade == null || especialidade.isBlank()) return null;
+        String contem = "%" + escaparLike(especialidade.trim().toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("especialidadeOrigem")), contem, '\\');
+    }
+
+    /**
+     * Termo livre: nome ou CPF do paciente, médico, especialidade, origem ou número do procedimento.
+     * Sem acento e sem diferenciar maiúsculas (o padrão passa por f_normaliza_nome no banco);
+     * cada trecho usa um índice:
+     * - médico/especialidade/origem → texto_busca (trigramas);
+     * - nome do paciente → f_normaliza_nome(nome_completo) (trigramas em pacientes), via subconsulta;
+     * - número → chave primária (igualdade).
+     */
+    public static Specification<ProcedimentoRapido> contendoTermo(String termo) {
+        if (termo == null || termo.isBlank()) return null;
+        String t = termo.trim();
+        String compactado = PacienteBuscaService.compactarEspacos(t);
+        String contem = "%" + String.join("%", escaparLike(compactado).split(" ")) + "%";
+        String digitos = t.replaceAll("\\D", "");
+        boolean somenteNumero = t.matches("\\d{1,18}");
+
+        return (root, query, cb) -> {
+            List<Predicate> alternativas = new ArrayList<>();
+            Expression<String> padrao = cb.function("f_normaliza_nome", String.class, cb.literal(contem));
+            alternativas.add(cb.like(root.get("textoBusca"), padrao, '\\'));
+
+            Subquery<Long> pacientes = query.subquery(Long.class);
+            Root<Paciente> paciente = pacientes.from(Paciente.class);
+            Predicate porNome = cb.like(
+                    cb.function("f_normaliza_nome", String.class, paciente.get("nomeCompleto")), padrao, '\\');
+            Predicate porPaciente = digitos.length() >= 3 && t.matches("[0-9.\\-\\s]+")
+                    ? cb.or(porNome, cb.like(paciente.get("cpf"), "%" + digitos + "%"))
+                    : porNome;
+            pacientes.select(paciente.get("id")).where(porPaciente);
+            alternativas.add(root.get("paciente").get("id").in(pacientes));
+
+            if (somenteNumero) {
+                alternativas.add(cb.equal(root.get("id"), Long.parseLong(t)));
+            }
+            return cb.or(alternativas.toArray(Predicate[]::new));
+        };
+    }
+
+    private static String escaparLike(String s) {
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
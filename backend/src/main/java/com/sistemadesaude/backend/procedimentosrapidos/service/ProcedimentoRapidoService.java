@@ -3,6 +3,9 @@ package com.sistemadesaude.backend.procedimentosrapidos.service;
 import com.sistemadesaude.backend.procedimentosrapidos.dto.*;
 import com.sistemadesaude.backend.procedimentosrapidos.enums.StatusProcedimento;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -43,6 +46,18 @@ public interface ProcedimentoRapidoService {
             String termoPesquisa
     );
 
+    /**
+     * Lista procedimentos com filtros avançados, paginado e ordenado no banco
+     */
+    Page<ProcedimentoRapidoListDTO> listarPaginado(
+            LocalDateTime dataInicio,
+            LocalDateTime dataFim,
+            List<StatusProcedimento> statuses,
+            String especialidade,
+            String termoPesquisa,
+            Pageable pageable
+    );
+
     /**
      * Lista procedimentos aguardando atendimento
      */
@@ -17,8 +17,12 @@ import com.sistemadesaude.backend.procedimentosrapidos.mapper.DesfechoMapper;
 import com.sistemadesaude.backend.procedimentosrapidos.mapper.ProcedimentoRapidoMapper;
 import com.sistemadesaude.backend.procedimentosrapidos.repository.AtividadeEnfermagemRepository;
 import com.sistemadesaude.backend.procedimentosrapidos.repository.ProcedimentoRapidoRepository;
+import com.sistemadesaude.backend.procedimentosrapidos.repository.ProcedimentoRapidoSpecifications;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -93,17 +97,7 @@ public class ProcedimentoRapidoServiceImpl implements ProcedimentoRapidoService
     @Transactional(readOnly = true)
     public List<ProcedimentoRapidoListDTO> listarTodos() {
         log.debug("Listando todos os procedimentos rápidos");
-
-        try {
-            List<ProcedimentoRapido> procedimentos = procedimentoRepository.findAllWithAssociations();
-            log.debug("Encontrados {} procedimentos", procedimentos.size());
-            return procedimentos.stream()
-                    .map(procedimentoMapper::toListDTO)
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            log.error("Erro ao listar procedimentos: {}", e.getMessage(), e);
-            throw e;
-        }
+        return procedimentoRepository.listarResumo(null, Pageable.unpaged()).getContent();
     }
 
     @Override
@@ -115,21 +109,10 @@ public class ProcedimentoRapidoServiceImpl implements ProcedimentoRapidoService
     ) {
         log.debug("Listando procedimentos com filtros - Data: {} a {}, Status: {}", dataInicio, dataFim, status);
 
-        List<ProcedimentoRapido> procedimentos;
-
-        if (dataInicio != null && dataFim != null && status != null) {
-            procedimentos = procedimentoRepository.findByStatusAndPeriodo(status, dataInicio, dataFim);
-        } else if (dataInicio != null && dataFim != null) {
-            procedimentos = procedimentoRepository.findByPeriodo(dataInicio, dataFim);
-        } else if (status != null) {
-            procedimentos = procedimentoRepository.findByStatusOrderByDataCriacaoDesc(status);
-        } else {
-            procedimentos = procedimentoRepository.findAll();
-        }
-
-        return procedimentos.stream()
-                .map(procedimentoMapper::toListDTO)
-                .collect(Collectors.toList());
+        Specification<ProcedimentoRapido> filtro = Specification
+                .where(ProcedimentoRapidoSpecifications.criadoEntre(dataInicio, dataFim))
+                .and(ProcedimentoRapidoSpecifications.comStatus(status != null ? List.of(status) : null));
+        return procedimentoRepository.listarResumo(filtro, Pageable.unpaged()).getContent();
     }
 
     @Override
@@ -141,78 +124,30 @@ public class ProcedimentoRapidoServiceImpl implements ProcedimentoRapidoService
             String especialidade,
             String termoPesquisa
     ) {
-        log.debug("Listando procedimentos com filtros avançados - Data: {} a {}, Statuses: {}, Especialidade: {}, Termo: {}", 
-                dataInicio, dataFim, statuses, especialidade, termoPesquisa);
-
-        List<ProcedimentoRapido> procedimentos = procedimentoRepository.findAll();
-
-        // Aplica filtro de período
-        if (dataInicio != null || dataFim != null) {
-            LocalDateTime inicio = dataInicio != null ? dataInicio : LocalDateTime.of(2000, 1, 1, 0, 0);
-            LocalDateTime fim = dataFim != null ? dataFim : LocalDateTime.now().plusYears(10);
-            procedimentos = procedimentos.stream()
-                    .filter(p -> {
-                        LocalDateTime data = p.getDataCriacao() != null ? p.getDataCriacao() : LocalDateTime.now();
-                        return !data.isBefore(inicio) && !data.isAfter(fim);
-                    })
-                    .collect(Collectors.toList());
-        }
-
-        // Aplica filtro de status (múltiplos)
-        if (statuses != null && !statuses.isEmpty()) {
-            procedimentos = procedimentos.stream()
-                    .filter(p -> statuses.contains(p.getStatus()))
-                    .collect(Collectors.toList());
-        }
-
-        // Aplica filtro de especialidade
-        if (especialidade != null && !especialidade.trim().isEmpty()) {
-            String especialidadeUpper = especialidade.trim().toUpperCase();
-            procedimentos = procedimentos.stream()
-                    .filter(p -> p.getEspecialidadeOrigem() != null && 
-                            p.getEspecialidadeOrigem().toUpperCase().contains(especialidadeUpper))
-                    .collect(Collectors.toList());
-        }
-
-        // Aplica filtro de termo de pesquisa
-        if (termoPesquisa != null && !termoPesquisa.trim().isEmpty()) {
-            String termoUpper = termoPesquisa.trim().toUpperCase();
-            procedimentos = procedimentos.stream()
-                    .filter(p -> {
-                        boolean match = false;
-                        if (p.getPaciente() != null) {
-                            if (p.getPaciente().getNomeCompleto() != null && 
-                                p.getPaciente().getNomeCompleto().toUpperCase().contains(termoUpper)) {
-                                match = true;
-                            }
-                            if (p.getPaciente().getCpf() != null && 
-                                p.getPaciente().getCpf().toUpperCase().contains(termoUpper)) {
-                                match = true;
-                            }
-                        }
-                        if (p.getMedicoSolicitante() != null && 
-                            p.getMedicoSolicitante().toUpperCase().contains(termoUpper)) {
-                            match = true;
-                        }
-                        if (p.getEspecialidadeOrigem() != null && 
-                            p.getEspecialidadeOrigem().toUpperCase().contains(termoUpper)) {
-                            match = true;
-                        }
-                        if (p.getOrigemEncaminhamento() != null && 
-                            p.getOrigemEncaminhamento().toUpperCase().contains(termoUpper)) {
-                            match = true;
-                        }
-                        if (String.valueOf(p.getId()).contains(termoPesquisa.trim())) {
-                            match = true;
-                        }
-                        return match;
-                    })
-                    .collect(Collectors.toList());
-        }
+        return listarPaginado(dataInicio, dataFim, statuses, especialidade, termoPesquisa, Pageable.unpaged())
+                .getContent();
+    }
 
-        return procedimentos.stream()
-                .map(procedimentoMapper::toListDTO)
-                .collect(Collectors.toList());
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProcedimentoRapidoListDTO> listarPaginado(
+            LocalDateTime dataInicio,
+            LocalDateTime dataFim,
+            List<StatusProcedimento> statuses,
+            String especialidade,
+            String termoPesquisa,
+            Pageable pageable
+    ) {
+        log.debug("Listando procedimentos com filtros avançados - Data: {} a {}, Statuses: {}, Especialidade: {}, Termo: {}, Página: {}",
+                dataInicio, dataFim, statuses, especialidade, termoPesquisa, pageable);
+
+        // Filtros, projeção, ordenação e paginação no banco
+        Specification<ProcedimentoRapido> filtro = Specification
+                .where(ProcedimentoRapidoSpecifications.criadoEntre(dataInicio, dataFim))
+                .and(ProcedimentoRapidoSpecifications.comStatus(statuses))
+                .and(ProcedimentoRapidoSpecifications.daEspecialidade(especialidade))
+                .and(ProcedimentoRapidoSpecifications.contendoTermo(termoPesquisa));
+        return procedimentoRepository.listarResumo(filtro, pageable);
     }
 
     @Override
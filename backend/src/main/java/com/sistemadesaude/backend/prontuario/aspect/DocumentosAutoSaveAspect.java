@@ -8,7 +8,7 @@ import com.sistemadesaude.backend.exames.dto.SadtDTO;
 import com.sistemadesaude.backend.exames.dto.SadtResponseDTO;
 import com.sistemadesaude.backend.exames.service.SadtPdfService;
 import com.sistemadesaude.backend.prontuario.enums.TipoDocumento;
-import com.sistemadesaude.backend.prontuario.service.ProntuarioDocumentoService;
+import com.sistemadesaude.backend.prontuario.service.ProntuarioAnexoOutbox;
 import com.sistemadesaude.backend.recepcao.dto.AgendamentoDTO;
 import com.sistemadesaude.backend.documentos.dto.AtestadoDTO;
 import com.sistemadesaude.backend.documentos.dto.ReceituarioDTO;
@@ -30,6 +30,8 @@ import java.util.stream.Collectors;
 /**
  * Aspecto que ANEXA automaticamente PDFs gerados ao prontuário do paciente.
  * ✅ CORREÇÃO: Agora diferencia entre agendamento de consulta e de exame.
+ * A anexação é enfileirada ({@link ProntuarioAnexoOutbox}): a impressão só espera a gravação
+ * do conteúdo e da pendência; o registro no prontuário é criado em lote pelo worker.
  */
 @Aspect
 @Component
@@ -37,7 +39,7 @@ import java.util.stream.Collectors;
 @Slf4j
 public class DocumentosAutoSaveAspect {
 
-    private final ProntuarioDocumentoService prontuario;
+    private final ProntuarioAnexoOutbox anexos;
     private final ComprovantePdfService comprovantePdfService;
     private final SadtPdfService sadtPdfService;
 
@@ -59,7 +61,7 @@ public class DocumentosAutoSaveAspect {
         }
 
         String nome = "Atestado-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".pdf";
-        prontuario.salvarDocumento(
+        anexos.enfileirar(
                 TipoDocumento.ATESTADO, pacienteId, null, null,
                 dto.getCid(), // guardamos o CID como 'numeroReferencia' p/ rastreio
                 nome, pdf
@@ -83,7 +85,7 @@ public class DocumentosAutoSaveAspect {
         }
 
         String nome = "Receituario-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".pdf";
-        prontuario.salvarDocumento(
+        anexos.enfileirar(
                 TipoDocumento.RECEITUARIO, pacienteId, null, null,
                 null, nome, pdf
         );
@@ -101,7 +103,7 @@ public class DocumentosAutoSaveAspect {
             return;
         }
         String nome = "FichaAtendimento-" + a.getId() + ".pdf";
-        prontuario.salvarDocumento(
+        anexos.enfileirar(
                 TipoDocumento.FICHA_ATENDIMENTO,
                 pacienteId,
                 String.valueOf(a.getId()), // converte Long para String
@@ -133,7 +135,7 @@ public class DocumentosAutoSaveAspect {
             return;
         }
         String nome = "SADT-" + (r.getNumeroSadt() != null ? r.getNumeroSadt() : LocalDateTime.now()) + ".pdf";
-        prontuario.salvarDocumento(
+        anexos.enfileirar(
                 TipoDocumento.SADT, pacienteId, null,
                 req.getAgendamentoId(), r.getNumeroSadt(), nome, pdf
         );
@@ -173,7 +175,7 @@ public class DocumentosAutoSaveAspect {
             }
             String pacienteId = String.valueOf(ag.getPacienteId());
             String nomeArquivo = "SADT-Agendamento-" + ag.getId() + ".pdf";
-            prontuario.salvarDocumento(
+            anexos.enfileirar(
                     TipoDocumento.SADT, pacienteId,
                     null,
                     ag.getId(), null, nomeArquivo, pdf
@@ -193,7 +195,7 @@ public class DocumentosAutoSaveAspect {
             }
             String pacienteId = String.valueOf(ag.getPacienteId());
             String nomeArquivo = "Comprovante-Agendamento-" + ag.getId() + ".pdf";
-            prontuario.salvarDocumento(
+            anexos.enfileirar(
                     TipoDocumento.COMPROVANTE_AGENDAMENTO, pacienteId,
                     null, ag.getId(), null, nomeArquivo, pdf
             );
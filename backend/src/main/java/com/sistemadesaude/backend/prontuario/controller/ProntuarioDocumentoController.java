@@ -1,20 +1,29 @@
 package com.sistemadesaude.backend.prontuario.controller;
 
-import com.sistemadesaude.backend.prontuario.entity.ProntuarioDocumento;
+import com.sistemadesaude.backend.prontuario.dto.ProntuarioDocumentoResumoDTO;
 import com.sistemadesaude.backend.prontuario.enums.TipoDocumento;
 import com.sistemadesaude.backend.prontuario.repository.ProntuarioDocumentoRepository;
+import com.sistemadesaude.backend.prontuario.service.ProntuarioDocumentoService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
  * Endpoints utilitários para o frontend listar/baixar os anexos do prontuário.
  * Não interfere na UI atual – somente adiciona capacidades.
+ *
+ * ► Listagem: só metadados (projeção), nunca o conteúdo dos PDFs.
+ * ► Download: devolve um Resource; o Spring copia em streaming e atende Range (206) e
+ *   If-None-Match (304) a partir do ETag, que é o SHA-256 do conteúdo.
  */
 @RestController
 @RequestMapping("/api/prontuario/documentos")
@@ -23,24 +32,28 @@ import java.util.List;
 public class ProntuarioDocumentoController {
 
     private final ProntuarioDocumentoRepository repository;
+    private final ProntuarioDocumentoService service;
 
     @GetMapping("/paciente/{pacienteId}")
-    public List<ProntuarioDocumento> listarPorPaciente(@PathVariable String pacienteId,
-                                                       @RequestParam(required = false) TipoDocumento tipo) {
+    public List<ProntuarioDocumentoResumoDTO> listarPorPaciente(@PathVariable String pacienteId,
+                                                                @RequestParam(required = false) TipoDocumento tipo) {
         return (tipo == null)
-                ? repository.findByPacienteIdOrderByCriadoEmDesc(pacienteId)
-                : repository.findByPacienteIdAndTipoOrderByCriadoEmDesc(pacienteId, tipo);
+                ? repository.listarResumoPorPaciente(pacienteId)
+                : repository.listarResumoPorPacienteETipo(pacienteId, tipo);
     }
 
     @GetMapping("/{id}/pdf")
-    public ResponseEntity<byte[]> baixarPdf(@PathVariable Long id) {
-        ProntuarioDocumento d = repository.findById(id).orElse(null);
-        if (d == null || d.getArquivoPdf() == null) return ResponseEntity.notFound().build();
-
-        HttpHeaders h = new HttpHeaders();
-        h.setContentType(MediaType.APPLICATION_PDF);
-        h.setContentDispositionFormData("inline", d.getArquivoNome() != null ? d.getArquivoNome() : "documento.pdf");
-
-        return ResponseEntity.ok().headers(h).body(d.getArquivoPdf());
+    public ResponseEntity<Resource> baixarPdf(@PathVariable Long id) {
+        ProntuarioDocumentoService.ConteudoDocumento c = service.abrirConteudo(id).orElse(null);
+        if (c == null) return ResponseEntity.notFound().build();
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(c.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                        .filename(c.nome(), StandardCharsets.UTF_8).build().toString())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .eTag("\"" + c.hash() + "\"")
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(c.recurso());
     }
 }
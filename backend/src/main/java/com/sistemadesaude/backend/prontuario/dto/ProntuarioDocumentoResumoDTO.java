@@ -0,0 +1,32 @@
+package com.sistemadesaude.backend.prontuario.dto;
+
+import com.sistemadesaude.backend.prontuario.enums.TipoDocumento;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Metadados de um documento do prontuário, para listagens (sem o conteúdo do PDF).
+ * O download é feito em /api/prontuario/documentos/{id}/pdf.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProntuarioDocumentoResumoDTO {
+    private Long id;
+    private TipoDocumento tipo;
+    private String pacienteId;
+    private String atendimentoId;
+    private Long agendamentoId;
+    private String numeroReferencia;
+    private String arquivoNome;
+    private String contentType;
+    private Long tamanhoBytes;
+    private String conteudoHash;
+    private LocalDateTime criadoEm;
+    private Long criadoPorOperadorId;
+}
@@ -4,18 +4,15 @@ import com.sistemadesaude.backend.prontuario.enums.TipoDocumento;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 
 /**
- * Entidade de anexos do Prontuário.
+ * Entidade de anexos do Prontuário (apenas metadados).
  *
- * ⚠️ Ponto crítico do seu erro atual:
- *    Alguns ambientes com Hibernate 6 precisam de dica explícita para bindar byte[] como binário no Postgres.
- *    Por isso adicionamos @JdbcTypeCode(SqlTypes.BINARY) no campo arquivoPdf, mantendo @Lob.
- *    Isso evita o "Unable to bind parameter #3 - [B@...".
+ * ► O PDF não é mapeado: fica em arquivo endereçado por SHA-256 (conteudoHash).
+ *   Linhas antigas ainda com o bytea em arquivo_pdf são lidas por ProntuarioDocumentoService
+ *   e migradas em segundo plano por ProntuarioDocumentoMigracaoBlob.
  */
 @Getter
 @Setter
@@ -26,7 +23,9 @@ import java.time.LocalDateTime;
 @Table(name = "prontuario_documentos",
         indexes = {
                 @Index(name = "idx_pront_doc_paciente", columnList = "paciente_id"),
-                @Index(name = "idx_pront_doc_tipo", columnList = "tipo")
+                @Index(name = "idx_pront_doc_tipo", columnList = "tipo"),
+                @Index(name = "idx_pront_doc_paciente_criado", columnList = "paciente_id, criado_em DESC"),
+                @Index(name = "idx_pront_doc_agendamento_tipo", columnList = "agendamento_id, tipo, criado_em DESC")
         }
 )
 public class ProntuarioDocumento {
@@ -77,16 +76,16 @@ public class ProntuarioDocumento {
     private String contentType;
 
     /**
-     * ► O PRÓPRIO PDF EM BANCO (LOB).
-     *    - @Lob: indica Large OBject
-     *    - @JdbcTypeCode(SqlTypes.BINARY): força o Hibernate a bindar byte[] como binário para Postgres (evita erro do parâmetro #3)
-     *    - columnDefinition = "bytea": compatível com sua migration já existente
+     * SHA-256 do conteúdo, que fica em arquivo no armazenamento endereçado por conteúdo
+     * (ArmazenamentoConteudoService). Null apenas em linhas antigas cujo PDF ainda está na
+     * coluna arquivo_pdf (lida via JDBC, sem mapeamento aqui, para nunca vir junto na entidade).
      */
-    @Lob
-    @Basic(fetch = FetchType.LAZY)
-    @JdbcTypeCode(SqlTypes.BINARY) // <<< chave para evitar "Unable to bind parameter #3 - [B@..."
-    @Column(name = "arquivo_pdf", columnDefinition = "bytea", nullable = false)
-    private byte[] arquivoPdf;
+    @Column(name = "conteudo_hash", length = 64)
+    private String conteudoHash;
+
+    /** Tamanho do PDF em bytes (exibido na listagem sem tocar no conteúdo). */
+    @Column(name = "tamanho_bytes")
+    private Long tamanhoBytes;
 
     /** Timestamp de criação (gerado no banco). */
     @CreationTimestamp
@@ -1,8 +1,11 @@
 package com.sistemadesaude.backend.prontuario.repository;
 
+import com.sistemadesaude.backend.prontuario.dto.ProntuarioDocumentoResumoDTO;
 import com.sistemadesaude.backend.prontuario.entity.ProntuarioDocumento;
 import com.sistemadesaude.backend.prontuario.enums.TipoDocumento;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -10,14 +13,25 @@ import java.util.Optional;
 /**
  * Repositório de documentos do prontuário.
  * Mantém os métodos já usados no projeto e adiciona a busca por agendamentoId+tipo.
+ * As listagens usam projeção (ProntuarioDocumentoResumoDTO): só metadados, nunca o PDF.
  */
 public interface ProntuarioDocumentoRepository extends JpaRepository<ProntuarioDocumento, Long> {
 
+    String SELECT_RESUMO = """
+            SELECT new com.sistemadesaude.backend.prontuario.dto.ProntuarioDocumentoResumoDTO(
+                d.id, d.tipo, d.pacienteId, d.atendimentoId, d.agendamentoId, d.numeroReferencia,
+                d.arquivoNome, d.contentType, d.tamanhoBytes, d.conteudoHash, d.criadoEm, d.criadoPorOperadorId)
+              FROM ProntuarioDocumento d
+            """;
+
     // Lista todos os documentos de um paciente (mais recentes primeiro)
-    List<ProntuarioDocumento> findByPacienteIdOrderByCriadoEmDesc(String pacienteId);
+    @Query(SELECT_RESUMO + " WHERE d.pacienteId = :pacienteId ORDER BY d.criadoEm DESC")
+    List<ProntuarioDocumentoResumoDTO> listarResumoPorPaciente(@Param("pacienteId") String pacienteId);
 
     // Lista por paciente e tipo
-    List<ProntuarioDocumento> findByPacienteIdAndTipoOrderByCriadoEmDesc(String pacienteId, TipoDocumento tipo);
+    @Query(SELECT_RESUMO + " WHERE d.pacienteId = :pacienteId AND d.tipo = :tipo ORDER BY d.criadoEm DESC")
+    List<ProntuarioDocumentoResumoDTO> listarResumoPorPacienteETipo(@Param("pacienteId") String pacienteId,
+                                                                     @Param("tipo") TipoDocumento tipo);
 
     // ► NOVO: pega o último documento gerado para um agendamento específico e tipo específico
     Optional<ProntuarioDocumento> findFirstByAgendamentoIdAndTipoOrderByCriadoEmDesc(Long agendamentoId, TipoDocumento tipo);
@@ -0,0 +1,337 @@
+package com.sistemadesaude.backend.prontuario.service;
+
+import com.sistemadesaude.backend.documentos.service.ArmazenamentoConteudoService;
+import com.sistemadesaude.backend.operador.security.UserDetailsImpl;
+import com.sistemadesaude.backend.prontuario.enums.TipoDocumento;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Anexação assíncrona de PDFs ao prontuário (padrão outbox).
+ *
+ * - {@link #enfileirar}: na thread da requisição, grava o PDF no armazenamento de conteúdo e
+ *   insere uma linha pequena em prontuario_anexo_pendente (transação própria). É o mínimo
+ *   durável: a partir daqui o anexo sobrevive a restart. O operador autenticado é lido aqui
+ *   (o worker não tem SecurityContext) e vira o autor do documento.
+ * - Worker (thread própria, a cada app.prontuario.anexos.intervalo-ms ou logo após um
+ *   enfileiramento): trava um lote com FOR UPDATE SKIP LOCKED (várias instâncias dividem o
+ *   trabalho), insere os documentos em batch e apaga as pendências NA MESMA transação.
+ * - Idempotência: a chave da pendência vai para prontuario_documentos.chave_anexo (índice
+ *   único, ON CONFLICT DO NOTHING).
+ * - Falha no lote: reprocessa item a item; o item que falhar ganha nova tentativa com espera
+ *   crescente (até app.prontuario.anexos.espera-maxima-segundos). Nada é descartado.
+ * - A referência ao conteúdo criada no enfileiramento passa para o documento.
+ *
+ * Métricas: prontuario.anexos.pendentes, prontuario.anexos.atraso.segundos (idade da pendência
+ * mais antiga), prontuario.anexos.latencia (enfileirado → anexado), enfileirados, anexados e falhas.
+ */
+@Slf4j
+@Component
+public class ProntuarioAnexoOutbox {
+
+    private static final String SQL_ENFILEIRAR = """
+            INSERT INTO prontuario_anexo_pendente
+                (chave_idempotencia, tipo, paciente_id, atendimento_id, agendamento_id,
+                 numero_referencia, arquivo_nome, conteudo_hash, tamanho_bytes, criado_por_operador_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String SQL_TRAVAR_LOTE = """
+            SELECT id, chave_idempotencia, tipo, paciente_id, atendimento_id, agendamento_id,
+                   numero_referencia, arquivo_nome, conteudo_hash, tamanho_bytes, criado_em, tentativas,
+                   criado_por_operador_id
+              FROM prontuario_anexo_pendente
+             WHERE proxima_tentativa_em <= CURRENT_TIMESTAMP
+             ORDER BY id
+             LIMIT ?
+               FOR UPDATE SKIP LOCKED
+            """;
+    private static final String SQL_TRAVAR_ITEM = """
+            SELECT id, chave_idempotencia, tipo, paciente_id, atendimento_id, agendamento_id,
+                   numero_referencia, arquivo_nome, conteudo_hash, tamanho_bytes, criado_em, tentativas,
+                   criado_por_operador_id
+              FROM prontuario_anexo_pendente
+             WHERE id = ?
+               FOR UPDATE SKIP LOCKED
+            """;
+    private static final String SQL_INSERIR_DOCUMENTO = """
+            INSERT INTO prontuario_documentos
+                (tipo, paciente_id, atendimento_id, agendamento_id, numero_referencia, arquivo_nome,
+                 content_type, conteudo_hash, tamanho_bytes, criado_em, chave_anexo, criado_por_operador_id)
+            VALUES (?, ?, ?, ?, ?, ?, 'application/pdf', ?, ?, ?, ?, ?)
+            ON CONFLICT (chave_anexo) WHERE chave_anexo IS NOT NULL DO NOTHING
+            """;
+    private static final String SQL_REMOVER = "DELETE FROM prontuario_anexo_pendente WHERE id = ?";
+    private static final String SQL_REAGENDAR = """
+            UPDATE prontuario_anexo_pendente
+               SET tentativas = tentativas + 1, proxima_tentativa_em = ?, ultimo_erro = ?
+             WHERE id = ?
+            """;
+    private static final String SQL_SITUACAO =
+            "SELECT COUNT(*) AS pendentes, MIN(criado_em) AS mais_antiga FROM prontuario_anexo_pendente";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ArmazenamentoConteudoService armazenamento;
+    private final TransactionTemplate transacao;
+    private final TransactionTemplate transacaoPropria;
+    private final int tamanhoLote;
+    private final long intervaloMs;
+    private final long esperaMaximaSegundos;
+
+    private final AtomicBoolean cicloAgendado = new AtomicBoolean(false);
+    private final AtomicLong pendentes = new AtomicLong();
+    private final AtomicLong atrasoSegundos = new AtomicLong();
+    private final Counter enfileirados;
+    private final Counter anexados;
+    private final Counter falhas;
+    private final Timer latencia;
+
+    private ScheduledExecutorService executor;
+
+    public ProntuarioAnexoOutbox(JdbcTemplate jdbcTemplate,
+                                 ArmazenamentoConteudoService armazenamento,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.prontuario.anexos.tamanho-lote:100}") int tamanhoLote,
+                                 @Value("${app.prontuario.anexos.intervalo-ms:1000}") long intervaloMs,
+                                 @Value("${app.prontuario.anexos.espera-maxima-segundos:3600}") long esperaMaximaSegundos) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.armazenamento = armazenamento;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.transacaoPropria = new TransactionTemplate(transactionManager);
+        this.transacaoPropria.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.tamanhoLote = Math.max(1, tamanhoLote);
+        this.intervaloMs = intervaloMs;
+        this.esperaMaximaSegundos = esperaMaximaSegundos;
+
+        Gauge.builder("prontuario.anexos.pendentes", pendentes, AtomicLong::get)
+                .description("Anexos aguardando inclusão no prontuário")
+                .register(meterRegistry);
+        Gauge.builder("prontuario.anexos.atraso.segundos", atrasoSegundos, AtomicLong::get)
+                .description("Idade do anexo pendente mais antigo")
+                .register(meterRegistry);
+        this.enfileirados = Counter.builder("prontuario.anexos.enfileirados").register(meterRegistry);
+        this.anexados = Counter.builder("prontuario.anexos.anexados").register(meterRegistry);
+        this.falhas = Counter.builder("prontuario.anexos.falhas")
+                .description("Tentativas de anexação que falharam e foram reagendadas")
+                .register(meterRegistry);
+        this.latencia = Timer.builder("prontuario.anexos.latencia")
+                .description("Tempo entre o enfileiramento e a inclusão no prontuário")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "prontuario-anexos");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::cicloSeguro, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+        log.info("📎 Outbox de anexos do prontuário iniciado (lote={}, intervalo={}ms)", tamanhoLote, intervaloMs);
+    }
+
+    /**
+     * Registra o PDF para anexação ao prontuário. Retorna depois de gravar conteúdo e pendência
+     * (transação própria); a criação do documento fica com o worker.
+     */
+    public void enfileirar(TipoDocumento tipo, String pacienteId, String atendimentoId, Long agendamentoId,
+                           String numeroReferencia, String arquivoNome, byte[] arquivoPdf) {
+        if (tipo == null) throw new IllegalArgumentException("Tipo do documento é obrigatório.");
+        if (pacienteId == null || pacienteId.isBlank()) throw new IllegalArgumentException("pacienteId é obrigatório.");
+        if (arquivoNome == null || arquivoNome.isBlank()) throw new IllegalArgumentException("arquivoNome é obrigatório.");
+        if (arquivoPdf == null || arquivoPdf.length == 0)
+            throw new IllegalArgumentException("arquivoPdf (byte[]) é obrigatório e não pode ser vazio.");
+
+        Long operadorId = operadorAtualId();
+        transacaoPropria.executeWithoutResult(status -> {
+            String hash = armazenamento.armazenar(arquivoPdf);
+            jdbcTemplate.update(SQL_ENFILEIRAR, UUID.randomUUID().toString(), tipo.name(), pacienteId,
+                    atendimentoId, agendamentoId, numeroReferencia, arquivoNome, hash, (long) arquivoPdf.length,
+                    operadorId);
+        });
+        enfileirados.increment();
+        log.debug("📎 Anexo {} do paciente {} enfileirado ({} bytes)", tipo, pacienteId, arquivoPdf.length);
+        anteciparCiclo();
+    }
+
+    /** Operador autenticado na requisição; null fora dela (jobs, chamadas internas). */
+    private static Long operadorAtualId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getPrincipal() instanceof UserDetailsImpl user ? user.getOperadorId() : null;
+    }
+
+    /** Processa um lote de pendências; retorna quantas viraram documento. */
+    public int processarLote() {
+        List<Pendente> lote;
+        try {
+            lote = transacao.execute(status -> {
+                List<Pendente> travados = jdbcTemplate.query(SQL_TRAVAR_LOTE, MAPPER, tamanhoLote);
+                if (!travados.isEmpty()) {
+                    entregar(travados);
+                }
+                return travados;
+            });
+        } catch (Exception e) {
+            log.warn("⚠️ Lote de anexos falhou ({}); reprocessando item a item", e.getMessage());
+            return processarItemAItem();
+        }
+        int total = lote == null ? 0 : lote.size();
+        if (total > 0) {
+            log.debug("📎 {} anexo(s) incluídos no prontuário", total);
+        }
+        return total;
+    }
+
+    /** Insere os documentos e apaga as pendências (chamado dentro da transação que as travou). */
+    private void entregar(List<Pendente> lote) {
+        int[] inseridos = jdbcTemplate.batchUpdate(SQL_INSERIR_DOCUMENTO, lote, lote.size(), (ps, p) -> {
+            ps.setString(1, p.tipo());
+            ps.setString(2, p.pacienteId());
+            ps.setString(3, p.atendimentoId());
+            if (p.agendamentoId() != null) ps.setLong(4, p.agendamentoId()); else ps.setNull(4, Types.BIGINT);
+            ps.setString(5, p.numeroReferencia());
+            ps.setString(6, p.arquivoNome());
+            ps.setString(7, p.conteudoHash());
+            ps.setLong(8, p.tamanhoBytes());
+            ps.setTimestamp(9, Timestamp.valueOf(p.criadoEm()));
+            ps.setString(10, p.chave());
+            if (p.operadorId() != null) ps.setLong(11, p.operadorId()); else ps.setNull(11, Types.BIGINT);
+        })[0];
+        jdbcTemplate.batchUpdate(SQL_REMOVER, lote, lote.size(), (ps, p) -> ps.setLong(1, p.id()));
+
+        LocalDateTime agora = LocalDateTime.now();
+        for (int i = 0; i < lote.size(); i++) {
+            Pendente p = lote.get(i);
+            if (inseridos[i] == 0) {
+                // já anexado antes (reentrega): a referência da pendência sobra
+                armazenamento.liberar(p.conteudoHash());
+                continue;
+            }
+            anexados.increment();
+            latencia.record(Duration.between(p.criadoEm(), agora));
+        }
+    }
+
+    private int processarItemAItem() {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM prontuario_anexo_pendente WHERE proxima_tentativa_em <= CURRENT_TIMESTAMP ORDER BY id LIMIT ?",
+                Long.class, tamanhoLote);
+        int total = 0;
+        for (Long id : ids) {
+            try {
+                Boolean ok = transacao.execute(status -> {
+                    List<Pendente> item = jdbcTemplate.query(SQL_TRAVAR_ITEM, MAPPER, id);
+                    if (item.isEmpty()) return false;
+                    entregar(item);
+                    return true;
+                });
+                if (Boolean.TRUE.equals(ok)) total++;
+            } catch (Exception e) {
+                reagendar(id, e);
+            }
+        }
+        return total;
+    }
+
+    private void reagendar(Long id, Exception erro) {
+        falhas.increment();
+        try {
+            Integer tentativas = jdbcTemplate.queryForObject(
+                    "SELECT tentativas FROM prontuario_anexo_pendente WHERE id = ?", Integer.class, id);
+            long espera = Math.min(esperaMaximaSegundos, 1L << Math.min(20, tentativas == null ? 0 : tentativas));
+            jdbcTemplate.update(SQL_REAGENDAR, Timestamp.valueOf(LocalDateTime.now().plusSeconds(espera)),
+                    String.valueOf(erro.getMessage()), id);
+            log.warn("⚠️ Anexo pendente {} falhou (tentativa {}), nova tentativa em {}s: {}",
+                    id, tentativas == null ? 1 : tentativas + 1, espera, erro.getMessage());
+        } catch (Exception e) {
+            log.error("❌ Não foi possível reagendar o anexo pendente {}: {}", id, e.getMessage());
+        }
+    }
+
+    private void atualizarSituacao() {
+        Map<String, Object> situacao = jdbcTemplate.queryForMap(SQL_SITUACAO);
+        pendentes.set(((Number) situacao.get("pendentes")).longValue());
+        Timestamp maisAntiga = (Timestamp) situacao.get("mais_antiga");
+        atrasoSegundos.set(maisAntiga == null ? 0
+                : Math.max(0, Duration.between(maisAntiga.toLocalDateTime(), LocalDateTime.now()).toSeconds()));
+    }
+
+    /** Agenda um ciclo imediato (no máximo um na fila) para o anexo aparecer logo. */
+    private void anteciparCiclo() {
+        if (executor == null || !cicloAgendado.compareAndSet(false, true)) return;
+        try {
+            executor.execute(() -> {
+                cicloAgendado.set(false);
+                cicloSeguro();
+            });
+        } catch (RejectedExecutionException e) {
+            cicloAgendado.set(false);
+        }
+    }
+
+    private void cicloSeguro() {
+        try {
+            int processados;
+            do {
+                processados = processarLote();
+            } while (processados >= tamanhoLote);
+            atualizarSituacao();
+        } catch (Exception e) {
+            log.error("❌ Erro no ciclo de anexos do prontuário: {}", e.getMessage());
+        }
+    }
+
+    /** Pendências ficam no banco: o próximo start (ou outra instância) continua de onde parou. */
+    @PreDestroy
+    void encerrar() {
+        if (executor != null) executor.shutdownNow();
+    }
+
+    private record Pendente(long id, String chave, String tipo, String pacienteId, String atendimentoId,
+                            Long agendamentoId, String numeroReferencia, String arquivoNome,
+                            String conteudoHash, long tamanhoBytes, LocalDateTime criadoEm, int tentativas,
+                            Long operadorId) {}
+
+    private static final RowMapper<Pendente> MAPPER = (rs, i) -> new Pendente(
+            rs.getLong("id"),
+            rs.getString("chave_idempotencia"),
+            rs.getString("tipo"),
+            rs.getString("paciente_id"),
+            rs.getString("atendimento_id"),
+            rs.getObject("agendamento_id", Long.class),
+            rs.getString("numero_referencia"),
+            rs.getString("arquivo_nome"),
+            rs.getString("conteudo_hash"),
+            rs.getLong("tamanho_bytes"),
+            rs.getTimestamp("criado_em").toLocalDateTime(),
+            rs.getInt("tentativas"),
+            rs.getObject("criado_por_operador_id", Long.class));
+}
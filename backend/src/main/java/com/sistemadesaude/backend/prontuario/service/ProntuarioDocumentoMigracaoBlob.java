@@ -0,0 +1,135 @@
+package com.sistemadesaude.backend.prontuario.service;
+
+import com.sistemadesaude.backend.documentos.service.ArmazenamentoConteudoService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Migração em segundo plano dos PDFs antigos do prontuário: do bytea arquivo_pdf para o
+ * armazenamento endereçado por conteúdo.
+ *
+ * - Desligada por padrão (app.prontuario.documentos.migracao.habilitada); ligar em uma instância.
+ * - A cada ciclo pega um lote de ids pendentes e move um documento por vez (um PDF em memória).
+ * - Cada documento em uma transação: referência + arquivo (armazenar) e atualização da linha
+ *   (hash + tamanho, arquivo_pdf = NULL, com "conteudo_hash IS NULL" no WHERE). Se a linha já
+ *   foi migrada por outra instância, a transação volta e a referência não é contada duas vezes.
+ * - O espaço do bytea volta para o Postgres após VACUUM (autovacuum) da tabela.
+ */
+@Slf4j
+@Component
+public class ProntuarioDocumentoMigracaoBlob {
+
+    private static final String SQL_PENDENTES = """
+            SELECT id FROM prontuario_documentos
+             WHERE conteudo_hash IS NULL AND arquivo_pdf IS NOT NULL
+             ORDER BY id LIMIT ?
+            """;
+    private static final String SQL_PDF = "SELECT arquivo_pdf FROM prontuario_documentos WHERE id = ? AND conteudo_hash IS NULL";
+    private static final String SQL_MARCAR_MIGRADO = """
+            UPDATE prontuario_documentos
+               SET conteudo_hash = ?, tamanho_bytes = ?, arquivo_pdf = NULL
+             WHERE id = ? AND conteudo_hash IS NULL
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ArmazenamentoConteudoService armazenamento;
+    private final TransactionTemplate transacao;
+    private final boolean habilitada;
+    private final int tamanhoLote;
+    private final long intervaloMs;
+    private final Counter migrados;
+    private final Counter falhas;
+
+    private ScheduledExecutorService executor;
+
+    public ProntuarioDocumentoMigracaoBlob(JdbcTemplate jdbcTemplate,
+                                           ArmazenamentoConteudoService armazenamento,
+                                           PlatformTransactionManager transactionManager,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${app.prontuario.documentos.migracao.habilitada:false}") boolean habilitada,
+                                           @Value("${app.prontuario.documentos.migracao.tamanho-lote:50}") int tamanhoLote,
+                                           @Value("${app.prontuario.documentos.migracao.intervalo-ms:5000}") long intervaloMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.armazenamento = armazenamento;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.habilitada = habilitada;
+        this.tamanhoLote = Math.max(1, tamanhoLote);
+        this.intervaloMs = intervaloMs;
+        this.migrados = Counter.builder("prontuario.documentos.migrados")
+                .description("PDFs movidos do banco para o armazenamento de conteúdo")
+                .register(meterRegistry);
+        this.falhas = Counter.builder("prontuario.documentos.migracao.falhas").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (!habilitada) return;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "prontuario-migracao-blob");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::cicloSeguro, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+        log.info("📦 Migração de PDFs do prontuário iniciada (lote={}, intervalo={}ms)", tamanhoLote, intervaloMs);
+    }
+
+    /** Migra um lote; retorna quantos documentos foram movidos. */
+    public int migrarLote() {
+        List<Long> ids = jdbcTemplate.queryForList(SQL_PENDENTES, Long.class, tamanhoLote);
+        int movidos = 0;
+        for (Long id : ids) {
+            try {
+                if (migrar(id)) movidos++;
+            } catch (Exception e) {
+                falhas.increment();
+                log.warn("⚠️ Falha ao migrar PDF do documento {}: {}", id, e.getMessage());
+            }
+        }
+        if (movidos > 0) {
+            log.info("📦 {} PDF(s) do prontuário movidos para o armazenamento de conteúdo", movidos);
+        }
+        return movidos;
+    }
+
+    private boolean migrar(Long id) {
+        Boolean atualizado = transacao.execute(status -> {
+            List<byte[]> linhas = jdbcTemplate.query(SQL_PDF, (rs, i) -> rs.getBytes(1), id);
+            if (linhas.isEmpty() || linhas.get(0) == null) return false;
+            byte[] pdf = linhas.get(0);
+            String hash = armazenamento.armazenar(pdf);
+            if (jdbcTemplate.update(SQL_MARCAR_MIGRADO, hash, (long) pdf.length, id) != 1) {
+                status.setRollbackOnly();
+                return false;
+            }
+            return true;
+        });
+        if (Boolean.TRUE.equals(atualizado)) migrados.increment();
+        return Boolean.TRUE.equals(atualizado);
+    }
+
+    private void cicloSeguro() {
+        try {
+            migrarLote();
+        } catch (Exception e) {
+            log.error("❌ Erro no ciclo de migração de PDFs do prontuário: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (executor != null) executor.shutdownNow();
+    }
+}
@@ -1,16 +1,28 @@
 package com.sistemadesaude.backend.prontuario.service;
 
+import com.sistemadesaude.backend.documentos.service.ArmazenamentoConteudoService;
+import com.sistemadesaude.backend.operador.security.UserDetailsImpl;
 import com.sistemadesaude.backend.prontuario.entity.ProntuarioDocumento;
 import com.sistemadesaude.backend.prontuario.enums.TipoDocumento;
 import com.sistemadesaude.backend.prontuario.repository.ProntuarioDocumentoRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Serviço para salvar e consultar documentos do prontuário.
  *
@@ -20,6 +32,10 @@ import org.springframework.transaction.annotation.Transactional;
  * ► Rodamos o salvarDocumento em transação ISOLADA (REQUIRES_NEW) para que
  *   qualquer falha aqui NÃO marque a transação do chamador como rollback-only.
  *
+ * ► O PDF vai para o armazenamento endereçado por conteúdo (ArmazenamentoConteudoService);
+ *   a linha guarda só o hash e o tamanho. Linhas antigas (conteudo_hash null) ainda têm o
+ *   bytea em arquivo_pdf, lido aqui via JDBC até a migração em segundo plano movê-las.
+ *
  * ATENÇÃO: Este arquivo substitui completamente a versão anterior.
  */
 @Service
@@ -27,7 +43,11 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class ProntuarioDocumentoService {
 
+    private static final String SQL_PDF_LEGADO = "SELECT arquivo_pdf FROM prontuario_documentos WHERE id = ?";
+
     private final ProntuarioDocumentoRepository repository;
+    private final ArmazenamentoConteudoService armazenamento;
+    private final JdbcTemplate jdbcTemplate;
 
     /**
      * Salva um documento no prontuário do paciente.
@@ -63,7 +83,9 @@ public class ProntuarioDocumentoService {
                 tipo, pacienteId, agendamentoId, atendimentoId, numeroReferencia, arquivoNome, arquivoPdf.length
         );
 
-        // ► Monta a entidade corretamente (arquivoPdf é byte[])
+        // ► Conteúdo vai para arquivo; a linha fica só com os metadados
+        String hash = armazenamento.armazenar(arquivoPdf);
+
         ProntuarioDocumento entidade = ProntuarioDocumento.builder()
                 .tipo(tipo)
                 .pacienteId(pacienteId)
@@ -72,7 +94,8 @@ public class ProntuarioDocumentoService {
                 .numeroReferencia(numeroReferencia)
                 .arquivoNome(arquivoNome)
                 .contentType("application/pdf")
-                .arquivoPdf(arquivoPdf) // ← CRÍTICO: byte[]
+                .conteudoHash(hash)
+                .tamanhoBytes((long) arquivoPdf.length)
                 .criadoPorOperadorId(getOperadorAtualId())
                 .build();
 
@@ -81,21 +104,64 @@ public class ProntuarioDocumentoService {
         log.info(
                 "✅ Documento salvo no prontuário. id={}, tipo={}, pacienteId={}, nome={}, tamanho={} bytes",
                 salvo.getId(), salvo.getTipo(), salvo.getPacienteId(), salvo.getArquivoNome(),
-                salvo.getArquivoPdf() != null ? salvo.getArquivoPdf().length : 0
+                salvo.getTamanhoBytes()
         );
 
         return salvo;
     }
 
-    /** Exemplo simples para auditoria; ajuste para seu UserDetails quando desejar. */
-    private Long getOperadorAtualId() {
-        try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            if (auth != null && auth.getPrincipal() != null) {
-                // Caso tenha um principal customizado, recupere o ID aqui.
-                // No momento, retornamos null para não travar o fluxo.
+    /**
+     * Conteúdo de um documento pronto para download: arquivo do armazenamento (servido sem
+     * carregar em memória) ou, em linha ainda não migrada, o bytea legado.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ConteudoDocumento> abrirConteudo(Long id) {
+        return repository.findById(id).map(this::abrirConteudo);
+    }
+
+    /** Bytes do PDF, para quem precisa do conteúdo inteiro (comprovante, reimpressão de SADT). */
+    public byte[] lerConteudo(ProntuarioDocumento documento) {
+        if (documento == null) return null;
+        if (documento.getConteudoHash() != null) {
+            Path arquivo = armazenamento.caminho(documento.getConteudoHash());
+            if (Files.isRegularFile(arquivo)) {
+                try {
+                    return Files.readAllBytes(arquivo);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Falha ao ler documento " + documento.getId(), e);
+                }
             }
-        } catch (Exception ignored) {}
-        return null;
+            log.warn("⚠️ Arquivo do documento {} ausente no armazenamento (hash {})", documento.getId(), documento.getConteudoHash());
+        }
+        return lerPdfLegado(documento.getId());
+    }
+
+    private ConteudoDocumento abrirConteudo(ProntuarioDocumento d) {
+        String nome = d.getArquivoNome() != null ? d.getArquivoNome() : "documento.pdf";
+        String contentType = d.getContentType() != null ? d.getContentType() : "application/pdf";
+
+        Resource arquivo = d.getConteudoHash() != null ? armazenamento.recurso(d.getConteudoHash()) : null;
+        if (arquivo != null) {
+            return new ConteudoDocumento(nome, contentType, d.getConteudoHash(), arquivo);
+        }
+
+        byte[] legado = lerPdfLegado(d.getId());
+        if (legado == null || legado.length == 0) return null;
+        return new ConteudoDocumento(nome, contentType, ArmazenamentoConteudoService.sha256(legado),
+                new ByteArrayResource(legado));
+    }
+
+    private byte[] lerPdfLegado(Long id) {
+        List<byte[]> linhas = jdbcTemplate.query(SQL_PDF_LEGADO, (rs, i) -> rs.getBytes(1), id);
+        return linhas.isEmpty() ? null : linhas.get(0);
+    }
+
+    /** Conteúdo para download; o hash serve de ETag (conteúdo imutável por documento). */
+    public record ConteudoDocumento(String nome, String contentType, String hash, Resource recurso) {}
+
+    /** Operador autenticado (autor do documento); null fora de uma requisição autenticada. */
+    private Long getOperadorAtualId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getPrincipal() instanceof UserDetailsImpl user ? user.getOperadorId() : null;
     }
 }
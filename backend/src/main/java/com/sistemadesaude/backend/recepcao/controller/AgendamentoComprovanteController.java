@@ -3,6 +3,7 @@ package com.sistemadesaude.backend.recepcao.controller;
 import com.sistemadesaude.backend.prontuario.entity.ProntuarioDocumento;
 import com.sistemadesaude.backend.prontuario.enums.TipoDocumento;
 import com.sistemadesaude.backend.prontuario.repository.ProntuarioDocumentoRepository;
+import com.sistemadesaude.backend.prontuario.service.ProntuarioDocumentoService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
@@ -26,6 +27,7 @@ import org.springframework.web.bind.annotation.*;
 public class AgendamentoComprovanteController {
 
     private final ProntuarioDocumentoRepository documentoRepository;
+    private final ProntuarioDocumentoService documentoService;
 
     /**
      * Exibe o documento correto em tela (SADT se houver, senão Comprovante).
@@ -53,8 +55,9 @@ public class AgendamentoComprovanteController {
                 log.error("❌ Erro ao buscar SADT para agendamento {}: {}", agendamentoId, e.getMessage(), e);
             }
 
-            if (sadt != null && sadt.getArquivoPdf() != null && sadt.getArquivoPdf().length > 0) {
-                log.info("✅ SADT encontrada para agendamento {}: {} bytes", agendamentoId, sadt.getArquivoPdf().length);
+            byte[] sadtPdf = documentoService.lerConteudo(sadt);
+            if (sadtPdf != null && sadtPdf.length > 0) {
+                log.info("✅ SADT encontrada para agendamento {}: {} bytes", agendamentoId, sadtPdf.length);
                 String nome = (sadt.getArquivoNome() != null && !sadt.getArquivoNome().isBlank())
                         ? sadt.getArquivoNome()
                         : ("SADT-" + agendamentoId + ".pdf");
@@ -62,7 +65,7 @@ public class AgendamentoComprovanteController {
                 return ResponseEntity.ok()
                         .contentType(MediaType.APPLICATION_PDF)
                         .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + nome + "\"")
-                        .body(sadt.getArquivoPdf());
+                        .body(sadtPdf);
             }
 
             log.info("⚠️ SADT não encontrada para agendamento {}. Buscando Comprovante...", agendamentoId);
@@ -78,12 +81,13 @@ public class AgendamentoComprovanteController {
                 throw new RuntimeException("Erro ao buscar documento no banco de dados: " + e.getMessage(), e);
             }
 
-            if (comprovante == null || comprovante.getArquivoPdf() == null || comprovante.getArquivoPdf().length == 0) {
+            byte[] comprovantePdf = documentoService.lerConteudo(comprovante);
+            if (comprovantePdf == null || comprovantePdf.length == 0) {
                 log.warn("❌ Nenhum documento (SADT ou Comprovante) encontrado para agendamento {}. Retornando 404.", agendamentoId);
                 return ResponseEntity.notFound().build();
             }
 
-            log.info("✅ Comprovante encontrado para agendamento {}: {} bytes", agendamentoId, comprovante.getArquivoPdf().length);
+            log.info("✅ Comprovante encontrado para agendamento {}: {} bytes", agendamentoId, comprovantePdf.length);
             String nome = (comprovante.getArquivoNome() != null && !comprovante.getArquivoNome().isBlank())
                     ? comprovante.getArquivoNome()
                     : ("Comprovante-Agendamento-" + agendamentoId + ".pdf");
@@ -91,7 +95,7 @@ public class AgendamentoComprovanteController {
             return ResponseEntity.ok()
                     .contentType(MediaType.APPLICATION_PDF)
                     .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + nome + "\"")
-                    .body(comprovante.getArquivoPdf());
+                    .body(comprovantePdf);
 
         } catch (Exception e) {
             log.error("❌ ERRO CRÍTICO ao buscar documento para agendamento {}: {}", agendamentoId, e.getMessage(), e);
@@ -112,7 +116,8 @@ public class AgendamentoComprovanteController {
                 .findFirstByAgendamentoIdAndTipoOrderByCriadoEmDesc(agendamentoId, TipoDocumento.SADT)
                 .orElse(null);
 
-        if (sadt != null && sadt.getArquivoPdf() != null && sadt.getArquivoPdf().length > 0) {
+        byte[] sadtPdf = documentoService.lerConteudo(sadt);
+        if (sadtPdf != null && sadtPdf.length > 0) {
             String nome = (sadt.getArquivoNome() != null && !sadt.getArquivoNome().isBlank())
                     ? sadt.getArquivoNome()
                     : ("SADT-" + agendamentoId + ".pdf");
@@ -120,7 +125,7 @@ public class AgendamentoComprovanteController {
             return ResponseEntity.ok()
                     .contentType(MediaType.APPLICATION_PDF)
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + nome + "\"")
-                    .body(sadt.getArquivoPdf());
+                    .body(sadtPdf);
         }
 
         // 2) Se não houver SADT, busca Comprovante
@@ -128,7 +133,8 @@ public class AgendamentoComprovanteController {
                 .findFirstByAgendamentoIdAndTipoOrderByCriadoEmDesc(agendamentoId, TipoDocumento.COMPROVANTE_AGENDAMENTO)
                 .orElse(null);
 
-        if (comprovante == null || comprovante.getArquivoPdf() == null || comprovante.getArquivoPdf().length == 0) {
+        byte[] comprovantePdf = documentoService.lerConteudo(comprovante);
+        if (comprovantePdf == null || comprovantePdf.length == 0) {
             return ResponseEntity.notFound().build();
         }
 
@@ -139,6 +145,6 @@ public class AgendamentoComprovanteController {
         return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_PDF)
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + nome + "\"")
-                .body(comprovante.getArquivoPdf());
+                .body(comprovantePdf);
     }
 }
@@ -3,6 +3,7 @@ package com.sistemadesaude.backend.recepcao.controller;
 import com.sistemadesaude.backend.exames.dto.GerarSadtRequest;
 import com.sistemadesaude.backend.exames.dto.SadtResponseDTO;
 import com.sistemadesaude.backend.exames.service.SadtService;
+import com.sistemadesaude.backend.recepcao.dto.AgendaPaginaDTO;
 import com.sistemadesaude.backend.recepcao.dto.AgendamentoDTO;
 import com.sistemadesaude.backend.recepcao.dto.AtualizarStatusAgendamentoRequest;
 import com.sistemadesaude.backend.recepcao.dto.NovoAgendamentoRequest;
@@ -121,6 +122,36 @@ public class AgendamentoController {
         }
     }
 
+    /**
+     * Agenda do dia filtrada no banco (unidade e status opcionais), servida do cache do dia.
+     */
+    @GetMapping("/agenda-dia")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<AgendamentoDTO>> listarAgendaDoDia(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data,
+            @RequestParam(required = false) Long unidadeId,
+            @RequestParam(required = false) List<StatusAgendamento> status) {
+        return ResponseEntity.ok(agendamentoService.listarAgendaDoDia(data, unidadeId, status));
+    }
+
+    /**
+     * Agenda paginada por keyset, mais recentes primeiro.
+     * Para a próxima página, enviar o "proximoCursor" recebido no parâmetro cursor.
+     */
+    @GetMapping("/pagina")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<AgendaPaginaDTO> listarPagina(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(required = false) Long unidadeId) {
+        try {
+            return ResponseEntity.ok(agendamentoService.listarPagina(cursor, limite, unidadeId));
+        } catch (IllegalArgumentException e) {
+            log.warn("⚠️ Página de agendamentos inválida: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<AgendamentoDTO> buscarPorId(@PathVariable Long id) {
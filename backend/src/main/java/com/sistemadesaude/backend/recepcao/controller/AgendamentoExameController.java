@@ -1,7 +1,9 @@
 package com.sistemadesaude.backend.recepcao.controller;
 
 import com.sistemadesaude.backend.recepcao.dto.AgendamentoExameDTO;
+import com.sistemadesaude.backend.recepcao.dto.DisponibilidadeDiaExameDTO;
 import com.sistemadesaude.backend.recepcao.dto.NovoAgendamentoExameRequest;
+import com.sistemadesaude.backend.recepcao.dto.VagaExameDTO;
 import com.sistemadesaude.backend.recepcao.entity.AgendamentoExame.StatusAgendamentoExame;
 import com.sistemadesaude.backend.recepcao.service.AgendamentoExameService;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
 
@@ -221,6 +224,31 @@ public class AgendamentoExameController {
         return ResponseEntity.ok(Map.of("disponivel", disponivel));
     }
 
+    /**
+     * Disponibilidade por dia no mês (uma consulta agregada no inventário de vagas); mes = yyyy-MM
+     */
+    @GetMapping("/disponibilidade-mensal")
+    public ResponseEntity<List<DisponibilidadeDiaExameDTO>> disponibilidadeMensal(
+            @RequestParam Long unidadeId,
+            @RequestParam YearMonth mes,
+            @RequestParam(required = false) String exameCodigo,
+            @RequestParam(required = false) Long profissionalId) {
+        log.info("📅 REST: Disponibilidade mensal da unidade {} em {}", unidadeId, mes);
+        return ResponseEntity.ok(agendamentoExameService.disponibilidadeMensal(unidadeId, mes, exameCodigo, profissionalId));
+    }
+
+    /**
+     * Slots do dia com as vagas restantes (horários e bloqueios já combinados)
+     */
+    @GetMapping("/vagas-dia")
+    public ResponseEntity<List<VagaExameDTO>> vagasDoDia(
+            @RequestParam Long unidadeId,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate data,
+            @RequestParam(required = false) String exameCodigo) {
+        log.info("📅 REST: Vagas de exames da unidade {} em {}", unidadeId, data);
+        return ResponseEntity.ok(agendamentoExameService.vagasDoDia(unidadeId, data, exameCodigo));
+    }
+
     /**
      * Gera e faz download do comprovante em PDF
      */
@@ -0,0 +1,22 @@
+package com.sistemadesaude.backend.recepcao.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página da agenda (mais recentes primeiro).
+ * Para a próxima página, reenviar {@code proximoCursor} no parâmetro "cursor".
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AgendaPaginaDTO {
+    private List<AgendamentoDTO> itens;
+    /** Cursor opaco da próxima página (null quando não há mais resultados) */
+    private String proximoCursor;
+}
@@ -0,0 +1,28 @@
+package com.sistemadesaude.backend.recepcao.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Disponibilidade de exames em um dia (visão mensal do agendamento).
+ * Slots bloqueados não entram em vagasTotais/vagasRestantes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DisponibilidadeDiaExameDTO {
+    private LocalDate data;
+    private Integer vagasTotais;
+    private Integer vagasOcupadas;
+    private Integer vagasRestantes;
+    private Integer encaixes;
+    /** Slots (hora) com ao menos uma vaga */
+    private Integer horariosLivres;
+    /** Todos os slots do dia bloqueados ou fora da grade */
+    private Boolean bloqueado;
+}
@@ -24,6 +24,7 @@ public class NovoAgendamentoRequest {
     private String especialidade;
     private String prioridade;
     private String unidade;
+    private Long unidadeId;
     private List<String> examesSelecionados;
 
     /**
@@ -0,0 +1,31 @@
+package com.sistemadesaude.backend.recepcao.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Slot concreto de exame (horário-modelo + data + hora) com a vaga restante.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VagaExameDTO {
+    private Long horarioExameId;
+    private LocalDate data;
+    private LocalTime hora;
+    private Long profissionalId;
+    private Long salaId;
+    private String exameCodigo;
+    private Integer capacidade;
+    private Integer ocupadas;
+    private Integer restantes;
+    private Integer encaixes;
+    private Boolean bloqueado;
+    private Boolean permiteEncaixe;
+}
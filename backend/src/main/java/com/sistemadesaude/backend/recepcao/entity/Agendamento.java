@@ -29,6 +29,9 @@ public class Agendamento {
     @Column(name = "profissional_id")
     private Long profissionalId;
 
+    @Column(name = "unidade_id")
+    private Long unidadeId;
+
     @Column(name = "especialidade", length = 100)
     private String especialidade;
 
@@ -3,6 +3,7 @@ package com.sistemadesaude.backend.recepcao.repository;
 
 import com.sistemadesaude.backend.recepcao.entity.Agendamento;
 import com.sistemadesaude.backend.recepcao.entity.StatusAgendamento;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -117,4 +118,83 @@ public interface AgendamentoRepository extends JpaRepository<Agendamento, Long>
      * Busca agendamento por código de barras
      */
     Optional<Agendamento> findByCodigoBarras(String codigoBarras);
-}
\ No newline at end of file
+
+    // ===================== Agenda (projeções, sem carregar Paciente/LOBs) =====================
+    // Colunas: [0] id, [1] pacienteId, [2] nomeCompleto, [3] nomeSocial, [4] dataNascimento,
+    //          [5] dataHora, [6] dataAgendamento, [7] status, [8] especialidade, [9] observacoes
+
+    /** Agenda de um período (visão do dia), todas as unidades (idx_agendamentos_data_hora_id). */
+    @Query("""
+        SELECT a.id, p.id, p.nomeCompleto, p.nomeSocial, p.dataNascimento,
+               a.dataHora, a.dataAgendamento, a.status, a.especialidade, a.observacoes
+        FROM Agendamento a JOIN a.paciente p
+        WHERE a.dataHora >= :inicio AND a.dataHora < :fim
+        ORDER BY a.dataHora ASC, a.id ASC
+        """)
+    List<Object[]> listarResumoPorPeriodo(@Param("inicio") LocalDateTime inicio,
+                                          @Param("fim") LocalDateTime fim);
+
+    /**
+     * Agenda de um período de uma unidade (idx_agendamentos_unidade_data_hora).
+     * Consulta separada em vez de "(:unidadeId IS NULL OR ...)", que impede o uso do índice em plano genérico.
+     */
+    @Query("""
+        SELECT a.id, p.id, p.nomeCompleto, p.nomeSocial, p.dataNascimento,
+               a.dataHora, a.dataAgendamento, a.status, a.especialidade, a.observacoes
+        FROM Agendamento a JOIN a.paciente p
+        WHERE a.unidadeId = :unidadeId AND a.dataHora >= :inicio AND a.dataHora < :fim
+        ORDER BY a.dataHora ASC, a.id ASC
+        """)
+    List<Object[]> listarResumoPorPeriodoEUnidade(@Param("inicio") LocalDateTime inicio,
+                                                  @Param("fim") LocalDateTime fim,
+                                                  @Param("unidadeId") Long unidadeId);
+
+    /** Histórico do paciente, do mais recente para o mais antigo (idx_agendamentos_paciente_data_hora). */
+    @Query("""
+        SELECT a.id, p.id, p.nomeCompleto, p.nomeSocial, p.dataNascimento,
+               a.dataHora, a.dataAgendamento, a.status, a.especialidade, a.observacoes
+        FROM Agendamento a JOIN a.paciente p
+        WHERE p.id = :pacienteId
+        ORDER BY a.dataHora DESC, a.id DESC
+        """)
+    List<Object[]> listarResumoPorPaciente(@Param("pacienteId") Long pacienteId);
+
+    /**
+     * Página keyset (mais recentes primeiro) a partir da posição (antesDe, antesDeId), exclusiva.
+     * O tamanho da página vem do Pageable (sem OFFSET: sempre página 0).
+     */
+    @Query("""
+        SELECT a.id, p.id, p.nomeCompleto, p.nomeSocial, p.dataNascimento,
+               a.dataHora, a.dataAgendamento, a.status, a.especialidade, a.observacoes
+        FROM Agendamento a JOIN a.paciente p
+        WHERE (a.dataHora < :antesDe OR (a.dataHora = :antesDe AND a.id < :antesDeId))
+        ORDER BY a.dataHora DESC, a.id DESC
+        """)
+    List<Object[]> listarResumoAntesDe(@Param("antesDe") LocalDateTime antesDe,
+                                       @Param("antesDeId") Long antesDeId,
+                                       Pageable pageable);
+
+    /** Mesma página keyset, restrita a uma unidade. */
+    @Query("""
+        SELECT a.id, p.id, p.nomeCompleto, p.nomeSocial, p.dataNascimento,
+               a.dataHora, a.dataAgendamento, a.status, a.especialidade, a.observacoes
+        FROM Agendamento a JOIN a.paciente p
+        WHERE a.unidadeId = :unidadeId
+          AND (a.dataHora < :antesDe OR (a.dataHora = :antesDe AND a.id < :antesDeId))
+        ORDER BY a.dataHora DESC, a.id DESC
+        """)
+    List<Object[]> listarResumoAntesDeEUnidade(@Param("antesDe") LocalDateTime antesDe,
+                                               @Param("antesDeId") Long antesDeId,
+                                               @Param("unidadeId") Long unidadeId,
+                                               Pageable pageable);
+
+    /** Fila da triagem: status informados e ainda sem triagem (idx_agendamentos_aguardando_triagem). */
+    @Query("""
+        SELECT a.id, p.id, p.nomeCompleto, p.nomeSocial, p.dataNascimento,
+               a.dataHora, a.dataAgendamento, a.status, a.especialidade, a.observacoes
+        FROM Agendamento a JOIN a.paciente p
+        WHERE a.status IN :statuses AND a.triagem IS NULL
+        ORDER BY a.dataHora ASC, a.id ASC
+        """)
+    List<Object[]> listarResumoAguardandoTriagem(@Param("statuses") List<StatusAgendamento> statuses);
+}
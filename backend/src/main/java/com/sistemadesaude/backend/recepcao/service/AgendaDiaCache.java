@@ -0,0 +1,53 @@
+package com.sistemadesaude.backend.recepcao.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sistemadesaude.backend.recepcao.dto.AgendamentoDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Cache local (Caffeine) da visão do dia da recepção.
+ *
+ * - A tela da recepção consulta o mesmo dia repetidamente (polling de vários guichês).
+ * - TTL curto: alterações feitas em outra instância (ou por outros módulos, ex.: triagem)
+ *   aparecem, no máximo, após o TTL.
+ * - Criação e mudança de status na própria instância invalidam o dia logo após o commit.
+ */
+@Component
+public class AgendaDiaCache {
+
+    /** Dia + unidade (null = todas as unidades) */
+    private record Chave(LocalDate data, Long unidadeId) { }
+
+    private final Cache<Chave, List<AgendamentoDTO>> cache;
+
+    public AgendaDiaCache(@Value("${app.recepcao.agenda-cache.ttl-segundos:15}") long ttlSegundos,
+                          @Value("${app.recepcao.agenda-cache.tamanho-maximo:500}") long tamanhoMaximo) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .maximumSize(tamanhoMaximo)
+                .recordStats()
+                .build();
+    }
+
+    /** Retorna a agenda do dia, carregando do banco apenas em cache miss. */
+    public List<AgendamentoDTO> obter(LocalDate data, Long unidadeId, Supplier<List<AgendamentoDTO>> carregar) {
+        return cache.get(new Chave(data, unidadeId), k -> List.copyOf(carregar.get()));
+    }
+
+    /** Invalida o dia (todas as unidades). */
+    public void evict(LocalDate data) {
+        if (data == null) return;
+        cache.asMap().keySet().removeIf(k -> k.data().equals(data));
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+}
@@ -1,11 +1,14 @@
 package com.sistemadesaude.backend.recepcao.service;
 
 import com.sistemadesaude.backend.recepcao.dto.AgendamentoExameDTO;
+import com.sistemadesaude.backend.recepcao.dto.DisponibilidadeDiaExameDTO;
 import com.sistemadesaude.backend.recepcao.dto.NovoAgendamentoExameRequest;
+import com.sistemadesaude.backend.recepcao.dto.VagaExameDTO;
 import com.sistemadesaude.backend.recepcao.entity.AgendamentoExame.StatusAgendamentoExame;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 
 /**
@@ -102,6 +105,16 @@ public interface AgendamentoExameService {
      * Verifica disponibilidade de horário
      */
     boolean verificarDisponibilidade(Long horarioExameId, LocalDateTime dataHora);
+
+    /**
+     * Disponibilidade por dia no mês (vagas totais, ocupadas e restantes)
+     */
+    List<DisponibilidadeDiaExameDTO> disponibilidadeMensal(Long unidadeId, YearMonth mes, String exameCodigo, Long profissionalId);
+
+    /**
+     * Slots do dia com a vaga restante de cada um
+     */
+    List<VagaExameDTO> vagasDoDia(Long unidadeId, LocalDate data, String exameCodigo);
     
     /**
      * Gera comprovante PDF
@@ -1,11 +1,14 @@
 package com.sistemadesaude.backend.recepcao.service;
 
 import com.sistemadesaude.backend.recepcao.dto.AgendamentoExameDTO;
+import com.sistemadesaude.backend.recepcao.dto.DisponibilidadeDiaExameDTO;
+import com.sistemadesaude.backend.recepcao.dto.VagaExameDTO;
 import com.sistemadesaude.backend.recepcao.dto.NovoAgendamentoExameRequest;
 import com.sistemadesaude.backend.recepcao.entity.AgendamentoExame;
 import com.sistemadesaude.backend.recepcao.entity.AgendamentoExame.StatusAgendamentoExame;
 import com.sistemadesaude.backend.recepcao.entity.HorarioExame;
 import com.sistemadesaude.backend.recepcao.repository.AgendamentoExameRepository;
+import com.sistemadesaude.backend.recepcao.repository.HorarioExameRepository;
 import com.sistemadesaude.backend.paciente.repository.PacienteRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,11 +17,18 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * Implementação do serviço de agendamento de exames
+ *
+ * Vagas controladas pelo {@link InventarioVagasExameService}: a criação reserva o slot na mesma
+ * transação (sem COUNT + INSERT separados) e as mudanças de status que liberam o horário
+ * (cancelado, não compareceu, reagendado) devolvem a vaga.
  */
 @Slf4j
 @Service
@@ -27,7 +37,14 @@ public class AgendamentoExameServiceImpl implements AgendamentoExameService {
     
     private final AgendamentoExameRepository agendamentoExameRepository;
     private final PacienteRepository pacienteRepository;
-    private final HorarioExameService horarioExameService;
+    private final HorarioExameRepository horarioExameRepository;
+    private final InventarioVagasExameService inventarioVagas;
+
+    /** Status que não ocupam vaga no horário */
+    private static final Set<StatusAgendamentoExame> SEM_VAGA = EnumSet.of(
+            StatusAgendamentoExame.CANCELADO,
+            StatusAgendamentoExame.NAO_COMPARECEU,
+            StatusAgendamentoExame.REAGENDADO);
 
     @Override
     @Transactional
@@ -38,13 +55,12 @@ public class AgendamentoExameServiceImpl implements AgendamentoExameService {
         var paciente = pacienteRepository.findById(request.getPacienteId())
                 .orElseThrow(() -> new IllegalArgumentException("Paciente não encontrado: " + request.getPacienteId()));
         
-        // Validar horário se fornecido
+        // Reservar vaga no horário, se fornecido (UPDATE condicional; desfeito junto com a transação)
         HorarioExame horarioExame = null;
         if (request.getHorarioExameId() != null) {
-            var horarioDTO = horarioExameService.buscarPorId(request.getHorarioExameId());
-            if (!verificarDisponibilidade(request.getHorarioExameId(), request.getDataHoraExame())) {
-                throw new IllegalStateException("Horário não disponível para agendamento");
-            }
+            horarioExame = horarioExameRepository.findById(request.getHorarioExameId())
+                    .orElseThrow(() -> new IllegalArgumentException("Horário não encontrado: " + request.getHorarioExameId()));
+            inventarioVagas.reservar(horarioExame, request.getDataHoraExame(), Boolean.TRUE.equals(request.getEncaixe()));
         }
         
         // Criar agendamento
@@ -52,6 +68,7 @@ public class AgendamentoExameServiceImpl implements AgendamentoExameService {
                 .paciente(paciente)
                 .dataAgendamento(LocalDateTime.now())
                 .dataHoraExame(request.getDataHoraExame())
+                .horarioExame(horarioExame)
                 .profissionalId(request.getProfissionalId())
                 .salaId(request.getSalaId())
                 .unidadeId(request.getUnidadeId())
@@ -203,6 +220,7 @@ public class AgendamentoExameServiceImpl implements AgendamentoExameService {
             throw new IllegalStateException("Agendamento não pode ser cancelado no status atual: " + agendamento.getStatus());
         }
         
+        ajustarVaga(agendamento, StatusAgendamentoExame.CANCELADO);
         agendamento.setStatus(StatusAgendamentoExame.CANCELADO);
         agendamento.setMotivoCancelamento(motivo);
         agendamento.setDataCancelamento(LocalDateTime.now());
@@ -250,6 +268,7 @@ public class AgendamentoExameServiceImpl implements AgendamentoExameService {
         var agendamento = agendamentoExameRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Agendamento não encontrado: " + id));
         
+        ajustarVaga(agendamento, StatusAgendamentoExame.NAO_COMPARECEU);
         agendamento.setStatus(StatusAgendamentoExame.NAO_COMPARECEU);
         agendamento.setUsuarioAtualizacao(usuario);
         
@@ -325,6 +344,7 @@ public class AgendamentoExameServiceImpl implements AgendamentoExameService {
         var agendamento = agendamentoExameRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Agendamento não encontrado: " + id));
         
+        ajustarVaga(agendamento, novoStatus);
         agendamento.setStatus(novoStatus);
         agendamento.setUsuarioAtualizacao(usuario);
         
@@ -366,18 +386,39 @@ public class AgendamentoExameServiceImpl implements AgendamentoExameService {
     @Override
     public boolean verificarDisponibilidade(Long horarioExameId, LocalDateTime dataHora) {
         log.debug("🔍 Verificando disponibilidade para horário ID: {} em {}", horarioExameId, dataHora);
+        return inventarioVagas.disponivel(horarioExameId, dataHora);
+    }
 
-        var horarioExame = horarioExameService.buscarPorId(horarioExameId);
-        
-        // Verificar se o horário está ativo
-        if (!horarioExame.getAtivo()) {
-            return false;
+    @Override
+    public List<DisponibilidadeDiaExameDTO> disponibilidadeMensal(Long unidadeId, YearMonth mes,
+                                                                  String exameCodigo, Long profissionalId) {
+        log.debug("📅 Disponibilidade de exames da unidade {} em {}", unidadeId, mes);
+        return inventarioVagas.disponibilidadeMensal(unidadeId, mes.atDay(1), mes.atEndOfMonth(),
+                exameCodigo, profissionalId);
+    }
+
+    @Override
+    public List<VagaExameDTO> vagasDoDia(Long unidadeId, LocalDate data, String exameCodigo) {
+        log.debug("📅 Vagas de exames da unidade {} em {}", unidadeId, data);
+        return inventarioVagas.vagasDoDia(unidadeId, data, exameCodigo);
+    }
+
+    /**
+     * Reserva ou devolve a vaga do horário quando o novo status muda a ocupação
+     * (chamar antes de alterar o status da entidade).
+     */
+    private void ajustarVaga(AgendamentoExame agendamento, StatusAgendamentoExame novoStatus) {
+        HorarioExame horario = agendamento.getHorarioExame();
+        if (horario == null) return;
+
+        boolean ocupava = !SEM_VAGA.contains(agendamento.getStatus());
+        boolean ocupa = !SEM_VAGA.contains(novoStatus);
+        boolean encaixe = Boolean.TRUE.equals(agendamento.getEncaixe());
+        if (ocupava && !ocupa) {
+            inventarioVagas.liberar(horario.getId(), agendamento.getDataHoraExame(), encaixe);
+        } else if (!ocupava && ocupa) {
+            inventarioVagas.reservar(horario, agendamento.getDataHoraExame(), encaixe);
         }
-        
-        // Verificar quantidade de agendamentos no horário
-        Long agendamentosExistentes = agendamentoExameRepository.countAgendamentosPorHorario(horarioExameId, dataHora);
-        
-        return agendamentosExistentes < horarioExame.getVagasPorHorario();
     }
 
     @Override
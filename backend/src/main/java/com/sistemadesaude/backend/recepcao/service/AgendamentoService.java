@@ -1,7 +1,9 @@
 package com.sistemadesaude.backend.recepcao.service;
 
+import com.sistemadesaude.backend.recepcao.dto.AgendaPaginaDTO;
 import com.sistemadesaude.backend.recepcao.dto.AgendamentoDTO;
 import com.sistemadesaude.backend.recepcao.dto.NovoAgendamentoRequest;
+import com.sistemadesaude.backend.recepcao.entity.StatusAgendamento;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -15,6 +17,9 @@ public interface AgendamentoService {
     // ✅ NOVO MÉTODO SEGURO ADICIONADO NA INTERFACE
     List<AgendamentoDTO> listarPorDataSeguro(LocalDate data);
 
+    /** Agenda do dia, opcionalmente de uma unidade e/ou de alguns status (null/vazio = todos). */
+    List<AgendamentoDTO> listarAgendaDoDia(LocalDate data, Long unidadeId, List<StatusAgendamento> statuses);
+
     AgendamentoDTO buscarPorId(Long id);
 
     // ✅ NOVO MÉTODO COM PDF ADICIONADO NA INTERFACE
@@ -28,6 +33,9 @@ public interface AgendamentoService {
 
     List<AgendamentoDTO> listarTodos();
 
+    /** Agenda paginada por keyset, mais recentes primeiro (cursor null = primeira página). */
+    AgendaPaginaDTO listarPagina(String cursor, Integer limite, Long unidadeId);
+
     List<AgendamentoDTO> listarAguardandoTriagem();
 
     // ✅ MÉTODO PARA GERAR E ARMAZENAR PDF
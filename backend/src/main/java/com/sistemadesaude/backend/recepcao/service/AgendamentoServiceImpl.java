@@ -1,5 +1,6 @@
 package com.sistemadesaude.backend.recepcao.service;
 
+import com.sistemadesaude.backend.config.AposCommit;
 import com.sistemadesaude.backend.exception.ResourceNotFoundException;
 import com.sistemadesaude.backend.exames.dto.GerarSadtRequest;
 import com.sistemadesaude.backend.exames.dto.GerarSadtRequest.ProcedimentoRequest;
@@ -9,6 +10,7 @@ import com.sistemadesaude.backend.paciente.entity.Paciente;
 import com.sistemadesaude.backend.paciente.repository.PacienteRepository;
 import com.sistemadesaude.backend.prontuario.enums.TipoDocumento;
 import com.sistemadesaude.backend.prontuario.service.ProntuarioDocumentoService;
+import com.sistemadesaude.backend.recepcao.dto.AgendaPaginaDTO;
 import com.sistemadesaude.backend.recepcao.dto.AgendamentoDTO;
 import com.sistemadesaude.backend.recepcao.dto.NovoAgendamentoRequest;
 import com.sistemadesaude.backend.recepcao.entity.Agendamento;
@@ -21,10 +23,12 @@ import com.sistemadesaude.backend.service.BarcodeService;
 import com.google.zxing.WriterException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 import java.lang.reflect.Method;
 import java.time.Instant;
@@ -44,7 +48,13 @@ import java.util.Base64;
  *
  * Compatibilidade:
  *  - Alguns ambientes têm o campo de data como "dataHora" e outros como "dataAgendamento" (ambos @NotNull).
- *  - Para evitar 400 "not-null property ...", setamos AMBOS via reflexão, e ao ler/ordenar usamos um getter seguro.
+ *  - Para evitar 400 "not-null property ...", setamos AMBOS via reflexão.
+ *
+ * Listagens (agenda do dia, histórico do paciente, fila da triagem, páginas):
+ *  - filtradas e ordenadas no banco, por índices em (data_hora, id), (unidade_id, data_hora),
+ *    (paciente_id, data_hora) e parcial da fila da triagem;
+ *  - projeção direta para o DTO (sem carregar o grafo de Paciente nem os LOBs do agendamento);
+ *  - visão do dia em cache local de TTL curto ({@link AgendaDiaCache}).
  */
 @Service
 @RequiredArgsConstructor
@@ -59,6 +69,14 @@ public class AgendamentoServiceImpl implements AgendamentoService {
     private final ComprovantePdfService comprovantePdfService;
     private final SadtService sadtService;
     private final BarcodeService barcodeService;
+    private final AgendaDiaCache agendaDiaCache;
+
+    public static final int LIMITE_PAGINA_PADRAO = 50;
+    public static final int LIMITE_PAGINA_MAXIMO = 200;
+
+    /** Status que entram na fila da triagem */
+    private static final List<StatusAgendamento> STATUS_AGUARDANDO_TRIAGEM =
+            List.of(StatusAgendamento.RECEPCIONADO, StatusAgendamento.CONFIRMADO);
 
     // ===================== PRINCIPAIS AÇÕES =====================
 
@@ -95,6 +113,7 @@ public class AgendamentoServiceImpl implements AgendamentoService {
             especialidade = inferEspecialidadeDefault(tipoEnum, request.getTipo());
         }
         agendamento.setEspecialidade(especialidade);
+        agendamento.setUnidadeId(request.getUnidadeId());
 
         // 2.5) Observações
         agendamento.setObservacoes(safeTrim(request.getObservacoes()));
@@ -113,6 +132,7 @@ public class AgendamentoServiceImpl implements AgendamentoService {
         // 3) Salva
         Agendamento salvo = agendamentoRepository.save(agendamento);
         agendamentoRepository.flush(); // ✅ garante ID antes de gerar PDF/SADT (importante com IDENTITY)
+        invalidarDia(dataHora.toLocalDate());
 
         // 4) Retorna DTO primeiro
         AgendamentoDTO resultado = agendamentoMapper.toDTO(salvo);
@@ -172,18 +192,7 @@ public class AgendamentoServiceImpl implements AgendamentoService {
     @Override
     @Transactional(readOnly = true)
     public List<AgendamentoDTO> listarPorData(LocalDate data) {
-        var inicio = data.atStartOfDay();
-        var fim = data.atTime(23, 59, 59);
-
-        // Busca tudo e filtra/ordena usando getter seguro (funciona com dataHora ou dataAgendamento)
-        return agendamentoRepository.findAll().stream()
-                .filter(a -> {
-                    LocalDateTime dt = safeGetData(a);
-                    return dt != null && !dt.isBefore(inicio) && !dt.isAfter(fim);
-                })
-                .sorted(Comparator.comparing(this::safeGetData))
-                .map(agendamentoMapper::toDTO)
-                .collect(Collectors.toList());
+        return listarAgendaDoDia(data, null, null);
     }
 
     @Override
@@ -192,15 +201,27 @@ public class AgendamentoServiceImpl implements AgendamentoService {
         return listarPorData(data);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<AgendamentoDTO> listarAgendaDoDia(LocalDate data, Long unidadeId, List<StatusAgendamento> statuses) {
+        LocalDateTime inicio = data.atStartOfDay();
+        LocalDateTime fim = data.plusDays(1).atStartOfDay();
+        List<AgendamentoDTO> dia = agendaDiaCache.obter(data, unidadeId, () -> paraDTOs(unidadeId == null
+                ? agendamentoRepository.listarResumoPorPeriodo(inicio, fim)
+                : agendamentoRepository.listarResumoPorPeriodoEUnidade(inicio, fim, unidadeId)));
+
+        if (statuses == null || statuses.isEmpty()) {
+            return dia;
+        }
+        // O dia inteiro já está em cache: filtrar por status aqui evita uma entrada por combinação
+        Set<String> nomes = statuses.stream().map(Enum::name).collect(Collectors.toSet());
+        return dia.stream().filter(a -> nomes.contains(a.getStatus())).toList();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<AgendamentoDTO> listarPorPaciente(Long pacienteId) {
-        return agendamentoRepository.findAll().stream()
-                .filter(a -> a.getPaciente() != null && Objects.equals(a.getPaciente().getId(), pacienteId))
-                .sorted(Comparator.comparing(this::safeGetData,
-                        Comparator.nullsLast(Comparator.naturalOrder())).reversed())
-                .map(agendamentoMapper::toDTO)
-                .collect(Collectors.toList());
+        return paraDTOs(agendamentoRepository.listarResumoPorPaciente(pacienteId));
     }
 
     @Override
@@ -219,6 +240,9 @@ public class AgendamentoServiceImpl implements AgendamentoService {
         
         // O save() do JPA irá atualizar o registro existente porque a entidade já tem ID
         Agendamento agendamentoAtualizado = agendamentoRepository.save(ag);
+        if (ag.getDataHora() != null) {
+            invalidarDia(ag.getDataHora().toLocalDate());
+        }
         
         log.info("✅ Status atualizado com sucesso para: {}", agendamentoAtualizado.getStatus());
         
@@ -236,30 +260,42 @@ public class AgendamentoServiceImpl implements AgendamentoService {
     @Override
     @Transactional(readOnly = true)
     public List<AgendamentoDTO> listarTodos() {
-        // Ordena em memória por segurança (funciona com dataHora ou dataAgendamento)
-        return agendamentoRepository.findAll().stream()
-                .sorted(Comparator.comparing(this::safeGetData,
-                        Comparator.nullsLast(Comparator.naturalOrder())).reversed())
-                .map(agendamentoMapper::toDTO)
-                .collect(Collectors.toList());
+        // Contrato legado (lista completa): ao menos sem entidades/LOBs; telas novas usam listarPagina
+        List<AgendamentoDTO> todos = new ArrayList<>();
+        AgendaPaginaDTO pagina = listarPagina(null, LIMITE_PAGINA_MAXIMO, null);
+        todos.addAll(pagina.getItens());
+        while (pagina.getProximoCursor() != null) {
+            pagina = listarPagina(pagina.getProximoCursor(), LIMITE_PAGINA_MAXIMO, null);
+            todos.addAll(pagina.getItens());
+        }
+        return todos;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AgendaPaginaDTO listarPagina(String cursor, Integer limite, Long unidadeId) {
+        int tamanho = limite == null ? LIMITE_PAGINA_PADRAO : Math.max(1, Math.min(limite, LIMITE_PAGINA_MAXIMO));
+        CursorAgenda c = CursorAgenda.decodificar(cursor);
+
+        PageRequest pagina = PageRequest.of(0, tamanho + 1);
+        List<Object[]> linhas = unidadeId == null
+                ? agendamentoRepository.listarResumoAntesDe(c.dataHora(), c.id(), pagina)
+                : agendamentoRepository.listarResumoAntesDeEUnidade(c.dataHora(), c.id(), unidadeId, pagina);
+
+        boolean temMais = linhas.size() > tamanho;
+        List<AgendamentoDTO> itens = paraDTOs(temMais ? linhas.subList(0, tamanho) : linhas);
+        String proximo = null;
+        if (temMais) {
+            AgendamentoDTO ultimo = itens.get(itens.size() - 1);
+            proximo = new CursorAgenda(ultimo.getDataHora(), ultimo.getId()).codificar();
+        }
+        return AgendaPaginaDTO.builder().itens(itens).proximoCursor(proximo).build();
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AgendamentoDTO> listarAguardandoTriagem() {
-        // Ajuste este filtro se sua entidade tiver outro nome para o status/triagem
-        List<StatusAgendamento> statusParaTriagem = List.of(StatusAgendamento.RECEPCIONADO, StatusAgendamento.CONFIRMADO);
-        return agendamentoRepository.findAll().stream()
-                .filter(a -> a.getStatus() != null && statusParaTriagem.contains(a.getStatus()))
-                .filter(a -> {
-                    // Se não existir getTriagem(), esse try/catch ignora
-                    try {
-                        Method m = a.getClass().getMethod("getTriagem");
-                        return m.invoke(a) == null;
-                    } catch (Throwable ignore) { return true; }
-                })
-                .map(agendamentoMapper::toDTO)
-                .collect(Collectors.toList());
+        return paraDTOs(agendamentoRepository.listarResumoAguardandoTriagem(STATUS_AGUARDANDO_TRIAGEM));
     }
 
     @Override
@@ -286,6 +322,63 @@ public class AgendamentoServiceImpl implements AgendamentoService {
 
     // ===================== AUXILIARES =====================
 
+    /** Linhas da projeção do repositório → DTO (mesmas regras do AgendamentoMapper). */
+    private List<AgendamentoDTO> paraDTOs(List<Object[]> linhas) {
+        List<AgendamentoDTO> dtos = new ArrayList<>(linhas.size());
+        for (Object[] r : linhas) {
+            dtos.add(paraDTO(r));
+        }
+        return dtos;
+    }
+
+    private AgendamentoDTO paraDTO(Object[] r) {
+        AgendamentoDTO dto = new AgendamentoDTO();
+        dto.setId(((Number) r[0]).longValue());
+        dto.setPacienteId(r[1] == null ? null : ((Number) r[1]).longValue());
+
+        String nomeCompleto = (String) r[2];
+        String nomeSocial = (String) r[3];
+        String nome = nomeSocial != null && !nomeSocial.trim().isEmpty() ? nomeSocial : nomeCompleto;
+        dto.setPacienteNome(nome != null ? nome : "Paciente não informado");
+        dto.setPacienteDataNascimento(r[4] instanceof LocalDate nasc ? nasc.atStartOfDay() : null);
+
+        LocalDateTime dataHora = (LocalDateTime) r[5];
+        LocalDateTime dataAgendamento = (LocalDateTime) r[6];
+        dto.setDataHora(dataHora != null ? dataHora : dataAgendamento);
+        dto.setDataAgendamento(dataAgendamento);
+        dto.setStatus(r[7] == null ? null : ((StatusAgendamento) r[7]).name());
+
+        String especialidade = (String) r[8];
+        dto.setEspecialidade(especialidade != null && !especialidade.trim().isEmpty() ? especialidade : "GERAL");
+
+        String observacoes = (String) r[9];
+        dto.setObservacoes(observacoes);
+        dto.setExamesSelecionados(agendamentoMapper.stringToList(observacoes));
+        return dto;
+    }
+
+    /** Posição (dataHora, id) do último agendamento entregue; início = depois de tudo. */
+    private record CursorAgenda(LocalDateTime dataHora, long id) {
+
+        static final CursorAgenda INICIO = new CursorAgenda(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+        String codificar() {
+            String bruto = dataHora + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static CursorAgenda decodificar(String cursor) {
+            if (cursor == null || cursor.isBlank()) return INICIO;
+            try {
+                String bruto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] p = bruto.split("\\|", 2);
+                return new CursorAgenda(LocalDateTime.parse(p[0]), Long.parseLong(p[1]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Cursor da agenda inválido");
+            }
+        }
+    }
+
     /** Converte a data/hora do request. Aceita: getDataHoraConvertida(); ISO com 'Z'; ISO sem 'Z'. */
     private LocalDateTime resolverDataHora(NovoAgendamentoRequest req) {
         try {
@@ -505,6 +598,14 @@ public class AgendamentoServiceImpl implements AgendamentoService {
         }
     }
 
+    /**
+     * Invalida a agenda do dia só depois do commit: invalidando antes, um listarPagina concorrente
+     * ainda leria o estado anterior e o colocaria de volta no cache por um TTL inteiro.
+     */
+    private void invalidarDia(LocalDate data) {
+        AposCommit.executar(() -> agendaDiaCache.evict(data));
+    }
+
     private String safeUpper(String s) { return (s == null) ? null : s.trim().toUpperCase(); }
     private String safeTrim(String s)   { return (s == null) ? ""   : s.trim(); }
 
@@ -521,19 +622,4 @@ public class AgendamentoServiceImpl implements AgendamentoService {
             m.invoke(ag, dt);
         } catch (Throwable ignored) {}
     }
-
-    /** Obtém a data do agendamento por reflexão: getDataHora() ou getDataAgendamento(). */
-    private LocalDateTime safeGetData(Agendamento ag) {
-        try {
-            Method m = ag.getClass().getMethod("getDataHora");
-            Object v = m.invoke(ag);
-            if (v instanceof LocalDateTime) return (LocalDateTime) v;
-        } catch (Throwable ignored) {}
-        try {
-            Method m = ag.getClass().getMethod("getDataAgendamento");
-            Object v = m.invoke(ag);
-            if (v instanceof LocalDateTime) return (LocalDateTime) v;
-        } catch (Throwable ignored) {}
-        return null;
-    }
 }
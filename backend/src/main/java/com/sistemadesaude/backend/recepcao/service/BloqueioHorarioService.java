@@ -21,6 +21,7 @@ public class BloqueioHorarioService {
 
     private final BloqueioHorarioRepository bloqueioHorarioRepository;
     private final BloqueioHorarioMapper bloqueioHorarioMapper;
+    private final InventarioVagasExameService inventarioVagas;
 
     @Transactional(readOnly = true)
     public List<BloqueioHorarioDTO> listarTodos() {
@@ -76,7 +77,8 @@ public class BloqueioHorarioService {
             throw new IllegalArgumentException("Data de fim não pode ser anterior à data de início");
         }
 
-        bloqueio = bloqueioHorarioRepository.save(bloqueio);
+        bloqueio = bloqueioHorarioRepository.saveAndFlush(bloqueio);
+        reaplicar(bloqueio.getUnidadeId(), bloqueio.getDataInicio(), bloqueio.getDataFim());
         log.info("Bloqueio criado com ID: {}", bloqueio.getId());
 
         return bloqueioHorarioMapper.toDTO(bloqueio);
@@ -89,6 +91,10 @@ public class BloqueioHorarioService {
         BloqueioHorario bloqueio = bloqueioHorarioRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Bloqueio não encontrado: " + id));
 
+        Long unidadeAnterior = bloqueio.getUnidadeId();
+        LocalDate inicioAnterior = bloqueio.getDataInicio();
+        LocalDate fimAnterior = bloqueio.getDataFim();
+
         bloqueioHorarioMapper.updateEntityFromDTO(dto, bloqueio);
 
         if (bloqueio.getDataInicio() == null) {
@@ -99,7 +105,10 @@ public class BloqueioHorarioService {
             throw new IllegalArgumentException("Data de fim não pode ser anterior à data de início");
         }
 
-        bloqueio = bloqueioHorarioRepository.save(bloqueio);
+        bloqueio = bloqueioHorarioRepository.saveAndFlush(bloqueio);
+        // Período/unidade antigos deixam de ser bloqueados; os novos passam a ser
+        reaplicar(unidadeAnterior, inicioAnterior, fimAnterior);
+        reaplicar(bloqueio.getUnidadeId(), bloqueio.getDataInicio(), bloqueio.getDataFim());
         log.info("Bloqueio {} atualizado", id);
 
         return bloqueioHorarioMapper.toDTO(bloqueio);
@@ -113,8 +122,15 @@ public class BloqueioHorarioService {
                 .orElseThrow(() -> new ResourceNotFoundException("Bloqueio não encontrado: " + id));
 
         bloqueio.setAtivo(false);
-        bloqueioHorarioRepository.save(bloqueio);
+        bloqueioHorarioRepository.saveAndFlush(bloqueio);
+        reaplicar(bloqueio.getUnidadeId(), bloqueio.getDataInicio(), bloqueio.getDataFim());
 
         log.info("Bloqueio {} inativado", id);
     }
-}
\ No newline at end of file
+
+    /** Recalcula o flag de bloqueio dos slots de exame afetados (data_fim null = sem limite). */
+    private void reaplicar(Long unidadeId, LocalDate inicio, LocalDate fim) {
+        if (unidadeId == null) return;
+        inventarioVagas.recalcularBloqueios(unidadeId, inicio, fim);
+    }
+}
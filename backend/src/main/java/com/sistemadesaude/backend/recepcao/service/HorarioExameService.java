@@ -22,6 +22,7 @@ public class HorarioExameService {
 
     private final HorarioExameRepository horarioExameRepository;
     private final HorarioExameMapper horarioExameMapper;
+    private final InventarioVagasExameService inventarioVagas;
 
     @Transactional(readOnly = true)
     public List<HorarioExameDTO> listarTodos() {
@@ -74,7 +75,8 @@ public class HorarioExameService {
             throw new IllegalArgumentException("Horário inválido: verifique os campos obrigatórios");
         }
 
-        horario = horarioExameRepository.save(horario);
+        horario = horarioExameRepository.saveAndFlush(horario);
+        inventarioVagas.recalcularHorario(horario.getId());
         log.info("Horário criado com ID: {}", horario.getId());
 
         return horarioExameMapper.toDTO(horario);
@@ -93,7 +95,8 @@ public class HorarioExameService {
             throw new IllegalArgumentException("Horário inválido: verifique os campos obrigatórios");
         }
 
-        horario = horarioExameRepository.save(horario);
+        horario = horarioExameRepository.saveAndFlush(horario);
+        inventarioVagas.recalcularHorario(id);
         log.info("Horário {} atualizado", id);
 
         return horarioExameMapper.toDTO(horario);
@@ -107,7 +110,8 @@ public class HorarioExameService {
                 .orElseThrow(() -> new ResourceNotFoundException("Horário não encontrado: " + id));
 
         horario.setAtivo(false);
-        horarioExameRepository.save(horario);
+        horarioExameRepository.saveAndFlush(horario);
+        inventarioVagas.recalcularHorario(id);
 
         log.info("Horário {} inativado", id);
     }
@@ -120,7 +124,8 @@ public class HorarioExameService {
                 .orElseThrow(() -> new ResourceNotFoundException("Horário não encontrado: " + id));
 
         horario.setAtivo(true);
-        horarioExameRepository.save(horario);
+        horarioExameRepository.saveAndFlush(horario);
+        inventarioVagas.recalcularHorario(id);
 
         log.info("Horário {} ativado", id);
     }
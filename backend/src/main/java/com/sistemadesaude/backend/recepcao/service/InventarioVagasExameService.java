@@ -0,0 +1,373 @@
+package com.sistemadesaude.backend.recepcao.service;
+
+import com.sistemadesaude.backend.recepcao.dto.DisponibilidadeDiaExameDTO;
+import com.sistemadesaude.backend.recepcao.dto.VagaExameDTO;
+import com.sistemadesaude.backend.recepcao.entity.HorarioExame;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inventário de vagas de exame: horários-modelo (horarios_exames) + bloqueios (bloqueios_horarios)
+ * materializados em slots por dia (exame_vagas_slot) com capacidade e ocupação.
+ *
+ * - Reserva: UPDATE condicional (ocupadas < capacidade, não bloqueado); 0 linhas = sem vaga.
+ *   Roda na transação do agendamento: duas reservas concorrentes no mesmo slot nunca passam
+ *   da capacidade, e a vaga volta se o agendamento não for gravado.
+ * - Grade: gerada até app.recepcao.vagas-exame.horizonte-dias à frente por uma thread própria
+ *   (na subida e a cada intervalo); datas além do horizonte são geradas sob demanda.
+ * - Alterar um horário-modelo regera a grade dele; alterar um bloqueio recalcula só o flag
+ *   "bloqueado" da unidade no período. Slots com agendamento nunca são apagados: se saírem da
+ *   grade ficam com capacidade 0 (sem novas reservas).
+ * - Visão mensal: um SELECT agregado por dia em exame_vagas_slot.
+ */
+@Slf4j
+@Service
+public class InventarioVagasExameService {
+
+    /**
+     * Bloqueio ativo cobrindo o slot. %1$s = alias com data/hora do slot; %2$s = alias com
+     * unidade/profissional/sala/intervalo do horário-modelo. Bloqueio sem profissional/sala vale
+     * para a unidade inteira; sem hora (ou dia inteiro) vale para o dia todo.
+     */
+    private static final String EXPR_BLOQUEADO = """
+            EXISTS (SELECT 1 FROM bloqueios_horarios b
+                     WHERE b.unidade_id = %2$s.unidade_id
+                       AND COALESCE(b.ativo, TRUE)
+                       AND (b.profissional_id IS NULL OR b.profissional_id = %2$s.profissional_id)
+                       AND (b.sala_id IS NULL OR b.sala_id = %2$s.sala_id)
+                       AND b.data_inicio <= %1$s.data
+                       AND (b.data_fim IS NULL OR b.data_fim >= %1$s.data)
+                       AND (COALESCE(b.dia_inteiro, FALSE) OR b.hora_inicio IS NULL OR b.hora_fim IS NULL
+                            OR (%1$s.hora < b.hora_fim
+                                AND %1$s.hora + make_interval(mins => %2$s.intervalo_minutos) > b.hora_inicio)))
+            """;
+
+    /** Grade dos horários-modelo ativos no período; %s = filtro dos modelos (alias h). */
+    private static final String SQL_GRADE = """
+            WITH grade AS (
+                SELECT h.id AS horario_exame_id,
+                       CAST(d.dia AS date) AS data,
+                       CAST(h.hora_inicio + make_interval(mins => i.n * h.intervalo_minutos) AS time) AS hora,
+                       h.unidade_id, h.profissional_id, h.sala_id, h.intervalo_minutos,
+                       h.vagas_por_horario AS capacidade
+                  FROM horarios_exames h
+                 CROSS JOIN generate_series(CAST(? AS timestamp), CAST(? AS timestamp), interval '1 day') AS d(dia)
+                 CROSS JOIN LATERAL generate_series(0,
+                       CAST(extract(epoch FROM (h.hora_fim - h.hora_inicio)) AS integer) / 60 / h.intervalo_minutos - 1) AS i(n)
+                 WHERE COALESCE(h.ativo, TRUE)
+                   AND h.dia_semana = to_char(d.dia, 'FMDAY')
+                   AND %s
+            )
+            INSERT INTO exame_vagas_slot (horario_exame_id, data, hora, unidade_id, capacidade, bloqueado)
+            SELECT g.horario_exame_id, g.data, g.hora, g.unidade_id, g.capacidade, %s
+              FROM grade g
+            ON CONFLICT (horario_exame_id, data, hora) DO %s
+            """;
+
+    private static final String CONFLITO_MANTER = "NOTHING";
+
+    private static final String CONFLITO_ATUALIZAR =
+            "UPDATE SET capacidade = EXCLUDED.capacidade, bloqueado = EXCLUDED.bloqueado, unidade_id = EXCLUDED.unidade_id";
+
+    private static final String SQL_RESERVAR =
+            "UPDATE exame_vagas_slot SET ocupadas = ocupadas + 1 " +
+            "WHERE horario_exame_id = ? AND data = ? AND hora = ? AND NOT bloqueado AND ocupadas < capacidade";
+
+    private static final String SQL_RESERVAR_ENCAIXE =
+            "UPDATE exame_vagas_slot SET encaixes = encaixes + 1 " +
+            "WHERE horario_exame_id = ? AND data = ? AND hora = ? AND NOT bloqueado AND capacidade > 0";
+
+    private static final String SQL_LIBERAR =
+            "UPDATE exame_vagas_slot SET ocupadas = ocupadas - 1 " +
+            "WHERE horario_exame_id = ? AND data = ? AND hora = ? AND ocupadas > 0";
+
+    private static final String SQL_LIBERAR_ENCAIXE =
+            "UPDATE exame_vagas_slot SET encaixes = encaixes - 1 " +
+            "WHERE horario_exame_id = ? AND data = ? AND hora = ? AND encaixes > 0";
+
+    private static final String SQL_DISPONIVEL =
+            "SELECT NOT bloqueado AND ocupadas < capacidade FROM exame_vagas_slot " +
+            "WHERE horario_exame_id = ? AND data = ? AND hora = ?";
+
+    private static final String SQL_MENSAL = """
+            SELECT s.data,
+                   COALESCE(sum(s.capacidade) FILTER (WHERE NOT s.bloqueado), 0)                       AS vagas_totais,
+                   sum(s.ocupadas)                                                                     AS ocupadas,
+                   COALESCE(sum(GREATEST(s.capacidade - s.ocupadas, 0)) FILTER (WHERE NOT s.bloqueado), 0) AS restantes,
+                   sum(s.encaixes)                                                                     AS encaixes,
+                   count(*) FILTER (WHERE NOT s.bloqueado AND s.ocupadas < s.capacidade)               AS horarios_livres,
+                   bool_and(s.bloqueado OR s.capacidade = 0)                                           AS bloqueado
+              FROM exame_vagas_slot s
+              JOIN horarios_exames h ON h.id = s.horario_exame_id
+             WHERE s.unidade_id = ? AND s.data BETWEEN ? AND ?
+            """;
+
+    private static final String SQL_DIA = """
+            SELECT s.horario_exame_id, s.data, s.hora, h.profissional_id, h.sala_id, h.exame_codigo,
+                   s.capacidade, s.ocupadas, s.encaixes, s.bloqueado, COALESCE(h.permite_encaixe, FALSE)
+              FROM exame_vagas_slot s
+              JOIN horarios_exames h ON h.id = s.horario_exame_id
+             WHERE s.unidade_id = ? AND s.data = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int horizonteDias;
+    private final long intervaloHoras;
+    private final Counter reservas;
+    private final Counter recusadas;
+
+    /** Última data garantidamente materializada por esta instância (null até a primeira geração) */
+    private volatile LocalDate materializadoAte;
+
+    private ScheduledExecutorService executor;
+
+    public InventarioVagasExameService(JdbcTemplate jdbcTemplate,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.recepcao.vagas-exame.horizonte-dias:120}") int horizonteDias,
+                                       @Value("${app.recepcao.vagas-exame.intervalo-horas:6}") long intervaloHoras) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.horizonteDias = horizonteDias;
+        this.intervaloHoras = intervaloHoras;
+        this.reservas = Counter.builder("recepcao.vagas.exame.reservas")
+                .tag("resultado", "ok").register(meterRegistry);
+        this.recusadas = Counter.builder("recepcao.vagas.exame.reservas")
+                .tag("resultado", "sem_vaga").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "recepcao-vagas-exame");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::materializarHorizonteSeguro, 0, intervaloHoras, TimeUnit.HOURS);
+        log.info("📅 Inventário de vagas de exame: grade de {} dias, regerada a cada {}h", horizonteDias, intervaloHoras);
+    }
+
+    @PreDestroy
+    void parar() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void materializarHorizonteSeguro() {
+        try {
+            LocalDate hoje = LocalDate.now();
+            LocalDate ate = hoje.plusDays(horizonteDias);
+            int criados = materializar("TRUE", hoje, ate, CONFLITO_MANTER);
+            materializadoAte = ate;
+            log.debug("📅 Grade de vagas de exame gerada até {} ({} slots novos)", ate, criados);
+        } catch (Exception e) {
+            log.warn("⚠️ Falha ao gerar a grade de vagas de exame: {}", e.getMessage());
+        }
+    }
+
+    // ========== Reserva ==========
+
+    /**
+     * Reserva uma vaga no slot (horário-modelo + data/hora do exame), na transação do chamador.
+     * Encaixe só em horários que permitem; não consome vaga, mas respeita bloqueios.
+     * @throws IllegalStateException se o slot não existir, estiver bloqueado ou sem vaga
+     */
+    @Transactional
+    public void reservar(HorarioExame horario, LocalDateTime dataHora, boolean encaixe) {
+        if (encaixe && !Boolean.TRUE.equals(horario.getPermiteEncaixe())) {
+            throw new IllegalStateException("Horário não permite encaixe");
+        }
+        String sql = encaixe ? SQL_RESERVAR_ENCAIXE : SQL_RESERVAR;
+        Object[] chave = chave(horario.getId(), dataHora);
+
+        boolean ok = jdbcTemplate.update(sql, chave) == 1;
+        if (!ok) {
+            // Data além da grade já gerada: gera o dia do modelo e tenta uma vez mais
+            LocalDate data = dataHora.toLocalDate();
+            materializar("h.id = " + horario.getId(), data, data, CONFLITO_MANTER);
+            ok = jdbcTemplate.update(sql, chave) == 1;
+        }
+        if (!ok) {
+            recusadas.increment();
+            throw new IllegalStateException("Horário não disponível para agendamento");
+        }
+        reservas.increment();
+    }
+
+    /** Devolve a vaga (ou o encaixe) ocupada por um agendamento. */
+    @Transactional
+    public void liberar(Long horarioExameId, LocalDateTime dataHora, boolean encaixe) {
+        jdbcTemplate.update(encaixe ? SQL_LIBERAR_ENCAIXE : SQL_LIBERAR, chave(horarioExameId, dataHora));
+    }
+
+    /** Há vaga no slot? (false também para slot inexistente, bloqueado ou modelo inativo) */
+    public boolean disponivel(Long horarioExameId, LocalDateTime dataHora) {
+        Object[] chave = chave(horarioExameId, dataHora);
+        List<Boolean> r = jdbcTemplate.queryForList(SQL_DISPONIVEL, Boolean.class, chave);
+        if (r.isEmpty()) {
+            LocalDate data = dataHora.toLocalDate();
+            materializar("h.id = " + horarioExameId, data, data, CONFLITO_MANTER);
+            r = jdbcTemplate.queryForList(SQL_DISPONIVEL, Boolean.class, chave);
+        }
+        return !r.isEmpty() && Boolean.TRUE.equals(r.get(0));
+    }
+
+    // ========== Consultas ==========
+
+    /**
+     * Disponibilidade por dia no período (visão mensal), em um único SELECT agregado.
+     * Dias sem nenhum horário-modelo não aparecem.
+     */
+    public List<DisponibilidadeDiaExameDTO> disponibilidadeMensal(Long unidadeId, LocalDate inicio, LocalDate fim,
+                                                                  String exameCodigo, Long profissionalId) {
+        garantirMaterializado(unidadeId, inicio, fim);
+
+        StringBuilder sql = new StringBuilder(SQL_MENSAL);
+        List<Object> args = new ArrayList<>(List.of(unidadeId, Date.valueOf(inicio), Date.valueOf(fim)));
+        if (exameCodigo != null && !exameCodigo.isBlank()) {
+            sql.append(" AND h.exame_codigo = ?");
+            args.add(exameCodigo.trim());
+        }
+        if (profissionalId != null) {
+            sql.append(" AND h.profissional_id = ?");
+            args.add(profissionalId);
+        }
+        sql.append(" GROUP BY s.data ORDER BY s.data");
+
+        return jdbcTemplate.query(sql.toString(), (rs, i) -> DisponibilidadeDiaExameDTO.builder()
+                .data(rs.getDate(1).toLocalDate())
+                .vagasTotais(rs.getInt(2))
+                .vagasOcupadas(rs.getInt(3))
+                .vagasRestantes(rs.getInt(4))
+                .encaixes(rs.getInt(5))
+                .horariosLivres(rs.getInt(6))
+                .bloqueado(rs.getBoolean(7))
+                .build(), args.toArray());
+    }
+
+    /** Slots do dia com a vaga restante (substitui horários do dia + bloqueios consultados à parte). */
+    public List<VagaExameDTO> vagasDoDia(Long unidadeId, LocalDate data, String exameCodigo) {
+        garantirMaterializado(unidadeId, data, data);
+
+        StringBuilder sql = new StringBuilder(SQL_DIA);
+        List<Object> args = new ArrayList<>(List.of(unidadeId, Date.valueOf(data)));
+        if (exameCodigo != null && !exameCodigo.isBlank()) {
+            sql.append(" AND h.exame_codigo = ?");
+            args.add(exameCodigo.trim());
+        }
+        sql.append(" ORDER BY s.hora, s.horario_exame_id");
+
+        return jdbcTemplate.query(sql.toString(), (rs, i) -> {
+            int capacidade = rs.getInt(7);
+            int ocupadas = rs.getInt(8);
+            boolean bloqueado = rs.getBoolean(10);
+            return VagaExameDTO.builder()
+                    .horarioExameId(rs.getLong(1))
+                    .data(rs.getDate(2).toLocalDate())
+                    .hora(rs.getTime(3).toLocalTime())
+                    .profissionalId((Long) rs.getObject(4))
+                    .salaId((Long) rs.getObject(5))
+                    .exameCodigo(rs.getString(6))
+                    .capacidade(capacidade)
+                    .ocupadas(ocupadas)
+                    .restantes(bloqueado ? 0 : Math.max(capacidade - ocupadas, 0))
+                    .encaixes(rs.getInt(9))
+                    .bloqueado(bloqueado)
+                    .permiteEncaixe(rs.getBoolean(11))
+                    .build();
+        }, args.toArray());
+    }
+
+    // ========== Manutenção da grade ==========
+
+    /**
+     * Regera a grade futura de um horário-modelo após criar/alterar/inativar/ativar.
+     * Chamar depois do flush da entidade, na mesma transação.
+     */
+    @Transactional
+    public void recalcularHorario(Long horarioExameId) {
+        LocalDate hoje = LocalDate.now();
+        LocalDate ultimo = jdbcTemplate.queryForObject(
+                "SELECT max(data) FROM exame_vagas_slot WHERE horario_exame_id = ?", LocalDate.class, horarioExameId);
+        LocalDate ate = hoje.plusDays(horizonteDias);
+        if (ultimo != null && ultimo.isAfter(ate)) {
+            ate = ultimo;
+        }
+
+        // Slots livres saem; os ocupados ficam sem capacidade até a grade nova dizer o contrário
+        jdbcTemplate.update("DELETE FROM exame_vagas_slot WHERE horario_exame_id = ? AND data >= ? " +
+                "AND ocupadas = 0 AND encaixes = 0", horarioExameId, Date.valueOf(hoje));
+        jdbcTemplate.update("UPDATE exame_vagas_slot s SET capacidade = 0, unidade_id = h.unidade_id " +
+                "FROM horarios_exames h WHERE h.id = s.horario_exame_id AND s.horario_exame_id = ? AND s.data >= ?",
+                horarioExameId, Date.valueOf(hoje));
+        int slots = materializar("h.id = " + horarioExameId, hoje, ate, CONFLITO_ATUALIZAR);
+        log.info("📅 Grade do horário de exame {} regerada: {} slots até {}", horarioExameId, slots, ate);
+    }
+
+    /**
+     * Recalcula o flag "bloqueado" dos slots futuros da unidade no período (fim null = sem limite)
+     * após criar/alterar/inativar um bloqueio. Chamar depois do flush, na mesma transação.
+     */
+    @Transactional
+    public void recalcularBloqueios(Long unidadeId, LocalDate inicio, LocalDate fim) {
+        LocalDate hoje = LocalDate.now();
+        LocalDate de = inicio == null || inicio.isBefore(hoje) ? hoje : inicio;
+        if (fim != null && fim.isBefore(de)) return;
+
+        String expr = String.format(EXPR_BLOQUEADO, "s", "h");
+        StringBuilder sql = new StringBuilder()
+                .append("UPDATE exame_vagas_slot s SET bloqueado = ").append(expr)
+                .append(" FROM horarios_exames h WHERE h.id = s.horario_exame_id")
+                .append(" AND s.unidade_id = ? AND s.data >= ?")
+                .append(" AND s.bloqueado <> ").append(expr);
+        List<Object> args = new ArrayList<>(List.of(unidadeId, Date.valueOf(de)));
+        if (fim != null) {
+            sql.append(" AND s.data <= ?");
+            args.add(Date.valueOf(fim));
+        }
+        int alterados = jdbcTemplate.update(sql.toString(), args.toArray());
+        log.info("🔒 Bloqueios da unidade {} reaplicados a partir de {}: {} slots alterados", unidadeId, de, alterados);
+    }
+
+    /** Datas além do que a grade de fundo já cobre são geradas antes da consulta. */
+    private void garantirMaterializado(Long unidadeId, LocalDate inicio, LocalDate fim) {
+        LocalDate hoje = LocalDate.now();
+        LocalDate ate = materializadoAte;
+        if (fim.isBefore(hoje) || (ate != null && !fim.isAfter(ate))) return;
+
+        LocalDate de = inicio.isBefore(hoje) ? hoje : inicio;
+        if (ate != null && !ate.isBefore(de)) {
+            de = ate.plusDays(1);
+        }
+        materializar("h.unidade_id = " + unidadeId, de, fim, CONFLITO_MANTER);
+    }
+
+    /**
+     * Insere a grade dos modelos que atendem o filtro (alias h; só valores numéricos do sistema)
+     * entre as datas, com o bloqueio já aplicado.
+     */
+    private int materializar(String filtroHorarios, LocalDate inicio, LocalDate fim, String conflito) {
+        String sql = String.format(SQL_GRADE, filtroHorarios, String.format(EXPR_BLOQUEADO, "g", "g"), conflito);
+        return jdbcTemplate.update(sql, Date.valueOf(inicio), Date.valueOf(fim));
+    }
+
+    private static Object[] chave(Long horarioExameId, LocalDateTime dataHora) {
+        return new Object[]{horarioExameId, Date.valueOf(dataHora.toLocalDate()), Time.valueOf(dataHora.toLocalTime())};
+    }
+}
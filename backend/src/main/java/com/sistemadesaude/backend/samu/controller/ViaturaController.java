@@ -267,6 +267,30 @@ public class ViaturaController {
         }
     }
 
+    @PutMapping("/{id}/localizacao")
+    @PreAuthorize("hasRole('SAMU_OPERADOR') or hasRole('SAMU_REGULADOR') or hasRole('ADMIN') or hasRole('ADMINISTRADOR_DO_SISTEMA')")
+    public ResponseEntity<ApiResponse<Void>> atualizarLocalizacao(
+            @PathVariable Long id,
+            @RequestParam Double latitude,
+            @RequestParam Double longitude) {
+        try {
+            viaturaService.registrarLocalizacao(id, latitude, longitude);
+
+            ApiResponse<Void> response = new ApiResponse<>();
+            response.setSuccess(true);
+            response.setMessage("Localização registrada");
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            log.error("Erro ao registrar localização da viatura: {}", id, e);
+            ApiResponse<Void> errorResponse = new ApiResponse<>();
+            errorResponse.setSuccess(false);
+            errorResponse.setMessage("Erro ao registrar localização: " + e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
     @DeleteMapping("/{id}/inativar")
     @PreAuthorize("hasRole('ADMIN') or hasRole('ADMINISTRADOR_DO_SISTEMA')")
     public ResponseEntity<ApiResponse<Void>> inativar(@PathVariable Long id) {
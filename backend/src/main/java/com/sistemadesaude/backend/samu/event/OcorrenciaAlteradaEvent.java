@@ -0,0 +1,18 @@
+package com.sistemadesaude.backend.samu.event;
+
+import com.sistemadesaude.backend.samu.enums.PrioridadeOcorrencia;
+import com.sistemadesaude.backend.samu.enums.StatusOcorrencia;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento publicado quando uma ocorrência é criada ou muda de status.
+ * statusAnterior == null indica ocorrência nova.
+ * Consumido após o commit pelo {@link com.sistemadesaude.backend.samu.service.SamuContadoresService}.
+ */
+public record OcorrenciaAlteradaEvent(Long ocorrenciaId,
+                                      LocalDateTime dataAbertura,
+                                      PrioridadeOcorrencia prioridade,
+                                      StatusOcorrencia statusAnterior,
+                                      StatusOcorrencia statusNovo) {
+}
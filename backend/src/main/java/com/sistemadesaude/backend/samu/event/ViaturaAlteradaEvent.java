@@ -0,0 +1,15 @@
+package com.sistemadesaude.backend.samu.event;
+
+import com.sistemadesaude.backend.samu.enums.StatusViatura;
+
+/**
+ * Evento publicado quando uma viatura é criada, removida ou muda de status/ativação.
+ * statusAnterior == null indica viatura nova; statusNovo == null indica viatura removida.
+ * Consumido após o commit pelo {@link com.sistemadesaude.backend.samu.service.SamuContadoresService}.
+ */
+public record ViaturaAlteradaEvent(Long viaturaId,
+                                   boolean ativaAnterior,
+                                   StatusViatura statusAnterior,
+                                   boolean ativaNova,
+                                   StatusViatura statusNovo) {
+}
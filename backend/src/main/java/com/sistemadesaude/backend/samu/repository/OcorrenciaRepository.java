@@ -144,6 +144,22 @@ public interface OcorrenciaRepository extends JpaRepository<Ocorrencia, Long> {
     List<Object[]> contarOcorrenciasPorPrioridade(@Param("inicio") LocalDateTime inicio,
                                                   @Param("fim") LocalDateTime fim);
 
+    @Query("SELECT COUNT(o) FROM Ocorrencia o WHERE o.status IN :statuses")
+    Long countByStatusIn(@Param("statuses") List<StatusOcorrencia> statuses);
+
+    /**
+     * Ocorrências por hora nas últimas 24h em uma única consulta.
+     * Linhas: [índice da hora (0 = última hora até :agora), quantidade]
+     */
+    @Query(value = "SELECT CAST(FLOOR(EXTRACT(EPOCH FROM (CAST(:agora AS timestamp) - o.data_abertura)) / 3600) AS integer) AS idx, " +
+            "COUNT(*) AS quantidade " +
+            "FROM samu_ocorrencia o " +
+            "WHERE o.data_abertura > CAST(:agora AS timestamp) - INTERVAL '24 hours' " +
+            "AND o.data_abertura <= CAST(:agora AS timestamp) " +
+            "GROUP BY idx",
+            nativeQuery = true)
+    List<Object[]> contarOcorrenciasPorHoraUltimas24h(@Param("agora") LocalDateTime agora);
+
     @Query("SELECT cr.nome, COUNT(o) FROM Ocorrencia o JOIN o.centralRegulacao cr WHERE o.dataAbertura BETWEEN :inicio AND :fim GROUP BY cr.nome")
     List<Object[]> contarOcorrenciasPorCentral(@Param("inicio") LocalDateTime inicio,
                                                @Param("fim") LocalDateTime fim);
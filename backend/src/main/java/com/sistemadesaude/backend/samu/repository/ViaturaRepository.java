@@ -5,6 +5,7 @@ import com.sistemadesaude.backend.samu.enums.StatusViatura;
 import com.sistemadesaude.backend.samu.enums.TipoViatura;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -61,4 +62,18 @@ public interface ViaturaRepository extends JpaRepository<Viatura, Long> {
      */
     @Query("SELECT COUNT(v) FROM Viatura v WHERE v.status IN ('A_CAMINHO', 'NO_LOCAL', 'TRANSPORTANDO') AND v.ativa = true")
     Long countEmOperacao();
+
+    /**
+     * Contagem agregada por (ativa, status) em um único round-trip
+     * Linhas: [Boolean ativa, StatusViatura status, Long quantidade]
+     */
+    @Query("SELECT v.ativa, v.status, COUNT(v) FROM Viatura v GROUP BY v.ativa, v.status")
+    List<Object[]> contarPorAtivaEStatus();
+
+    /**
+     * Id da viatura e da central de regulação da sua base (consulta leve para o GPS)
+     * Linhas: [Long viaturaId, Long centralId (pode ser null)]
+     */
+    @Query("SELECT v.id, c.id FROM Viatura v LEFT JOIN v.base b LEFT JOIN b.centralRegulacao c WHERE v.id = :id")
+    List<Object[]> findIdECentralRegulacao(@Param("id") Long id);
 }
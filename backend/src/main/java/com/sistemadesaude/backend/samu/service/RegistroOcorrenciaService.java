@@ -10,6 +10,7 @@ import com.sistemadesaude.backend.samu.dto.PacienteOcorrenciaDTO;
 import com.sistemadesaude.backend.samu.enums.StatusOcorrencia;
 import com.sistemadesaude.backend.samu.enums.TipoEvento;
 import com.sistemadesaude.backend.samu.enums.PrioridadeOcorrencia;
+import com.sistemadesaude.backend.samu.event.OcorrenciaAlteradaEvent;
 import com.sistemadesaude.backend.samu.repository.OcorrenciaRepository;
 import com.sistemadesaude.backend.samu.repository.CentralRegulacaoRepository;
 import com.sistemadesaude.backend.operador.repository.OperadorRepository;
@@ -17,6 +18,7 @@ import com.sistemadesaude.backend.samu.mapper.OcorrenciaMapper;
 import com.sistemadesaude.backend.samu.websocket.SamuWebSocketService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -41,6 +43,7 @@ public class RegistroOcorrenciaService {
     private final NotificacaoService notificacaoService;
     private final GeocodeService geocodeService;
     private final SamuWebSocketService webSocketService;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final AtomicLong numeroSequencial = new AtomicLong(1);
 
@@ -82,6 +85,9 @@ public class RegistroOcorrenciaService {
 
         // Salvar ocorrência
         ocorrencia = ocorrenciaRepository.save(ocorrencia);
+        eventPublisher.publishEvent(new OcorrenciaAlteradaEvent(ocorrencia.getId(),
+                ocorrencia.getDataAbertura() != null ? ocorrencia.getDataAbertura() : LocalDateTime.now(),
+                ocorrencia.getPrioridade(), null, StatusOcorrencia.ABERTA));
 
         // Adicionar pacientes se informados
         if (dto.getPacientes() != null && !dto.getPacientes().isEmpty()) {
@@ -111,6 +117,7 @@ public class RegistroOcorrenciaService {
 
         webSocketService.notificarNovaOcorrencia(
             ocorrencia.getId(),
+            centralRegulacao.getId(),
             ocorrencia.getPrioridade().name(),
             dados
         );
@@ -146,6 +153,8 @@ public class RegistroOcorrenciaService {
 
         ocorrencia.setStatus(StatusOcorrencia.AGUARDANDO_REGULACAO);
         ocorrenciaRepository.save(ocorrencia);
+        eventPublisher.publishEvent(new OcorrenciaAlteradaEvent(ocorrencia.getId(), ocorrencia.getDataAbertura(),
+                ocorrencia.getPrioridade(), StatusOcorrencia.ABERTA, StatusOcorrencia.AGUARDANDO_REGULACAO));
 
         registrarEvento(ocorrencia, TipoEvento.ENCAMINHAMENTO_REGULACAO,
                 "Ocorrência encaminhada para regulação médica", operadorId);
@@ -9,6 +9,7 @@ import com.sistemadesaude.backend.samu.enums.StatusOcorrencia;
 import com.sistemadesaude.backend.samu.enums.TipoEvento;
 import com.sistemadesaude.backend.samu.enums.RiscoPresumido;
 import com.sistemadesaude.backend.samu.enums.PrioridadeOcorrencia;
+import com.sistemadesaude.backend.samu.event.OcorrenciaAlteradaEvent;
 import com.sistemadesaude.backend.samu.repository.OcorrenciaRepository;
 import com.sistemadesaude.backend.samu.repository.PacienteOcorrenciaRepository;
 import com.sistemadesaude.backend.operador.repository.OperadorRepository;
@@ -17,6 +18,7 @@ import com.sistemadesaude.backend.samu.mapper.OcorrenciaMapper;
 import com.sistemadesaude.backend.samu.websocket.SamuWebSocketService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -40,6 +42,7 @@ public class RegulacaoMedicaService {
     private final NotificacaoService notificacaoService;
     private final EventoOcorrenciaService eventoService;
     private final SamuWebSocketService webSocketService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public Page<OcorrenciaRegulacaoDTO> buscarOcorrenciasAguardandoRegulacao(
@@ -77,6 +80,8 @@ public class RegulacaoMedicaService {
         ocorrencia.setStatus(StatusOcorrencia.EM_REGULACAO);
         ocorrencia.setMedicoRegulador(medicoRegulador);
         ocorrenciaRepository.save(ocorrencia);
+        eventPublisher.publishEvent(new OcorrenciaAlteradaEvent(ocorrenciaId, ocorrencia.getDataAbertura(),
+                ocorrencia.getPrioridade(), StatusOcorrencia.AGUARDANDO_REGULACAO, StatusOcorrencia.EM_REGULACAO));
 
         // ✅ CORRIGIDO: usando TipoEvento.INICIO_REGULACAO
         eventoService.registrarEvento(ocorrencia, TipoEvento.INICIO_REGULACAO,
@@ -91,6 +96,7 @@ public class RegulacaoMedicaService {
 
         webSocketService.notificarAtualizacaoRegulacao(
             ocorrenciaId,
+            ocorrencia.getCentralRegulacao() != null ? ocorrencia.getCentralRegulacao().getId() : null,
             StatusOcorrencia.EM_REGULACAO.name(),
             dados
         );
@@ -146,6 +152,8 @@ public class RegulacaoMedicaService {
             ocorrencia.setObservacoes(obsAtuais + "\n[RECURSO APOIO] " + recursoApoioExterno);
         }
         ocorrenciaRepository.save(ocorrencia);
+        eventPublisher.publishEvent(new OcorrenciaAlteradaEvent(ocorrenciaId, ocorrencia.getDataAbertura(),
+                ocorrencia.getPrioridade(), StatusOcorrencia.EM_REGULACAO, StatusOcorrencia.REGULADA));
 
         // ✅ CORRIGIDO: usando TipoEvento.FINALIZACAO_REGULACAO
         eventoService.registrarEvento(ocorrencia, TipoEvento.FINALIZACAO_REGULACAO,
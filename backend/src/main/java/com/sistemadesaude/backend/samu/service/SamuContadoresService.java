@@ -0,0 +1,229 @@
+package com.sistemadesaude.backend.samu.service;
+
+import com.sistemadesaude.backend.samu.enums.PrioridadeOcorrencia;
+import com.sistemadesaude.backend.samu.enums.StatusOcorrencia;
+import com.sistemadesaude.backend.samu.enums.StatusViatura;
+import com.sistemadesaude.backend.samu.event.OcorrenciaAlteradaEvent;
+import com.sistemadesaude.backend.samu.event.ViaturaAlteradaEvent;
+import com.sistemadesaude.backend.samu.repository.OcorrenciaRepository;
+import com.sistemadesaude.backend.samu.repository.ViaturaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Contadores em memória do painel do SAMU.
+ *
+ * - Carga: consultas agrupadas (um round-trip por dimensão) em vez de listas inteiras + size().
+ * - Atualização: deltas aplicados pelos eventos de ocorrência/viatura após o commit.
+ * - Recarga completa ao virar o dia ou quando o snapshot passa da idade máxima
+ *   (corrige alterações feitas por outras instâncias).
+ *
+ * Leitura ({@link #painel()}) é O(1): devolve o snapshot imutável corrente.
+ */
+@Slf4j
+@Service
+public class SamuContadoresService {
+
+    /** Status considerados "em aberto" no painel */
+    public static final List<StatusOcorrencia> STATUS_ABERTOS = List.of(
+            StatusOcorrencia.ABERTA,
+            StatusOcorrencia.AGUARDANDO_REGULACAO,
+            StatusOcorrencia.EM_REGULACAO
+    );
+
+    private static final Set<StatusViatura> STATUS_EM_OPERACAO = Set.of(
+            StatusViatura.A_CAMINHO, StatusViatura.NO_LOCAL, StatusViatura.TRANSPORTANDO);
+
+    /** Snapshot imutável lido pelo dashboard. */
+    public record Painel(long viaturasTotal,
+                         long viaturasAtivas,
+                         Map<StatusViatura, Long> viaturasAtivasPorStatus,
+                         long ocorrenciasHoje,
+                         long ocorrenciasMes,
+                         long ocorrenciasAbertas,
+                         Map<StatusOcorrencia, Long> ocorrenciasHojePorStatus,
+                         Map<PrioridadeOcorrencia, Long> ocorrenciasHojePorPrioridade,
+                         LocalDate dia,
+                         long geradoEmMillis) {
+
+        public long viaturasDisponiveis() {
+            return viaturasAtivasPorStatus.getOrDefault(StatusViatura.DISPONIVEL, 0L);
+        }
+
+        public long viaturasEmOperacao() {
+            return STATUS_EM_OPERACAO.stream().mapToLong(s -> viaturasAtivasPorStatus.getOrDefault(s, 0L)).sum();
+        }
+    }
+
+    private final ViaturaRepository viaturaRepository;
+    private final OcorrenciaRepository ocorrenciaRepository;
+    private final long idadeMaximaMs;
+
+    /* Estado mutável (protegido por "this") */
+    private long viaturasTotal;
+    private long viaturasAtivas;
+    private final EnumMap<StatusViatura, Long> viaturasAtivasPorStatus = new EnumMap<>(StatusViatura.class);
+    private long ocorrenciasMes;
+    private long ocorrenciasAbertas;
+    private final EnumMap<StatusOcorrencia, Long> hojePorStatus = new EnumMap<>(StatusOcorrencia.class);
+    private final EnumMap<PrioridadeOcorrencia, Long> hojePorPrioridade = new EnumMap<>(PrioridadeOcorrencia.class);
+
+    private volatile Painel painel;
+
+    public SamuContadoresService(ViaturaRepository viaturaRepository,
+                                 OcorrenciaRepository ocorrenciaRepository,
+                                 @Value("${app.samu.painel.idade-maxima-segundos:60}") long idadeMaximaSegundos) {
+        this.viaturaRepository = viaturaRepository;
+        this.ocorrenciaRepository = ocorrenciaRepository;
+        this.idadeMaximaMs = idadeMaximaSegundos * 1000;
+    }
+
+    /** Snapshot atual (recarrega do banco só se vencido ou de outro dia). */
+    public Painel painel() {
+        Painel p = painel;
+        if (p == null || !LocalDate.now().equals(p.dia())
+                || System.currentTimeMillis() - p.geradoEmMillis() > idadeMaximaMs) {
+            p = recarregar();
+        }
+        return p;
+    }
+
+    /** Recarrega todos os contadores com consultas agregadas. */
+    public synchronized Painel recarregar() {
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime inicioDia = agora.toLocalDate().atStartOfDay();
+        LocalDateTime inicioMes = inicioDia.withDayOfMonth(1);
+
+        // Viaturas: 1 consulta
+        viaturasTotal = 0;
+        viaturasAtivas = 0;
+        viaturasAtivasPorStatus.clear();
+        for (Object[] linha : viaturaRepository.contarPorAtivaEStatus()) {
+            boolean ativa = Boolean.TRUE.equals(linha[0]);
+            long qtd = ((Number) linha[2]).longValue();
+            viaturasTotal += qtd;
+            if (ativa) {
+                viaturasAtivas += qtd;
+                if (linha[1] != null) viaturasAtivasPorStatus.merge((StatusViatura) linha[1], qtd, Long::sum);
+            }
+        }
+
+        // Ocorrências de hoje: 1 consulta por dimensão
+        hojePorStatus.clear();
+        for (Object[] linha : ocorrenciaRepository.contarOcorrenciasPorStatus(inicioDia, agora)) {
+            if (linha[0] != null) hojePorStatus.put((StatusOcorrencia) linha[0], ((Number) linha[1]).longValue());
+        }
+        hojePorPrioridade.clear();
+        for (Object[] linha : ocorrenciaRepository.contarOcorrenciasPorPrioridade(inicioDia, agora)) {
+            if (linha[0] != null) hojePorPrioridade.put((PrioridadeOcorrencia) linha[0], ((Number) linha[1]).longValue());
+        }
+
+        ocorrenciasMes = nvl(ocorrenciaRepository.countByDataAberturaBetween(inicioMes, agora));
+        ocorrenciasAbertas = nvl(ocorrenciaRepository.countByStatusIn(STATUS_ABERTOS));
+
+        log.debug("Contadores do painel SAMU recarregados");
+        return publicar(agora.toLocalDate());
+    }
+
+    /* =========================
+       Deltas por evento (após commit)
+       ========================= */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOcorrenciaAlterada(OcorrenciaAlteradaEvent e) {
+        synchronized (this) {
+            Painel atual = painel;
+            if (atual == null || !LocalDate.now().equals(atual.dia())) return; // próxima leitura recarrega
+
+            boolean deHoje = e.dataAbertura() != null && e.dataAbertura().toLocalDate().equals(atual.dia());
+            StatusOcorrencia de = e.statusAnterior();
+            StatusOcorrencia para = e.statusNovo();
+
+            if (de == null) {
+                // Nova ocorrência
+                if (deHoje) {
+                    ocorrenciasMes++;
+                    if (e.prioridade() != null) hojePorPrioridade.merge(e.prioridade(), 1L, Long::sum);
+                }
+            } else if (deHoje) {
+                decrementar(hojePorStatus, de);
+            }
+            if (deHoje && para != null) hojePorStatus.merge(para, 1L, Long::sum);
+
+            boolean estavaAberta = de != null && STATUS_ABERTOS.contains(de);
+            boolean ficouAberta = para != null && STATUS_ABERTOS.contains(para);
+            if (estavaAberta != ficouAberta) ocorrenciasAbertas += ficouAberta ? 1 : -1;
+
+            publicar(atual.dia(), atual.geradoEmMillis());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onViaturaAlterada(ViaturaAlteradaEvent e) {
+        synchronized (this) {
+            Painel atual = painel;
+            if (atual == null) return;
+
+            if (e.statusAnterior() == null) {
+                viaturasTotal++;
+            } else if (e.ativaAnterior()) {
+                viaturasAtivas--;
+                decrementar(viaturasAtivasPorStatus, e.statusAnterior());
+            }
+
+            if (e.statusNovo() == null) {
+                viaturasTotal--;
+            } else if (e.ativaNova()) {
+                viaturasAtivas++;
+                viaturasAtivasPorStatus.merge(e.statusNovo(), 1L, Long::sum);
+            }
+
+            publicar(atual.dia(), atual.geradoEmMillis());
+        }
+    }
+
+    /* =========================
+       Helpers
+       ========================= */
+
+    private Painel publicar(LocalDate dia) {
+        return publicar(dia, System.currentTimeMillis());
+    }
+
+    /** Deltas mantêm o instante da última carga completa (a idade máxima continua valendo). */
+    private Painel publicar(LocalDate dia, long geradoEm) {
+        long hoje = hojePorStatus.values().stream().mapToLong(Long::longValue).sum();
+        Painel p = new Painel(
+                viaturasTotal,
+                viaturasAtivas,
+                Collections.unmodifiableMap(new EnumMap<>(viaturasAtivasPorStatus)),
+                hoje,
+                ocorrenciasMes,
+                ocorrenciasAbertas,
+                Collections.unmodifiableMap(new EnumMap<>(hojePorStatus)),
+                Collections.unmodifiableMap(new EnumMap<>(hojePorPrioridade)),
+                dia,
+                geradoEm
+        );
+        this.painel = p;
+        return p;
+    }
+
+    private static <K extends Enum<K>> void decrementar(EnumMap<K, Long> mapa, K chave) {
+        mapa.computeIfPresent(chave, (k, v) -> v > 1 ? v - 1 : null);
+    }
+
+    private static long nvl(Long v) {
+        return v == null ? 0L : v;
+    }
+}
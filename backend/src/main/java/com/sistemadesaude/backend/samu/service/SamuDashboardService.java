@@ -2,7 +2,6 @@ package com.sistemadesaude.backend.samu.service;
 
 import com.sistemadesaude.backend.samu.enums.PrioridadeOcorrencia;
 import com.sistemadesaude.backend.samu.enums.StatusOcorrencia;
-import com.sistemadesaude.backend.samu.enums.StatusViatura;
 import com.sistemadesaude.backend.samu.repository.OcorrenciaRepository;
 import com.sistemadesaude.backend.samu.repository.ViaturaRepository;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +15,9 @@ import java.util.*;
 /**
  * Service para Dashboard do SAMU
  * Fornece estatísticas e métricas em tempo real
+ *
+ * Contagens vêm do {@link SamuContadoresService} (snapshot em memória atualizado
+ * por eventos); listas e gráfico usam consultas agregadas com limite.
  */
 @Slf4j
 @Service
@@ -24,13 +26,13 @@ public class SamuDashboardService {
 
     private final ViaturaRepository viaturaRepository;
     private final OcorrenciaRepository ocorrenciaRepository;
+    private final SamuContadoresService contadores;
 
     /**
      * Obtém estatísticas gerais do SAMU
      */
-    @Transactional(readOnly = true)
     public Map<String, Object> obterEstatisticasGerais() {
-        log.info("Obtendo estatísticas gerais do SAMU");
+        log.debug("Obtendo estatísticas gerais do SAMU");
 
         Map<String, Object> stats = new HashMap<>();
 
@@ -51,116 +53,75 @@ public class SamuDashboardService {
     }
 
     /**
-     * Estatísticas de viaturas
+     * Estatísticas de viaturas (contadores em memória)
      */
-    @Transactional(readOnly = true)
     public Map<String, Object> obterEstatisticasViaturas() {
+        SamuContadoresService.Painel painel = contadores.painel();
         Map<String, Object> stats = new HashMap<>();
 
-        long total = viaturaRepository.count();
-        long ativas = viaturaRepository.findByAtivaTrue().size();
-        long disponiveis = viaturaRepository.countDisponivels();
-        long emOperacao = viaturaRepository.countEmOperacao();
+        long total = painel.viaturasTotal();
+        long ativas = painel.viaturasAtivas();
+        long disponiveis = painel.viaturasDisponiveis();
 
         stats.put("total", total);
         stats.put("ativas", ativas);
         stats.put("inativas", total - ativas);
         stats.put("disponiveis", disponiveis);
-        stats.put("emOperacao", emOperacao);
+        stats.put("emOperacao", painel.viaturasEmOperacao());
         stats.put("percentualDisponibilidade", ativas > 0 ? (disponiveis * 100.0 / ativas) : 0);
 
         // Por status
         Map<String, Long> porStatus = new HashMap<>();
-        for (StatusViatura status : StatusViatura.values()) {
-            long count = viaturaRepository.findByStatusAndAtivaTrue(status).size();
+        painel.viaturasAtivasPorStatus().forEach((status, count) -> {
             if (count > 0) {
                 porStatus.put(status.name(), count);
             }
-        }
+        });
         stats.put("porStatus", porStatus);
 
         return stats;
     }
 
     /**
-     * Estatísticas de ocorrências
+     * Estatísticas de ocorrências (contadores em memória)
      */
-    @Transactional(readOnly = true)
     public Map<String, Object> obterEstatisticasOcorrencias() {
+        SamuContadoresService.Painel painel = contadores.painel();
         Map<String, Object> stats = new HashMap<>();
 
-        LocalDateTime hoje = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime inicioMes = hoje.withDayOfMonth(1);
-
-        // Ocorrências hoje
-        long hoje_total = ocorrenciaRepository.countByDataAberturaBetween(hoje, LocalDateTime.now());
-        stats.put("hoje", hoje_total);
-
-        // Ocorrências no mês
-        long mes_total = ocorrenciaRepository.countByDataAberturaBetween(inicioMes, LocalDateTime.now());
-        stats.put("mes", mes_total);
-
-        // Ocorrências abertas
-        List<StatusOcorrencia> statusAbertos = Arrays.asList(
-            StatusOcorrencia.ABERTA,
-            StatusOcorrencia.AGUARDANDO_REGULACAO,
-            StatusOcorrencia.EM_REGULACAO
-        );
-        long abertas = ocorrenciaRepository.findByStatusInOrderByPrioridadeAscDataAberturaAsc(statusAbertos, null)
-                .getTotalElements();
-        stats.put("abertas", abertas);
+        stats.put("hoje", painel.ocorrenciasHoje());
+        stats.put("mes", painel.ocorrenciasMes());
+        stats.put("abertas", painel.ocorrenciasAbertas());
 
         // Por prioridade (hoje)
         Map<String, Long> porPrioridade = new HashMap<>();
         for (PrioridadeOcorrencia prioridade : PrioridadeOcorrencia.values()) {
-            long count = ocorrenciaRepository.countByPrioridadeAndDataAberturaBetween(
-                prioridade, hoje, LocalDateTime.now()
-            );
-            porPrioridade.put(prioridade.name(), count);
+            porPrioridade.put(prioridade.name(), painel.ocorrenciasHojePorPrioridade().getOrDefault(prioridade, 0L));
         }
         stats.put("porPrioridade", porPrioridade);
 
         // Por status
         Map<String, Long> porStatus = new HashMap<>();
-        for (StatusOcorrencia status : StatusOcorrencia.values()) {
-            long count = ocorrenciaRepository.countByStatusAndDataAberturaBetween(
-                status, hoje, LocalDateTime.now()
-            );
+        painel.ocorrenciasHojePorStatus().forEach((status, count) -> {
             if (count > 0) {
                 porStatus.put(status.name(), count);
             }
-        }
+        });
         stats.put("porStatus", porStatus);
 
         return stats;
     }
 
     /**
-     * Estatísticas de regulação
+     * Estatísticas de regulação (contadores em memória)
      */
-    @Transactional(readOnly = true)
     public Map<String, Object> obterEstatisticasRegulacao() {
+        Map<StatusOcorrencia, Long> hoje = contadores.painel().ocorrenciasHojePorStatus();
         Map<String, Object> stats = new HashMap<>();
 
-        LocalDateTime hoje = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
-
-        // Aguardando regulação
-        long aguardando = ocorrenciaRepository.countByStatusAndDataAberturaBetween(
-            StatusOcorrencia.AGUARDANDO_REGULACAO, hoje, LocalDateTime.now()
-        );
-        stats.put("aguardandoRegulacao", aguardando);
-
-        // Em regulação
-        long emRegulacao = ocorrenciaRepository.countByStatusAndDataAberturaBetween(
-            StatusOcorrencia.EM_REGULACAO, hoje, LocalDateTime.now()
-        );
-        stats.put("emRegulacao", emRegulacao);
-
-        // Reguladas hoje
-        long reguladasHoje = ocorrenciaRepository.countByStatusAndDataAberturaBetween(
-            StatusOcorrencia.REGULADA, hoje, LocalDateTime.now()
-        );
-        stats.put("reguladasHoje", reguladasHoje);
+        stats.put("aguardandoRegulacao", hoje.getOrDefault(StatusOcorrencia.AGUARDANDO_REGULACAO, 0L));
+        stats.put("emRegulacao", hoje.getOrDefault(StatusOcorrencia.EM_REGULACAO, 0L));
+        stats.put("reguladasHoje", hoje.getOrDefault(StatusOcorrencia.REGULADA, 0L));
 
         // Tempo médio de regulação (placeholder - implementar cálculo real)
         stats.put("tempoMedioRegulacao", 0.0);
@@ -248,11 +209,18 @@ public class SamuDashboardService {
 
         LocalDateTime agora = LocalDateTime.now();
 
+        // Uma única consulta agrupada; idx 0 = última hora
+        long[] porHora = new long[24];
+        for (Object[] linha : ocorrenciaRepository.contarOcorrenciasPorHoraUltimas24h(agora)) {
+            int idx = ((Number) linha[0]).intValue();
+            if (idx >= 0 && idx < 24) {
+                porHora[idx] = ((Number) linha[1]).longValue();
+            }
+        }
+
         for (int i = 23; i >= 0; i--) {
-            LocalDateTime inicio = agora.minusHours(i + 1);
             LocalDateTime fim = agora.minusHours(i);
-
-            long count = ocorrenciaRepository.countByDataAberturaBetween(inicio, fim);
+            long count = porHora[i];
 
             Map<String, Object> ponto = new HashMap<>();
             ponto.put("hora", fim.getHour());
@@ -294,8 +262,9 @@ public class SamuDashboardService {
         }
 
         // Alerta: Poucas viaturas disponíveis
-        long disponiveis = viaturaRepository.countDisponivels();
-        long total = viaturaRepository.findByAtivaTrue().size();
+        SamuContadoresService.Painel painel = contadores.painel();
+        long disponiveis = painel.viaturasDisponiveis();
+        long total = painel.viaturasAtivas();
 
         if (total > 0 && (disponiveis * 100.0 / total) < 30) {
             alertas.add(Map.of(
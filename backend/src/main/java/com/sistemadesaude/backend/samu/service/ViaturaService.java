@@ -9,12 +9,15 @@ import com.sistemadesaude.backend.samu.entity.BaseOperacional;
 import com.sistemadesaude.backend.samu.entity.Viatura;
 import com.sistemadesaude.backend.samu.enums.StatusViatura;
 import com.sistemadesaude.backend.samu.enums.TipoViatura;
+import com.sistemadesaude.backend.samu.event.ViaturaAlteradaEvent;
 import com.sistemadesaude.backend.samu.mapper.ViaturaMapper;
 import com.sistemadesaude.backend.samu.repository.BaseOperacionalRepository;
 import com.sistemadesaude.backend.samu.repository.ViaturaRepository;
+import com.sistemadesaude.backend.samu.websocket.SamuLocalizacaoBroadcaster;
 import com.sistemadesaude.backend.samu.websocket.SamuWebSocketService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -35,6 +38,8 @@ public class ViaturaService {
     private final BaseOperacionalRepository baseRepository;
     private final ViaturaMapper mapper;
     private final SamuWebSocketService webSocketService;
+    private final SamuLocalizacaoBroadcaster localizacaoBroadcaster;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Lista todas as viaturas ativas
@@ -132,6 +137,7 @@ public class ViaturaService {
         // Cria viatura
         Viatura viatura = mapper.toEntity(request, base);
         Viatura saved = viaturaRepository.save(viatura);
+        publicarAlteracao(saved.getId(), false, null, saved.isAtiva(), saved.getStatus());
 
         log.info("Viatura criada com sucesso - ID: {}", saved.getId());
         return mapper.toDTO(saved);
@@ -162,8 +168,11 @@ public class ViaturaService {
         }
 
         // Atualiza
+        boolean ativaAntes = viatura.isAtiva();
+        StatusViatura statusAntes = viatura.getStatus();
         mapper.updateEntity(request, viatura, base);
         Viatura updated = viaturaRepository.save(viatura);
+        publicarAlteracao(updated.getId(), ativaAntes, statusAntes, updated.isAtiva(), updated.getStatus());
 
         log.info("Viatura atualizada com sucesso - ID: {}", updated.getId());
         return mapper.toDTO(updated);
@@ -183,6 +192,7 @@ public class ViaturaService {
         validarTransicaoStatus(viatura.getStatus(), request.getNovoStatus());
 
         // Atualiza status
+        StatusViatura statusAntes = viatura.getStatus();
         viatura.setStatus(request.getNovoStatus());
 
         // Adiciona observação se fornecida
@@ -196,6 +206,7 @@ public class ViaturaService {
         }
 
         Viatura updated = viaturaRepository.save(viatura);
+        publicarAlteracao(updated.getId(), updated.isAtiva(), statusAntes, updated.isAtiva(), updated.getStatus());
         log.info("Status atualizado com sucesso");
 
         // Notifica via WebSocket
@@ -208,6 +219,7 @@ public class ViaturaService {
 
         webSocketService.notificarAtualizacaoViatura(
             updated.getId(),
+            centralDa(updated),
             updated.getStatus().name(),
             dados
         );
@@ -230,9 +242,13 @@ public class ViaturaService {
             throw new BusinessException("Não é possível inativar viatura em operação");
         }
 
+        boolean ativaAntes = viatura.isAtiva();
+        StatusViatura statusAntes = viatura.getStatus();
         viatura.setAtiva(false);
         viatura.setStatus(StatusViatura.INDISPONIVEL);
         viaturaRepository.save(viatura);
+        publicarAlteracao(id, ativaAntes, statusAntes, false, StatusViatura.INDISPONIVEL);
+        localizacaoBroadcaster.esquecer(id);
 
         log.info("Viatura inativada com sucesso");
     }
@@ -247,14 +263,32 @@ public class ViaturaService {
         Viatura viatura = viaturaRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Viatura não encontrada: " + id));
 
+        boolean ativaAntes = viatura.isAtiva();
+        StatusViatura statusAntes = viatura.getStatus();
         viatura.setAtiva(true);
         viatura.setStatus(StatusViatura.DISPONIVEL);
         Viatura updated = viaturaRepository.save(viatura);
+        publicarAlteracao(id, ativaAntes, statusAntes, true, StatusViatura.DISPONIVEL);
 
         log.info("Viatura reativada com sucesso");
         return mapper.toDTO(updated);
     }
 
+    /**
+     * Registra posição de GPS da viatura (broadcast coalescido, sem persistência)
+     */
+    @Transactional(readOnly = true)
+    public void registrarLocalizacao(Long id, Double latitude, Double longitude) {
+        log.debug("Localização viatura {}: {}, {}", id, latitude, longitude);
+
+        List<Object[]> linha = viaturaRepository.findIdECentralRegulacao(id);
+        if (linha.isEmpty()) {
+            throw new ResourceNotFoundException("Viatura não encontrada: " + id);
+        }
+        Long centralId = linha.get(0)[1] != null ? ((Number) linha.get(0)[1]).longValue() : null;
+        webSocketService.notificarAtualizacaoLocalizacao(id, centralId, latitude, longitude);
+    }
+
     /**
      * Deleta viatura
      */
@@ -271,9 +305,24 @@ public class ViaturaService {
         }
 
         viaturaRepository.delete(viatura);
+        publicarAlteracao(id, viatura.isAtiva(), viatura.getStatus(), false, null);
+        localizacaoBroadcaster.esquecer(id);
         log.info("Viatura deletada com sucesso");
     }
 
+    private static Long centralDa(Viatura viatura) {
+        BaseOperacional base = viatura.getBase();
+        return base != null && base.getCentralRegulacao() != null ? base.getCentralRegulacao().getId() : null;
+    }
+
+    /**
+     * Publica a alteração para os contadores do painel (aplicados após o commit)
+     */
+    private void publicarAlteracao(Long id, boolean ativaAntes, StatusViatura statusAntes,
+                                   boolean ativaDepois, StatusViatura statusDepois) {
+        eventPublisher.publishEvent(new ViaturaAlteradaEvent(id, ativaAntes, statusAntes, ativaDepois, statusDepois));
+    }
+
     /**
      * Obtém estatísticas das viaturas
      */
@@ -0,0 +1,173 @@
+package com.sistemadesaude.backend.samu.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estágio de broadcast das posições das viaturas.
+ *
+ * - Coalescência: dentro de um tick guarda só a última posição de cada viatura.
+ * - Delta: só envia viaturas que se deslocaram mais que o limiar desde o último envio.
+ * - Lote: um único frame por tópico e por tick, em vez de uma mensagem por GPS.
+ *
+ * Tópicos: /topic/samu/localizacao (todas) e /topic/samu/central/{id}/localizacao.
+ * Métricas: samu.websocket.localizacao.* e samu.websocket.fanout (atraso entre a
+ * posição mais antiga do lote e o fim do envio).
+ */
+@Slf4j
+@Component
+public class SamuLocalizacaoBroadcaster {
+
+    static final String TOPICO_GERAL = "/topic/samu/localizacao";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final long tickMs;
+    private final double limiarGraus;
+
+    private final Map<Long, Posicao> pendentes = new ConcurrentHashMap<>();
+    /** Última posição efetivamente enviada (acesso só pela thread do tick) */
+    private final Map<Long, Posicao> enviadas = new HashMap<>();
+
+    private final Counter recebidas;
+    private final Counter coalescidas;
+    private final Counter semDeslocamento;
+    private final Counter frames;
+    private final Timer fanout;
+
+    private ScheduledExecutorService executor;
+
+    public SamuLocalizacaoBroadcaster(SimpMessagingTemplate messagingTemplate,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.samu.websocket.tick-ms:1000}") long tickMs,
+                                      @Value("${app.samu.websocket.limiar-graus:0.00001}") double limiarGraus) {
+        this.messagingTemplate = messagingTemplate;
+        this.tickMs = tickMs;
+        this.limiarGraus = limiarGraus;
+
+        this.recebidas = meterRegistry.counter("samu.websocket.localizacao.recebidas");
+        this.coalescidas = meterRegistry.counter("samu.websocket.localizacao.coalescidas");
+        this.semDeslocamento = meterRegistry.counter("samu.websocket.localizacao.sem_deslocamento");
+        this.frames = meterRegistry.counter("samu.websocket.frames");
+        this.fanout = Timer.builder("samu.websocket.fanout")
+                .description("Atraso entre a posição mais antiga do lote e o fim do envio")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        meterRegistry.gauge("samu.websocket.localizacao.pendentes", pendentes, Map::size);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "samu-broadcast");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::tickSeguro, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void parar() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /** Registra a posição; a última recebida no tick vence. */
+    public void registrar(Long viaturaId, Long centralId, double latitude, double longitude) {
+        recebidas.increment();
+        long agora = System.nanoTime();
+        pendentes.merge(viaturaId, new Posicao(centralId, latitude, longitude, agora, agora),
+                (antiga, nova) -> {
+                    coalescidas.increment();
+                    // Mantém o instante da primeira posição pendente para medir o atraso real
+                    return new Posicao(nova.centralId(), nova.latitude(), nova.longitude(),
+                            antiga.recebidaEmNanos(), nova.atualizadaEmNanos());
+                });
+    }
+
+    /** Esquece a viatura (removida/inativada): próxima posição sai completa. */
+    public void esquecer(Long viaturaId) {
+        pendentes.remove(viaturaId);
+        executor.execute(() -> enviadas.remove(viaturaId));
+    }
+
+    private void tickSeguro() {
+        try {
+            tick();
+        } catch (Exception e) {
+            log.warn("Falha no broadcast de localizações: {}", e.getMessage());
+        }
+    }
+
+    void tick() {
+        if (pendentes.isEmpty()) return;
+
+        long maisAntiga = Long.MAX_VALUE;
+        List<Map<String, Object>> geral = new ArrayList<>();
+        Map<Long, List<Map<String, Object>>> porCentral = new LinkedHashMap<>();
+
+        for (Long viaturaId : new ArrayList<>(pendentes.keySet())) {
+            Posicao p = pendentes.remove(viaturaId);
+            if (p == null) continue;
+
+            Posicao anterior = enviadas.get(viaturaId);
+            if (anterior != null
+                    && Math.abs(anterior.latitude() - p.latitude()) < limiarGraus
+                    && Math.abs(anterior.longitude() - p.longitude()) < limiarGraus) {
+                semDeslocamento.increment();
+                continue;
+            }
+            enviadas.put(viaturaId, p);
+            maisAntiga = Math.min(maisAntiga, p.recebidaEmNanos());
+
+            Map<String, Object> item = new HashMap<>(4);
+            item.put("viaturaId", viaturaId);
+            item.put("latitude", p.latitude());
+            item.put("longitude", p.longitude());
+            geral.add(item);
+            if (p.centralId() != null) {
+                porCentral.computeIfAbsent(p.centralId(), k -> new ArrayList<>()).add(item);
+            }
+        }
+
+        if (geral.isEmpty()) return;
+
+        long timestamp = System.currentTimeMillis();
+        enviar(TOPICO_GERAL, geral, timestamp);
+        porCentral.forEach((centralId, itens) ->
+                enviar(SamuWebSocketService.topicoCentral(centralId, "localizacao"), itens, timestamp));
+
+        fanout.record(System.nanoTime() - maisAntiga, TimeUnit.NANOSECONDS);
+        log.debug("Broadcast de localizações: {} viaturas, {} centrais", geral.size(), porCentral.size());
+    }
+
+    private void enviar(String topico, List<Map<String, Object>> itens, long timestamp) {
+        messagingTemplate.convertAndSend(topico, Map.of(
+                "tipo", "LOCALIZACOES_ATUALIZADAS",
+                "itens", itens,
+                "timestamp", timestamp
+        ));
+        frames.increment();
+    }
+
+    private record Posicao(Long centralId, double latitude, double longitude,
+                           long recebidaEmNanos, long atualizadaEmNanos) {
+    }
+}
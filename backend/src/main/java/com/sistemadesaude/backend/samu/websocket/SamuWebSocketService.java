@@ -9,6 +9,10 @@ import java.util.Map;
 
 /**
  * Service para enviar notificações WebSocket do SAMU
+ *
+ * Eventos de status vão na hora para o tópico geral e, quando a central de regulação
+ * é conhecida, também para /topic/samu/central/{id}/... (consoles assinam só a sua).
+ * Posições de GPS passam pelo {@link SamuLocalizacaoBroadcaster} (coalescidas em lote).
  */
 @Slf4j
 @Service
@@ -16,12 +20,22 @@ import java.util.Map;
 public class SamuWebSocketService {
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final SamuLocalizacaoBroadcaster localizacaoBroadcaster;
+
+    /** Tópico de uma central de regulação: /topic/samu/central/{id}/{canal} */
+    public static String topicoCentral(Long centralId, String canal) {
+        return "/topic/samu/central/" + centralId + "/" + canal;
+    }
 
     /**
      * Notifica atualização de status de viatura
      */
     public void notificarAtualizacaoViatura(Long viaturaId, String novoStatus, Map<String, Object> dados) {
-        log.info("Enviando notificação WebSocket - Viatura {} - Status: {}", viaturaId, novoStatus);
+        notificarAtualizacaoViatura(viaturaId, null, novoStatus, dados);
+    }
+
+    public void notificarAtualizacaoViatura(Long viaturaId, Long centralId, String novoStatus, Map<String, Object> dados) {
+        log.debug("Enviando notificação WebSocket - Viatura {} - Status: {}", viaturaId, novoStatus);
 
         Map<String, Object> mensagem = Map.of(
             "tipo", "VIATURA_STATUS_ATUALIZADO",
@@ -31,14 +45,18 @@ public class SamuWebSocketService {
             "timestamp", System.currentTimeMillis()
         );
 
-        messagingTemplate.convertAndSend("/topic/samu/viaturas", mensagem);
+        enviar("/topic/samu/viaturas", centralId, "viaturas", mensagem);
     }
 
     /**
      * Notifica nova ocorrência
      */
     public void notificarNovaOcorrencia(Long ocorrenciaId, String prioridade, Map<String, Object> dados) {
-        log.info("Enviando notificação WebSocket - Nova ocorrência {} - Prioridade: {}", ocorrenciaId, prioridade);
+        notificarNovaOcorrencia(ocorrenciaId, null, prioridade, dados);
+    }
+
+    public void notificarNovaOcorrencia(Long ocorrenciaId, Long centralId, String prioridade, Map<String, Object> dados) {
+        log.debug("Enviando notificação WebSocket - Nova ocorrência {} - Prioridade: {}", ocorrenciaId, prioridade);
 
         Map<String, Object> mensagem = Map.of(
             "tipo", "NOVA_OCORRENCIA",
@@ -48,14 +66,18 @@ public class SamuWebSocketService {
             "timestamp", System.currentTimeMillis()
         );
 
-        messagingTemplate.convertAndSend("/topic/samu/ocorrencias", mensagem);
+        enviar("/topic/samu/ocorrencias", centralId, "ocorrencias", mensagem);
     }
 
     /**
      * Notifica atualização de regulação
      */
     public void notificarAtualizacaoRegulacao(Long ocorrenciaId, String status, Map<String, Object> dados) {
-        log.info("Enviando notificação WebSocket - Regulação {} - Status: {}", ocorrenciaId, status);
+        notificarAtualizacaoRegulacao(ocorrenciaId, null, status, dados);
+    }
+
+    public void notificarAtualizacaoRegulacao(Long ocorrenciaId, Long centralId, String status, Map<String, Object> dados) {
+        log.debug("Enviando notificação WebSocket - Regulação {} - Status: {}", ocorrenciaId, status);
 
         Map<String, Object> mensagem = Map.of(
             "tipo", "REGULACAO_ATUALIZADA",
@@ -65,24 +87,19 @@ public class SamuWebSocketService {
             "timestamp", System.currentTimeMillis()
         );
 
-        messagingTemplate.convertAndSend("/topic/samu/regulacao", mensagem);
+        enviar("/topic/samu/regulacao", centralId, "regulacao", mensagem);
     }
 
     /**
-     * Notifica atualização de localização
+     * Notifica atualização de localização (coalescida e enviada em lote a cada tick)
      */
     public void notificarAtualizacaoLocalizacao(Long viaturaId, Double latitude, Double longitude) {
-        log.debug("Enviando notificação WebSocket - Localização viatura {}", viaturaId);
-
-        Map<String, Object> mensagem = Map.of(
-            "tipo", "LOCALIZACAO_ATUALIZADA",
-            "viaturaId", viaturaId,
-            "latitude", latitude,
-            "longitude", longitude,
-            "timestamp", System.currentTimeMillis()
-        );
+        notificarAtualizacaoLocalizacao(viaturaId, null, latitude, longitude);
+    }
 
-        messagingTemplate.convertAndSend("/topic/samu/localizacao", mensagem);
+    public void notificarAtualizacaoLocalizacao(Long viaturaId, Long centralId, Double latitude, Double longitude) {
+        if (viaturaId == null || latitude == null || longitude == null) return;
+        localizacaoBroadcaster.registrar(viaturaId, centralId, latitude, longitude);
     }
 
     /**
@@ -116,4 +133,11 @@ public class SamuWebSocketService {
 
         messagingTemplate.convertAndSend("/topic/samu/alertas", mensagem);
     }
+
+    private void enviar(String topicoGeral, Long centralId, String canal, Map<String, Object> mensagem) {
+        messagingTemplate.convertAndSend(topicoGeral, mensagem);
+        if (centralId != null) {
+            messagingTemplate.convertAndSend(topicoCentral(centralId, canal), mensagem);
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.sistemadesaude.backend.security;
 
+import com.sistemadesaude.backend.operador.security.UserDetailsCache;
 import com.sistemadesaude.backend.operador.service.JwtService; // ✅ 1. Importa o novo JwtService
 import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
@@ -13,7 +14,6 @@ import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -30,7 +30,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtService jwtService; // ✅ 2. Injeta o novo JwtService
 
     @Autowired
-    private UserDetailsService userDetailsService; // Injeta o UserDetailsService padrão do Spring
+    private UserDetailsCache userDetailsCache; // Snapshot cacheado de UserDetails (evita loadUserByUsername por request)
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -51,37 +51,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
 
             String jwt = extractJwtFromRequest(request);
+            // Parse único: assinatura + expiração validadas uma vez só
+            Claims claims = jwt == null ? null : jwtService.parseClaimsOuNull(jwt);
 
-            if (jwt != null && jwtService.validateToken(jwt)) {
-                String operadorLogin = jwtService.extractUsername(jwt);
+            if (claims != null && claims.getSubject() != null) {
+                String operadorLogin = claims.getSubject();
                 logger.debug("👤 Operador extraído do token: {}", operadorLogin);
 
-                // Carrega UserDetails para verificar o usuário e obter authorities "oficiais"
-                UserDetails userDetails = userDetailsService.loadUserByUsername(operadorLogin);
+                if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                    // Snapshot cacheado (TTL curto, invalidado em mudanças de perfil/acesso):
+                    // evita um SELECT em operador a cada requisição autenticada
+                    UserDetails userDetails = userDetailsCache.obter(operadorLogin);
 
-                // Validação extra: o token não só é válido, mas corresponde a um usuário existente
-                if (operadorLogin != null && SecurityContextHolder.getContext().getAuthentication() == null && jwtService.isTokenValid(jwt, userDetails)) {
+                    if (operadorLogin.equals(userDetails.getUsername())) {
+                        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                                userDetails, null, userDetails.getAuthorities());
 
-                    // Extrai as claims para checar se é master e obter roles
-                    Claims claims = jwtService.extractAllClaims(jwt);
-                    Boolean isMaster = claims.get("isMaster", Boolean.class);
+                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                    logger.debug("👑 É master (claim): {}", isMaster);
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
 
-                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
-
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-
-                    logger.info("✅ Operador '{}' autenticado com sucesso via JWT para {} {} com authorities: {}",
-                            operadorLogin, method, path, userDetails.getAuthorities());
-                } else {
-                    logger.warn("❌ Token JWT válido, mas falha na validação contra UserDetails para o login: {}", operadorLogin);
+                        logger.debug("✅ Operador '{}' autenticado via JWT para {} {} com authorities: {}",
+                                operadorLogin, method, path, userDetails.getAuthorities());
+                    } else {
+                        logger.warn("❌ Token JWT válido, mas falha na validação contra UserDetails para o login: {}", operadorLogin);
+                    }
                 }
             } else {
-                logger.warn("❌ Token JWT ausente, inválido ou expirado para a requisição: {} {}", method, path);
+                logger.debug("❌ Token JWT ausente, inválido ou expirado para a requisição: {} {}", method, path);
             }
 
             filterChain.doFilter(request, response);
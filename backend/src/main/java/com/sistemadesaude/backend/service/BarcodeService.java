@@ -8,6 +8,7 @@ import com.google.zxing.common.BitMatrix;
 import com.google.zxing.oned.Code128Writer;
 import com.google.zxing.qrcode.QRCodeWriter;
 import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -15,7 +16,7 @@ import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.time.LocalDateTime;
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
@@ -26,20 +27,23 @@ import java.util.UUID;
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class BarcodeService {
 
     private static final int BARCODE_WIDTH = 300;
     private static final int BARCODE_HEIGHT = 100;
     private static final int QRCODE_SIZE = 250;
 
+    private final NumeroDocumentoService numeroDocumentoService;
+
     /**
      * Gera um código único para documentos
-     * Formato: PREFIXO-AAAAMMDD-SEQUENCIA
+     * Formato: PREFIXO-AAAAMMDD-SEQUENCIA (sequência do dia por prefixo, série "CODIGO_PREFIXO")
      */
     public String gerarCodigoUnico(String prefixo) {
-        String data = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String sequencia = String.format("%08d", System.currentTimeMillis() % 100000000);
-        return String.format("%s-%s-%s", prefixo, data, sequencia);
+        LocalDate hoje = LocalDate.now();
+        long sequencia = numeroDocumentoService.proximo("CODIGO_" + prefixo, hoje);
+        return String.format("%s-%s-%08d", prefixo, hoje.format(DateTimeFormatter.ofPattern("yyyyMMdd")), sequencia);
     }
 
     /**
@@ -0,0 +1,160 @@
+package com.sistemadesaude.backend.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Numeração sequencial de documentos por série e por dia (SADT, recepção do laboratório,
+ * códigos de barras de agendamento/SADT/laboratório).
+ *
+ * - Reinicia a cada dia: a chave é (série, data).
+ * - Sem colisão entre instâncias: cada instância reserva um bloco de números
+ *   (app.documentos.numeracao.tamanho-bloco) na tabela documento_numero_bloco com um
+ *   upsert atômico e distribui o bloco em memória, sem ida ao banco por número.
+ * - A reserva é um único comando em autocommit, em um pool de conexões próprio
+ *   (app.documentos.numeracao.conexoes) e fora do lock do bloco: o rollback do documento não
+ *   devolve o bloco (senão outra instância reservaria os mesmos números) e a reserva nunca
+ *   espera por uma conexão presa nas transações das requisições. Com REQUIRES_NEW no pool
+ *   da aplicação dentro do synchronized, requisições em transação esperando o lock podiam
+ *   ocupar todas as conexões e travar a thread que reservava.
+ * - Consequência: a sequência tem buracos (fim de bloco não usado no restart, documento
+ *   que falhou) e não é estritamente crescente entre instâncias. Para numeração sem
+ *   buracos (senhas de atendimento) use um contador transacional.
+ *
+ * Métricas: documentos.numeros.alocados e documentos.numeros.blocos (tag serie) e o
+ * tempo de reserva documentos.numeros.reserva.
+ */
+@Slf4j
+@Service
+public class NumeroDocumentoService {
+
+    /** Reserva "tamanho" números; retorna o último do bloco (o bloco é [ultimo - tamanho + 1, ultimo]). */
+    private static final String SQL_RESERVAR_BLOCO = """
+            INSERT INTO documento_numero_bloco (serie, data, ultimo_reservado) VALUES (?, ?, ?)
+            ON CONFLICT (serie, data)
+            DO UPDATE SET ultimo_reservado = documento_numero_bloco.ultimo_reservado + EXCLUDED.ultimo_reservado
+            RETURNING ultimo_reservado
+            """;
+
+    private final HikariDataSource poolNumeracao;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int tamanhoBloco;
+    private final Timer tempoReserva;
+
+    private final Map<Chave, Bloco> blocos = new ConcurrentHashMap<>();
+    private final Map<String, Counter> alocados = new ConcurrentHashMap<>();
+    private final Map<String, Counter> reservas = new ConcurrentHashMap<>();
+
+    public NumeroDocumentoService(DataSourceProperties dataSourceProperties,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.documentos.numeracao.tamanho-bloco:50}") int tamanhoBloco,
+                                  @Value("${app.documentos.numeracao.conexoes:2}") int conexoes) {
+        // Mesmo banco da aplicação, conexões separadas e em autocommit
+        this.poolNumeracao = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        this.poolNumeracao.setPoolName("NumeracaoDocumentosPool");
+        this.poolNumeracao.setMaximumPoolSize(Math.max(1, conexoes));
+        this.poolNumeracao.setMinimumIdle(1);
+        this.poolNumeracao.setAutoCommit(true);
+        this.jdbcTemplate = new JdbcTemplate(poolNumeracao);
+        this.meterRegistry = meterRegistry;
+        this.tamanhoBloco = Math.max(1, tamanhoBloco);
+        this.tempoReserva = Timer.builder("documentos.numeros.reserva")
+                .description("Tempo de reserva de um bloco de números no banco")
+                .register(meterRegistry);
+    }
+
+    /** Próximo número da série no dia de hoje (começa em 1). */
+    public long proximo(String serie) {
+        return proximo(serie, LocalDate.now());
+    }
+
+    /** Próximo número da série na data informada (começa em 1 a cada dia). */
+    public long proximo(String serie, LocalDate data) {
+        Chave chave = new Chave(serie, data);
+        Bloco bloco = blocos.get(chave);
+        if (bloco == null) {
+            // virada do dia: descarta os blocos de dias anteriores antes de abrir o novo
+            blocos.keySet().removeIf(c -> c.data().isBefore(data));
+            bloco = blocos.computeIfAbsent(chave, c -> new Bloco());
+        }
+
+        Long numero;
+        synchronized (bloco) {
+            numero = bloco.tirar();
+        }
+        if (numero == null) {
+            // Reserva fora do lock: as outras threads da série não esperam por esta ida ao banco.
+            // Threads que esgotam o bloco juntas reservam uma faixa cada; as sobras ficam em
+            // pendentes e são consumidas antes de uma nova reserva (nenhum número é descartado).
+            long fim = reservarBloco(chave);
+            synchronized (bloco) {
+                bloco.pendentes.addLast(new long[]{fim - tamanhoBloco + 1, fim});
+                numero = bloco.tirar();
+            }
+        }
+        alocados.computeIfAbsent(serie, s -> Counter.builder("documentos.numeros.alocados")
+                .description("Números de documento entregues")
+                .tag("serie", s)
+                .register(meterRegistry)).increment();
+        return numero;
+    }
+
+    private long reservarBloco(Chave chave) {
+        Long fim = tempoReserva.record(() -> jdbcTemplate.queryForObject(SQL_RESERVAR_BLOCO, Long.class,
+                chave.serie(), Date.valueOf(chave.data()), tamanhoBloco));
+        if (fim == null) {
+            throw new IllegalStateException("Falha ao reservar bloco de numeração da série " + chave.serie());
+        }
+        reservas.computeIfAbsent(chave.serie(), s -> Counter.builder("documentos.numeros.blocos")
+                .description("Blocos de numeração reservados no banco")
+                .tag("serie", s)
+                .register(meterRegistry)).increment();
+        log.debug("🔢 Bloco reservado: série {} em {}, números {}..{}", chave.serie(), chave.data(),
+                fim - tamanhoBloco + 1, fim);
+        return fim;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        poolNumeracao.close();
+    }
+
+    private record Chave(String serie, LocalDate data) {}
+
+    /**
+     * Faixa em uso pela instância e faixas já reservadas à espera; começa vazia (proximo > fim)
+     * para forçar a primeira reserva. Acesso sempre sob o lock do próprio bloco.
+     */
+    private static final class Bloco {
+        private long proximo = 1;
+        private long fim = 0;
+        private final Deque<long[]> pendentes = new ArrayDeque<>();
+
+        /** Próximo número em memória, ou null se a faixa atual e as pendentes acabaram. */
+        private Long tirar() {
+            if (proximo > fim) {
+                long[] faixa = pendentes.pollFirst();
+                if (faixa == null) return null;
+                proximo = faixa[0];
+                fim = faixa[1];
+            }
+            return proximo++;
+        }
+    }
+}
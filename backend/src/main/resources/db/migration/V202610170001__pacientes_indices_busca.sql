@@ -0,0 +1,45 @@
+-- V202610170001__pacientes_indices_busca.sql
+-- Índices para a busca de pacientes (PacienteBuscaService).
+--
+-- - f_normaliza_nome(): minúsculas + remoção de acentos (IMMUTABLE, indexável).
+--   Usa translate() para não depender da extensão unaccent.
+-- - Trigramas (pg_trgm) aceleram LIKE '%termo%' sobre nome, nome social e nome da mãe.
+-- - Índice btree por (nome normalizado, id) sustenta o prefixo e a paginação keyset.
+-- - CNS ganha índice próprio (CPF já é UNIQUE).
+
+CREATE OR REPLACE FUNCTION f_normaliza_nome(texto TEXT)
+    RETURNS TEXT
+    LANGUAGE sql
+    IMMUTABLE
+    PARALLEL SAFE
+AS $$
+SELECT lower(translate(coalesce(texto, ''),
+                       'ÁÀÂÃÄáàâãäÉÈÊËéèêëÍÌÎÏíìîïÓÒÔÕÖóòôõöÚÙÛÜúùûüÇçÑñ',
+                       'AAAAAaaaaaEEEEeeeeIIIIiiiiOOOOOoooooUUUUuuuuCcNn'))
+$$;
+
+-- Extensão de trigramas (pode exigir privilégio; sem ela ficam só os índices btree)
+DO $$
+BEGIN
+    CREATE EXTENSION IF NOT EXISTS pg_trgm;
+EXCEPTION WHEN OTHERS THEN
+    RAISE NOTICE 'pg_trgm indisponível (%): busca por trecho de nome ficará sem índice GIN', SQLERRM;
+END $$;
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm') THEN
+        CREATE INDEX IF NOT EXISTS idx_pacientes_nome_trgm
+            ON pacientes USING gin (f_normaliza_nome(nome_completo) gin_trgm_ops);
+        CREATE INDEX IF NOT EXISTS idx_pacientes_nome_social_trgm
+            ON pacientes USING gin (f_normaliza_nome(nome_social) gin_trgm_ops);
+        CREATE INDEX IF NOT EXISTS idx_pacientes_nome_mae_trgm
+            ON pacientes USING gin (f_normaliza_nome(nome_mae) gin_trgm_ops);
+    END IF;
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_pacientes_nome_norm_id
+    ON pacientes (f_normaliza_nome(nome_completo) text_pattern_ops, id);
+
+CREATE INDEX IF NOT EXISTS idx_pacientes_cns
+    ON pacientes (cns);
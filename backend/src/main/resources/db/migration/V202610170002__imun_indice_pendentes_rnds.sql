@@ -0,0 +1,8 @@
+-- V202610170002__imun_indice_pendentes_rnds.sql
+-- Índice parcial para a leitura keyset das aplicações pendentes de exportação RNDS
+-- (ExportacaoRndsService: WHERE exportado_rnds = false AND id > ? ORDER BY id LIMIT n).
+-- Só as pendentes entram no índice; ele encolhe conforme a fila é drenada.
+
+CREATE INDEX IF NOT EXISTS idx_imun_aplicacoes_pendentes_rnds
+    ON imun_aplicacoes_vacinas (id)
+    WHERE exportado_rnds = false;
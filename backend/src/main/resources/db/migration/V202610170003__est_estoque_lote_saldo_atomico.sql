@@ -0,0 +1,42 @@
+-- V202610170003__est_estoque_lote_saldo_atomico.sql
+-- Alinha est_estoque_lote com a entidade EstoqueLote e prepara o débito/crédito atômico
+-- (EstoqueMovimentoService: UPDATE ... SET saldo = saldo - q WHERE saldo >= q e upsert no crédito).
+--
+-- - Colunas legadas local_armazenamento_id/quantidade_atual → local_id/saldo.
+-- - custo e version (controle otimista da entidade).
+-- - CHECK saldo >= 0 como última linha de defesa contra saldo negativo
+--   (NOT VALID: não falha a migração se já houver saldo negativo legado).
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+                WHERE table_name = 'est_estoque_lote' AND column_name = 'local_armazenamento_id')
+       AND NOT EXISTS (SELECT 1 FROM information_schema.columns
+                        WHERE table_name = 'est_estoque_lote' AND column_name = 'local_id') THEN
+        ALTER TABLE est_estoque_lote RENAME COLUMN local_armazenamento_id TO local_id;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+                WHERE table_name = 'est_estoque_lote' AND column_name = 'quantidade_atual')
+       AND NOT EXISTS (SELECT 1 FROM information_schema.columns
+                        WHERE table_name = 'est_estoque_lote' AND column_name = 'saldo') THEN
+        ALTER TABLE est_estoque_lote RENAME COLUMN quantidade_atual TO saldo;
+    END IF;
+END $$;
+
+ALTER TABLE est_estoque_lote ALTER COLUMN saldo TYPE NUMERIC(19,3);
+ALTER TABLE est_estoque_lote ALTER COLUMN saldo SET DEFAULT 0;
+ALTER TABLE est_estoque_lote ADD COLUMN IF NOT EXISTS custo NUMERIC(19,6);
+ALTER TABLE est_estoque_lote ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+DO $$
+BEGIN
+    ALTER TABLE est_estoque_lote
+        ADD CONSTRAINT ck_estoque_lote_saldo_nao_negativo CHECK (saldo >= 0) NOT VALID;
+EXCEPTION WHEN duplicate_object THEN
+    NULL;
+END $$;
+
+-- Upsert do crédito usa ON CONFLICT (local_id, lote_id): garante o índice único
+CREATE UNIQUE INDEX IF NOT EXISTS uk_estoque_local_lote
+    ON est_estoque_lote (local_id, lote_id);
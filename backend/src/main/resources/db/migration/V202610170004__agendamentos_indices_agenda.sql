@@ -0,0 +1,30 @@
+-- V202610170004__agendamentos_indices_agenda.sql
+-- Consultas da agenda filtradas/ordenadas no banco (AgendamentoServiceImpl):
+--   visão do dia      WHERE data_hora >= ? AND data_hora < ? [AND unidade_id = ?] ORDER BY data_hora, id
+--   paginação keyset  WHERE (data_hora, id) < (?, ?) [AND unidade_id = ?] ORDER BY data_hora DESC, id DESC
+--   histórico         WHERE paciente_id = ? ORDER BY data_hora DESC, id DESC
+--   fila da triagem   WHERE status IN (...) AND triagem_id IS NULL ORDER BY data_hora, id
+
+-- Coluna já prevista no schema original, agora mapeada na entidade
+ALTER TABLE agendamentos ADD COLUMN IF NOT EXISTS unidade_id BIGINT;
+
+CREATE INDEX IF NOT EXISTS idx_agendamentos_data_hora_id
+    ON agendamentos (data_hora, id);
+
+CREATE INDEX IF NOT EXISTS idx_agendamentos_unidade_data_hora
+    ON agendamentos (unidade_id, data_hora, id)
+    WHERE unidade_id IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_agendamentos_paciente_data_hora
+    ON agendamentos (paciente_id, data_hora DESC, id DESC);
+
+-- Só os ainda não triados entram: o índice fica do tamanho da fila, não do histórico
+CREATE INDEX IF NOT EXISTS idx_agendamentos_aguardando_triagem
+    ON agendamentos (status, data_hora, id)
+    WHERE triagem_id IS NULL;
+
+-- Cobertos pelos compostos acima (mesma coluna à esquerda)
+DROP INDEX IF EXISTS idx_agendamentos_data_hora;
+DROP INDEX IF EXISTS idx_agendamentos_paciente;
+
+ANALYZE agendamentos;
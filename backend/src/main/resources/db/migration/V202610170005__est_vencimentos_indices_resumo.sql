@@ -0,0 +1,37 @@
+-- V202610170005__est_vencimentos_indices_resumo.sql
+-- Consulta de vencimentos por local sem varrer todos os lotes (ConsultaSaldoService):
+--   est_estoque_lote WHERE local_id = ? AND saldo > 0  →  est_lote WHERE data_vencimento <= ?
+-- e resumo por faixa de vencimento pré-calculado (VencimentoResumoService).
+
+-- Coluna legada data_validade → data_vencimento (nome usado pela entidade Lote)
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+                WHERE table_name = 'est_lote' AND column_name = 'data_validade')
+       AND NOT EXISTS (SELECT 1 FROM information_schema.columns
+                        WHERE table_name = 'est_lote' AND column_name = 'data_vencimento') THEN
+        ALTER TABLE est_lote RENAME COLUMN data_validade TO data_vencimento;
+    END IF;
+END $$;
+ALTER TABLE est_lote ADD COLUMN IF NOT EXISTS data_vencimento DATE;
+
+-- Só saldos positivos: lotes zerados (a maior parte do histórico) ficam fora do índice
+CREATE INDEX IF NOT EXISTS idx_est_estoque_lote_positivo
+    ON est_estoque_lote (local_id, lote_id) INCLUDE (saldo)
+    WHERE saldo > 0;
+
+CREATE INDEX IF NOT EXISTS idx_est_lote_vencimento
+    ON est_lote (data_vencimento, id)
+    WHERE data_vencimento IS NOT NULL;
+
+-- Resumo por local e faixa (VENCIDO, ATE_30_DIAS, ATE_60_DIAS, ATE_90_DIAS, ACIMA_90_DIAS),
+-- recalculado uma vez por dia; o painel da farmácia lê só esta tabela
+CREATE TABLE IF NOT EXISTS est_vencimento_resumo (
+    local_id         BIGINT        NOT NULL,
+    faixa            VARCHAR(20)   NOT NULL,
+    quantidade_lotes INTEGER       NOT NULL,
+    saldo_total      NUMERIC(19,3) NOT NULL,
+    data_referencia  DATE          NOT NULL,
+    calculado_em     TIMESTAMP     NOT NULL DEFAULT now(),
+    PRIMARY KEY (local_id, faixa)
+);
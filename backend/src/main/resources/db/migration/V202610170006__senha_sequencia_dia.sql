@@ -0,0 +1,40 @@
+-- V202610170006__senha_sequencia_dia.sql
+-- Sequência de senhas por fila e por dia, alocada atomicamente (SenhaAtendimentoService).
+--
+-- - senha_sequencia_dia: um contador por (fila, dia), incrementado com
+--   INSERT ... ON CONFLICT DO UPDATE ... RETURNING. O lock da linha vai até o commit,
+--   então duas emissões simultâneas nunca recebem o mesmo número, e um rollback
+--   devolve o número (sem buracos).
+-- - A unicidade de senha_atendimento passa a ser por (fila, dia, sequência): o índice
+--   antigo (numero_senha, fila_id) impedia repetir "A001" no dia seguinte.
+-- - Índice parcial para "chamar próxima" (status AGUARDANDO, na ordem da chamada).
+
+CREATE TABLE IF NOT EXISTS senha_sequencia_dia (
+    fila_id          BIGINT  NOT NULL,
+    data             DATE    NOT NULL,
+    ultima_sequencia INTEGER NOT NULL,
+    PRIMARY KEY (fila_id, data)
+);
+
+-- Implantação no meio do dia: continua a partir das senhas já emitidas hoje
+INSERT INTO senha_sequencia_dia (fila_id, data, ultima_sequencia)
+SELECT fila_id, CAST(data_emissao AS date), MAX(sequencia)
+  FROM senha_atendimento
+ WHERE data_emissao >= CURRENT_DATE
+ GROUP BY fila_id, CAST(data_emissao AS date)
+ON CONFLICT (fila_id, data) DO NOTHING;
+
+DROP INDEX IF EXISTS uk_senha_numero_fila;
+
+DO $$
+BEGIN
+    CREATE UNIQUE INDEX IF NOT EXISTS uk_senha_fila_dia_sequencia
+        ON senha_atendimento (fila_id, CAST(data_emissao AS date), sequencia);
+EXCEPTION WHEN unique_violation THEN
+    -- Duplicidades legadas (emissões concorrentes antes do alocador): não bloqueia a migração
+    RAISE NOTICE 'uk_senha_fila_dia_sequencia não criado: há senhas duplicadas no histórico';
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_senha_fila_aguardando
+    ON senha_atendimento (fila_id, tipo_senha DESC, data_emissao, sequencia)
+    WHERE status = 'AGUARDANDO';
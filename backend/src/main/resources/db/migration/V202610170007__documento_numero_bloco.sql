@@ -0,0 +1,39 @@
+-- V202610170007__documento_numero_bloco.sql
+-- Numeração de documentos por série e dia, reservada em blocos por instância (NumeroDocumentoService).
+--
+-- - ultimo_reservado: último número já entregue a alguma instância. Cada reserva soma o tamanho
+--   do bloco com INSERT ... ON CONFLICT DO UPDATE ... RETURNING (atômico entre instâncias).
+-- - Implantação no meio do dia: as séries SADT e LAB_RECEPCAO continuam a partir dos números
+--   já emitidos hoje pelo gerador antigo.
+
+CREATE TABLE IF NOT EXISTS documento_numero_bloco (
+    serie            VARCHAR(40) NOT NULL,
+    data             DATE        NOT NULL,
+    ultimo_reservado BIGINT      NOT NULL,
+    PRIMARY KEY (serie, data)
+);
+
+DO $$
+DECLARE
+    dia TEXT := to_char(CURRENT_DATE, 'YYYYMMDD');
+BEGIN
+    IF to_regclass('sadt') IS NOT NULL THEN
+        INSERT INTO documento_numero_bloco (serie, data, ultimo_reservado)
+        SELECT 'SADT', CURRENT_DATE, MAX(CAST(substring(numero_sadt FROM 10) AS BIGINT))
+          FROM sadt
+         WHERE numero_sadt LIKE dia || '-%'
+           AND substring(numero_sadt FROM 10) ~ '^[0-9]+$'
+        HAVING MAX(CAST(substring(numero_sadt FROM 10) AS BIGINT)) IS NOT NULL
+        ON CONFLICT (serie, data) DO NOTHING;
+    END IF;
+
+    IF to_regclass('lab_recepcao_exame') IS NOT NULL THEN
+        INSERT INTO documento_numero_bloco (serie, data, ultimo_reservado)
+        SELECT 'LAB_RECEPCAO', CURRENT_DATE, MAX(CAST(substring(numero_recepcao FROM 12) AS BIGINT))
+          FROM lab_recepcao_exame
+         WHERE numero_recepcao LIKE 'LAB' || dia || '%'
+           AND substring(numero_recepcao FROM 12) ~ '^[0-9]+$'
+        HAVING MAX(CAST(substring(numero_recepcao FROM 12) AS BIGINT)) IS NOT NULL
+        ON CONFLICT (serie, data) DO NOTHING;
+    END IF;
+END $$;
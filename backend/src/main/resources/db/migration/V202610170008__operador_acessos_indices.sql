@@ -0,0 +1,34 @@
+-- V202610170008__operador_acessos_indices.sql
+-- Índices por operador para as consultas de acesso (OperadorAcessosService / PoliticaAcessoCache),
+-- que deixaram de usar findAll() + filtro em memória.
+--
+-- Tabelas e colunas conferidas antes: o esquema legado tem nomes diferentes dos da entidade
+-- (ex.: operador_horario_acesso x operador_horarios_acesso).
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+                WHERE table_name = 'operador_horarios_acesso' AND column_name = 'dia_semana') THEN
+        CREATE INDEX IF NOT EXISTS idx_operador_horarios_acesso_operador
+            ON operador_horarios_acesso (operador_id, dia_semana, hora_inicio);
+    END IF;
+
+    IF to_regclass('operador_restricoes_acesso') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS idx_operador_restricoes_acesso_operador
+            ON operador_restricoes_acesso (operador_id, id);
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+                WHERE table_name = 'operador_termo_uso' AND column_name = 'aceito_em') THEN
+        CREATE INDEX IF NOT EXISTS idx_operador_termo_uso_operador
+            ON operador_termo_uso (operador_id, aceito_em DESC);
+        CREATE INDEX IF NOT EXISTS idx_operador_termo_uso_aceito_em
+            ON operador_termo_uso (aceito_em DESC);
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+                WHERE table_name = 'operador_login_auditoria' AND column_name = 'data_hora') THEN
+        CREATE INDEX IF NOT EXISTS idx_login_auditoria_operador_data_hora
+            ON operador_login_auditoria (operador_id, data_hora DESC);
+    END IF;
+END $$;
@@ -0,0 +1,26 @@
+-- V202610170009__prontuario_documentos_conteudo.sql
+-- PDFs do prontuário fora da linha: conteúdo em arquivo endereçado por SHA-256.
+--
+-- - conteudo_hash: SHA-256 do arquivo no armazenamento de conteúdo (null = ainda no bytea).
+-- - tamanho_bytes: exibido na listagem sem ler o conteúdo; preenchido aqui para as linhas antigas.
+-- - arquivo_pdf deixa de ser obrigatório; é zerado pela migração em segundo plano
+--   (ProntuarioDocumentoMigracaoBlob) depois que o arquivo é gravado.
+-- - Índices para a listagem por paciente e para o último documento de um agendamento.
+
+ALTER TABLE prontuario_documentos ADD COLUMN IF NOT EXISTS conteudo_hash VARCHAR(64);
+ALTER TABLE prontuario_documentos ADD COLUMN IF NOT EXISTS tamanho_bytes BIGINT;
+ALTER TABLE prontuario_documentos ALTER COLUMN arquivo_pdf DROP NOT NULL;
+
+UPDATE prontuario_documentos
+   SET tamanho_bytes = octet_length(arquivo_pdf)
+ WHERE tamanho_bytes IS NULL AND arquivo_pdf IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_pront_doc_paciente_criado
+    ON prontuario_documentos (paciente_id, criado_em DESC);
+
+CREATE INDEX IF NOT EXISTS idx_pront_doc_agendamento_tipo
+    ON prontuario_documentos (agendamento_id, tipo, criado_em DESC);
+
+CREATE INDEX IF NOT EXISTS idx_pront_doc_migracao_pendente
+    ON prontuario_documentos (id)
+ WHERE conteudo_hash IS NULL;
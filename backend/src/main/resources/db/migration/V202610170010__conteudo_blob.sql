@@ -0,0 +1,32 @@
+-- V202610170010__conteudo_blob.sql
+-- Contagem de referências do armazenamento endereçado por conteúdo (ArmazenamentoConteudoService).
+--
+-- - Uma linha por arquivo (hash SHA-256). referencias = quantos documentos apontam para ele;
+--   conteúdo repetido é gravado uma vez só.
+-- - Com referencias = 0 por mais que o período de carência, o scrubber apaga linha e arquivo.
+-- - verificado_em / corrompido: última releitura completa do arquivo pelo scrubber.
+-- - Os PDFs do prontuário já gravados por hash entram com a contagem atual.
+
+CREATE TABLE IF NOT EXISTS conteudo_blob (
+    hash           VARCHAR(64) PRIMARY KEY,
+    tamanho_bytes  BIGINT      NOT NULL,
+    referencias    INTEGER     NOT NULL DEFAULT 0 CHECK (referencias >= 0),
+    criado_em      TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    atualizado_em  TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    verificado_em  TIMESTAMP,
+    corrompido     BOOLEAN     NOT NULL DEFAULT FALSE
+);
+
+CREATE INDEX IF NOT EXISTS idx_conteudo_blob_sem_referencia
+    ON conteudo_blob (atualizado_em)
+ WHERE referencias = 0;
+
+CREATE INDEX IF NOT EXISTS idx_conteudo_blob_verificacao
+    ON conteudo_blob (verificado_em NULLS FIRST);
+
+INSERT INTO conteudo_blob (hash, tamanho_bytes, referencias)
+SELECT conteudo_hash, COALESCE(MAX(tamanho_bytes), 0), COUNT(*)
+  FROM prontuario_documentos
+ WHERE conteudo_hash IS NOT NULL
+ GROUP BY conteudo_hash
+ON CONFLICT (hash) DO NOTHING;
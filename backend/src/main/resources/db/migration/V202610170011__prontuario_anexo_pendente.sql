@@ -0,0 +1,35 @@
+-- V202610170011__prontuario_anexo_pendente.sql
+-- Outbox dos anexos do prontuário (ProntuarioAnexoOutbox).
+--
+-- - A impressão grava o PDF no armazenamento de conteúdo e insere uma linha pequena aqui
+--   (sem o bytea); o worker em segundo plano cria os registros em prontuario_documentos em lote.
+-- - Linha só é apagada na mesma transação que cria o documento: nada se perde em restart.
+-- - chave_idempotencia vai para prontuario_documentos.chave_anexo (índice único): a mesma
+--   linha nunca vira dois documentos, mesmo com reentrega.
+-- - tentativas/proxima_tentativa_em/ultimo_erro: retentativa com espera crescente.
+
+CREATE TABLE IF NOT EXISTS prontuario_anexo_pendente (
+    id                   BIGSERIAL   PRIMARY KEY,
+    chave_idempotencia   VARCHAR(36) NOT NULL UNIQUE,
+    tipo                 VARCHAR(32) NOT NULL,
+    paciente_id          VARCHAR(50) NOT NULL,
+    atendimento_id       VARCHAR(50),
+    agendamento_id       BIGINT,
+    numero_referencia    VARCHAR(64),
+    arquivo_nome         VARCHAR(120) NOT NULL,
+    conteudo_hash        VARCHAR(64) NOT NULL,
+    tamanho_bytes        BIGINT      NOT NULL,
+    criado_em            TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    tentativas           INTEGER     NOT NULL DEFAULT 0,
+    proxima_tentativa_em TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    ultimo_erro          TEXT
+);
+
+CREATE INDEX IF NOT EXISTS idx_pront_anexo_pendente_proxima
+    ON prontuario_anexo_pendente (proxima_tentativa_em, id);
+
+ALTER TABLE prontuario_documentos ADD COLUMN IF NOT EXISTS chave_anexo VARCHAR(36);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_pront_doc_chave_anexo
+    ON prontuario_documentos (chave_anexo)
+ WHERE chave_anexo IS NOT NULL;
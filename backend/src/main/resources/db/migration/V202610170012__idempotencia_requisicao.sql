@@ -0,0 +1,22 @@
+-- V202610170012__idempotencia_requisicao.sql
+-- Cache de respostas por Idempotency-Key (IdempotenciaFilter).
+--
+-- - O gateway só repete POST/PATCH quando o cliente manda Idempotency-Key; esta tabela garante
+--   que a repetição (em qualquer instância) devolva a resposta original em vez de executar de novo.
+-- - chave = login do operador + ':' + Idempotency-Key (chaves de operadores diferentes não colidem).
+-- - situacao EM_ANDAMENTO com expira_em curto (lease); CONCLUIDA guarda status, content-type e corpo
+--   até expira_em (TTL). Respostas 5xx não são guardadas: a repetição executa de novo.
+
+CREATE TABLE IF NOT EXISTS idempotencia_requisicao (
+    chave         VARCHAR(200) PRIMARY KEY,
+    metodo        VARCHAR(10)  NOT NULL,
+    caminho       VARCHAR(500) NOT NULL,
+    situacao      VARCHAR(20)  NOT NULL,
+    http_status   INTEGER,
+    content_type  VARCHAR(200),
+    corpo         BYTEA,
+    criado_em     TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expira_em     TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotencia_expira_em ON idempotencia_requisicao (expira_em);
@@ -0,0 +1,30 @@
+-- V202610170013__procedimentos_rapidos_busca.sql
+-- Índices da listagem filtrada de procedimentos rápidos (ProcedimentoRapidoRepositoryImpl).
+--
+-- - texto_busca: médico solicitante + especialidade + origem, normalizados por f_normaliza_nome
+--   (V202610170001). Coluna gerada: sempre coerente com a linha, sem trigger.
+-- - Trigramas em texto_busca atendem o termo livre (LIKE '%termo%'); o nome do paciente usa
+--   o índice de trigramas já existente em pacientes.
+-- - (status, data_criacao DESC) atende o filtro mais comum da tela: status + período, ordenado
+--   do mais recente.
+
+ALTER TABLE procedimentos_rapidos
+    ADD COLUMN IF NOT EXISTS texto_busca TEXT
+        GENERATED ALWAYS AS (
+            f_normaliza_nome(medico_solicitante) || ' ' ||
+            f_normaliza_nome(especialidade_origem) || ' ' ||
+            f_normaliza_nome(origem_encaminhamento)
+        ) STORED;
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm') THEN
+        CREATE INDEX IF NOT EXISTS idx_proc_rapido_texto_busca_trgm
+            ON procedimentos_rapidos USING gin (texto_busca gin_trgm_ops);
+    END IF;
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_proc_rapido_status_data
+    ON procedimentos_rapidos (status, data_criacao DESC);
+
+ANALYZE procedimentos_rapidos;
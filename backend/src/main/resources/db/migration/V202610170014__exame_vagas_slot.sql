@@ -0,0 +1,42 @@
+-- V202610170014__exame_vagas_slot.sql
+-- Inventário de vagas de exame por dia (InventarioVagasExameService).
+--
+-- - Uma linha por slot concreto: horário-modelo (horarios_exames) + data + hora.
+-- - capacidade = vagas_por_horario do modelo (0 quando o slot saiu da grade ou o modelo foi
+--   inativado, mas ainda tem agendamentos); bloqueado = coberto por um bloqueios_horarios ativo.
+-- - Reserva: UPDATE ... SET ocupadas = ocupadas + 1 WHERE NOT bloqueado AND ocupadas < capacidade
+--   (0 linhas = sem vaga); cancelamento devolve a vaga. Encaixes são contados à parte.
+-- - (unidade_id, data) atende a visão mensal de disponibilidade em um único SELECT agregado.
+
+CREATE TABLE IF NOT EXISTS exame_vagas_slot (
+    horario_exame_id BIGINT  NOT NULL REFERENCES horarios_exames(id) ON DELETE CASCADE,
+    data             DATE    NOT NULL,
+    hora             TIME    NOT NULL,
+    unidade_id       BIGINT  NOT NULL,
+    capacidade       INTEGER NOT NULL,
+    ocupadas         INTEGER NOT NULL DEFAULT 0,
+    encaixes         INTEGER NOT NULL DEFAULT 0,
+    bloqueado        BOOLEAN NOT NULL DEFAULT FALSE,
+    CONSTRAINT pk_exame_vagas_slot PRIMARY KEY (horario_exame_id, data, hora),
+    CONSTRAINT chk_exame_vagas_ocupadas CHECK (ocupadas >= 0 AND encaixes >= 0 AND capacidade >= 0)
+);
+
+CREATE INDEX IF NOT EXISTS idx_exame_vagas_unidade_data ON exame_vagas_slot (unidade_id, data);
+
+-- Ocupação dos agendamentos futuros já existentes (a grade livre é gerada pela aplicação)
+INSERT INTO exame_vagas_slot (horario_exame_id, data, hora, unidade_id, capacidade, ocupadas, encaixes)
+SELECT a.horario_exame_id,
+       CAST(a.data_hora_exame AS date),
+       CAST(a.data_hora_exame AS time),
+       h.unidade_id,
+       h.vagas_por_horario,
+       count(*) FILTER (WHERE NOT COALESCE(a.encaixe, FALSE)),
+       count(*) FILTER (WHERE COALESCE(a.encaixe, FALSE))
+  FROM agendamentos_exames a
+  JOIN horarios_exames h ON h.id = a.horario_exame_id
+ WHERE a.data_hora_exame >= CURRENT_DATE
+   AND a.status NOT IN ('CANCELADO', 'NAO_COMPARECEU', 'REAGENDADO')
+ GROUP BY 1, 2, 3, 4, 5
+ON CONFLICT DO NOTHING;
+
+ANALYZE exame_vagas_slot;
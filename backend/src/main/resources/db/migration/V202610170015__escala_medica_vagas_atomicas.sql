@@ -0,0 +1,31 @@
+-- V202610170015__escala_medica_vagas_atomicas.sql
+-- Vagas da escala médica do ambulatório com UPDATE condicional (EscalaMedicaService).
+--
+-- - Agendamento passa a guardar a escala em que ocupou a vaga (escala_id): a liberação
+--   devolve a vaga na mesma escala, sem procurar "a primeira com vaga" do dia.
+-- - Agendamentos existentes recebem a escala ativa do profissional que cobre o horário.
+-- - CHECK de ocupação como última defesa (NOT VALID: não reavalia linhas antigas).
+
+ALTER TABLE IF EXISTS ambulatorio_agendamentos ADD COLUMN IF NOT EXISTS escala_id BIGINT;
+
+UPDATE ambulatorio_agendamentos a
+   SET escala_id = e.id
+  FROM ambulatorio_escalas_medicas e
+ WHERE a.escala_id IS NULL
+   AND e.profissional_id = a.profissional_id
+   AND e.data_escala = a.data_agendamento
+   AND a.hora_agendamento BETWEEN e.hora_inicio AND e.hora_fim;
+
+CREATE INDEX IF NOT EXISTS idx_ambulatorio_agendamentos_escala ON ambulatorio_agendamentos (escala_id);
+
+CREATE INDEX IF NOT EXISTS idx_escala_profissional_data
+    ON ambulatorio_escalas_medicas (profissional_id, data_escala, hora_inicio);
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'chk_escala_vagas_ocupadas') THEN
+        ALTER TABLE ambulatorio_escalas_medicas
+            ADD CONSTRAINT chk_escala_vagas_ocupadas
+            CHECK (vagas_ocupadas >= 0 AND vagas_ocupadas + vagas_bloqueadas <= vagas_disponveis) NOT VALID;
+    END IF;
+END $$;
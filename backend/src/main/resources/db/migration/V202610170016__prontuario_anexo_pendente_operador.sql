@@ -0,0 +1,8 @@
+-- V202610170016__prontuario_anexo_pendente_operador.sql
+-- Autor dos anexos automáticos do prontuário (ProntuarioAnexoOutbox).
+--
+-- O operador é lido na thread da requisição, no enfileiramento, e o worker o grava em
+-- prontuario_documentos.criado_por_operador_id. Pendências antigas ficam sem autor (NULL),
+-- como os documentos criados antes do outbox.
+
+ALTER TABLE prontuario_anexo_pendente ADD COLUMN IF NOT EXISTS criado_por_operador_id BIGINT;
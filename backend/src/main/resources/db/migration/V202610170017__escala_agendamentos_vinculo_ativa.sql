@@ -0,0 +1,37 @@
+-- V202610170017__escala_agendamentos_vinculo_ativa.sql
+-- Corrige o escala_id preenchido por V202610170015 nos agendamentos antigos do ambulatório.
+--
+-- - V202610170015 aceitava escala de qualquer status e, com mais de uma escala cobrindo o
+--   horário, o UPDATE ... FROM ficava com uma arbitrária. Agora vale a mesma escolha de
+--   EscalaMedicaService.resolverEscala: só ATIVA, a primeira por (hora_inicio, id).
+-- - Só agendamentos criados antes de V202610170015 ser aplicada: os posteriores foram ligados
+--   pela aplicação (escala da requisição ou resolverEscala) e ficam como estão.
+-- - Sem escala ATIVA que cubra o horário, o vínculo volta a NULL (a liberação resolve a escala
+--   na hora, como antes de V202610170015).
+
+CREATE TEMPORARY TABLE tmp_agendamentos_legados ON COMMIT DROP AS
+SELECT a.id, a.profissional_id, a.data_agendamento, a.hora_agendamento
+  FROM ambulatorio_agendamentos a
+ WHERE a.data_criacao < COALESCE((SELECT max(installed_on) FROM flyway_schema_history
+                                   WHERE version = '202610170015'), now());
+
+UPDATE ambulatorio_agendamentos a
+   SET escala_id = NULL
+  FROM tmp_agendamentos_legados l
+ WHERE a.id = l.id
+   AND a.escala_id IS NOT NULL
+   AND NOT EXISTS (SELECT 1 FROM ambulatorio_escalas_medicas e
+                    WHERE e.id = a.escala_id AND e.status_escala = 'ATIVA');
+
+UPDATE ambulatorio_agendamentos a
+   SET escala_id = x.escala_id
+  FROM (SELECT DISTINCT ON (l.id) l.id AS agendamento_id, e.id AS escala_id
+          FROM tmp_agendamentos_legados l
+          JOIN ambulatorio_escalas_medicas e
+            ON e.profissional_id = l.profissional_id
+           AND e.data_escala = l.data_agendamento
+           AND l.hora_agendamento BETWEEN e.hora_inicio AND e.hora_fim
+           AND e.status_escala = 'ATIVA'
+         ORDER BY l.id, e.hora_inicio, e.id) x
+ WHERE a.id = x.agendamento_id
+   AND a.escala_id IS DISTINCT FROM x.escala_id;
@@ -0,0 +1,121 @@
+package com.sistemadesaude.backend.estoque.service;
+
+import com.sistemadesaude.backend.support.BancoIsolado;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Débito concorrente de estoque pelo EstoqueMovimentoService.debitarLote, em PostgreSQL real.
+ *
+ * Cada chamada roda na própria transação (como o @Transactional do serviço). Débito só diminui o
+ * saldo: saldo final = inicial - aceitos, e saldo final >= 0 implica que ele nunca ficou negativo.
+ */
+@EnabledIfEnvironmentVariable(named = BancoIsolado.VARIAVEL_URL, matches = ".+")
+class EstoqueMovimentoServiceConcorrenciaTest {
+
+    private static final int THREADS = 32;
+    private static final long LOCAL = 1L;
+    private static final long LOTE_A = 1L;
+    private static final long LOTE_B = 2L;
+
+    private BancoIsolado banco;
+    private EstoqueMovimentoService service;
+
+    @BeforeEach
+    void setUp() {
+        banco = BancoIsolado.criar(THREADS, "est_estoque_lote");
+        service = new EstoqueMovimentoService(banco.jdbcTemplate());
+    }
+
+    @AfterEach
+    void tearDown() {
+        banco.close();
+    }
+
+    @Test
+    void debitosConcorrentesNoMesmoLoteNaoPerdemAtualizacaoNemNegativam() throws Exception {
+        int saldoInicial = 1_000;
+        int tentativas = 2_000;
+        criarSaldo(LOTE_A, saldoInicial);
+
+        List<Resultado> resultados = BancoIsolado.emParalelo(THREADS, tentativas,
+                i -> debitar(Map.of(LOTE_A, BigDecimal.ONE)));
+
+        assertEquals(0, contar(resultados, Resultado.ERRO), "falha inesperada (deadlock, CHECK, conexão)");
+        assertEquals(saldoInicial, contar(resultados, Resultado.ACEITO));
+        assertEquals(tentativas - saldoInicial, contar(resultados, Resultado.SEM_SALDO));
+        assertEquals(0, saldo(LOTE_A).signum());
+        assertEquals(saldoInicial, versao(LOTE_A));
+    }
+
+    @Test
+    void documentoComVariosLotesDebitaTudoOuNada() throws Exception {
+        criarSaldo(LOTE_A, 600);
+        criarSaldo(LOTE_B, 250);
+
+        // Metade das threads informa os lotes em ordem inversa: o serviço ordena por id (sem deadlock)
+        List<Resultado> resultados = BancoIsolado.emParalelo(THREADS, 400, i -> {
+            Map<Long, BigDecimal> documento = new LinkedHashMap<>();
+            if (i % 2 == 0) {
+                documento.put(LOTE_A, BigDecimal.valueOf(2));
+                documento.put(LOTE_B, BigDecimal.ONE);
+            } else {
+                documento.put(LOTE_B, BigDecimal.ONE);
+                documento.put(LOTE_A, BigDecimal.valueOf(2));
+            }
+            return debitar(documento);
+        });
+
+        long aceitos = contar(resultados, Resultado.ACEITO);
+        assertEquals(0, contar(resultados, Resultado.ERRO), "falha inesperada (deadlock, CHECK, conexão)");
+        assertEquals(250, aceitos);
+        assertEquals(0, saldo(LOTE_B).signum());
+        // Documentos recusados por falta de B não podem ter deixado débito parcial em A
+        assertEquals(0, BigDecimal.valueOf(600 - 2 * aceitos).compareTo(saldo(LOTE_A)));
+    }
+
+    private enum Resultado { ACEITO, SEM_SALDO, ERRO }
+
+    private Resultado debitar(Map<Long, BigDecimal> documento) {
+        try {
+            banco.emTransacao(() -> service.debitarLote(LOCAL, documento));
+            return Resultado.ACEITO;
+        } catch (IllegalArgumentException e) {
+            return Resultado.SEM_SALDO;
+        } catch (RuntimeException e) {
+            return Resultado.ERRO;
+        }
+    }
+
+    private static long contar(List<Resultado> resultados, Resultado r) {
+        return Collections.frequency(resultados, r);
+    }
+
+    private void criarSaldo(long loteId, int saldo) {
+        banco.jdbcTemplate().update(
+                "INSERT INTO est_estoque_lote (local_id, lote_id, saldo, version) VALUES (?, ?, ?, 0)",
+                LOCAL, loteId, BigDecimal.valueOf(saldo));
+    }
+
+    private BigDecimal saldo(long loteId) {
+        return banco.jdbcTemplate().queryForObject(
+                "SELECT saldo FROM est_estoque_lote WHERE local_id = ? AND lote_id = ?",
+                BigDecimal.class, LOCAL, loteId);
+    }
+
+    private long versao(long loteId) {
+        return banco.jdbcTemplate().queryForObject(
+                "SELECT version FROM est_estoque_lote WHERE local_id = ? AND lote_id = ?",
+                Long.class, LOCAL, loteId);
+    }
+}
@@ -0,0 +1,129 @@
+package com.sistemadesaude.backend.hospitalar.service;
+
+import com.sistemadesaude.backend.support.BancoIsolado;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ocupação e liberação concorrentes das vagas de uma escala pelo EscalaMedicaService, em PostgreSQL real.
+ *
+ * Só ocuparVaga/liberarVaga são exercitados (JdbcTemplate); os repositórios JPA não participam.
+ * Cada chamada roda na própria transação, como na criação/finalização do agendamento.
+ */
+@EnabledIfEnvironmentVariable(named = BancoIsolado.VARIAVEL_URL, matches = ".+")
+class EscalaMedicaServiceConcorrenciaTest {
+
+    private static final int THREADS = 64;
+    private static final int CAPACIDADE = 40;
+    private static final int BLOQUEADAS = 5;
+    private static final long ESCALA = 1L;
+    private static final long PROFISSIONAL = 10L;
+    private static final LocalDate DATA = LocalDate.of(2026, 11, 3);
+    private static final LocalTime HORA = LocalTime.of(9, 0);
+
+    private BancoIsolado banco;
+    private EscalaMedicaService service;
+
+    @BeforeEach
+    void setUp() {
+        banco = BancoIsolado.criar(THREADS, "ambulatorio_escalas_medicas");
+        service = new EscalaMedicaService(null, null, banco.jdbcTemplate(), new EscalaVagasDiaCache(30, 60));
+        banco.jdbcTemplate().update("""
+                INSERT INTO ambulatorio_escalas_medicas
+                    (id, profissional_id, unidade_id, especialidade_id, data_escala, hora_inicio, hora_fim,
+                     vagas_disponveis, vagas_ocupadas, vagas_bloqueadas, status_escala, data_criacao, operador_criacao_id)
+                VALUES (?, ?, 1, 1, ?, TIME '08:00', TIME '12:00', ?, 0, ?, 'ATIVA', now(), 1)
+                """, ESCALA, PROFISSIONAL, Date.valueOf(DATA), CAPACIDADE, BLOQUEADAS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        banco.close();
+    }
+
+    @Test
+    void ocupacoesConcorrentesNaoPassamDasVagasLivres() throws Exception {
+        List<Resultado> resultados = BancoIsolado.emParalelo(THREADS, THREADS * 10, i -> ocupar());
+
+        assertEquals(0, contar(resultados, Resultado.ERRO), "falha inesperada (deadlock, CHECK, conexão)");
+        assertEquals(CAPACIDADE - BLOQUEADAS, contar(resultados, Resultado.ACEITA));
+        assertEquals(CAPACIDADE - BLOQUEADAS, ocupadas());
+    }
+
+    @Test
+    void liberacoesConcorrentesDevolvemAsVagasSemPerderAtualizacao() throws Exception {
+        int iniciais = 20;
+        BancoIsolado.emParalelo(THREADS, iniciais, i -> ocupar());
+        assertEquals(iniciais, ocupadas());
+
+        // As liberações nunca encontram a escala vazia (só as ocupações concorrem com elas),
+        // então todas valem: ocupadas final = iniciais + aceitas - iniciais
+        List<Resultado> resultados = BancoIsolado.emParalelo(THREADS, THREADS * 4, i -> {
+            if (i % 10 == 0 && i / 10 < iniciais) {
+                banco.emTransacao(() -> service.liberarVaga(ESCALA));
+                return Resultado.LIBERADA;
+            }
+            return ocupar();
+        });
+
+        assertEquals(0, contar(resultados, Resultado.ERRO), "falha inesperada (deadlock, CHECK, conexão)");
+        assertEquals(iniciais, contar(resultados, Resultado.LIBERADA));
+        long aceitas = contar(resultados, Resultado.ACEITA);
+        assertEquals(aceitas, ocupadas());
+        assertTrue(ocupadas() <= CAPACIDADE - BLOQUEADAS, "ocupação passou das vagas livres");
+    }
+
+    @Test
+    void liberarEscalaVaziaNaoNegativa() throws Exception {
+        BancoIsolado.emParalelo(THREADS, THREADS, i -> {
+            banco.emTransacao(() -> service.liberarVaga(ESCALA));
+            return null;
+        });
+
+        assertEquals(0, ocupadas());
+    }
+
+    @Test
+    void escalaInativaOuForaDoHorarioRecusaOcupacao() {
+        assertFalse(banco.emTransacao(() -> service.ocuparVaga(ESCALA, PROFISSIONAL, DATA, LocalTime.of(13, 0))));
+        assertFalse(banco.emTransacao(() -> service.ocuparVaga(ESCALA, PROFISSIONAL + 1, DATA, HORA)));
+
+        banco.jdbcTemplate().update("UPDATE ambulatorio_escalas_medicas SET status_escala = 'INATIVA' WHERE id = ?", ESCALA);
+        assertFalse(banco.emTransacao(() -> service.ocuparVaga(ESCALA, PROFISSIONAL, DATA, HORA)));
+        assertEquals(0, ocupadas());
+    }
+
+    private enum Resultado { ACEITA, SEM_VAGA, LIBERADA, ERRO }
+
+    private Resultado ocupar() {
+        try {
+            return banco.emTransacao(() -> service.ocuparVaga(ESCALA, PROFISSIONAL, DATA, HORA))
+                    ? Resultado.ACEITA
+                    : Resultado.SEM_VAGA;
+        } catch (RuntimeException e) {
+            return Resultado.ERRO;
+        }
+    }
+
+    private static long contar(List<Resultado> resultados, Resultado r) {
+        return Collections.frequency(resultados, r);
+    }
+
+    private int ocupadas() {
+        return banco.jdbcTemplate().queryForObject(
+                "SELECT vagas_ocupadas FROM ambulatorio_escalas_medicas WHERE id = ?", Integer.class, ESCALA);
+    }
+}
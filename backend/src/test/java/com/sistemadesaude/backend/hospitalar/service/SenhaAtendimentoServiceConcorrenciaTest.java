@@ -0,0 +1,112 @@
+package com.sistemadesaude.backend.hospitalar.service;
+
+import com.sistemadesaude.backend.hospitalar.dto.ChamarSenhaRequest;
+import com.sistemadesaude.backend.hospitalar.dto.EmitirSenhaRequest;
+import com.sistemadesaude.backend.hospitalar.dto.SenhaAtendimentoDTO;
+import com.sistemadesaude.backend.hospitalar.entity.FilaAtendimento;
+import com.sistemadesaude.backend.hospitalar.entity.SenhaAtendimento;
+import com.sistemadesaude.backend.hospitalar.repository.FilaAtendimentoRepository;
+import com.sistemadesaude.backend.response.ApiResponse;
+import com.sistemadesaude.backend.support.BancoIsolado;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Emissão e chamada concorrentes de senhas pelo SenhaAtendimentoService, no contexto da aplicação
+ * e no PostgreSQL de desenvolvimento (SPRING_DATASOURCE_*). Cada teste usa uma fila própria,
+ * removida no fim junto com suas senhas e seu contador do dia.
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = BancoIsolado.VARIAVEL_URL, matches = ".+")
+class SenhaAtendimentoServiceConcorrenciaTest {
+
+    private static final int TOTENS = 16;
+    private static final int GUICHES = 8;
+
+    @Autowired
+    private SenhaAtendimentoService service;
+
+    @Autowired
+    private FilaAtendimentoRepository filaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long filaId;
+
+    @BeforeEach
+    void setUp() {
+        FilaAtendimento fila = new FilaAtendimento();
+        fila.setNome("Teste de concorrência " + System.nanoTime());
+        fila.setPrefixoSenha("T");
+        fila.setPeriodoSequencia(FilaAtendimento.PeriodoSequencia.DIARIO);
+        filaId = filaRepository.save(fila).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM senha_atendimento WHERE fila_id = ?", filaId);
+        jdbcTemplate.update("DELETE FROM senha_sequencia_dia WHERE fila_id = ?", filaId);
+        filaRepository.deleteById(filaId);
+    }
+
+    @Test
+    void emissaoConcorrenteGeraNumerosUnicosESemBuracos() throws Exception {
+        int emissoes = 500;
+
+        List<ApiResponse<SenhaAtendimentoDTO>> respostas = BancoIsolado.emParalelo(TOTENS, emissoes, this::emitir);
+
+        assertTrue(respostas.stream().allMatch(ApiResponse::isSuccess), "toda emissão deve ser aceita");
+        List<Integer> sequencias = respostas.stream()
+                .map(r -> r.getData().getSequencia())
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(IntStream.rangeClosed(1, emissoes).boxed().collect(Collectors.toList()), sequencias,
+                "sequência do dia deve ser 1..N, sem repetição nem buraco");
+        assertEquals(emissoes, respostas.stream().map(r -> r.getData().getNumeroSenha()).distinct().count());
+        assertEquals(emissoes, jdbcTemplate.queryForObject(
+                "SELECT ultima_sequencia FROM senha_sequencia_dia WHERE fila_id = ?", Integer.class, filaId));
+    }
+
+    @Test
+    void cadaSenhaEhChamadaPorUmUnicoGuiche() throws Exception {
+        int emissoes = 200;
+        BancoIsolado.emParalelo(TOTENS, emissoes, this::emitir);
+
+        // Mais chamadas que senhas: as excedentes devem encontrar a fila vazia
+        List<ApiResponse<SenhaAtendimentoDTO>> chamadas = BancoIsolado.emParalelo(GUICHES, emissoes + 50,
+                i -> service.chamarSenha(new ChamarSenhaRequest(filaId, 1L, "G" + (i % GUICHES))));
+
+        List<Long> chamadasComSucesso = chamadas.stream()
+                .filter(ApiResponse::isSuccess)
+                .map(r -> r.getData().getId())
+                .collect(Collectors.toList());
+        assertEquals(emissoes, chamadasComSucesso.size());
+        assertEquals(emissoes, chamadasComSucesso.stream().distinct().count(), "senha chamada por dois guichês");
+        assertTrue(chamadas.stream().filter(r -> !r.isSuccess())
+                .allMatch(r -> Objects.equals("Não há senhas aguardando na fila", r.getMessage())));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM senha_atendimento WHERE fila_id = ? AND status = 'AGUARDANDO'",
+                Integer.class, filaId));
+    }
+
+    private ApiResponse<SenhaAtendimentoDTO> emitir(int i) {
+        SenhaAtendimento.TipoSenha tipo = i % 5 == 0
+                ? SenhaAtendimento.TipoSenha.PRIORITARIO_IDOSO
+                : SenhaAtendimento.TipoSenha.NORMAL;
+        return service.emitirSenha(new EmitirSenhaRequest(filaId, tipo, null));
+    }
+}
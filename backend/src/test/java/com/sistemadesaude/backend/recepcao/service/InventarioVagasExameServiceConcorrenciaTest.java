@@ -0,0 +1,120 @@
+package com.sistemadesaude.backend.recepcao.service;
+
+import com.sistemadesaude.backend.recepcao.entity.HorarioExame;
+import com.sistemadesaude.backend.support.BancoIsolado;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Reserva concorrente de vagas de exame pelo InventarioVagasExameService.reservar, em PostgreSQL real.
+ *
+ * Muitos clientes disputam o mesmo slot; cada reserva roda na própria transação, como na criação
+ * do agendamento. Aceitas nunca passam da capacidade e ocupadas bate com as transações confirmadas.
+ */
+@EnabledIfEnvironmentVariable(named = BancoIsolado.VARIAVEL_URL, matches = ".+")
+class InventarioVagasExameServiceConcorrenciaTest {
+
+    private static final int THREADS = 64;
+    private static final int CAPACIDADE = 50;
+    private static final long HORARIO_ID = 1L;
+    private static final LocalDateTime DATA_HORA = LocalDateTime.of(2026, 11, 3, 8, 0);
+
+    private BancoIsolado banco;
+    private InventarioVagasExameService service;
+    private HorarioExame horario;
+
+    @BeforeEach
+    void setUp() {
+        // horarios_exames/bloqueios_horarios vazios: a regeração do dia (slot lotado) não toca no public
+        banco = BancoIsolado.criar(THREADS, "horarios_exames", "bloqueios_horarios", "exame_vagas_slot");
+        service = new InventarioVagasExameService(banco.jdbcTemplate(), new SimpleMeterRegistry(), 120, 6);
+        horario = new HorarioExame();
+        horario.setId(HORARIO_ID);
+        horario.setPermiteEncaixe(false);
+        banco.jdbcTemplate().update(
+                "INSERT INTO exame_vagas_slot (horario_exame_id, data, hora, unidade_id, capacidade) VALUES (?, ?, ?, 1, ?)",
+                HORARIO_ID, Date.valueOf(DATA_HORA.toLocalDate()), Time.valueOf(DATA_HORA.toLocalTime()), CAPACIDADE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        banco.close();
+    }
+
+    @Test
+    void reservasConcorrentesNaoPassamDaCapacidade() throws Exception {
+        List<Resultado> resultados = BancoIsolado.emParalelo(THREADS, THREADS * 20, i -> reservar(false));
+
+        assertEquals(0, contar(resultados, Resultado.ERRO), "falha inesperada (deadlock, CHECK, conexão)");
+        assertEquals(CAPACIDADE, contar(resultados, Resultado.ACEITA));
+        assertEquals(CAPACIDADE, ocupadas());
+        assertFalse(service.disponivel(HORARIO_ID, DATA_HORA));
+    }
+
+    @Test
+    void reservaDesfeitaComOAgendamentoDevolveAVaga() throws Exception {
+        // Metade das transações falha depois de reservar (agendamento não gravado): a vaga volta
+        List<Resultado> resultados = BancoIsolado.emParalelo(THREADS, THREADS * 4, i -> reservar(i % 2 == 0));
+
+        assertEquals(0, contar(resultados, Resultado.ERRO), "falha inesperada (deadlock, CHECK, conexão)");
+        assertEquals(CAPACIDADE, contar(resultados, Resultado.ACEITA));
+        assertEquals(CAPACIDADE, ocupadas());
+    }
+
+    @Test
+    void liberacoesConcorrentesReabremExatamenteAsVagasDevolvidas() throws Exception {
+        BancoIsolado.emParalelo(THREADS, CAPACIDADE, i -> reservar(false));
+        int devolvidas = 10;
+        BancoIsolado.emParalelo(THREADS, devolvidas, i -> {
+            banco.emTransacao(() -> service.liberar(HORARIO_ID, DATA_HORA, false));
+            return null;
+        });
+        assertEquals(CAPACIDADE - devolvidas, ocupadas());
+
+        List<Resultado> resultados = BancoIsolado.emParalelo(THREADS, THREADS * 4, i -> reservar(false));
+
+        assertEquals(devolvidas, contar(resultados, Resultado.ACEITA));
+        assertEquals(CAPACIDADE, ocupadas());
+    }
+
+    private enum Resultado { ACEITA, SEM_VAGA, DESFEITA, ERRO }
+
+    private static final class AgendamentoNaoGravado extends RuntimeException { }
+
+    private Resultado reservar(boolean falharDepois) {
+        try {
+            banco.emTransacao(() -> {
+                service.reservar(horario, DATA_HORA, false);
+                if (falharDepois) throw new AgendamentoNaoGravado();
+            });
+            return Resultado.ACEITA;
+        } catch (AgendamentoNaoGravado e) {
+            return Resultado.DESFEITA;
+        } catch (IllegalStateException e) {
+            return Resultado.SEM_VAGA;
+        } catch (RuntimeException e) {
+            return Resultado.ERRO;
+        }
+    }
+
+    private static long contar(List<Resultado> resultados, Resultado r) {
+        return Collections.frequency(resultados, r);
+    }
+
+    private int ocupadas() {
+        return banco.jdbcTemplate().queryForObject(
+                "SELECT ocupadas FROM exame_vagas_slot WHERE horario_exame_id = ?", Integer.class, HORARIO_ID);
+    }
+}
@@ -0,0 +1,124 @@
+package com.sistemadesaude.backend.support;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Schema descartável no PostgreSQL de desenvolvimento para os testes de concorrência dos serviços.
+ *
+ * As tabelas informadas são copiadas do schema public com LIKE ... INCLUDING ALL (colunas, defaults,
+ * CHECKs e índices únicos; sem FKs e sem dados). O pool abre as conexões com search_path no schema
+ * do teste, então o SQL dos serviços roda sem alteração e sem tocar nos dados de desenvolvimento.
+ * close() derruba o schema.
+ *
+ * Conexão pelas mesmas variáveis da aplicação (SPRING_DATASOURCE_URL/USERNAME/PASSWORD), sem padrão:
+ * os testes que usam esta classe só rodam com SPRING_DATASOURCE_URL definida.
+ */
+public final class BancoIsolado implements AutoCloseable {
+
+    public static final String VARIAVEL_URL = "SPRING_DATASOURCE_URL";
+
+    private final String schema;
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private BancoIsolado(String schema, HikariDataSource dataSource) {
+        this.schema = schema;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    /**
+     * @param conexoes tamanho do pool (use ao menos o nº de threads do teste)
+     * @param tabelas  tabelas do schema public usadas pelo serviço testado
+     */
+    public static BancoIsolado criar(int conexoes, String... tabelas) {
+        String schema = "teste_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(System.getenv(VARIAVEL_URL));
+        config.setUsername(System.getenv("SPRING_DATASOURCE_USERNAME"));
+        config.setPassword(System.getenv("SPRING_DATASOURCE_PASSWORD"));
+        config.setMaximumPoolSize(conexoes);
+        config.setPoolName(schema);
+        // public continua no caminho: sequências, funções e tipos do schema real
+        config.setConnectionInitSql("SET search_path TO " + schema + ", public");
+
+        BancoIsolado banco = new BancoIsolado(schema, new HikariDataSource(config));
+        banco.jdbcTemplate.execute("CREATE SCHEMA " + schema);
+        for (String tabela : tabelas) {
+            banco.jdbcTemplate.execute("CREATE TABLE " + schema + "." + tabela +
+                    " (LIKE public." + tabela + " INCLUDING ALL)");
+        }
+        return banco;
+    }
+
+    public JdbcTemplate jdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    /** Executa a ação em uma transação própria, como o @Transactional do serviço faria. */
+    public <T> T emTransacao(Supplier<T> acao) {
+        return transactionTemplate.execute(status -> acao.get());
+    }
+
+    public void emTransacao(Runnable acao) {
+        transactionTemplate.executeWithoutResult(status -> acao.run());
+    }
+
+    /**
+     * Executa {@code tarefas} chamadas em {@code threads} threads, todas liberadas ao mesmo tempo.
+     * Devolve os resultados na ordem das tarefas; exceção em qualquer tarefa falha o teste.
+     */
+    public static <T> List<T> emParalelo(int threads, int tarefas, IntFunction<T> tarefa)
+            throws InterruptedException, ExecutionException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<T>> futuros = new ArrayList<>(tarefas);
+            for (int i = 0; i < tarefas; i++) {
+                final int n = i;
+                futuros.add(pool.submit(() -> {
+                    largada.await();
+                    return tarefa.apply(n);
+                }));
+            }
+            largada.countDown();
+
+            List<T> resultados = new ArrayList<>(tarefas);
+            for (Future<T> f : futuros) {
+                resultados.add(f.get());
+            }
+            return resultados;
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+        } finally {
+            dataSource.close();
+        }
+    }
+}
@@ -16,31 +16,13 @@ public class GatewayApplication {
     @Bean
     public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
         return builder.routes()
-                // Rota para instância 1 (8080)
-                .route("backend-instance1", r -> r
-                        .path("/api/**")
-                        .and()
-                        .weight("backend-group", 40)
-                        .uri("http://localhost:8080"))
-
-                // Rota para instância 2 (8081)
-                .route("backend-instance2", r -> r
-                        .path("/api/**")
-                        .and()
-                        .weight("backend-group", 30)
-                        .uri("http://localhost:8081"))
-
-                // Rota para instância 3 (8082)
-                .route("backend-instance3", r -> r
-                        .path("/api/**")
-                        .and()
-                        .weight("backend-group", 30)
-                        .uri("http://localhost:8082"))
+                // As rotas /api/** ficam no application.yml (lb://saude-backend): uma rota só,
+                // com a instância escolhida pelo MenorCargaLoadBalancer.
 
                 // Rota para documentação Swagger
                 .route("swagger-docs", r -> r
                         .path("/swagger-ui/**", "/v3/api-docs/**")
-                        .uri("http://localhost:8080"))
+                        .uri("lb://saude-backend"))
 
                 // Rota para actuator de todas as instâncias
                 .route("actuator-instance1", r -> r
@@ -1,32 +1,58 @@
 package com.sistemadesaude.gateway.config;
 
+import com.sistemadesaude.gateway.loadbalancer.BackendLoadBalancerConfig;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import reactor.core.publisher.Mono;
 
-import java.util.Objects;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
 
 @Configuration
+@LoadBalancerClient(name = "saude-backend", configuration = BackendLoadBalancerConfig.class)
 public class GatewayConfig {
 
+    /**
+     * Chave do rate limit: operador e unidade tirados do JWT VERIFICADO (mesmo segredo do
+     * backend), no formato "op:{login}@un:{unidade}". Cada operador tem o próprio balde em
+     * cada unidade. Sem token válido, o balde é o IP ("ip:{endereço}").
+     */
     @Bean
-    public KeyResolver userKeyResolver() {
+    public KeyResolver userKeyResolver(@Value("${jwt.secret}") String segredo) {
+        Key chave = Keys.hmacShaKeyFor(segredo.getBytes(StandardCharsets.UTF_8));
         return exchange -> {
-            // Rate limiting por IP
-            String clientIp = exchange.getRequest().getRemoteAddress() != null ?
-                    Objects.requireNonNull(exchange.getRequest().getRemoteAddress()).getAddress().getHostAddress() :
-                    "unknown";
-
-            // Se houver header de autorização, use o usuário
-            String authHeader = exchange.getRequest().getHeaders().getFirst("Authorization");
+            ServerHttpRequest request = exchange.getRequest();
+            String authHeader = request.getHeaders().getFirst("Authorization");
             if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                // Aqui você poderia decodificar o JWT para pegar o usuário
-                // Por simplicidade, vamos usar o IP + hash do token
-                return Mono.just(clientIp + "-" + Math.abs(authHeader.hashCode() % 1000));
+                Claims claims = claimsOuNull(chave, authHeader.substring(7));
+                if (claims != null && claims.getSubject() != null) {
+                    Object unidade = claims.get("unidadeAtualId") != null
+                            ? claims.get("unidadeAtualId") : claims.get("unidadeId");
+                    return Mono.just("op:" + claims.getSubject() + "@un:" + (unidade != null ? unidade : "-"));
+                }
             }
 
-            return Mono.just(clientIp);
+            // Rate limiting por IP
+            InetSocketAddress remoto = request.getRemoteAddress();
+            return Mono.just("ip:" + (remoto != null && remoto.getAddress() != null
+                    ? remoto.getAddress().getHostAddress() : "unknown"));
         };
     }
-}
\ No newline at end of file
+
+    private static Claims claimsOuNull(Key chave, String token) {
+        try {
+            return Jwts.parserBuilder().setSigningKey(chave).build().parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
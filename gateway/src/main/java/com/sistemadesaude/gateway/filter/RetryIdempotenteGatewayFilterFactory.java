@@ -0,0 +1,64 @@
+package com.sistemadesaude.gateway.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.factory.RetryGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.factory.RetryGatewayFilterFactory.RetryConfig;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Retry que só repete o que é seguro repetir (filtro "RetryIdempotente" no application.yml).
+ *
+ * - GET, HEAD, OPTIONS, PUT e DELETE: idempotentes por definição, sempre podem ser repetidos.
+ * - POST e PATCH: só com o header Idempotency-Key. O backend (IdempotenciaFilter) guarda a
+ *   resposta da primeira execução e a devolve na repetição, então uma dispensação, senha ou
+ *   SADT nunca é criada duas vezes.
+ * - O resto passa direto, sem retry: durante uma queda o gateway não multiplica a carga com
+ *   repetições que poderiam duplicar registros.
+ *
+ * Aceita os mesmos argumentos do filtro Retry (retries, statuses, backoff...); "methods" é
+ * ignorado.
+ */
+@Component
+public class RetryIdempotenteGatewayFilterFactory extends AbstractGatewayFilterFactory<RetryConfig> {
+
+    public static final String HEADER_CHAVE = "Idempotency-Key";
+
+    private static final Set<HttpMethod> IDEMPOTENTES = Set.of(
+            HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE);
+
+    private final RetryGatewayFilterFactory retryGatewayFilterFactory;
+
+    public RetryIdempotenteGatewayFilterFactory(RetryGatewayFilterFactory retryGatewayFilterFactory) {
+        super(RetryConfig.class);
+        this.retryGatewayFilterFactory = retryGatewayFilterFactory;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("retries");
+    }
+
+    @Override
+    public GatewayFilter apply(RetryConfig config) {
+        // a decisão por método fica aqui; o Retry delegado aceita qualquer método que chegar
+        config.setMethods(HttpMethod.values());
+        GatewayFilter comRetry = retryGatewayFilterFactory.apply(config);
+        return (exchange, chain) -> podeRepetir(exchange.getRequest())
+                ? comRetry.filter(exchange, chain)
+                : chain.filter(exchange);
+    }
+
+    static boolean podeRepetir(ServerHttpRequest request) {
+        if (IDEMPOTENTES.contains(request.getMethod())) {
+            return true;
+        }
+        String chave = request.getHeaders().getFirst(HEADER_CHAVE);
+        return chave != null && !chave.isBlank();
+    }
+}
@@ -0,0 +1,37 @@
+package com.sistemadesaude.gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Configuração do load balancer do serviço saude-backend (contexto filho por serviço).
+ * Sem @Configuration de propósito: é registrada via @LoadBalancerClient em GatewayConfig
+ * e não pode ser encontrada pelo component scan.
+ *
+ * Instâncias: lista estática (spring.cloud.discovery.client.simple.instances.saude-backend)
+ * filtrada pelo health check ativo em /actuator/health (spring.cloud.loadbalancer.health-check.*).
+ */
+public class BackendLoadBalancerConfig {
+
+    @Bean
+    public ServiceInstanceListSupplier instanciasBackend(ConfigurableApplicationContext context) {
+        return ServiceInstanceListSupplier.builder()
+                .withDiscoveryClient()
+                .withHealthChecks()
+                .build(context);
+    }
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> menorCargaLoadBalancer(Environment environment,
+                                                                       LoadBalancerClientFactory clientFactory,
+                                                                       EstadoInstanciasBackend estado) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new MenorCargaLoadBalancer(serviceId,
+                clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), estado);
+    }
+}
@@ -0,0 +1,187 @@
+package com.sistemadesaude.gateway.loadbalancer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Estado de cada instância do backend, alimentado pelo ciclo de vida do load balancer.
+ *
+ * - Requisições em andamento por instância (usadas pelo {@link MenorCargaLoadBalancer}).
+ * - Ejeção de outlier: após N falhas de gateway seguidas (erro de conexão, 502, 503, 504) a
+ *   instância sai da seleção por base × nº de ejeções (até o máximo). Nunca ejeta mais que
+ *   o percentual configurado das instâncias conhecidas.
+ * - O health check ativo (/actuator/health) fica no ServiceInstanceListSupplier; aqui é a
+ *   detecção passiva, que reage em segundos a uma instância que responde mal.
+ *
+ * Métricas (tag instancia = host:porta): gateway.backend.requisicoes.ativas,
+ * gateway.backend.latencia (tag resultado), gateway.backend.ejetada e gateway.backend.ejecoes.
+ */
+@Slf4j
+@Component
+public class EstadoInstanciasBackend
+        implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    private final MeterRegistry meterRegistry;
+    private final int falhasParaEjetar;
+    private final long ejecaoBaseMs;
+    private final long ejecaoMaximaMs;
+    private final int percentualMaximoEjetado;
+    private final Map<String, Estado> estados = new ConcurrentHashMap<>();
+
+    public EstadoInstanciasBackend(MeterRegistry meterRegistry,
+                                   @Value("${app.gateway.balanceamento.falhas-para-ejetar:5}") int falhasParaEjetar,
+                                   @Value("${app.gateway.balanceamento.ejecao-base-ms:30000}") long ejecaoBaseMs,
+                                   @Value("${app.gateway.balanceamento.ejecao-maxima-ms:300000}") long ejecaoMaximaMs,
+                                   @Value("${app.gateway.balanceamento.percentual-maximo-ejetado:50}") int percentualMaximoEjetado) {
+        this.meterRegistry = meterRegistry;
+        this.falhasParaEjetar = Math.max(1, falhasParaEjetar);
+        this.ejecaoBaseMs = ejecaoBaseMs;
+        this.ejecaoMaximaMs = ejecaoMaximaMs;
+        this.percentualMaximoEjetado = percentualMaximoEjetado;
+    }
+
+    public boolean ejetada(ServiceInstance instancia) {
+        Estado estado = estados.get(chave(instancia));
+        return estado != null && estado.ejetadaAte > System.currentTimeMillis();
+    }
+
+    public int emAndamento(ServiceInstance instancia) {
+        Estado estado = estados.get(chave(instancia));
+        return estado == null ? 0 : estado.emAndamento.get();
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+        // nada: a instância ainda não foi escolhida
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse == null || !lbResponse.hasServer()) return;
+        if (request.getContext() instanceof TimedRequestContext contexto) {
+            contexto.setRequestStartTime(System.nanoTime());
+        }
+        estado(lbResponse.getServer()).emAndamento.incrementAndGet();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()
+                || completionContext.status() == CompletionContext.Status.DISCARD) {
+            return;
+        }
+        Estado estado = estado(lbResponse.getServer());
+        estado.emAndamento.decrementAndGet();
+
+        boolean falhou = falhaDeGateway(completionContext);
+        Request<RequestDataContext> request = completionContext.getLoadBalancerRequest();
+        if (request != null && request.getContext() instanceof TimedRequestContext contexto
+                && contexto.getRequestStartTime() > 0) {
+            (falhou ? estado.latenciaErro : estado.latenciaSucesso)
+                    .record(System.nanoTime() - contexto.getRequestStartTime(), TimeUnit.NANOSECONDS);
+        }
+
+        if (falhou) {
+            registrarFalha(estado);
+        } else {
+            estado.falhasSeguidas.set(0);
+            // saudável por um período inteiro após a última ejeção: volta à duração base
+            if (estado.ejecoes > 0 && System.currentTimeMillis() > estado.ejetadaAte + ejecaoBaseMs) {
+                estado.ejecoes = 0;
+            }
+        }
+    }
+
+    private static boolean falhaDeGateway(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> cc) {
+        if (cc.status() == CompletionContext.Status.FAILED) return true;
+        ResponseData resposta = cc.getClientResponse();
+        HttpStatusCode status = resposta != null ? resposta.getHttpStatus() : null;
+        return status != null && (status.value() == 502 || status.value() == 503 || status.value() == 504);
+    }
+
+    private synchronized void registrarFalha(Estado estado) {
+        long agora = System.currentTimeMillis();
+        if (estado.falhasSeguidas.incrementAndGet() < falhasParaEjetar || estado.ejetadaAte > agora) {
+            return;
+        }
+        long ejetadas = estados.values().stream().filter(e -> e.ejetadaAte > agora).count();
+        if ((ejetadas + 1) * 100 > (long) percentualMaximoEjetado * estados.size()) {
+            log.warn("⚠️ Instância {} com {} falhas seguidas, mas o limite de {}% ejetadas já foi atingido",
+                    estado.chave, estado.falhasSeguidas.get(), percentualMaximoEjetado);
+            return;
+        }
+        estado.ejecoes++;
+        long duracao = Math.min(ejecaoBaseMs * estado.ejecoes, ejecaoMaximaMs);
+        estado.ejetadaAte = agora + duracao;
+        estado.falhasSeguidas.set(0);
+        estado.contadorEjecoes.increment();
+        log.warn("🚫 Instância {} ejetada do balanceamento por {}ms ({}ª ejeção)", estado.chave, duracao, estado.ejecoes);
+    }
+
+    private Estado estado(ServiceInstance instancia) {
+        return estados.computeIfAbsent(chave(instancia), Estado::new);
+    }
+
+    private static String chave(ServiceInstance instancia) {
+        return instancia.getHost() + ":" + instancia.getPort();
+    }
+
+    private final class Estado {
+        final String chave;
+        final AtomicInteger emAndamento = new AtomicInteger();
+        final AtomicInteger falhasSeguidas = new AtomicInteger();
+        volatile long ejetadaAte;
+        volatile int ejecoes;
+        final Timer latenciaSucesso;
+        final Timer latenciaErro;
+        final Counter contadorEjecoes;
+
+        Estado(String chave) {
+            this.chave = chave;
+            Gauge.builder("gateway.backend.requisicoes.ativas", emAndamento, AtomicInteger::get)
+                    .description("Requisições em andamento na instância")
+                    .tag("instancia", chave)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.backend.ejetada", this, e -> e.ejetadaAte > System.currentTimeMillis() ? 1 : 0)
+                    .description("1 enquanto a instância está fora do balanceamento")
+                    .tag("instancia", chave)
+                    .register(meterRegistry);
+            this.latenciaSucesso = Timer.builder("gateway.backend.latencia")
+                    .tag("instancia", chave).tag("resultado", "sucesso")
+                    .register(meterRegistry);
+            this.latenciaErro = Timer.builder("gateway.backend.latencia")
+                    .tag("instancia", chave).tag("resultado", "falha")
+                    .register(meterRegistry);
+            this.contadorEjecoes = Counter.builder("gateway.backend.ejecoes")
+                    .tag("instancia", chave)
+                    .register(meterRegistry);
+        }
+    }
+}
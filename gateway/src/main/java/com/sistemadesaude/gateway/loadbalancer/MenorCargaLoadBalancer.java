@@ -0,0 +1,91 @@
+package com.sistemadesaude.gateway.loadbalancer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Seleção de instância por menor carga ponderada ("power of two choices").
+ *
+ * Sorteia duas instâncias proporcionalmente ao peso (metadata "weight") e fica com a que tem
+ * menos requisições em andamento por unidade de peso. Com pouca carga a distribuição segue
+ * os pesos; sob carga, a instância lenta acumula requisições e deixa de ser escolhida.
+ *
+ * Recebe apenas instâncias aprovadas no health check e descarta as ejetadas
+ * ({@link EstadoInstanciasBackend}); se todas estiverem ejetadas, usa todas mesmo assim.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class MenorCargaLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final String serviceId;
+    private final ObjectProvider<ServiceInstanceListSupplier> fornecedor;
+    private final EstadoInstanciasBackend estado;
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = fornecedor.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instancias -> {
+            Response<ServiceInstance> resposta = escolher(instancias);
+            if (supplier instanceof SelectedInstanceCallback callback && resposta.hasServer()) {
+                callback.selectedServiceInstance(resposta.getServer());
+            }
+            return resposta;
+        });
+    }
+
+    private Response<ServiceInstance> escolher(List<ServiceInstance> instancias) {
+        if (instancias.isEmpty()) {
+            log.warn("⚠️ Nenhuma instância saudável disponível para {}", serviceId);
+            return new EmptyResponse();
+        }
+        List<ServiceInstance> candidatas = instancias.stream().filter(i -> !estado.ejetada(i)).toList();
+        if (candidatas.isEmpty()) {
+            candidatas = instancias;
+        }
+        if (candidatas.size() == 1) {
+            return new DefaultResponse(candidatas.get(0));
+        }
+        ServiceInstance a = sortearPorPeso(candidatas);
+        ServiceInstance b = sortearPorPeso(candidatas);
+        return new DefaultResponse(carga(b) < carga(a) ? b : a);
+    }
+
+    private double carga(ServiceInstance instancia) {
+        return estado.emAndamento(instancia) / (double) peso(instancia);
+    }
+
+    private static ServiceInstance sortearPorPeso(List<ServiceInstance> instancias) {
+        int total = 0;
+        for (ServiceInstance i : instancias) total += peso(i);
+        int sorteio = ThreadLocalRandom.current().nextInt(total);
+        for (ServiceInstance i : instancias) {
+            sorteio -= peso(i);
+            if (sorteio < 0) return i;
+        }
+        return instancias.get(instancias.size() - 1);
+    }
+
+    static int peso(ServiceInstance instancia) {
+        String valor = instancia.getMetadata() != null ? instancia.getMetadata().get("weight") : null;
+        if (valor == null) return 1;
+        try {
+            return Math.max(1, Integer.parseInt(valor.trim()));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+}
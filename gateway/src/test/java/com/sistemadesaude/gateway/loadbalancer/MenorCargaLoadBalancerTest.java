@@ -0,0 +1,147 @@
+package com.sistemadesaude.gateway.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSuppliers;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Distribuição do {@link MenorCargaLoadBalancer} e ejeção/recuperação no {@link EstadoInstanciasBackend},
+ * sem rede: as instâncias são fixas e o ciclo de vida das requisições é chamado direto.
+ */
+class MenorCargaLoadBalancerTest {
+
+    private static final String SERVICO = "saude-backend";
+    private static final int FALHAS_PARA_EJETAR = 3;
+    private static final long EJECAO_BASE_MS = 200;
+    private static final int SORTEIOS = 30_000;
+
+    private final ServiceInstance a = instancia(8080, 4);
+    private final ServiceInstance b = instancia(8081, 3);
+    private final ServiceInstance c = instancia(8082, 3);
+
+    private EstadoInstanciasBackend estado;
+    private MenorCargaLoadBalancer balanceador;
+
+    @BeforeEach
+    void setUp() {
+        estado = new EstadoInstanciasBackend(new SimpleMeterRegistry(), FALHAS_PARA_EJETAR, EJECAO_BASE_MS, 1_000, 50);
+        ServiceInstanceListSupplier instancias = ServiceInstanceListSuppliers.from(SERVICO, a, b, c);
+        balanceador = new MenorCargaLoadBalancer(SERVICO,
+                new StaticListableBeanFactory(Map.of("instancias", instancias))
+                        .getBeanProvider(ServiceInstanceListSupplier.class),
+                estado);
+        // Estado conhecido das três (o limite de ejeção é um percentual das instâncias vistas)
+        for (ServiceInstance i : new ServiceInstance[]{a, b, c}) {
+            concluir(iniciar(i), true);
+        }
+    }
+
+    @Test
+    void semCargaADistribuicaoSegueOsPesos() {
+        Map<Integer, Integer> escolhas = sortear(SORTEIOS);
+
+        assertEquals(0.4, fracao(escolhas, a), 0.02);
+        assertEquals(0.3, fracao(escolhas, b), 0.02);
+        assertEquals(0.3, fracao(escolhas, c), 0.02);
+    }
+
+    @Test
+    void instanciaComRequisicoesAcumuladasRecebeMenos() {
+        // c lenta: 20 requisições presas; só é escolhida quando os dois sorteios caem nela (~9%)
+        for (int i = 0; i < 20; i++) iniciar(c);
+
+        Map<Integer, Integer> escolhas = sortear(SORTEIOS);
+
+        assertTrue(fracao(escolhas, c) < 0.12, "instância carregada recebeu " + fracao(escolhas, c));
+        assertTrue(fracao(escolhas, a) > fracao(escolhas, b), "entre as livres, o peso continua valendo");
+    }
+
+    @Test
+    void falhasSeguidasEjetamERecuperamAInstancia() throws InterruptedException {
+        for (int i = 0; i < FALHAS_PARA_EJETAR - 1; i++) concluir(iniciar(b), false);
+        assertFalse(estado.ejetada(b), "ejetada antes de atingir o limite de falhas seguidas");
+
+        concluir(iniciar(b), false);
+        assertTrue(estado.ejetada(b));
+        assertEquals(0, sortear(3_000).getOrDefault(b.getPort(), 0), "instância ejetada foi escolhida");
+
+        Thread.sleep(EJECAO_BASE_MS + 100);
+        assertFalse(estado.ejetada(b));
+        assertTrue(sortear(3_000).getOrDefault(b.getPort(), 0) > 0, "instância não voltou após a ejeção");
+    }
+
+    @Test
+    void sucessoZeraAsFalhasSeguidas() {
+        for (int i = 0; i < FALHAS_PARA_EJETAR - 1; i++) concluir(iniciar(b), false);
+        concluir(iniciar(b), true);
+        for (int i = 0; i < FALHAS_PARA_EJETAR - 1; i++) concluir(iniciar(b), false);
+
+        assertFalse(estado.ejetada(b));
+    }
+
+    @Test
+    void naoEjetaAlemDoPercentualMaximo() {
+        for (int i = 0; i < FALHAS_PARA_EJETAR; i++) concluir(iniciar(b), false);
+        for (int i = 0; i < FALHAS_PARA_EJETAR; i++) concluir(iniciar(c), false);
+
+        // 50% de 3 instâncias: só uma pode ficar fora
+        assertTrue(estado.ejetada(b));
+        assertFalse(estado.ejetada(c));
+    }
+
+    private Map<Integer, Integer> sortear(int vezes) {
+        Map<Integer, Integer> escolhas = new HashMap<>();
+        for (int i = 0; i < vezes; i++) {
+            Response<ServiceInstance> resposta = balanceador.choose(new DefaultRequest<>()).block();
+            assertTrue(resposta != null && resposta.hasServer());
+            escolhas.merge(resposta.getServer().getPort(), 1, Integer::sum);
+        }
+        return escolhas;
+    }
+
+    private static double fracao(Map<Integer, Integer> escolhas, ServiceInstance instancia) {
+        int total = escolhas.values().stream().mapToInt(Integer::intValue).sum();
+        return escolhas.getOrDefault(instancia.getPort(), 0) / (double) total;
+    }
+
+    private Atendimento iniciar(ServiceInstance instancia) {
+        Atendimento atendimento = new Atendimento(new DefaultRequest<>(new RequestDataContext()), new DefaultResponse(instancia));
+        estado.onStartRequest(atendimento.request(), atendimento.resposta());
+        return atendimento;
+    }
+
+    private void concluir(Atendimento atendimento, boolean sucesso) {
+        CompletionContext<ResponseData, ServiceInstance, RequestDataContext> conclusao = sucesso
+                ? new CompletionContext<>(CompletionContext.Status.SUCCESS, atendimento.request(), atendimento.resposta())
+                : new CompletionContext<>(CompletionContext.Status.FAILED, new IOException("Connection refused"),
+                        atendimento.request(), atendimento.resposta());
+        estado.onComplete(conclusao);
+    }
+
+    private record Atendimento(Request<RequestDataContext> request, Response<ServiceInstance> resposta) {}
+
+    private static ServiceInstance instancia(int porta, int peso) {
+        return new DefaultServiceInstance(SERVICO + "-" + porta, SERVICO, "localhost", porta, false,
+                Map.of("weight", String.valueOf(peso)));
+    }
+}
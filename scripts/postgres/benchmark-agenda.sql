@@ -0,0 +1,99 @@
+-- ============================================================
+-- Benchmark das consultas da agenda (AgendamentoServiceImpl)
+-- Gera 5.000.000 de agendamentos históricos (5 anos, 20 unidades,
+-- 500 mil pacientes) numa tabela espelho e compara o padrão legado
+-- (findAll() + filtro/ordenação em Java = leitura da tabela inteira)
+-- com as consultas indexadas da visão do dia, do histórico do
+-- paciente, da paginação keyset e da fila da triagem.
+--
+-- Uso (banco de desenvolvimento, NUNCA em produção):
+--   psql -U postgres -d saude_db -f scripts/postgres/benchmark-agenda.sql
+-- Os índices criados aqui são os da migration V202610170004.
+-- ============================================================
+
+\timing on
+
+DROP TABLE IF EXISTS bench_agendamentos;
+CREATE TABLE bench_agendamentos (
+    id               BIGINT PRIMARY KEY,
+    paciente_id      BIGINT NOT NULL,
+    unidade_id       BIGINT,
+    data_hora        TIMESTAMP NOT NULL,
+    data_agendamento TIMESTAMP NOT NULL,
+    status           VARCHAR(50) NOT NULL,
+    especialidade    VARCHAR(100),
+    observacoes      TEXT,
+    triagem_id       BIGINT
+);
+
+-- Histórico: quase tudo REALIZADO/CANCELADO e triado; só o "hoje" tem fila aberta
+INSERT INTO bench_agendamentos
+SELECT g,
+       1 + (g * 7919) % 500000,
+       1 + g % 20,
+       ts,
+       ts,
+       CASE WHEN ts::date = CURRENT_DATE THEN (ARRAY['AGENDADO','CONFIRMADO','RECEPCIONADO'])[1 + g % 3]
+            WHEN g % 10 = 0 THEN 'CANCELADO'
+            ELSE 'REALIZADO' END,
+       (ARRAY['CLINICA_GERAL','PEDIATRIA','CARDIOLOGIA','LABORATORIAL','IMAGEM'])[1 + g % 5],
+       CASE WHEN g % 5 >= 3 THEN 'HEMOGRAMA,GLICEMIA' END,
+       CASE WHEN ts::date = CURRENT_DATE THEN NULL ELSE g END
+  FROM generate_series(1, 5000000) g,
+       LATERAL (SELECT CURRENT_DATE - 1825 + (g % 1826) + make_interval(mins => 420 + (g / 1826) % 660)) d(ts);
+
+ANALYZE bench_agendamentos;
+
+-- ---------- ANTES: padrão legado (findAll + filtro em memória) ----------
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bench_agendamentos;
+
+-- ---------- Índices da V202610170004 ----------
+CREATE INDEX ON bench_agendamentos (data_hora, id);
+CREATE INDEX ON bench_agendamentos (unidade_id, data_hora, id) WHERE unidade_id IS NOT NULL;
+CREATE INDEX ON bench_agendamentos (paciente_id, data_hora DESC, id DESC);
+CREATE INDEX ON bench_agendamentos (status, data_hora, id) WHERE triagem_id IS NULL;
+ANALYZE bench_agendamentos;
+
+-- ---------- DEPOIS: visão do dia (todas as unidades) ----------
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, paciente_id, data_hora, status, especialidade, observacoes
+  FROM bench_agendamentos
+ WHERE data_hora >= CURRENT_DATE AND data_hora < CURRENT_DATE + 1
+ ORDER BY data_hora, id;
+
+-- ---------- DEPOIS: visão do dia de uma unidade ----------
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, paciente_id, data_hora, status
+  FROM bench_agendamentos
+ WHERE unidade_id = 7 AND data_hora >= CURRENT_DATE AND data_hora < CURRENT_DATE + 1
+ ORDER BY data_hora, id;
+
+-- ---------- DEPOIS: histórico do paciente ----------
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, data_hora, status
+  FROM bench_agendamentos
+ WHERE paciente_id = 12345
+ ORDER BY data_hora DESC, id DESC;
+
+-- ---------- DEPOIS: primeira página keyset e uma página profunda ----------
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, data_hora FROM bench_agendamentos
+ WHERE (data_hora < TIMESTAMP '9999-12-31 23:59' OR (data_hora = TIMESTAMP '9999-12-31 23:59' AND id < 9223372036854775807))
+ ORDER BY data_hora DESC, id DESC
+ LIMIT 51;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, data_hora FROM bench_agendamentos
+ WHERE (data_hora < CURRENT_DATE - 1000 OR (data_hora = CURRENT_DATE - 1000 AND id < 2500000))
+ ORDER BY data_hora DESC, id DESC
+ LIMIT 51;
+
+-- ---------- DEPOIS: fila da triagem ----------
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, paciente_id, data_hora, status
+  FROM bench_agendamentos
+ WHERE status IN ('RECEPCIONADO', 'CONFIRMADO') AND triagem_id IS NULL
+ ORDER BY data_hora, id;
+
+DROP TABLE bench_agendamentos;
@@ -0,0 +1,75 @@
+-- ============================================================
+-- Benchmark da busca de pacientes (PacienteBuscaService)
+-- Gera 1.000.000 de pacientes sintéticos numa tabela espelho e
+-- compara a consulta antiga (LIKE '%termo%' sem limite) com a nova
+-- (f_normaliza_nome + trigramas + keyset LIMIT 21).
+--
+-- Uso (banco de desenvolvimento, NUNCA em produção):
+--   psql -U postgres -d saude_db -f scripts/postgres/benchmark-busca-pacientes.sql
+-- Requer a migration V202610170001 aplicada (função f_normaliza_nome e pg_trgm).
+-- ============================================================
+
+\timing on
+
+DROP TABLE IF EXISTS bench_pacientes;
+CREATE TABLE bench_pacientes (LIKE pacientes INCLUDING DEFAULTS);
+
+INSERT INTO bench_pacientes (id, nome_completo, nome_social, nome_mae, cpf, cns, data_nascimento, municipio)
+SELECT g,
+       (ARRAY['José','João','Maria','Ana','Antônio','Francisco','Luíza','Márcia','Sebastião','Conceição'])[1 + g % 10]
+           || ' ' || (ARRAY['da Silva','dos Santos','Oliveira','Souza','Conceição','Araújo','Gonçalves','Lima'])[1 + (g / 10) % 8]
+           || ' ' || (ARRAY['Pereira','Ferreira','Rodrigues','Almeida','Nascimento','Carvalho'])[1 + (g / 80) % 6]
+           || ' ' || g,
+       CASE WHEN g % 50 = 0 THEN 'Social ' || g END,
+       (ARRAY['Maria','Ana','Francisca','Antônia','Adriana'])[1 + g % 5] || ' Mãe ' || g,
+       lpad(g::text, 11, '0'),
+       lpad(g::text, 15, '7'),
+       DATE '1940-01-01' + (g % 29000),
+       'Município ' || (g % 300)
+  FROM generate_series(1, 1000000) g;
+
+CREATE INDEX ON bench_pacientes USING gin (f_normaliza_nome(nome_completo) gin_trgm_ops);
+CREATE INDEX ON bench_pacientes USING gin (f_normaliza_nome(nome_social) gin_trgm_ops);
+CREATE INDEX ON bench_pacientes USING gin (f_normaliza_nome(nome_mae) gin_trgm_ops);
+CREATE INDEX ON bench_pacientes (f_normaliza_nome(nome_completo) text_pattern_ops, id);
+CREATE INDEX ON bench_pacientes (cns);
+ANALYZE bench_pacientes;
+
+-- ---------- ANTES: consulta legada (sem limite, sem índice utilizável) ----------
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.* FROM bench_pacientes p
+ WHERE LOWER(p.nome_completo) LIKE LOWER('%sebastiao araujo%')
+    OR p.cpf = 'sebastiao araujo'
+    OR p.cns = 'sebastiao araujo'
+    OR LOWER(p.nome_social) LIKE LOWER('%sebastiao araujo%')
+    OR LOWER(p.nome_mae) LIKE LOWER('%sebastiao araujo%')
+ ORDER BY p.nome_completo;
+
+-- ---------- DEPOIS: primeira página ----------
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT r.id, r.prioridade, r.nome_norm
+  FROM (SELECT p.id, f_normaliza_nome(p.nome_completo) AS nome_norm,
+               CASE WHEN f_normaliza_nome(p.nome_completo) LIKE 'sebastiao%araujo%' THEN 1
+                    WHEN f_normaliza_nome(p.nome_social) LIKE 'sebastiao%araujo%' THEN 2
+                    ELSE 3 END AS prioridade
+          FROM bench_pacientes p
+         WHERE f_normaliza_nome(p.nome_completo) LIKE '%sebastiao%araujo%'
+            OR f_normaliza_nome(p.nome_social) LIKE '%sebastiao%araujo%'
+            OR f_normaliza_nome(p.nome_mae) LIKE '%sebastiao%araujo%') r
+ WHERE (r.prioridade, r.nome_norm, r.id) > (0, '', 0)
+ ORDER BY r.prioridade, r.nome_norm, r.id
+ LIMIT 21;
+
+-- ---------- DEPOIS: termo seletivo ----------
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.id FROM bench_pacientes p
+ WHERE f_normaliza_nome(p.nome_completo) LIKE '%goncalves ferreira 98765%'
+    OR f_normaliza_nome(p.nome_social) LIKE '%goncalves ferreira 98765%'
+    OR f_normaliza_nome(p.nome_mae) LIKE '%goncalves ferreira 98765%'
+ LIMIT 21;
+
+-- ---------- DEPOIS: chave exata ----------
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.id FROM bench_pacientes p WHERE p.cns = lpad('123456', 15, '7');
+
+DROP TABLE bench_pacientes;
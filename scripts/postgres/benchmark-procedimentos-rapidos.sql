@@ -0,0 +1,121 @@
+-- ============================================================
+-- Benchmark da listagem de procedimentos rápidos (ProcedimentoRapidoRepositoryImpl)
+-- Gera um ano de procedimentos de enfermagem (~600/dia, ≈ 220.000 linhas) e
+-- 100.000 pacientes em tabelas espelho, e compara:
+--   ANTES  : findAll() de todas as linhas + um SELECT de paciente por linha (N+1),
+--            com os filtros aplicados depois em memória;
+--   DEPOIS : a consulta gerada pelas Specifications (período + status + termo),
+--            projetada, ordenada e paginada no banco, mais o COUNT da página.
+--
+-- Uso (banco de desenvolvimento, NUNCA em produção):
+--   psql -U postgres -d saude_db -f scripts/postgres/benchmark-procedimentos-rapidos.sql
+-- Requer as migrations V202610170001 (f_normaliza_nome, pg_trgm) e V202610170013.
+-- ============================================================
+
+\timing on
+
+DROP TABLE IF EXISTS bench_pr, bench_pr_pacientes;
+
+CREATE TABLE bench_pr_pacientes (
+    id            BIGINT PRIMARY KEY,
+    nome_completo VARCHAR(255) NOT NULL,
+    cpf           VARCHAR(11)
+);
+INSERT INTO bench_pr_pacientes
+SELECT g,
+       (ARRAY['José','João','Maria','Ana','Antônio','Francisco','Luíza','Márcia','Sebastião','Conceição'])[1 + g % 10]
+           || ' ' || (ARRAY['da Silva','dos Santos','Oliveira','Souza','Conceição','Araújo','Gonçalves','Lima'])[1 + (g / 10) % 8]
+           || ' ' || g,
+       lpad(g::text, 11, '0')
+  FROM generate_series(1, 100000) g;
+CREATE INDEX ON bench_pr_pacientes USING gin (f_normaliza_nome(nome_completo) gin_trgm_ops);
+
+CREATE TABLE bench_pr (
+    id                           BIGINT PRIMARY KEY,
+    paciente_id                  BIGINT NOT NULL,
+    operador_responsavel_id      BIGINT,
+    status                       VARCHAR(50) NOT NULL,
+    origem_encaminhamento        VARCHAR(200),
+    medico_solicitante           VARCHAR(200),
+    especialidade_origem         VARCHAR(100),
+    observacoes_gerais           VARCHAR(2000),
+    data_hora_inicio_atendimento TIMESTAMP,
+    data_criacao                 TIMESTAMP NOT NULL,
+    texto_busca                  TEXT GENERATED ALWAYS AS (
+        f_normaliza_nome(medico_solicitante) || ' ' ||
+        f_normaliza_nome(especialidade_origem) || ' ' ||
+        f_normaliza_nome(origem_encaminhamento)
+    ) STORED
+);
+INSERT INTO bench_pr (id, paciente_id, operador_responsavel_id, status, origem_encaminhamento,
+                      medico_solicitante, especialidade_origem, observacoes_gerais,
+                      data_hora_inicio_atendimento, data_criacao)
+SELECT g,
+       1 + (g * 7919) % 100000,
+       1 + g % 40,
+       CASE WHEN g > 219000 THEN (ARRAY['AGUARDANDO','EM_ATENDIMENTO'])[1 + g % 2]
+            ELSE (ARRAY['FINALIZADO','FINALIZADO','FINALIZADO','CANCELADO'])[1 + g % 4] END,
+       (ARRAY['Consultório 1','Consultório 2','Pronto Atendimento','Sala de Vacina'])[1 + g % 4],
+       'Dr. ' || (ARRAY['Antônio','Bruna','Cláudio','Débora','Élcio','Fábio'])[1 + g % 6] || ' ' || (g % 97),
+       (ARRAY['Clínica Médica','Pediatria','Ginecologia','Ortopedia','Cardiologia'])[1 + g % 5],
+       repeat('observação clínica ', 20),
+       TIMESTAMP '2025-10-17' + (g * INTERVAL '143 seconds') + INTERVAL '10 minutes',
+       TIMESTAMP '2025-10-17' + (g * INTERVAL '143 seconds')
+  FROM generate_series(1, 220000) g;
+CREATE INDEX ON bench_pr (paciente_id);
+CREATE INDEX ON bench_pr (status, data_criacao DESC);
+CREATE INDEX ON bench_pr (data_criacao DESC);
+CREATE INDEX ON bench_pr USING gin (texto_busca gin_trgm_ops);
+ANALYZE bench_pr_pacientes;
+ANALYZE bench_pr;
+
+-- ---------- ANTES: findAll() (todas as colunas de todas as linhas) ----------
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bench_pr;
+
+-- ---------- ANTES: N+1 (um SELECT de paciente por procedimento; aqui sem as idas e voltas de rede) ----------
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(pa.*)
+  FROM bench_pr p
+  CROSS JOIN LATERAL (SELECT * FROM bench_pr_pacientes x WHERE x.id = p.paciente_id) pa;
+
+-- ---------- DEPOIS: período do último mês + status, primeira página ----------
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.id, pa.nome_completo, p.status, p.medico_solicitante, p.origem_encaminhamento,
+       p.data_criacao, p.data_hora_inicio_atendimento
+  FROM bench_pr p
+  JOIN bench_pr_pacientes pa ON pa.id = p.paciente_id
+ WHERE p.data_criacao BETWEEN TIMESTAMP '2026-09-17' AND TIMESTAMP '2026-10-17'
+   AND p.status IN ('FINALIZADO', 'CANCELADO')
+ ORDER BY p.data_criacao DESC, p.id DESC
+ LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(p.id) FROM bench_pr p
+ WHERE p.data_criacao BETWEEN TIMESTAMP '2026-09-17' AND TIMESTAMP '2026-10-17'
+   AND p.status IN ('FINALIZADO', 'CANCELADO');
+
+-- ---------- DEPOIS: termo livre no ano inteiro (médico/especialidade/origem ou paciente) ----------
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.id, pa.nome_completo, p.status, p.medico_solicitante, p.origem_encaminhamento,
+       p.data_criacao, p.data_hora_inicio_atendimento
+  FROM bench_pr p
+  JOIN bench_pr_pacientes pa ON pa.id = p.paciente_id
+ WHERE p.texto_busca LIKE '%debora%53%'
+    OR p.paciente_id IN (SELECT x.id FROM bench_pr_pacientes x
+                          WHERE f_normaliza_nome(x.nome_completo) LIKE '%debora%53%')
+ ORDER BY p.data_criacao DESC, p.id DESC
+ LIMIT 20;
+
+-- ---------- DEPOIS: nome do paciente ----------
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.id, pa.nome_completo, p.status, p.data_criacao
+  FROM bench_pr p
+  JOIN bench_pr_pacientes pa ON pa.id = p.paciente_id
+ WHERE p.texto_busca LIKE '%sebastiao%araujo%4568%'
+    OR p.paciente_id IN (SELECT x.id FROM bench_pr_pacientes x
+                          WHERE f_normaliza_nome(x.nome_completo) LIKE '%sebastiao%araujo%4568%')
+ ORDER BY p.data_criacao DESC, p.id DESC
+ LIMIT 20;
+
+DROP TABLE bench_pr, bench_pr_pacientes;